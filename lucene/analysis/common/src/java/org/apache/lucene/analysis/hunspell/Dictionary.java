@@ -19,6 +19,7 @@ package org.apache.lucene.analysis.hunspell;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -47,8 +48,10 @@ import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
@@ -66,7 +69,13 @@ import org.apache.lucene.util.fst.Util;
 import static org.apache.lucene.analysis.hunspell.AffixKind.PREFIX;
 import static org.apache.lucene.analysis.hunspell.AffixKind.SUFFIX;
 
-/** In-memory structure for the dictionary (.dic) and affix (.aff) data of a hunspell dictionary. */
+/**
+ * In-memory structure for the dictionary (.dic) and affix (.aff) data of a hunspell dictionary.
+ *
+ * <p>Parsing large dictionaries is slow. A dictionary can be {@link #compile compiled} once to a
+ * binary form that {@link #read(IndexInput)} loads without parsing the dictionary files again,
+ * and whose word entries are then read from the input, off-heap if it is memory-mapped.
+ */
 public class Dictionary {
   // Derived from woorm/LibreOffice dictionaries.
   // See TestAllDictionaries.testMaxPrologueNeeded.
@@ -164,6 +173,8 @@ public class Dictionary {
   String[] neighborKeyGroups = {"qwertyuiop", "asdfghjkl", "zxcvbnm"};
   boolean enableSplitSuggestions = true;
   List<RepEntry> repTable = new ArrayList<>();
+  // the entries of repTable from the affix file, the others are from ph: fields of words
+  private int affixRepCount;
   List<List<String>> mapTable = new ArrayList<>();
   int maxDiff = 5;
   int maxNGramSuggestions = 4;
@@ -179,6 +190,13 @@ public class Dictionary {
   // true if case algorithms should use alternate (Turkish/Azeri) mapping
   private boolean alternateCasing;
 
+  static final String CODEC_NAME = "HunspellDictionary";
+  static final int VERSION_START = 0;
+  static final int VERSION_CURRENT = VERSION_START;
+
+  // the content of the affix file if this dictionary can be written, see write
+  private final byte[] affixBytes;
+
   /**
    * Creates a new Dictionary containing the information read from the provided InputStreams to
    * hunspell affix and dictionary files. You have to close the provided InputStreams yourself.
@@ -214,8 +232,130 @@ public class Dictionary {
       List<InputStream> dictionaries,
       boolean ignoreCase)
       throws IOException, ParseException {
+    this(tempDir, tempFileNamePrefix, affix, dictionaries, ignoreCase, false);
+  }
+
+  /**
+   * Same as {@link #Dictionary(Directory, String, InputStream, List, boolean)}, but if {@code
+   * compilable} is true, the content of the affix file is kept so that the dictionary can be
+   * written in compiled form with {@link #write(DataOutput)}.
+   */
+  Dictionary(
+      Directory tempDir,
+      String tempFileNamePrefix,
+      InputStream affix,
+      List<InputStream> dictionaries,
+      boolean ignoreCase,
+      boolean compilable)
+      throws IOException, ParseException {
     this.ignoreCase = ignoreCase;
+    if (compilable) {
+      affixBytes = toByteArray(affix);
+      affix = new ByteArrayInputStream(affixBytes);
+    } else {
+      affixBytes = null;
+    }
+
+    FlagEnumerator flagEnumerator = new FlagEnumerator();
+    readAffix(affix, flagEnumerator);
+    affixRepCount = repTable.size();
+
+    // read dictionary entries
+    IndexOutput unsorted = tempDir.createTempOutput(tempFileNamePrefix, "dat", IOContext.DEFAULT);
+    int wordCount = mergeDictionaries(dictionaries, decoder, unsorted);
+    String sortedFile = sortWordsOffline(tempDir, tempFileNamePrefix, unsorted);
+    words = readSortedDictionaries(tempDir, sortedFile, flagEnumerator, wordCount);
+    flagLookup = flagEnumerator.finish();
+    aliases = null; // no longer needed
+    morphAliases = null; // no longer needed
+  }
+
+  private Dictionary(byte[] affix, boolean ignoreCase, IndexInput in)
+      throws IOException, ParseException {
+    this.ignoreCase = ignoreCase;
+    this.affixBytes = null;
+    // ids of the affix flags are assigned in the same order as when the dictionary was compiled
+    readAffix(new ByteArrayInputStream(affix), new FlagEnumerator());
+    affixRepCount = repTable.size();
+    aliases = null;
+    morphAliases = null;
+
+    hasCustomMorphData = in.readByte() != 0;
+    for (int i = in.readVInt(); i > 0; i--) {
+      morphData.add(in.readString());
+    }
+    for (int i = in.readVInt(); i > 0; i--) {
+      repTable.add(new RepEntry(in.readString(), in.readString()));
+    }
+    flagLookup = FlagEnumerator.Lookup.read(in);
+    words = WordStorage.read(in);
+  }
 
+  /**
+   * Parses the given affix and dictionary files, see {@link #Dictionary(Directory, String,
+   * InputStream, List, boolean)}, and writes them to {@code out} in the binary form that {@link
+   * #read(IndexInput)} loads.
+   */
+  public static void compile(
+      Directory tempDir,
+      String tempFileNamePrefix,
+      InputStream affix,
+      List<InputStream> dictionaries,
+      boolean ignoreCase,
+      DataOutput out)
+      throws IOException, ParseException {
+    new Dictionary(tempDir, tempFileNamePrefix, affix, dictionaries, ignoreCase, true).write(out);
+  }
+
+  /**
+   * Reads a dictionary that was written by {@link #compile}. The affix file is parsed again, which
+   * is fast, but the word entries are read from {@code in} as needed, so {@code in} must stay open
+   * for as long as the dictionary is used. Use a memory-mapped input to keep them off-heap.
+   */
+  public static Dictionary read(IndexInput in) throws IOException, ParseException {
+    CodecUtil.checkHeader(in, CODEC_NAME, VERSION_START, VERSION_CURRENT);
+    byte[] affix = new byte[in.readVInt()];
+    in.readBytes(affix, 0, affix.length);
+    boolean ignoreCase = in.readByte() != 0;
+    return new Dictionary(affix, ignoreCase, in);
+  }
+
+  /** Writes this dictionary in compiled form, see {@link #compile}. */
+  void write(DataOutput out) throws IOException {
+    if (affixBytes == null) {
+      throw new IllegalStateException("This dictionary was not created to be compiled");
+    }
+    CodecUtil.writeHeader(out, CODEC_NAME, VERSION_CURRENT);
+    out.writeVInt(affixBytes.length);
+    out.writeBytes(affixBytes, affixBytes.length);
+    out.writeByte((byte) (ignoreCase ? 1 : 0));
+    out.writeByte((byte) (hasCustomMorphData ? 1 : 0));
+    // the empty data at 0 is always there
+    out.writeVInt(morphData.size() - 1);
+    for (String data : morphData.subList(1, morphData.size())) {
+      out.writeString(data);
+    }
+    List<RepEntry> phoneticEntries = repTable.subList(affixRepCount, repTable.size());
+    out.writeVInt(phoneticEntries.size());
+    for (RepEntry entry : phoneticEntries) {
+      out.writeString(entry.rawPattern());
+      out.writeString(entry.replacement());
+    }
+    flagLookup.write(out);
+    words.write(out);
+  }
+
+  private static byte[] toByteArray(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int len = in.read(buffer); len != -1; len = in.read(buffer)) {
+      out.write(buffer, 0, len);
+    }
+    return out.toByteArray();
+  }
+
+  private void readAffix(InputStream affix, FlagEnumerator flagEnumerator)
+      throws IOException, ParseException {
     try (BufferedInputStream affixStream =
         new BufferedInputStream(affix, MAX_PROLOGUE_SCAN_WINDOW) {
           @Override
@@ -246,17 +386,7 @@ public class Dictionary {
       readConfig(new ByteArrayInputStream(prologue, 0, count), streamCharset);
 
       // pass 2: parse affixes
-      FlagEnumerator flagEnumerator = new FlagEnumerator();
       readAffixFile(affixStream, decoder, flagEnumerator);
-
-      // read dictionary entries
-      IndexOutput unsorted = tempDir.createTempOutput(tempFileNamePrefix, "dat", IOContext.DEFAULT);
-      int wordCount = mergeDictionaries(dictionaries, decoder, unsorted);
-      String sortedFile = sortWordsOffline(tempDir, tempFileNamePrefix, unsorted);
-      words = readSortedDictionaries(tempDir, sortedFile, flagEnumerator, wordCount);
-      flagLookup = flagEnumerator.finish();
-      aliases = null; // no longer needed
-      morphAliases = null; // no longer needed
     }
   }
 
@@ -269,6 +399,17 @@ public class Dictionary {
     return words.lookupWord(word, offset, length);
   }
 
+  /** Same as {@link #lookupWord(char[], int, int)}, but reuses the given reader and forms. */
+  IntsRef lookupWord(
+      char[] word, int offset, int length, WordStorage.Reader reader, IntsRef forms) {
+    return words.lookupWord(word, offset, length, reader, forms);
+  }
+
+  /** Returns a reader for {@link #lookupWord(char[], int, int, WordStorage.Reader, IntsRef)}. */
+  WordStorage.Reader newWordReader() {
+    return words.new Reader();
+  }
+
   // only for testing
   IntsRef lookupPrefix(char[] word) {
     return lookup(prefixes, word);
@@ -18,15 +18,18 @@ package org.apache.lucene.analysis.hunspell;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
+import org.apache.lucene.analysis.CharArrayMap;
 import org.apache.lucene.analysis.TokenFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
 import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.CharsRef;
 
 /**
@@ -53,10 +56,13 @@ public final class HunspellStemFilter extends TokenFilter {
   private final Stemmer stemmer;
   
   private List<CharsRef> buffer;
+  private int bufferUpto;
   private State savedState;
   
   private final boolean dedup;
   private final boolean longestOnly;
+  private final int stemCacheSize;
+  private final CharArrayMap<List<CharsRef>> stemCache;
 
   /** Create a {@link HunspellStemFilter} outputting all possible stems.
    *  @see #HunspellStemFilter(TokenStream, Dictionary, boolean) */
@@ -79,16 +85,40 @@ public final class HunspellStemFilter extends TokenFilter {
    * @param longestOnly true if only the longest term should be output.
    */
   public HunspellStemFilter(TokenStream input, Dictionary dictionary, boolean dedup,  boolean longestOnly) {
+    this(input, dictionary, dedup, longestOnly, 0);
+  }
+
+  /**
+   * Creates a new HunspellStemFilter that caches the stems of up to {@code stemCacheSize} words.
+   * <p>
+   * The cache belongs to this filter, so it is reused across documents by the thread that reuses
+   * this filter, without any synchronization. Stemming a cached word does not run the affix
+   * rules again and does not allocate. Once the cache is full, it is cleared entirely before
+   * caching another word: there is no eviction policy, so frequent words have to be cached again
+   * after each clear.
+   *
+   * @param input TokenStream whose tokens will be stemmed
+   * @param dictionary HunspellDictionary containing the affix rules and words that will be used to stem the tokens
+   * @param longestOnly true if only the longest term should be output.
+   * @param stemCacheSize maximum number of words whose stems are cached, or 0 to disable caching
+   */
+  public HunspellStemFilter(TokenStream input, Dictionary dictionary, boolean dedup, boolean longestOnly, int stemCacheSize) {
     super(input);
+    if (stemCacheSize < 0) {
+      throw new IllegalArgumentException("stemCacheSize must be >= 0, got " + stemCacheSize);
+    }
     this.dedup = dedup && longestOnly == false; // don't waste time deduping if longestOnly is set
-    this.stemmer = new Stemmer(dictionary);
+    // the filter is only used by one thread, and consumes the stems before stemming the next word
+    this.stemmer = new Stemmer(dictionary, true);
     this.longestOnly = longestOnly;
+    this.stemCacheSize = stemCacheSize;
+    this.stemCache = stemCacheSize == 0 ? null : new CharArrayMap<>(Math.min(stemCacheSize, 1024), false);
   }
 
   @Override
   public boolean incrementToken() throws IOException {
-    if (buffer != null && !buffer.isEmpty()) {
-      CharsRef nextStem = buffer.remove(0);
+    if (buffer != null && bufferUpto < buffer.size()) {
+      CharsRef nextStem = buffer.get(bufferUpto++);
       restoreState(savedState);
       posIncAtt.setPositionIncrement(0);
       termAtt.setEmpty().append(nextStem);
@@ -103,34 +133,60 @@ public final class HunspellStemFilter extends TokenFilter {
       return true;
     }
     
-    buffer = dedup ? stemmer.uniqueStems(termAtt.buffer(), termAtt.length()) : stemmer.stem(termAtt.buffer(), termAtt.length());
+    buffer = stems(termAtt.buffer(), termAtt.length());
+    bufferUpto = 0;
 
     if (buffer.isEmpty()) { // we do not know this word, return it unchanged
       return true;
     }     
-    
-    if (longestOnly && buffer.size() > 1) {
-      Collections.sort(buffer, lengthComparator);
-    }
 
-    CharsRef stem = buffer.remove(0);
+    CharsRef stem = buffer.get(bufferUpto++);
     termAtt.setEmpty().append(stem);
 
-    if (longestOnly) {
-      buffer.clear();
-    } else {
-      if (!buffer.isEmpty()) {
-        savedState = captureState();
-      }
+    if (bufferUpto < buffer.size()) {
+      savedState = captureState();
     }
 
     return true;
   }
 
+  /** Returns the stems to emit for the given word, the returned list must not be modified. */
+  private List<CharsRef> stems(char[] word, int length) {
+    if (stemCache != null) {
+      List<CharsRef> cached = stemCache.get(word, 0, length);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    List<CharsRef> stems = dedup ? stemmer.uniqueStems(word, length) : stemmer.stem(word, length);
+    if (longestOnly && stems.size() > 1) {
+      Collections.sort(stems, lengthComparator);
+      while (stems.size() > 1) {
+        stems.remove(stems.size() - 1);
+      }
+    }
+
+    if (stemCache != null) {
+      // the stemmer reuses its list and stems for the next word
+      List<CharsRef> copy = new ArrayList<>(stems.size());
+      for (CharsRef stem : stems) {
+        copy.add(CharsRef.deepCopyOf(stem));
+      }
+      stems = Collections.unmodifiableList(copy);
+      if (stemCache.size() >= stemCacheSize) {
+        stemCache.clear();
+      }
+      stemCache.put(ArrayUtil.copyOfSubArray(word, 0, length), stems);
+    }
+    return stems;
+  }
+
   @Override
   public void reset() throws IOException {
     super.reset();
     buffer = null;
+    bufferUpto = 0;
   }
   
   static final Comparator<CharsRef> lengthComparator = new Comparator<CharsRef>() {
@@ -23,15 +23,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.util.AnalysisResourceRegistry;
 import org.apache.lucene.analysis.util.ResourceLoader;
 import org.apache.lucene.analysis.util.ResourceLoaderAware;
 import org.apache.lucene.analysis.util.TokenFilterFactory;
+import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.IOUtils;
 
 /**
@@ -42,8 +46,15 @@ import org.apache.lucene.util.IOUtils;
  *         dictionary=&quot;en_GB.dic,my_custom.dic&quot;
  *         affix=&quot;en_GB.aff&quot; 
  *         ignoreCase=&quot;false&quot;
- *         longestOnly=&quot;false&quot; /&gt;</pre>
+ *         longestOnly=&quot;false&quot;
+ *         stemCacheSize=&quot;0&quot; /&gt;</pre>
  * Both parameters dictionary and affix are mandatory.
+ * The optional {@code stemCacheSize} enables a cache of the stems of that many words in every
+ * filter instance, see {@link HunspellStemFilter#HunspellStemFilter(TokenStream, Dictionary, boolean, boolean, int)}.
+ * Dictionaries are shared through the {@link AnalysisResourceRegistry#getDefault() default}
+ * {@link AnalysisResourceRegistry} by all factories that are configured with the same arguments and files.
+ * If the registry has a store directory, dictionaries are {@link Dictionary#compile compiled} to it
+ * once and later loads memory-map the compiled dictionary instead of parsing the files again.
  * Dictionaries for many languages are available through the OpenOffice project.
  * 
  * See <a href="http://wiki.apache.org/solr/Hunspell">http://wiki.apache.org/solr/Hunspell</a>
@@ -62,11 +73,13 @@ public class HunspellStemFilterFactory extends TokenFilterFactory implements Res
   private static final String PARAM_RECURSION_CAP = "recursionCap";
   private static final String PARAM_IGNORE_CASE   = "ignoreCase";
   private static final String PARAM_LONGEST_ONLY  = "longestOnly";
+  private static final String PARAM_STEM_CACHE_SIZE = "stemCacheSize";
 
   private final String dictionaryFiles;
   private final String affixFile;
   private final boolean ignoreCase;
   private final boolean longestOnly;
+  private final int stemCacheSize;
   private Dictionary dictionary;
   
   /** Creates a new HunspellStemFilterFactory */
@@ -76,6 +89,10 @@ public class HunspellStemFilterFactory extends TokenFilterFactory implements Res
     affixFile = get(args, PARAM_AFFIX);
     ignoreCase = getBoolean(args, PARAM_IGNORE_CASE, false);
     longestOnly = getBoolean(args, PARAM_LONGEST_ONLY, false);
+    stemCacheSize = getInt(args, PARAM_STEM_CACHE_SIZE, 0);
+    if (stemCacheSize < 0) {
+      throw new IllegalArgumentException(PARAM_STEM_CACHE_SIZE + " must be >= 0, got " + stemCacheSize);
+    }
     // this isnt necessary: we properly load all dictionaries.
     // but recognize and ignore for back compat
     getBoolean(args, "strictAffixParsing", true);
@@ -91,7 +108,31 @@ public class HunspellStemFilterFactory extends TokenFilterFactory implements Res
   @Override
   public void inform(ResourceLoader loader) throws IOException {
     String dicts[] = dictionaryFiles.split(",");
+    List<String> resources = new ArrayList<>(Arrays.asList(dicts));
+    resources.add(affixFile);
+    final String key = AnalysisResourceRegistry.resourceKey(this, loader, resources);
+    final AnalysisResourceRegistry registry = AnalysisResourceRegistry.getDefault();
+    final boolean compilable = registry.getStorePath() != null;
+    dictionary = registry.getOrLoad(key, Dictionary.class, () -> loadDictionary(loader, dicts, compilable), COMPILER);
+  }
+
+  private static final AnalysisResourceRegistry.Compiler<Dictionary> COMPILER = new AnalysisResourceRegistry.Compiler<Dictionary>() {
+    @Override
+    public void write(Dictionary dictionary, DataOutput out) throws IOException {
+      dictionary.write(out);
+    }
+
+    @Override
+    public Dictionary read(IndexInput in) throws IOException {
+      try {
+        return Dictionary.read(in);
+      } catch (ParseException e) {
+        throw new IOException("Unable to read compiled hunspell data", e);
+      }
+    }
+  };
 
+  private Dictionary loadDictionary(ResourceLoader loader, String[] dicts, boolean compilable) throws IOException {
     InputStream affix = null;
     List<InputStream> dictionaries = new ArrayList<>();
 
@@ -104,7 +145,7 @@ public class HunspellStemFilterFactory extends TokenFilterFactory implements Res
 
       Path tempPath = Files.createTempDirectory(Dictionary.getDefaultTempDir(), "Hunspell");
       try (Directory tempDir = FSDirectory.open(tempPath)) {
-        this.dictionary = new Dictionary(tempDir, "hunspell", affix, dictionaries, ignoreCase);
+        return new Dictionary(tempDir, "hunspell", affix, dictionaries, ignoreCase, compilable);
       } finally {
         IOUtils.rm(tempPath); 
       }
@@ -118,6 +159,6 @@ public class HunspellStemFilterFactory extends TokenFilterFactory implements Res
 
   @Override
   public TokenStream create(TokenStream tokenStream) {
-    return new HunspellStemFilter(tokenStream, dictionary, true, longestOnly);
+    return new HunspellStemFilter(tokenStream, dictionary, true, longestOnly, stemCacheSize);
   }
 }
@@ -35,6 +35,15 @@ class RepEntry {
     patternLen = pattern.length();
   }
 
+  /** The pattern as it was given to the constructor. */
+  String rawPattern() {
+    return (mustStart ? "^" : "") + pattern + (mustEnd ? "$" : "");
+  }
+
+  String replacement() {
+    return replacement;
+  }
+
   boolean isMiddle() {
     return !mustStart && !mustEnd;
   }
@@ -23,6 +23,7 @@ import java.util.stream.Stream;
 import org.apache.lucene.analysis.CharArraySet;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.CharsRef;
+import org.apache.lucene.util.CharsRefBuilder;
 import org.apache.lucene.util.IntsRef;
 import org.apache.lucene.util.fst.FST;
 
@@ -38,14 +39,81 @@ final class Stemmer {
   // is really an ID pointing to the exception table
   private final int formStep;
 
+  // affixes are stripped at recursion depths 0 to 2, see applyAffix
+  private static final int MAX_RECURSION_DEPTH = 2;
+
+  // the scratch state below is only used if buffers are reused, see Stemmer(Dictionary, boolean)
+  private final boolean reuseBuffers;
+  private WordStorage.Reader wordReader;
+  private IntsRef forms;
+  private FST.Arc<IntsRef>[] arcs;
+  private FST.BytesReader[] prefixReaders, suffixReaders;
+  private char[][] strippedWords;
+  private char[] cleanBuffer, titleBuffer, lowerBuffer, apostropheBuffer;
+  private StringBuilder scratchSegment;
+  private CharsRef scratchInput, scratchStem;
+  private List<CharsRef> stems;
+  private CharsRefBuilder[] stemBuilders;
+  private int stemCount;
+  private RootProcessor stemCollector;
+  private CaseVariationProcessor caseVariationCollector;
+
   /**
    * Constructs a new Stemmer which will use the provided Dictionary to create its stems.
    *
    * @param dictionary Dictionary that will be used to create the stems
    */
   public Stemmer(Dictionary dictionary) {
+    this(dictionary, false);
+  }
+
+  /**
+   * Constructs a new Stemmer which will use the provided Dictionary to create its stems.
+   *
+   * <p>If {@code reuseBuffers} is true, the stemmer reuses its lookup state, stripped words and
+   * stems across calls instead of allocating them for each word. It must then only be used by
+   * one thread, and the stems returned by {@link #stem(char[], int)} and {@link
+   * #uniqueStems(char[], int)} are only valid until the next call to either method.
+   *
+   * @param dictionary Dictionary that will be used to create the stems
+   * @param reuseBuffers whether to reuse buffers across calls
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  Stemmer(Dictionary dictionary, boolean reuseBuffers) {
     this.dictionary = dictionary;
     formStep = dictionary.formStep();
+    this.reuseBuffers = reuseBuffers;
+    if (reuseBuffers) {
+      wordReader = dictionary.newWordReader();
+      forms = new IntsRef();
+      arcs = new FST.Arc[MAX_RECURSION_DEPTH + 1];
+      prefixReaders = new FST.BytesReader[MAX_RECURSION_DEPTH + 1];
+      suffixReaders = new FST.BytesReader[MAX_RECURSION_DEPTH + 1];
+      strippedWords = new char[MAX_RECURSION_DEPTH + 1][];
+      for (int depth = 0; depth <= MAX_RECURSION_DEPTH; depth++) {
+        arcs[depth] = new FST.Arc<>();
+        if (dictionary.prefixes != null) {
+          prefixReaders[depth] = dictionary.prefixes.getBytesReader();
+        }
+        if (dictionary.suffixes != null) {
+          suffixReaders[depth] = dictionary.suffixes.getBytesReader();
+        }
+        strippedWords[depth] = new char[8];
+      }
+      cleanBuffer = new char[8];
+      titleBuffer = new char[8];
+      lowerBuffer = new char[8];
+      apostropheBuffer = new char[8];
+      scratchSegment = new StringBuilder();
+      scratchInput = new CharsRef();
+      scratchStem = new CharsRef();
+      stems = new ArrayList<>();
+      stemBuilders = new CharsRefBuilder[0];
+      stemCollector = (stem, formID, morphDataId) -> collectStem(stem, morphDataId);
+      caseVariationCollector =
+          (variant, varLength, originalCase) ->
+              doStem(variant, 0, varLength, WordContext.SIMPLE_WORD, stemCollector);
+    }
   }
 
   /**
@@ -67,17 +135,31 @@ final class Stemmer {
   public List<CharsRef> stem(char[] word, int length) {
 
     if (dictionary.mayNeedInputCleaning()) {
-      CharsRef scratchSegment = new CharsRef(word, 0, length);
+      CharsRef scratchSegment =
+          reuseBuffers ? reset(scratchInput, word, 0, length) : new CharsRef(word, 0, length);
       if (dictionary.needsInputCleaning(scratchSegment)) {
-        StringBuilder segment = new StringBuilder();
+        StringBuilder segment = reuseBuffers ? this.scratchSegment : new StringBuilder();
         dictionary.cleanInput(scratchSegment, segment);
-        char[] scratchBuffer = new char[segment.length()];
         length = segment.length();
+        char[] scratchBuffer =
+            reuseBuffers ? cleanBuffer = ArrayUtil.grow(cleanBuffer, length) : new char[length];
         segment.getChars(0, length, scratchBuffer, 0);
         word = scratchBuffer;
       }
     }
 
+    if (reuseBuffers) {
+      stems.clear();
+      stemCount = 0;
+      if (length > 0 && doStem(word, 0, length, WordContext.SIMPLE_WORD, stemCollector)) {
+        WordCase wordCase = caseOf(word, length);
+        if (wordCase == WordCase.UPPER || wordCase == WordCase.TITLE) {
+          varyCase(word, length, wordCase, caseVariationCollector);
+        }
+      }
+      return stems;
+    }
+
     List<CharsRef> list = new ArrayList<>();
     if (length == 0) {
       return list;
@@ -102,6 +184,43 @@ final class Stemmer {
     return list;
   }
 
+  private static CharsRef reset(CharsRef ref, char[] chars, int offset, int length) {
+    ref.chars = chars;
+    ref.offset = offset;
+    ref.length = length;
+    return ref;
+  }
+
+  /** Copies the stem to the next reused builder and adds it to the reused list of stems. */
+  private boolean collectStem(CharsRef stem, int morphDataId) {
+    if (stemCount == stemBuilders.length) {
+      stemBuilders = ArrayUtil.grow(stemBuilders, stemCount + 1);
+    }
+    if (stemBuilders[stemCount] == null) {
+      stemBuilders[stemCount] = new CharsRefBuilder();
+    }
+    CharsRefBuilder builder = stemBuilders[stemCount++];
+    String exception = stemException(morphDataId);
+    if (dictionary.oconv != null) {
+      scratchSegment.setLength(0);
+      if (exception != null) {
+        scratchSegment.append(exception);
+      } else {
+        scratchSegment.append(stem.chars, stem.offset, stem.length);
+      }
+      dictionary.oconv.applyMappings(scratchSegment);
+      builder.clear();
+      builder.append(scratchSegment);
+    } else if (exception != null) {
+      builder.clear();
+      builder.append(exception);
+    } else {
+      builder.copyChars(stem.chars, stem.offset, stem.length);
+    }
+    stems.add(builder.get());
+    return true;
+  }
+
   interface CaseVariationProcessor {
     boolean process(char[] word, int length, WordCase originalCase);
   }
@@ -148,7 +267,8 @@ final class Stemmer {
 
   /** folds titlecase variant of word to titleBuffer */
   private char[] caseFoldTitle(char[] word, int length) {
-    char[] titleBuffer = new char[length];
+    char[] titleBuffer =
+        reuseBuffers ? this.titleBuffer = ArrayUtil.grow(this.titleBuffer, length) : new char[length];
     System.arraycopy(word, 0, titleBuffer, 0, length);
     for (int i = 1; i < length; i++) {
       titleBuffer[i] = dictionary.caseFold(titleBuffer[i]);
@@ -158,7 +278,8 @@ final class Stemmer {
 
   /** folds lowercase variant of word (title cased) to lowerBuffer */
   private char[] caseFoldLower(char[] word, int length) {
-    char[] lowerBuffer = new char[length];
+    char[] lowerBuffer =
+        reuseBuffers ? this.lowerBuffer = ArrayUtil.grow(this.lowerBuffer, length) : new char[length];
     System.arraycopy(word, 0, lowerBuffer, 0, length);
     lowerBuffer[0] = dictionary.caseFold(lowerBuffer[0]);
     return lowerBuffer;
@@ -166,13 +287,19 @@ final class Stemmer {
 
   // Special prefix handling for Catalan, French, Italian:
   // prefixes separated by apostrophe (SANT'ELIA -> Sant'+Elia).
-  private static char[] capitalizeAfterApostrophe(char[] word, int length) {
+  private char[] capitalizeAfterApostrophe(char[] word, int length) {
     for (int i = 1; i < length - 1; i++) {
       if (word[i] == '\'') {
         char next = word[i + 1];
         char upper = Character.toUpperCase(next);
         if (upper != next) {
-          char[] copy = ArrayUtil.copyOfSubArray(word, 0, length);
+          char[] copy;
+          if (reuseBuffers) {
+            copy = apostropheBuffer = ArrayUtil.grow(apostropheBuffer, length);
+            System.arraycopy(word, 0, copy, 0, length);
+          } else {
+            copy = ArrayUtil.copyOfSubArray(word, 0, length);
+          }
           copy[i + 1] = Character.toUpperCase(upper);
           return copy;
         }
@@ -224,7 +351,7 @@ final class Stemmer {
 
   boolean doStem(
       char[] word, int offset, int length, WordContext context, RootProcessor processor) {
-    IntsRef forms = dictionary.lookupWord(word, offset, length);
+    IntsRef forms = lookupWord(word, offset, length);
     if (forms != null) {
       for (int i = 0; i < forms.length; i += formStep) {
         int entryId = forms.ints[forms.offset + i];
@@ -248,6 +375,13 @@ final class Stemmer {
         word, offset, length, context, -1, Dictionary.FLAG_UNSET, -1, 0, true, false, processor);
   }
 
+  private IntsRef lookupWord(char[] word, int offset, int length) {
+    if (reuseBuffers) {
+      return dictionary.lookupWord(word, offset, length, wordReader, forms);
+    }
+    return dictionary.lookupWord(word, offset, length);
+  }
+
   /**
    * Find the unique stem(s) of the provided word
    *
@@ -259,6 +393,24 @@ final class Stemmer {
     if (stems.size() < 2) {
       return stems;
     }
+    if (reuseBuffers) {
+      // dedup in place, the lists are small
+      int unique = 0;
+      for (int i = 0; i < stems.size(); i++) {
+        CharsRef stem = stems.get(i);
+        boolean seen = false;
+        for (int j = 0; j < unique && !seen; j++) {
+          seen = isSameStem(stems.get(j), stem);
+        }
+        if (!seen) {
+          stems.set(unique++, stem);
+        }
+      }
+      while (stems.size() > unique) {
+        stems.remove(stems.size() - 1);
+      }
+      return stems;
+    }
     CharArraySet terms = new CharArraySet(8, dictionary.ignoreCase);
     List<CharsRef> deduped = new ArrayList<>();
     for (CharsRef s : stems) {
@@ -270,6 +422,25 @@ final class Stemmer {
     return deduped;
   }
 
+  /** Compares like the {@link CharArraySet} that {@link #uniqueStems} dedups with otherwise. */
+  private boolean isSameStem(CharsRef a, CharsRef b) {
+    if (dictionary.ignoreCase == false) {
+      return a.equals(b);
+    }
+    if (a.length != b.length) {
+      return false;
+    }
+    for (int i = 0; i < a.length; ) {
+      int codePointA = Character.codePointAt(a.chars, a.offset + i, a.offset + a.length);
+      int codePointB = Character.codePointAt(b.chars, b.offset + i, b.offset + b.length);
+      if (Character.toLowerCase(codePointA) != Character.toLowerCase(codePointB)) {
+        return false;
+      }
+      i += Character.charCount(codePointA);
+    }
+    return true;
+  }
+
   interface RootProcessor {
     /**
      * @param stem the text of the found dictionary entry
@@ -345,10 +516,11 @@ final class Stemmer {
       boolean doPrefix,
       boolean previousWasPrefix,
       RootProcessor processor) {
-    FST.Arc<IntsRef> arc = new FST.Arc<>();
+    FST.Arc<IntsRef> arc = reuseBuffers ? arcs[recursionDepth] : new FST.Arc<>();
     if (doPrefix && dictionary.prefixes != null) {
       FST<IntsRef> fst = dictionary.prefixes;
-      FST.BytesReader reader = fst.getBytesReader();
+      FST.BytesReader reader =
+          reuseBuffers ? prefixReaders[recursionDepth] : fst.getBytesReader();
       fst.getFirstArc(arc);
       IntsRef output = fst.outputs.getNoOutput();
       int limit = dictionary.fullStrip ? length + 1 : length;
@@ -371,7 +543,8 @@ final class Stemmer {
           }
 
           if (isAffixCompatible(prefix, prevFlag, recursionDepth, true, false, context)) {
-            char[] strippedWord = stripAffix(word, offset, length, i, prefix, true);
+            char[] strippedWord =
+                stripAffix(word, offset, length, i, prefix, true, recursionDepth);
             if (strippedWord == null) {
               continue;
             }
@@ -380,7 +553,7 @@ final class Stemmer {
             if (!applyAffix(
                 strippedWord,
                 pureAffix ? offset + i : 0,
-                pureAffix ? length - i : strippedWord.length,
+                length - i + stripLength(prefix),
                 context,
                 prefix,
                 previous,
@@ -397,7 +570,8 @@ final class Stemmer {
 
     if (dictionary.suffixes != null) {
       FST<IntsRef> fst = dictionary.suffixes;
-      FST.BytesReader reader = fst.getBytesReader();
+      FST.BytesReader reader =
+          reuseBuffers ? suffixReaders[recursionDepth] : fst.getBytesReader();
       fst.getFirstArc(arc);
       IntsRef output = fst.outputs.getNoOutput();
       int limit = dictionary.fullStrip ? 0 : 1;
@@ -421,7 +595,8 @@ final class Stemmer {
 
           if (isAffixCompatible(
               suffix, prevFlag, recursionDepth, false, previousWasPrefix, context)) {
-            char[] strippedWord = stripAffix(word, offset, length, length - i, suffix, false);
+            char[] strippedWord =
+                stripAffix(word, offset, length, length - i, suffix, false, recursionDepth);
             if (strippedWord == null) {
               continue;
             }
@@ -430,7 +605,7 @@ final class Stemmer {
             if (!applyAffix(
                 strippedWord,
                 pureAffix ? offset : 0,
-                pureAffix ? i : strippedWord.length,
+                i + stripLength(suffix),
                 context,
                 suffix,
                 previous,
@@ -448,13 +623,24 @@ final class Stemmer {
     return true;
   }
 
+  private int stripLength(int affix) {
+    int stripOrd = dictionary.affixData(affix, Dictionary.AFFIX_STRIP_ORD);
+    return dictionary.stripOffsets[stripOrd + 1] - dictionary.stripOffsets[stripOrd];
+  }
+
   /**
    * @return null if affix conditions isn't met; a reference to the same char[] if the affix has no
-   *     strip data and can thus be simply removed, or a new char[] containing the word affix
-   *     removal
+   *     strip data and can thus be simply removed, or a char[] starting with the word affix
+   *     removal, which is the reused buffer of the recursion depth if buffers are reused
    */
   private char[] stripAffix(
-      char[] word, int offset, int length, int affixLen, int affix, boolean isPrefix) {
+      char[] word,
+      int offset,
+      int length,
+      int affixLen,
+      int affix,
+      boolean isPrefix,
+      int recursionDepth) {
     int deAffixedLen = length - affixLen;
 
     int stripOrd = dictionary.affixData(affix, Dictionary.AFFIX_STRIP_ORD);
@@ -475,7 +661,14 @@ final class Stemmer {
 
     if (stripLen == 0) return word;
 
-    char[] strippedWord = new char[stripLen + deAffixedLen];
+    char[] strippedWord;
+    if (reuseBuffers) {
+      strippedWord =
+          strippedWords[recursionDepth] =
+              ArrayUtil.grow(strippedWords[recursionDepth], stripLen + deAffixedLen);
+    } else {
+      strippedWord = new char[stripLen + deAffixedLen];
+    }
     System.arraycopy(
         word,
         offset + (isPrefix ? affixLen : 0),
@@ -553,7 +746,7 @@ final class Stemmer {
     char flag = dictionary.affixData(affix, Dictionary.AFFIX_FLAG);
 
     boolean skipLookup = needsAnotherAffix(affix, previousAffix, !prefix, prefixId);
-    IntsRef forms = skipLookup ? null : dictionary.lookupWord(strippedWord, offset, length);
+    IntsRef forms = skipLookup ? null : lookupWord(strippedWord, offset, length);
     if (forms != null) {
       for (int i = 0; i < forms.length; i += formStep) {
         int entryId = forms.ints[forms.offset + i];
@@ -642,7 +835,8 @@ final class Stemmer {
 
   private boolean callProcessor(
       char[] word, int offset, int length, RootProcessor processor, IntsRef forms, int i) {
-    CharsRef stem = new CharsRef(word, offset, length);
+    CharsRef stem =
+        reuseBuffers ? reset(scratchStem, word, offset, length) : new CharsRef(word, offset, length);
     int morphDataId = dictionary.hasCustomMorphData ? forms.ints[forms.offset + i + 1] : 0;
     return processor.processRoot(stem, forms.ints[forms.offset + i], morphDataId);
   }
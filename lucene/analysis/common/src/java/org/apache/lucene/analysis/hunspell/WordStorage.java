@@ -23,6 +23,7 @@ import java.util.function.BiConsumer;
 import org.apache.lucene.store.ByteArrayDataInput;
 import org.apache.lucene.store.ByteArrayDataOutput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.CharsRef;
 import org.apache.lucene.util.IntsRef;
@@ -46,7 +47,8 @@ import org.apache.lucene.util.fst.IntSequenceOutputs;
  * "ab" which points to "a" which points to 0.<br>
  * <br>
  * The entries are stored in a contiguous byte array, identified by their offsets, using {@link
- * DataOutput#writeVInt} ()} VINT} format for compression.
+ * DataOutput#writeVInt} ()} VINT} format for compression. The hash table and the entries can
+ * also be read from an {@link IndexInput}, see {@link #read(IndexInput)}.
  */
 class WordStorage {
   private static final int OFFSET_BITS = 25;
@@ -67,6 +69,8 @@ class WordStorage {
    */
   private final int[] hashTable;
 
+  private final int hashTableSize;
+
   /**
    * An array of word entries:
    *
@@ -87,16 +91,149 @@ class WordStorage {
    */
   private final byte[] wordData;
 
+  /**
+   * The hash table as big-endian ints followed by the word data, if they are read from an input
+   * rather than held in {@link #hashTable} and {@link #wordData}
+   */
+  private final IndexInput data;
+
   private WordStorage(int[] hashTable, byte[] wordData) {
     this.hashTable = hashTable;
+    this.hashTableSize = hashTable.length;
     this.wordData = wordData;
+    this.data = null;
+  }
+
+  private WordStorage(int hashTableSize, IndexInput data) {
+    this.hashTable = null;
+    this.hashTableSize = hashTableSize;
+    this.wordData = null;
+    this.data = data;
+  }
+
+  /** Writes this storage so that {@link #read(IndexInput)} can read it back. */
+  void write(DataOutput out) throws IOException {
+    Reader in = new Reader();
+    int wordDataLength = in.wordDataLength();
+    out.writeVInt(hashTableSize);
+    out.writeVInt(wordDataLength);
+    for (int i = 0; i < hashTableSize; i++) {
+      out.writeInt(in.hashEntry(i));
+    }
+    in.setPosition(0);
+    for (int i = 0; i < wordDataLength; i++) {
+      out.writeByte(in.readByte());
+    }
+  }
+
+  /**
+   * Reads a storage that was written with {@link #write(DataOutput)}. The storage keeps reading
+   * from clones of a slice of the input, so the input must stay open for as long as the storage
+   * is used. Memory-mapped inputs keep the entries off-heap.
+   */
+  static WordStorage read(IndexInput in) throws IOException {
+    int hashTableSize = in.readVInt();
+    int wordDataLength = in.readVInt();
+    long start = in.getFilePointer();
+    long length = hashTableSize * (long) Integer.BYTES + wordDataLength;
+    IndexInput data = in.slice("word storage", start, length);
+    in.seek(start + length);
+    return new WordStorage(hashTableSize, data);
+  }
+
+  /**
+   * Reads the hash table and the word entries. Readers are cheap to create but must not be shared
+   * by threads. Reading a hash table entry invalidates the current position in the word entries.
+   */
+  final class Reader {
+    // a clone of the data, or null if the data is on the heap
+    private final IndexInput in;
+    private final long wordDataStart;
+    private int pos;
+
+    Reader() {
+      in = data == null ? null : data.clone();
+      wordDataStart = hashTableSize * (long) Integer.BYTES;
+    }
+
+    int hashEntry(int hash) {
+      if (in == null) {
+        return hashTable[hash];
+      }
+      try {
+        in.seek(hash * (long) Integer.BYTES);
+        return in.readInt();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    int wordDataLength() {
+      return in == null ? wordData.length : (int) (in.length() - wordDataStart);
+    }
+
+    int getPosition() {
+      return pos;
+    }
+
+    void setPosition(int pos) {
+      this.pos = pos;
+      if (in != null) {
+        try {
+          in.seek(wordDataStart + pos);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    byte readByte() {
+      if (in == null) {
+        return wordData[pos++];
+      }
+      try {
+        byte b = in.readByte();
+        pos++;
+        return b;
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    int readVInt() {
+      // same as DataInput#readVInt
+      byte b = readByte();
+      if (b >= 0) return b;
+      int i = b & 0x7F;
+      b = readByte();
+      i |= (b & 0x7F) << 7;
+      if (b >= 0) return i;
+      b = readByte();
+      i |= (b & 0x7F) << 14;
+      if (b >= 0) return i;
+      b = readByte();
+      i |= (b & 0x7F) << 21;
+      if (b >= 0) return i;
+      b = readByte();
+      i |= (b & 0x0F) << 28;
+      if ((b & 0xF0) == 0) return i;
+      throw new RuntimeException("Invalid vInt detected (too many bits)");
+    }
   }
 
   IntsRef lookupWord(char[] word, int offset, int length) {
+    return lookupWord(word, offset, length, new Reader(), null);
+  }
+
+  /**
+   * Same as {@link #lookupWord(char[], int, int)}, but reads with the given reader and, unless it
+   * is null, fills {@code forms} instead of allocating the returned forms.
+   */
+  IntsRef lookupWord(char[] word, int offset, int length, Reader in, IntsRef forms) {
     assert length > 0;
 
-    int hash = Math.abs(CharsRef.stringHashCode(word, offset, length) % hashTable.length);
-    int entryCode = hashTable[hash];
+    int hash = Math.abs(CharsRef.stringHashCode(word, offset, length) % hashTableSize);
+    int entryCode = in.hashEntry(hash);
     if (entryCode == 0) {
       return null;
     }
@@ -105,7 +242,6 @@ class WordStorage {
     int mask = entryCode >>> OFFSET_BITS;
 
     char lastChar = word[offset + length - 1];
-    ByteArrayDataInput in = new ByteArrayDataInput(wordData);
     while (true) {
       in.setPosition(pos);
       char c = (char) in.readVInt();
@@ -124,7 +260,12 @@ class WordStorage {
         if (isSameString(word, offset, length - 1, prevPos, in)) {
           in.setPosition(beforeForms);
           int formLength = in.readVInt();
-          IntsRef forms = new IntsRef(formLength);
+          if (forms == null) {
+            forms = new IntsRef(formLength);
+          } else {
+            forms.offset = 0;
+            forms.ints = ArrayUtil.grow(forms.ints, formLength);
+          }
           readForms(forms, in, formLength);
           return forms;
         }
@@ -149,8 +290,9 @@ class WordStorage {
     assert minLength <= maxLength;
     CharsRef chars = new CharsRef(maxLength);
     IntsRef forms = new IntsRef();
-    ByteArrayDataInput in = new ByteArrayDataInput(wordData);
-    for (int entryCode : hashTable) {
+    Reader in = new Reader();
+    for (int hash = 0; hash < hashTableSize; hash++) {
+      int entryCode = in.hashEntry(hash);
       int pos = entryCode & OFFSET_MASK;
       int mask = entryCode >>> OFFSET_BITS;
 
@@ -208,8 +350,7 @@ class WordStorage {
     return lenCode >= minLength && lenCode <= maxLength;
   }
 
-  private boolean isSameString(
-      char[] word, int offset, int length, int dataPos, ByteArrayDataInput in) {
+  private boolean isSameString(char[] word, int offset, int length, int dataPos, Reader in) {
     for (int i = length - 1; i >= 0; i--) {
       in.setPosition(dataPos);
       char c = (char) in.readVInt();
@@ -224,7 +365,7 @@ class WordStorage {
     return length == 0 && dataPos == 0;
   }
 
-  private void readForms(IntsRef forms, ByteArrayDataInput in, int length) {
+  private void readForms(IntsRef forms, Reader in, int length) {
     for (int i = 0; i < length; i++) {
       forms.ints[i] = in.readVInt();
     }
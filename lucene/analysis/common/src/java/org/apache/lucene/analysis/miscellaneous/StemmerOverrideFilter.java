@@ -24,6 +24,8 @@ import org.apache.lucene.analysis.TokenFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
@@ -35,6 +37,7 @@ import org.apache.lucene.util.fst.ByteSequenceOutputs;
 import org.apache.lucene.util.fst.FST;
 import org.apache.lucene.util.fst.FST.Arc;
 import org.apache.lucene.util.fst.FST.BytesReader;
+import org.apache.lucene.util.fst.OffHeapFSTStore;
 
 /**
  * Provides the ability to override any {@link KeywordAttribute} aware stemmer
@@ -107,6 +110,27 @@ public final class StemmerOverrideFilter extends TokenFilter {
       this.fst = fst;
       this.ignoreCase = ignoreCase;
     }
+
+    /** Writes this map so that it can be read back with {@link #read(IndexInput)}. */
+    void save(DataOutput out) throws IOException {
+      out.writeByte((byte) (ignoreCase ? 1 : 0));
+      if (fst == null) {
+        out.writeByte((byte) 0);
+      } else {
+        out.writeByte((byte) 1);
+        fst.save(out, out);
+      }
+    }
+
+    /** Reads a map that was written with {@link #save(DataOutput)}, its FST is read off-heap. */
+    static StemmerOverrideMap read(IndexInput in) throws IOException {
+      final boolean ignoreCase = in.readByte() != 0;
+      FST<BytesRef> fst = null;
+      if (in.readByte() != 0) {
+        fst = new FST<>(in, in, ByteSequenceOutputs.getSingleton(), new OffHeapFSTStore());
+      }
+      return new StemmerOverrideMap(fst, ignoreCase);
+    }
     
     /**
      * Returns a {@link BytesReader} to pass to the {@link #get(char[], int, FST.Arc, FST.BytesReader)} method.
@@ -23,9 +23,12 @@ import java.util.Map;
 
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.miscellaneous.StemmerOverrideFilter.StemmerOverrideMap;
+import org.apache.lucene.analysis.util.AnalysisResourceRegistry;
 import org.apache.lucene.analysis.util.ResourceLoader;
 import org.apache.lucene.analysis.util.ResourceLoaderAware;
 import org.apache.lucene.analysis.util.TokenFilterFactory;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 
 /**
  * Factory for {@link StemmerOverrideFilter}.
@@ -36,6 +39,10 @@ import org.apache.lucene.analysis.util.TokenFilterFactory;
  *     &lt;filter class="solr.StemmerOverrideFilterFactory" dictionary="dictionary.txt" ignoreCase="false"/&gt;
  *   &lt;/analyzer&gt;
  * &lt;/fieldType&gt;</pre>
+ * <p>
+ * Dictionaries are shared through the {@link AnalysisResourceRegistry#getDefault() default}
+ * {@link AnalysisResourceRegistry} by all factories that are configured with the same
+ * arguments and dictionary files.
  * @since 3.1.0
  * @lucene.spi {@value #NAME}
  */
@@ -63,19 +70,36 @@ public class StemmerOverrideFilterFactory extends TokenFilterFactory implements
     if (dictionaryFiles != null) {
       List<String> files = splitFileNames(dictionaryFiles);
       if (files.size() > 0) {
-        StemmerOverrideFilter.Builder builder = new StemmerOverrideFilter.Builder(ignoreCase);
-        for (String file : files) {
-          List<String> list = getLines(loader, file.trim());
-          for (String line : list) {
-            String[] mapping = line.split("\t", 2);
-            builder.add(mapping[0], mapping[1]);
-          }
-        }
-        dictionary = builder.build();
+        final String key = AnalysisResourceRegistry.resourceKey(this, loader, files);
+        dictionary = AnalysisResourceRegistry.getDefault().getOrLoad(key, StemmerOverrideMap.class, () -> buildDictionary(loader, files), COMPILER);
       }
     }
   }
 
+  private StemmerOverrideMap buildDictionary(ResourceLoader loader, List<String> files) throws IOException {
+    StemmerOverrideFilter.Builder builder = new StemmerOverrideFilter.Builder(ignoreCase);
+    for (String file : files) {
+      List<String> list = getLines(loader, file.trim());
+      for (String line : list) {
+        String[] mapping = line.split("\t", 2);
+        builder.add(mapping[0], mapping[1]);
+      }
+    }
+    return builder.build();
+  }
+
+  private static final AnalysisResourceRegistry.Compiler<StemmerOverrideMap> COMPILER = new AnalysisResourceRegistry.Compiler<StemmerOverrideMap>() {
+    @Override
+    public void write(StemmerOverrideMap map, DataOutput out) throws IOException {
+      map.save(out);
+    }
+
+    @Override
+    public StemmerOverrideMap read(IndexInput in) throws IOException {
+      return StemmerOverrideMap.read(in);
+    }
+  };
+
   public boolean isIgnoreCase() {
     return ignoreCase;
   }
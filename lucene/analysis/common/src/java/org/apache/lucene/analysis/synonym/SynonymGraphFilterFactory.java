@@ -33,10 +33,13 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.util.AnalysisResourceRegistry;
 import org.apache.lucene.analysis.util.ResourceLoader;
 import org.apache.lucene.analysis.util.ResourceLoaderAware;
 import org.apache.lucene.analysis.util.TokenFilterFactory;
 import org.apache.lucene.analysis.util.TokenizerFactory;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 
 /**
  * Factory for {@link SynonymGraphFilter}.
@@ -70,6 +73,12 @@ import org.apache.lucene.analysis.util.TokenizerFactory;
  *   <li><code>boolean expand</code> - true if conflation groups should be expanded, false if they are one-directional</li>
  *   <li><code>{@link Analyzer} analyzer</code> - an analyzer used for each raw synonym</li>
  * </ul>
+ * <p>
+ * Synonym maps are shared through the {@link AnalysisResourceRegistry#getDefault() default}
+ * {@link AnalysisResourceRegistry} by all factories that are configured with the same
+ * arguments and synonym files, and compiled to its store directory if it has one.
+ * Tokenizer factories and analyzers are identified by their class name. Maps of
+ * subclasses are not shared.
  * @see SolrSynonymParser SolrSynonymParser: default format
  *
  * @lucene.experimental
@@ -127,6 +136,17 @@ public class SynonymGraphFilterFactory extends TokenFilterFactory implements Res
 
   @Override
   public void inform(ResourceLoader loader) throws IOException {
+    if (getClass() == SynonymGraphFilterFactory.class) {
+      final String key = AnalysisResourceRegistry.resourceKey(this, loader, splitFileNames(synonyms));
+      map = AnalysisResourceRegistry.getDefault().getOrLoad(key, SynonymMap.class, () -> buildSynonymMap(loader), COMPILER);
+    } else {
+      // subclasses may override loadSynonyms and take synonyms from somewhere
+      // else than the synonyms files, so their maps can't be shared
+      map = buildSynonymMap(loader);
+    }
+  }
+
+  private SynonymMap buildSynonymMap(ResourceLoader loader) throws IOException {
     final TokenizerFactory factory = tokenizerFactory == null ? null : loadTokenizerFactory(loader, tokenizerFactory);
     Analyzer analyzer;
     
@@ -151,12 +171,24 @@ public class SynonymGraphFilterFactory extends TokenFilterFactory implements Res
         formatClass = WordnetSynonymParser.class.getName();
       }
       // TODO: expose dedup as a parameter?
-      map = loadSynonyms(loader, formatClass, true, a);
+      return loadSynonyms(loader, formatClass, true, a);
     } catch (ParseException e) {
       throw new IOException("Error parsing synonyms file:", e);
     }
   }
 
+  private static final AnalysisResourceRegistry.Compiler<SynonymMap> COMPILER = new AnalysisResourceRegistry.Compiler<SynonymMap>() {
+    @Override
+    public void write(SynonymMap map, DataOutput out) throws IOException {
+      map.save(out);
+    }
+
+    @Override
+    public SynonymMap read(IndexInput in) throws IOException {
+      return SynonymMap.read(in);
+    }
+  };
+
   /**
    * Load synonyms with the given {@link SynonymMap.Parser} class.
    */
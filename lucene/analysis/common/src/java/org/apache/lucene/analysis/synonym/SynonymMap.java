@@ -30,7 +30,10 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.BytesRefHash;
@@ -39,6 +42,7 @@ import org.apache.lucene.util.CharsRefBuilder;
 import org.apache.lucene.util.IntsRefBuilder;
 import org.apache.lucene.util.fst.ByteSequenceOutputs;
 import org.apache.lucene.util.fst.FST;
+import org.apache.lucene.util.fst.OffHeapFSTStore;
 import org.apache.lucene.util.fst.Util;
 
 /**
@@ -60,6 +64,47 @@ public class SynonymMap {
     this.words = words;
     this.maxHorizontalContext = maxHorizontalContext;
   }
+
+  /** Writes this map so that it can be read back with {@link #read(IndexInput)}. */
+  void save(DataOutput out) throws IOException {
+    out.writeVInt(maxHorizontalContext);
+    final int numWords = words.size();
+    out.writeVInt(numWords);
+    final BytesRef scratch = new BytesRef();
+    for (int ord = 0; ord < numWords; ord++) {
+      words.get(ord, scratch);
+      out.writeVInt(scratch.length);
+      out.writeBytes(scratch.bytes, scratch.offset, scratch.length);
+    }
+    if (fst == null) {
+      out.writeByte((byte) 0);
+    } else {
+      out.writeByte((byte) 1);
+      fst.save(out, out);
+    }
+  }
+
+  /** Reads a map that was written with {@link #save(DataOutput)}, its FST is read off-heap. */
+  static SynonymMap read(IndexInput in) throws IOException {
+    final int maxHorizontalContext = in.readVInt();
+    final int numWords = in.readVInt();
+    final BytesRefHash words = new BytesRefHash();
+    final BytesRefBuilder scratch = new BytesRefBuilder();
+    for (int ord = 0; ord < numWords; ord++) {
+      final int length = in.readVInt();
+      scratch.grow(length);
+      in.readBytes(scratch.bytes(), 0, length);
+      scratch.setLength(length);
+      if (words.add(scratch.get()) != ord) {
+        throw new CorruptIndexException("duplicate word at ord " + ord, in);
+      }
+    }
+    FST<BytesRef> fst = null;
+    if (in.readByte() != 0) {
+      fst = new FST<>(in, in, ByteSequenceOutputs.getSingleton(), new OffHeapFSTStore());
+    }
+    return new SynonymMap(fst, words, maxHorizontalContext);
+  }
   
   /**
    * Builds an FSTSynonymMap.
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.IndexFormatTooNewException;
+import org.apache.lucene.index.IndexFormatTooOldException;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.IOSupplier;
+import org.apache.lucene.util.IOUtils;
+
+/**
+ * A registry of analysis resources, such as synonym maps or stemmer override
+ * dictionaries, that are expensive to build and can be shared by all analysis
+ * factories that are configured with the same resources.
+ * <p>
+ * Resources are identified by a key that is computed from the content of the
+ * resource files and from the arguments of the factory, see
+ * {@link #resourceKey(AbstractAnalysisFactory, ResourceLoader, List)}, so that
+ * factories of different indexes or Solr cores share a single instance as long
+ * as they use the same files. The registry only holds weak references to the
+ * resources: a resource is released once the last factory that uses it is
+ * garbage collected.
+ * <p>
+ * If the registry is created with a store directory, resources that support
+ * it are compiled to a file of this directory the first time they are built,
+ * and later loads memory-map this file instead of parsing the resource files
+ * again. FSTs of such resources are then read off-heap.
+ * <p>
+ * Factories use the {@link #getDefault() default} registry, which is shared by
+ * the whole JVM and has no store directory unless configured otherwise with
+ * {@link #setDefault(AnalysisResourceRegistry)}.
+ *
+ * @lucene.experimental
+ */
+public final class AnalysisResourceRegistry implements Closeable {
+
+  /**
+   * Writes the compiled form of a resource and reads it back.
+   * @lucene.experimental
+   */
+  public interface Compiler<T> {
+
+    /** Write the given resource to {@code out}. */
+    void write(T resource, DataOutput out) throws IOException;
+
+    /**
+     * Read a resource that was written with {@link #write}. The input is a
+     * slice of a memory-mapped file that remains mapped for as long as it is
+     * referenced, so the returned resource may keep reading from it.
+     */
+    T read(IndexInput in) throws IOException;
+  }
+
+  static final String CODEC_NAME = "AnalysisResource";
+  static final int VERSION_START = 0;
+  static final int VERSION_CURRENT = VERSION_START;
+  static final String EXTENSION = "res";
+
+  private static final Pattern KEY_PATTERN = Pattern.compile("[a-zA-Z0-9_\\-]+");
+
+  private static volatile AnalysisResourceRegistry defaultRegistry = new AnalysisResourceRegistry();
+
+  /** Return the registry that analysis factories use. */
+  public static AnalysisResourceRegistry getDefault() {
+    return defaultRegistry;
+  }
+
+  /**
+   * Set the registry that analysis factories use from now on. Factories that
+   * have already loaded their resources are not affected.
+   */
+  public static void setDefault(AnalysisResourceRegistry registry) {
+    if (registry == null) {
+      throw new IllegalArgumentException("registry must not be null");
+    }
+    defaultRegistry = registry;
+  }
+
+  private static final class Entry {
+    // only written under the lock of the entry, volatile so that pruning does not need it
+    private volatile WeakReference<Object> ref;
+
+    boolean isCleared() {
+      final WeakReference<Object> ref = this.ref;
+      return ref != null && ref.get() == null;
+    }
+  }
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final MMapDirectory storeDirectory;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder loadCount = new LongAdder();
+
+  /** Create a new registry that only shares resources in memory. */
+  public AnalysisResourceRegistry() {
+    storeDirectory = null;
+  }
+
+  /**
+   * Create a new registry that stores the compiled form of resources in the
+   * given directory, which is created if it does not exist.
+   */
+  public AnalysisResourceRegistry(Path storePath) throws IOException {
+    storeDirectory = new MMapDirectory(storePath);
+    // compiled resources may keep reading from their file after it is closed
+    storeDirectory.setUseUnmap(false);
+  }
+
+  /**
+   * Compute a key that identifies the resources that a factory loads from the
+   * given resource names. The key covers the content of the resources, the
+   * class of the factory and all its original arguments.
+   */
+  public static String resourceKey(AbstractAnalysisFactory factory, ResourceLoader loader, List<String> resources) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    update(digest, factory.getClass().getName());
+    for (Map.Entry<String,String> arg : new TreeMap<>(factory.getOriginalArgs()).entrySet()) {
+      update(digest, arg.getKey());
+      update(digest, arg.getValue());
+    }
+    final byte[] buffer = new byte[8192];
+    for (String resource : resources) {
+      long length = 0;
+      try (InputStream in = loader.openResource(resource.trim())) {
+        for (int len = in.read(buffer); len != -1; len = in.read(buffer)) {
+          digest.update(buffer, 0, len);
+          length += len;
+        }
+      }
+      // separates the content of consecutive resources
+      update(digest, Long.toString(length));
+    }
+
+    final StringBuilder key = new StringBuilder(factory.getClass().getSimpleName()).append('_');
+    for (byte b : digest.digest()) {
+      key.append(Character.forDigit((b >>> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+    }
+    return key.toString();
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    final byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    digest.update((byte) (bytes.length >>> 24));
+    digest.update((byte) (bytes.length >>> 16));
+    digest.update((byte) (bytes.length >>> 8));
+    digest.update((byte) bytes.length);
+    digest.update(bytes);
+  }
+
+  /**
+   * Return the resource that is registered under the given key, or load it
+   * with {@code loader} and register it if there is none.
+   */
+  public <T> T getOrLoad(String key, Class<T> clazz, IOSupplier<T> loader) throws IOException {
+    return getOrLoad(key, clazz, loader, null);
+  }
+
+  /**
+   * Same as {@link #getOrLoad(String, Class, IOSupplier)}, but if this registry
+   * has a store directory, a resource that is not registered yet is read from
+   * its compiled form if it exists, or loaded with {@code loader} and compiled
+   * otherwise.
+   */
+  public <T> T getOrLoad(String key, Class<T> clazz, IOSupplier<T> loader, Compiler<T> compiler) throws IOException {
+    if (KEY_PATTERN.matcher(key).matches() == false) {
+      throw new IllegalArgumentException("Invalid key: " + key);
+    }
+    final Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+    final Object resource;
+    synchronized (entry) {
+      resource = getOrLoadLocked(entry, key, loader, compiler);
+    }
+    // the entry may have been pruned while its resource was loaded
+    entries.putIfAbsent(key, entry);
+    // drop the entries of resources that have been garbage collected, outside
+    // of the lock so that concurrent loads of other keys cannot deadlock
+    for (Map.Entry<String, Entry> e : entries.entrySet()) {
+      if (e.getValue() != entry && e.getValue().isCleared()) {
+        entries.remove(e.getKey(), e.getValue());
+      }
+    }
+    if (clazz.isInstance(resource) == false) {
+      throw new IllegalArgumentException("Resource " + key + " is a " + resource.getClass().getName() + ", not a " + clazz.getName());
+    }
+    return clazz.cast(resource);
+  }
+
+  private <T> Object getOrLoadLocked(Entry entry, String key, IOSupplier<T> loader, Compiler<T> compiler) throws IOException {
+    assert Thread.holdsLock(entry);
+    final WeakReference<Object> ref = entry.ref;
+    Object resource = ref == null ? null : ref.get();
+    if (resource != null) {
+      hitCount.increment();
+    } else {
+      loadCount.increment();
+      if (compiler != null && storeDirectory != null) {
+        resource = loadCompiled(key, loader, compiler);
+      } else {
+        resource = loader.get();
+      }
+      if (resource == null) {
+        throw new IllegalStateException("Loaded a null resource for key " + key);
+      }
+      entry.ref = new WeakReference<>(resource);
+    }
+    return resource;
+  }
+
+  private <T> T loadCompiled(String key, IOSupplier<T> loader, Compiler<T> compiler) throws IOException {
+    final String fileName = key + "." + EXTENSION;
+    if (Files.exists(storeDirectory.getDirectory().resolve(fileName))) {
+      try {
+        return readCompiled(fileName, compiler);
+      } catch (CorruptIndexException | IndexFormatTooOldException | IndexFormatTooNewException e) {
+        // compiled by another version or damaged, compile it again
+      }
+    }
+
+    final T resource = loader.get();
+    String tempFileName = null;
+    boolean success = false;
+    try (IndexOutput out = storeDirectory.createTempOutput(key, EXTENSION, IOContext.DEFAULT)) {
+      tempFileName = out.getName();
+      CodecUtil.writeHeader(out, CODEC_NAME, VERSION_CURRENT);
+      compiler.write(resource, out);
+      CodecUtil.writeFooter(out);
+      success = true;
+    } finally {
+      if (success == false && tempFileName != null) {
+        IOUtils.deleteFilesIgnoringExceptions(storeDirectory, tempFileName);
+      }
+    }
+    storeDirectory.sync(Collections.singleton(tempFileName));
+    storeDirectory.rename(tempFileName, fileName);
+    storeDirectory.syncMetaData();
+    return readCompiled(fileName, compiler);
+  }
+
+  private <T> T readCompiled(String fileName, Compiler<T> compiler) throws IOException {
+    try (IndexInput in = storeDirectory.openInput(fileName, IOContext.DEFAULT)) {
+      CodecUtil.checksumEntireFile(in);
+      in.seek(0);
+      CodecUtil.checkHeader(in, CODEC_NAME, VERSION_START, VERSION_CURRENT);
+      // the store directory does not unmap on close, so the slice stays readable
+      // after the file is closed, until the resource is garbage collected
+      final long start = in.getFilePointer();
+      final IndexInput slice = in.slice(fileName, start, in.length() - CodecUtil.footerLength() - start);
+      return compiler.read(slice);
+    }
+  }
+
+  /** Return the number of lookups that found their resource in the registry. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** Return the number of lookups that had to load or read their resource. */
+  public long getLoadCount() {
+    return loadCount.sum();
+  }
+
+  /** Return the directory where compiled resources are stored, or {@code null}. */
+  public Path getStorePath() {
+    return storeDirectory == null ? null : storeDirectory.getDirectory();
+  }
+
+  /**
+   * Close the store directory. Resources that have already been loaded remain
+   * usable.
+   */
+  @Override
+  public void close() throws IOException {
+    IOUtils.close(storeDirectory);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(storePath=" + getStorePath() + ")";
+  }
+}
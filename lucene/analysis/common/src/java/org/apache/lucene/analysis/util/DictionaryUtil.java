@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.InputStreamDataInput;
+import org.apache.lucene.util.IOUtils;
+
+/**
+ * Utility methods for the binary dictionaries of morphological analyzers.
+ *
+ * @lucene.internal
+ */
+public final class DictionaryUtil {
+
+  private DictionaryUtil() {}
+
+  /**
+   * Memory-maps the buffer of a dictionary file read-only, so that it is
+   * neither copied to the heap nor to a direct buffer. The file starts with a
+   * {@link CodecUtil#writeHeader codec header}, followed by the length of the
+   * buffer as a vInt and the buffer itself.
+   */
+  public static ByteBuffer mapDictionaryBuffer(Path path, String codecName, int version) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // no buffering here, so that the channel is positioned right after the header
+      final DataInput in = new InputStreamDataInput(Channels.newInputStream(channel));
+      CodecUtil.checkHeader(in, codecName, version, version);
+      final int size = in.readVInt();
+      final long offset = channel.position();
+      if (offset + size > channel.size()) {
+        throw new EOFException("Cannot read whole dictionary");
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).asReadOnlyBuffer();
+    }
+  }
+
+  /**
+   * Memory-maps the buffer of a dictionary that is read from {@code resource}, such as a classpath
+   * resource, which cannot be mapped in place. The resource is copied to a file in {@code cacheDir}
+   * that is named after the checksum of its content, so that all processes that load the same
+   * dictionary map the same file, and this file is then mapped with {@link #mapDictionaryBuffer}.
+   * The caller still has to close {@code resource}.
+   *
+   * @return the mapped buffer, or {@code null} if the cache file could not be written or mapped,
+   *     in which case the caller should read the buffer from the resource again onto the heap
+   */
+  public static ByteBuffer mapDictionaryResource(InputStream resource, Path cacheDir, String codecName, int version) {
+    Path tempFile = null;
+    try {
+      Files.createDirectories(cacheDir);
+      tempFile = Files.createTempFile(cacheDir, codecName, ".tmp");
+      final CRC32 checksum = new CRC32();
+      try (OutputStream out = new CheckedOutputStream(Files.newOutputStream(tempFile), checksum)) {
+        final byte[] buffer = new byte[8192];
+        for (int len = resource.read(buffer); len != -1; len = resource.read(buffer)) {
+          out.write(buffer, 0, len);
+        }
+      }
+      final Path cacheFile = cacheDir.resolve(codecName + "_" + version + "_" + Long.toHexString(checksum.getValue()) + ".dat");
+      if (Files.exists(cacheFile) == false || Files.size(cacheFile) != Files.size(tempFile)) {
+        // readers never see a partially written cache file
+        Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        tempFile = null;
+      }
+      return mapDictionaryBuffer(cacheFile, codecName, version);
+    } catch (IOException | SecurityException e) {
+      return null;
+    } finally {
+      if (tempFile != null) {
+        IOUtils.deleteFilesIgnoringExceptions(tempFile);
+      }
+    }
+  }
+
+  /**
+   * Returns the directory that classpath dictionaries are copied to by default, so that they can be
+   * memory-mapped, or {@code null} if there is no temporary directory.
+   *
+   * @see #mapDictionaryResource
+   */
+  public static Path getDefaultCacheDir() {
+    final String tmpDir = System.getProperty("java.io.tmpdir");
+    return tmpDir == null ? null : Paths.get(tmpDir, "lucene-dictionaries");
+  }
+}
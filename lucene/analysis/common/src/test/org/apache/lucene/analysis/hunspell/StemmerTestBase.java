@@ -43,7 +43,7 @@ public abstract class StemmerTestBase extends LuceneTestCase {
 
   static void init(boolean ignoreCase, String affix, String... dictionaries)
       throws IOException, ParseException {
-    stemmer = new Stemmer(loadDictionary(ignoreCase, affix, dictionaries));
+    stemmer = new Stemmer(loadDictionary(ignoreCase, affix, dictionaries), random().nextBoolean());
   }
 
   static Dictionary loadDictionary(boolean ignoreCase, String affix, String... dictionaries)
@@ -34,6 +34,10 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.util.IntsRef;
 import org.apache.lucene.util.LuceneTestCase;
 import org.junit.Test;
@@ -156,6 +160,45 @@ public class TestDictionary extends LuceneTestCase {
     loadDictionary("forgivable-errors-num.aff", "single-word.dic");
   }
 
+  public void testCompiledDictionary() throws Exception {
+    for (String name : new String[] {"simple", "compressed", "morphdata", "ph", "flaglong"}) {
+      Dictionary parsed = loadDictionary(name + ".aff", name + ".dic");
+      try (Directory dir = new MMapDirectory(createTempDir("hunspell"))) {
+        try (InputStream affixStream = getClass().getResourceAsStream(name + ".aff");
+            InputStream dicStream = getClass().getResourceAsStream(name + ".dic");
+            Directory tempDir = getDirectory();
+            IndexOutput out = dir.createOutput("dictionary.bin", IOContext.DEFAULT)) {
+          Dictionary.compile(
+              tempDir, "dictionary", affixStream, Collections.singletonList(dicStream), false, out);
+        }
+        try (IndexInput in = dir.openInput("dictionary.bin", IOContext.READONCE)) {
+          assertSameDictionary(name, parsed, Dictionary.read(in));
+        }
+      }
+    }
+  }
+
+  private static void assertSameDictionary(String name, Dictionary expected, Dictionary actual) {
+    assertEquals(name, expected.repTable.toString(), actual.repTable.toString());
+    assertEquals(name, expected.hasCustomMorphData, actual.hasCustomMorphData);
+    Stemmer expectedStemmer = new Stemmer(expected);
+    Stemmer actualStemmer = new Stemmer(actual);
+    Set<String> words = new HashSet<>();
+    expected.words.processAllWords(1, 100, (word, __) -> words.add(word.toString()));
+    assertFalse(name, words.isEmpty());
+    for (String word : words) {
+      DictEntries expectedEntries = expected.lookupEntries(word);
+      DictEntries actualEntries = actual.lookupEntries(word);
+      assertEquals(word, expectedEntries.size(), actualEntries.size());
+      for (int i = 0; i < expectedEntries.size(); i++) {
+        assertEquals(
+            word, expectedEntries.getMorphologicalData(i), actualEntries.getMorphologicalData(i));
+      }
+      assertEquals(
+          word, expectedStemmer.stem(word).toString(), actualStemmer.stem(word).toString());
+    }
+  }
+
   private Dictionary loadDictionary(String aff, String dic) throws IOException, ParseException {
     try (InputStream affixStream = getClass().getResourceAsStream(aff);
         InputStream dicStream = getClass().getResourceAsStream(dic);
@@ -19,8 +19,10 @@ package org.apache.lucene.analysis.hunspell;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.BaseTokenStreamTestCase;
@@ -29,8 +31,10 @@ import org.apache.lucene.analysis.MockTokenizer;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.KeywordTokenizer;
 import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.TestUtil;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 
@@ -79,6 +83,58 @@ public class TestHunspellStemFilter extends BaseTokenStreamTestCase {
     assertTokenStreamContents(filter, new String[]{"lucene", "is", "awesome"}, new int[] {1, 1, 1});
   }
   
+  /** the stem cache must not change the output, also when it gets full */
+  public void testStemCache() throws IOException {
+    String text = "lucene is awesome lucene lucene is awesome lucene";
+    for (boolean longestOnly : new boolean[] {false, true}) {
+      for (int cacheSize : new int[] {1, 2, 100}) {
+        MockTokenizer expectedTokenizer = whitespaceMockTokenizer(text);
+        HunspellStemFilter expected = new HunspellStemFilter(expectedTokenizer, dictionary, true, longestOnly);
+        MockTokenizer tokenizer = whitespaceMockTokenizer(text);
+        HunspellStemFilter filter = new HunspellStemFilter(tokenizer, dictionary, true, longestOnly, cacheSize);
+        assertTokenStreamContents(filter, tokens(expected), positionIncrements(text, longestOnly));
+      }
+    }
+    expectThrows(IllegalArgumentException.class, () -> new HunspellStemFilter(whitespaceMockTokenizer(text), dictionary, true, false, -1));
+  }
+
+  private static String[] tokens(HunspellStemFilter filter) throws IOException {
+    CharTermAttribute termAtt = filter.getAttribute(CharTermAttribute.class);
+    List<String> tokens = new ArrayList<>();
+    filter.reset();
+    while (filter.incrementToken()) {
+      tokens.add(termAtt.toString());
+    }
+    filter.end();
+    filter.close();
+    return tokens.toArray(new String[0]);
+  }
+
+  private static int[] positionIncrements(String text, boolean longestOnly) {
+    List<Integer> posIncs = new ArrayList<>();
+    for (String word : text.split(" ")) {
+      posIncs.add(1);
+      if (word.equals("lucene") && longestOnly == false) {
+        posIncs.add(0);
+      }
+    }
+    return posIncs.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /** blast some random strings through the analyzer, with a stem cache */
+  public void testRandomStringsWithStemCache() throws Exception {
+    final int cacheSize = TestUtil.nextInt(random(), 1, 100);
+    Analyzer analyzer = new Analyzer() {
+      @Override
+      protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer tokenizer = new MockTokenizer(MockTokenizer.WHITESPACE, false);
+        return new TokenStreamComponents(tokenizer, new HunspellStemFilter(tokenizer, dictionary, true, random().nextBoolean(), cacheSize));
+      }
+    };
+    checkRandomData(random(), analyzer, 200 * RANDOM_MULTIPLIER);
+    analyzer.close();
+  }
+
   /** blast some random strings through the analyzer */
   public void testRandomStrings() throws Exception {
     Analyzer analyzer = new Analyzer() {
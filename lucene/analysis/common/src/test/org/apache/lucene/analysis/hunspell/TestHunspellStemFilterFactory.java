@@ -19,9 +19,14 @@ package org.apache.lucene.analysis.hunspell;
 
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.util.AnalysisResourceRegistry;
 import org.apache.lucene.analysis.util.BaseTokenStreamFactoryTestCase;
+import org.apache.lucene.analysis.util.TokenFilterFactory;
 
 /**
  * Simple tests to ensure the Hunspell stemmer loads from factory
@@ -36,6 +41,62 @@ public class TestHunspellStemFilterFactory extends BaseTokenStreamFactoryTestCas
     assertTokenStreamContents(stream, new String[] { "ab" });
   }
   
+  public void testStemCacheAndSharedDictionary() throws Exception {
+    AnalysisResourceRegistry previous = AnalysisResourceRegistry.getDefault();
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    AnalysisResourceRegistry.setDefault(registry);
+    try {
+      TokenFilterFactory factory1 = tokenFilterFactory("HunspellStem",
+          "dictionary", "simple.dic",
+          "affix", "simple.aff",
+          "stemCacheSize", "10");
+      TokenFilterFactory factory2 = tokenFilterFactory("HunspellStem",
+          "dictionary", "simple.dic",
+          "affix", "simple.aff",
+          "stemCacheSize", "10");
+      assertEquals(1, registry.getLoadCount());
+      assertEquals(1, registry.getHitCount());
+      for (TokenFilterFactory factory : new TokenFilterFactory[] {factory1, factory2}) {
+        TokenStream stream = factory.create(whitespaceMockTokenizer("abc abc"));
+        assertTokenStreamContents(stream, new String[] { "ab", "ab" });
+      }
+    } finally {
+      AnalysisResourceRegistry.setDefault(previous);
+    }
+
+    IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> {
+      tokenFilterFactory("HunspellStem",
+          "dictionary", "simple.dic",
+          "affix", "simple.aff",
+          "stemCacheSize", "-1");
+    });
+    assertTrue(expected.getMessage().contains("stemCacheSize"));
+  }
+
+  public void testCompiledDictionary() throws Exception {
+    AnalysisResourceRegistry previous = AnalysisResourceRegistry.getDefault();
+    Path storePath = createTempDir("hunspell");
+    try {
+      // the first registry compiles the dictionary, the second one maps the compiled file
+      for (int i = 0; i < 2; i++) {
+        try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+          AnalysisResourceRegistry.setDefault(registry);
+          TokenFilterFactory factory = tokenFilterFactory("HunspellStem",
+              "dictionary", "simple.dic",
+              "affix", "simple.aff");
+          assertEquals(1, registry.getLoadCount());
+          TokenStream stream = factory.create(whitespaceMockTokenizer("abc lucene"));
+          assertTokenStreamContents(stream, new String[] { "ab", "lucene", "lucen" });
+        }
+        try (Stream<Path> files = Files.list(storePath)) {
+          assertEquals(1, files.count());
+        }
+      }
+    } finally {
+      AnalysisResourceRegistry.setDefault(previous);
+    }
+  }
+
   /** Test that bogus arguments result in exception */
   public void testBogusArguments() throws Exception {
     IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> {
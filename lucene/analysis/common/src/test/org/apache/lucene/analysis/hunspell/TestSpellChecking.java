@@ -22,9 +22,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
 
@@ -241,8 +244,24 @@ public class TestSpellChecking extends LuceneTestCase {
 
     Hunspell speller;
     try {
-      Dictionary dictionary =
-          new Dictionary(new ByteBuffersDirectory(), "dictionary", affixStream, dictStream);
+      Dictionary dictionary;
+      if (random().nextBoolean()) {
+        dictionary =
+            new Dictionary(new ByteBuffersDirectory(), "dictionary", affixStream, dictStream);
+      } else {
+        // exercise the compiled form, whose word entries are read from the directory
+        ByteBuffersDirectory compiled = new ByteBuffersDirectory();
+        try (IndexOutput out = compiled.createOutput("dictionary.bin", IOContext.DEFAULT)) {
+          Dictionary.compile(
+              new ByteBuffersDirectory(),
+              "dictionary",
+              affixStream,
+              Collections.singletonList(dictStream),
+              false,
+              out);
+        }
+        dictionary = Dictionary.read(compiled.openInput("dictionary.bin", IOContext.DEFAULT));
+      }
       speller = new Hunspell(dictionary, TimeoutPolicy.NO_TIMEOUT, () -> {});
     } finally {
       IOUtils.closeWhileHandlingException(affixStream);
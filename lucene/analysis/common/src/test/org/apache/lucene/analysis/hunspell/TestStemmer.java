@@ -17,6 +17,8 @@
 package org.apache.lucene.analysis.hunspell;
 
 
+import java.util.List;
+import org.apache.lucene.util.CharsRef;
 import org.junit.BeforeClass;
 
 public class TestStemmer extends StemmerTestBase {
@@ -59,6 +61,28 @@ public class TestStemmer extends StemmerTestBase {
     assertStemsTo("solr", "olr");
   }
   
+  public void testReuseBuffers() throws Exception {
+    Dictionary dictionary = loadDictionary(false, "simple.aff", "simple.dic");
+    Stemmer stemmer = new Stemmer(dictionary);
+    Stemmer reusing = new Stemmer(dictionary, true);
+    String[] words = {"lucene", "Lucene", "LUCENE", "mahoute", "solr", "foo", "foos", "abs", ""};
+    for (String word : words) {
+      assertEquals(word, stemmer.stem(word).toString(), reusing.stem(word).toString());
+      char[] chars = word.toCharArray();
+      assertEquals(
+          word,
+          stemmer.uniqueStems(chars, chars.length).toString(),
+          reusing.uniqueStems(chars, chars.length).toString());
+    }
+
+    // the list and its stems are reused for the next word
+    List<CharsRef> stems = reusing.stem("lucene");
+    CharsRef first = stems.get(0);
+    assertSame(stems, reusing.stem("mahoute"));
+    assertSame(first, stems.get(0));
+    assertEquals("mahout", first.toString());
+  }
+
   // some bogus stuff that should not stem (empty lists)!
   public void testBogusStems() {    
     assertStemsTo("abs");
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.synonym.SynonymGraphFilterFactory;
+import org.apache.lucene.analysis.synonym.SynonymMap;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.CharsRef;
+import org.apache.lucene.util.Version;
+
+public class TestAnalysisResourceRegistry extends BaseTokenStreamFactoryTestCase {
+
+  private static final AnalysisResourceRegistry.Compiler<String> STRING_COMPILER = new AnalysisResourceRegistry.Compiler<String>() {
+    @Override
+    public void write(String resource, DataOutput out) throws IOException {
+      out.writeString(resource);
+    }
+
+    @Override
+    public String read(IndexInput in) throws IOException {
+      return in.readString();
+    }
+  };
+
+  private AnalysisResourceRegistry previousDefault;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    previousDefault = AnalysisResourceRegistry.getDefault();
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    AnalysisResourceRegistry.setDefault(previousDefault);
+    super.tearDown();
+  }
+
+  private TokenFilterFactory synonymFactory(String synonyms) throws Exception {
+    return tokenFilterFactory("SynonymGraph", Version.LATEST, new StringMockResourceLoader(synonyms), "synonyms", "synonyms.txt");
+  }
+
+  private void assertSynonyms(TokenFilterFactory factory) throws Exception {
+    TokenStream stream = whitespaceMockTokenizer("GB");
+    stream = factory.create(stream);
+    assertTokenStreamContents(stream, new String[] { "gib", "GB" }, new int[] { 1, 0 });
+  }
+
+  public void testSharedSynonymMap() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    AnalysisResourceRegistry.setDefault(registry);
+
+    TokenFilterFactory factory1 = synonymFactory("GB,gib");
+    assertEquals(1, registry.getLoadCount());
+    TokenFilterFactory factory2 = synonymFactory("GB,gib");
+    assertEquals(1, registry.getLoadCount());
+    assertEquals(1, registry.getHitCount());
+    assertSynonyms(factory1);
+    assertSynonyms(factory2);
+
+    // different content
+    synonymFactory("GB,gigabyte");
+    assertEquals(2, registry.getLoadCount());
+    // different arguments
+    tokenFilterFactory("SynonymGraph", Version.LATEST, new StringMockResourceLoader("GB,gib"), "synonyms", "synonyms.txt", "expand", "false");
+    assertEquals(3, registry.getLoadCount());
+  }
+
+  public void testSubclassesDoNotShareSynonymMap() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    AnalysisResourceRegistry.setDefault(registry);
+
+    Map<String,String> args = new HashMap<>();
+    args.put("luceneMatchVersion", Version.LATEST.toString());
+    args.put("synonyms", "/managed/resource/id");
+    SynonymGraphFilterFactory factory = new SynonymGraphFilterFactory(args) {
+      @Override
+      protected SynonymMap loadSynonyms(ResourceLoader loader, String cname, boolean dedup, Analyzer analyzer) throws IOException {
+        SynonymMap.Builder builder = new SynonymMap.Builder(dedup);
+        builder.add(new CharsRef("GB"), new CharsRef("gib"), true);
+        return builder.build();
+      }
+    };
+    // the synonyms argument is not a resource that the loader can open
+    factory.inform(new StringMockResourceLoader("") {
+      @Override
+      public InputStream openResource(String resource) throws IOException {
+        throw new IOException("not a resource: " + resource);
+      }
+    });
+    assertSynonyms(factory);
+    assertEquals(0, registry.getLoadCount());
+    assertEquals(0, registry.getHitCount());
+  }
+
+  public void testCompiledSynonymMap() throws Exception {
+    Path storePath = createTempDir("resources");
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      AnalysisResourceRegistry.setDefault(registry);
+      assertSynonyms(synonymFactory("GB,gib"));
+      assertEquals(1, registry.getLoadCount());
+    }
+    List<Path> files = listFiles(storePath);
+    assertEquals(1, files.size());
+    final long length = Files.size(files.get(0));
+
+    // a new registry reads the compiled map back
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      AnalysisResourceRegistry.setDefault(registry);
+      assertSynonyms(synonymFactory("GB,gib"));
+      assertEquals(1, registry.getLoadCount());
+    }
+    assertEquals(files, listFiles(storePath));
+    assertEquals(length, Files.size(files.get(0)));
+
+    // empty synonyms have no FST
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      AnalysisResourceRegistry.setDefault(registry);
+      for (int i = 0; i < 2; ++i) {
+        TokenStream stream = synonymFactory("").create(whitespaceMockTokenizer("GB"));
+        assertTokenStreamContents(stream, new String[] { "GB" });
+      }
+    }
+  }
+
+  public void testCompiledStemmerOverrideMap() throws Exception {
+    Path storePath = createTempDir("resources");
+    for (int i = 0; i < 2; ++i) {
+      try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+        AnalysisResourceRegistry.setDefault(registry);
+        TokenFilterFactory factory = tokenFilterFactory("StemmerOverride", Version.LATEST,
+            new StringMockResourceLoader("dogs\tcat"), "dictionary", "stemdict.txt", "ignoreCase", "true");
+        assertTokenStreamContents(factory.create(whitespaceMockTokenizer("Dogs")), new String[] { "cat" });
+      }
+      assertEquals(1, listFiles(storePath).size());
+    }
+  }
+
+  public void testCompiledResourceIsNotLoadedAgain() throws Exception {
+    Path storePath = createTempDir("resources");
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      assertEquals("foo", registry.getOrLoad("key", String.class, () -> "foo", STRING_COMPILER));
+    }
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      assertEquals("foo", registry.getOrLoad("key", String.class, () -> { throw new AssertionError(); }, STRING_COMPILER));
+    }
+  }
+
+  public void testCorruptCompiledResourceIsRebuilt() throws Exception {
+    Path storePath = createTempDir("resources");
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      assertEquals("foo", registry.getOrLoad("key", String.class, () -> "foo", STRING_COMPILER));
+    }
+    List<Path> files = listFiles(storePath);
+    assertEquals(1, files.size());
+    try (OutputStream out = Files.newOutputStream(files.get(0))) {
+      out.write(new byte[] { 1, 2, 3 });
+    }
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      assertEquals("bar", registry.getOrLoad("key", String.class, () -> "bar", STRING_COMPILER));
+    }
+    try (AnalysisResourceRegistry registry = new AnalysisResourceRegistry(storePath)) {
+      assertEquals("bar", registry.getOrLoad("key", String.class, () -> { throw new AssertionError(); }, STRING_COMPILER));
+    }
+  }
+
+  public void testConcurrentLoadsOfDifferentKeys() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    // both loads are in progress at the same time and then prune the entries
+    CyclicBarrier barrier = new CyclicBarrier(2);
+    String[] keys = new String[] { "a", "b" };
+    Thread[] threads = new Thread[keys.length];
+    for (int i = 0; i < threads.length; i++) {
+      String key = keys[i];
+      threads[i] = new Thread(() -> {
+        try {
+          registry.getOrLoad(key, String.class, () -> {
+            try {
+              barrier.await();
+            } catch (Exception e) {
+              throw new AssertionError(e);
+            }
+            return key;
+          });
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join(30000);
+      assertFalse("deadlock", thread.isAlive());
+    }
+    assertEquals(2, registry.getLoadCount());
+    assertEquals(0, registry.getHitCount());
+  }
+
+  public void testNestedLoad() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    assertEquals("ab", registry.getOrLoad("a", String.class, () -> "a" + registry.getOrLoad("b", String.class, () -> "b")));
+    assertEquals("ab", registry.getOrLoad("a", String.class, () -> { throw new AssertionError(); }));
+    assertEquals(2, registry.getLoadCount());
+    assertEquals(1, registry.getHitCount());
+  }
+
+  public void testConcurrentCounts() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    String[] keys = new String[] { "a", "b", "c", "d" };
+    int numThreads = 4;
+    int numIters = atLeast(1000);
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      threads[i] = new Thread(() -> {
+        try {
+          start.await();
+          for (int j = 0; j < numIters; j++) {
+            String key = keys[j % keys.length];
+            assertEquals(key, registry.getOrLoad(key, String.class, () -> key));
+          }
+        } catch (Exception e) {
+          throw new AssertionError(e);
+        }
+      });
+      threads[i].start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // string literals are never garbage collected, so each key is loaded once
+    assertEquals(keys.length, registry.getLoadCount());
+    assertEquals((long) numThreads * numIters - keys.length, registry.getHitCount());
+  }
+
+  public void testIllegalArgs() throws Exception {
+    AnalysisResourceRegistry registry = new AnalysisResourceRegistry();
+    expectThrows(IllegalArgumentException.class, () -> registry.getOrLoad("../key", String.class, () -> "foo"));
+    registry.getOrLoad("key", String.class, () -> "foo");
+    expectThrows(IllegalArgumentException.class, () -> registry.getOrLoad("key", Integer.class, () -> 42));
+    expectThrows(IllegalArgumentException.class, () -> AnalysisResourceRegistry.setDefault(null));
+  }
+
+  private static List<Path> listFiles(Path dir) throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path file : stream) {
+        files.add(file);
+      }
+    }
+    return files;
+  }
+}
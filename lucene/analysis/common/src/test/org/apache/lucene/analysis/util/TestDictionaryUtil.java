@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.Constants;
+import org.apache.lucene.util.LuceneTestCase;
+
+public class TestDictionaryUtil extends LuceneTestCase {
+
+  private static final String CODEC_NAME = "test_dict";
+
+  public void testMapDictionaryResource() throws Exception {
+    assumeFalse("mapped files cannot be deleted on Windows", Constants.WINDOWS);
+    byte[] data = new byte[random().nextInt(1000)];
+    random().nextBytes(data);
+    byte[] resource = newResource(data);
+    Path cacheDir = createTempDir().resolve("cache");
+
+    ByteBuffer buffer = map(resource, cacheDir);
+    assertNotNull(buffer);
+    assertTrue(buffer.isDirect());
+    assertBufferEquals(data, buffer);
+    assertEquals(1, listFiles(cacheDir).size());
+
+    // the same content maps the same cache file
+    assertBufferEquals(data, map(resource, cacheDir));
+    assertEquals(1, listFiles(cacheDir).size());
+
+    byte[] otherData = new byte[data.length + 1];
+    random().nextBytes(otherData);
+    assertBufferEquals(otherData, map(newResource(otherData), cacheDir));
+    assertEquals(2, listFiles(cacheDir).size());
+  }
+
+  public void testUnwritableCacheDir() throws Exception {
+    // a regular file is not a usable directory, the caller falls back to the heap
+    Path cacheDir = Files.createFile(createTempDir().resolve("cache"));
+    assertNull(map(newResource(new byte[] {1, 2, 3}), cacheDir));
+  }
+
+  public void testCorruptResource() throws Exception {
+    byte[] resource = newResource(new byte[] {1, 2, 3});
+    resource[0] ^= 1;
+    Path cacheDir = createTempDir();
+    assertNull(map(resource, cacheDir));
+    // temporary files are removed
+    for (Path file : listFiles(cacheDir)) {
+      assertTrue(file.toString(), file.getFileName().toString().endsWith(".dat"));
+    }
+  }
+
+  private static ByteBuffer map(byte[] resource, Path cacheDir) throws Exception {
+    try (InputStream in = new ByteArrayInputStream(resource)) {
+      return DictionaryUtil.mapDictionaryResource(in, cacheDir, CODEC_NAME, 1);
+    }
+  }
+
+  private static byte[] newResource(byte[] data) throws Exception {
+    byte[] bytes = new byte[data.length + 100];
+    ByteArrayDataOutput out = new ByteArrayDataOutput(bytes);
+    CodecUtil.writeHeader(out, CODEC_NAME, 1);
+    out.writeVInt(data.length);
+    out.writeBytes(data, data.length);
+    byte[] resource = new byte[out.getPosition()];
+    System.arraycopy(bytes, 0, resource, 0, resource.length);
+    return resource;
+  }
+
+  private static void assertBufferEquals(byte[] expected, ByteBuffer buffer) {
+    assertEquals(expected.length, buffer.remaining());
+    byte[] actual = new byte[expected.length];
+    buffer.get(actual);
+    assertArrayEquals(expected, actual);
+  }
+
+  private static List<Path> listFiles(Path dir) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+}
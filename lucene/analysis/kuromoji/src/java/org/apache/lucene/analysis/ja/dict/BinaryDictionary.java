@@ -24,10 +24,12 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 
+import org.apache.lucene.analysis.util.DictionaryUtil;
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.InputStreamDataInput;
@@ -135,19 +137,32 @@ public abstract class BinaryDictionary implements Dictionary {
       }
       posIS.close(); posIS = null;
       
-      dictIS = getResource(DICT_FILENAME_SUFFIX);
-      // no buffering here, as we load in one large buffer
-      in = new InputStreamDataInput(dictIS);
-      CodecUtil.checkHeader(in, DICT_HEADER, VERSION, VERSION);
-      final int size = in.readVInt();
-      final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(size);
-      final ReadableByteChannel channel = Channels.newChannel(dictIS);
-      final int read = channel.read(tmpBuffer);
-      if (read != size) {
-        throw new EOFException("Cannot read whole dictionary");
+      if (resourceScheme == ResourceScheme.FILE) {
+        buffer = DictionaryUtil.mapDictionaryBuffer(Paths.get(this.resourcePath + DICT_FILENAME_SUFFIX), DICT_HEADER, VERSION);
+      } else {
+        // resources in a jar cannot be mapped, so they are mapped from a copy in the cache directory
+        final Path cacheDir = DictionaryUtil.getDefaultCacheDir();
+        if (cacheDir != null) {
+          dictIS = getResource(DICT_FILENAME_SUFFIX);
+          buffer = DictionaryUtil.mapDictionaryResource(dictIS, cacheDir, DICT_HEADER, VERSION);
+          dictIS.close(); dictIS = null;
+        }
+        if (buffer == null) {
+          dictIS = getResource(DICT_FILENAME_SUFFIX);
+          // no buffering here, as we load in one large buffer
+          in = new InputStreamDataInput(dictIS);
+          CodecUtil.checkHeader(in, DICT_HEADER, VERSION, VERSION);
+          final int size = in.readVInt();
+          final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(size);
+          final ReadableByteChannel channel = Channels.newChannel(dictIS);
+          final int read = channel.read(tmpBuffer);
+          if (read != size) {
+            throw new EOFException("Cannot read whole dictionary");
+          }
+          dictIS.close(); dictIS = null;
+          buffer = tmpBuffer.asReadOnlyBuffer();
+        }
       }
-      dictIS.close(); dictIS = null;
-      buffer = tmpBuffer.asReadOnlyBuffer();
       success = true;
     } finally {
       if (success) {
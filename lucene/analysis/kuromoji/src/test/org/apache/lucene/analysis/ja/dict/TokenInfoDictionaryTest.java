@@ -32,6 +32,7 @@ import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.UnicodeUtil;
 import org.apache.lucene.util.fst.FST;
 import org.apache.lucene.util.fst.IntsRefFSTEnum;
+import org.apache.lucene.util.fst.Util;
 
 import static org.apache.lucene.analysis.ja.dict.BinaryDictionary.ResourceScheme;
 
@@ -59,6 +60,38 @@ public class TokenInfoDictionaryTest extends LuceneTestCase {
     assertEquals(2, dict.getWordCost(wordId));
   }
 
+  public void testLookupsFromFile() throws Exception {
+    // the buffer of dictionaries that are loaded from files is memory-mapped
+    TokenInfoDictionary dict = newDictionary("東京,1,1,100,名詞,固有名詞,地域,一般,*,*,東京,トウキョウ,トーキョー",
+                                               "走る,2,2,200,動詞,自立,*,*,五段・ラ行,基本形,走る,ハシル,ハシル");
+    char[] surface = "東京".toCharArray();
+    int wordId = lookupWordId(dict, "東京");
+    assertEquals(1, dict.getLeftId(wordId));
+    assertEquals(100, dict.getWordCost(wordId));
+    assertEquals("名詞-固有名詞-地域-一般", dict.getPartOfSpeech(wordId));
+    assertEquals("トウキョウ", dict.getReading(wordId, surface, 0, surface.length));
+    assertEquals("トーキョー", dict.getPronunciation(wordId, surface, 0, surface.length));
+    assertNull(dict.getInflectionType(wordId));
+
+    surface = "走る".toCharArray();
+    wordId = lookupWordId(dict, "走る");
+    assertEquals(2, dict.getRightId(wordId));
+    assertEquals(200, dict.getWordCost(wordId));
+    assertEquals("動詞-自立", dict.getPartOfSpeech(wordId));
+    assertEquals("ハシル", dict.getReading(wordId, surface, 0, surface.length));
+    assertEquals("五段・ラ行", dict.getInflectionType(wordId));
+    assertEquals("基本形", dict.getInflectionForm(wordId));
+  }
+
+  private static int lookupWordId(TokenInfoDictionary dict, String surface) throws Exception {
+    Long sourceId = Util.get(dict.getFST().getInternalFST(), Util.toUTF16(surface, new IntsRefBuilder()));
+    assertNotNull(sourceId);
+    IntsRef wordIds = new IntsRef();
+    dict.lookupWordIds(sourceId.intValue(), wordIds);
+    assertEquals(1, wordIds.length);
+    return wordIds.ints[wordIds.offset];
+  }
+
   private TokenInfoDictionary newDictionary(String... entries) throws Exception {
     Path dir = createTempDir();
     try (OutputStream out = Files.newOutputStream(dir.resolve("test.csv"));
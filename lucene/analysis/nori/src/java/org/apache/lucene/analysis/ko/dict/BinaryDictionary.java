@@ -25,9 +25,11 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import org.apache.lucene.analysis.ko.POS;
+import org.apache.lucene.analysis.util.DictionaryUtil;
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.InputStreamDataInput;
@@ -82,7 +84,7 @@ public abstract class BinaryDictionary implements Dictionary {
     }
     InputStream mapIS = null, dictIS = null, posIS = null;
     int[] targetMapOffsets, targetMap;
-    ByteBuffer buffer;
+    ByteBuffer buffer = null;
     try {
       mapIS = getResource(TARGETMAP_FILENAME_SUFFIX);
       mapIS = new BufferedInputStream(mapIS);
@@ -118,19 +120,32 @@ public abstract class BinaryDictionary implements Dictionary {
       }
       posIS.close(); posIS = null;
 
-      dictIS = getResource(DICT_FILENAME_SUFFIX);
-      // no buffering here, as we load in one large buffer
-      in = new InputStreamDataInput(dictIS);
-      CodecUtil.checkHeader(in, DICT_HEADER, VERSION, VERSION);
-      final int size = in.readVInt();
-      final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(size);
-      final ReadableByteChannel channel = Channels.newChannel(dictIS);
-      final int read = channel.read(tmpBuffer);
-      if (read != size) {
-        throw new EOFException("Cannot read whole dictionary");
+      if (resourceScheme == ResourceScheme.FILE) {
+        buffer = DictionaryUtil.mapDictionaryBuffer(Paths.get(this.resourcePath + DICT_FILENAME_SUFFIX), DICT_HEADER, VERSION);
+      } else {
+        // resources in a jar cannot be mapped, so they are mapped from a copy in the cache directory
+        final Path cacheDir = DictionaryUtil.getDefaultCacheDir();
+        if (cacheDir != null) {
+          dictIS = getResource(DICT_FILENAME_SUFFIX);
+          buffer = DictionaryUtil.mapDictionaryResource(dictIS, cacheDir, DICT_HEADER, VERSION);
+          dictIS.close(); dictIS = null;
+        }
+        if (buffer == null) {
+          dictIS = getResource(DICT_FILENAME_SUFFIX);
+          // no buffering here, as we load in one large buffer
+          in = new InputStreamDataInput(dictIS);
+          CodecUtil.checkHeader(in, DICT_HEADER, VERSION, VERSION);
+          final int size = in.readVInt();
+          final ByteBuffer tmpBuffer = ByteBuffer.allocateDirect(size);
+          final ReadableByteChannel channel = Channels.newChannel(dictIS);
+          final int read = channel.read(tmpBuffer);
+          if (read != size) {
+            throw new EOFException("Cannot read whole dictionary");
+          }
+          dictIS.close(); dictIS = null;
+          buffer = tmpBuffer.asReadOnlyBuffer();
+        }
       }
-      dictIS.close(); dictIS = null;
-      buffer = tmpBuffer.asReadOnlyBuffer();
     } finally {
       IOUtils.closeWhileHandlingException(mapIS, posIS, dictIS);
     }
@@ -31,6 +31,7 @@ import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.UnicodeUtil;
 import org.apache.lucene.util.fst.FST;
 import org.apache.lucene.util.fst.IntsRefFSTEnum;
+import org.apache.lucene.util.fst.Util;
 
 import static org.apache.lucene.analysis.ko.dict.BinaryDictionary.ResourceScheme;
 
@@ -58,6 +59,39 @@ public class TokenInfoDictionaryTest extends LuceneTestCase {
     assertEquals(3, dict.getWordCost(wordId));
   }
 
+  public void testLookupsFromFile() throws Exception {
+    // the buffer of dictionaries that are loaded from files is memory-mapped
+    TokenInfoDictionary dict = newDictionary("한국,1,1,100,NNP,*,T,韓國,*,*,*,*",
+        "도서관,2,2,200,NNG,*,T,도서관,Compound,*,*,도서/NNG/*+관/NNG/*");
+    int wordId = lookupWordId(dict, "한국");
+    assertEquals(1, dict.getLeftId(wordId));
+    assertEquals(100, dict.getWordCost(wordId));
+    assertEquals(POS.Type.MORPHEME, dict.getPOSType(wordId));
+    assertEquals(POS.Tag.NNP, dict.getLeftPOS(wordId));
+    assertEquals("韓國", dict.getReading(wordId));
+
+    wordId = lookupWordId(dict, "도서관");
+    assertEquals(2, dict.getRightId(wordId));
+    assertEquals(200, dict.getWordCost(wordId));
+    assertEquals(POS.Type.COMPOUND, dict.getPOSType(wordId));
+    char[] surface = "도서관".toCharArray();
+    Dictionary.Morpheme[] morphemes = dict.getMorphemes(wordId, surface, 0, surface.length);
+    assertEquals(2, morphemes.length);
+    assertEquals("도서", morphemes[0].surfaceForm);
+    assertEquals(POS.Tag.NNG, morphemes[0].posTag);
+    assertEquals("관", morphemes[1].surfaceForm);
+    assertEquals(POS.Tag.NNG, morphemes[1].posTag);
+  }
+
+  private static int lookupWordId(TokenInfoDictionary dict, String surface) throws Exception {
+    Long sourceId = Util.get(dict.getFST().getInternalFST(), Util.toUTF16(surface, new IntsRefBuilder()));
+    assertNotNull(sourceId);
+    IntsRef wordIds = new IntsRef();
+    dict.lookupWordIds(sourceId.intValue(), wordIds);
+    assertEquals(1, wordIds.length);
+    return wordIds.ints[wordIds.offset];
+  }
+
   private TokenInfoDictionary newDictionary(String... entries) throws Exception {
     Path dir = createTempDir();
     try (OutputStream out = Files.newOutputStream(dir.resolve("test.csv"));
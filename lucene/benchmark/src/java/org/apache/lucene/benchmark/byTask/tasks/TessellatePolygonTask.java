@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.benchmark.byTask.tasks;
+
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.lucene.benchmark.byTask.PerfRunData;
+import org.apache.lucene.benchmark.byTask.utils.Config;
+import org.apache.lucene.geo.Polygon;
+import org.apache.lucene.geo.Tessellator;
+
+/**
+ * Tessellates a (multi)polygon, which is what dominates the indexing of
+ * {@link org.apache.lucene.document.LatLonShape} polygons.
+ * <p>
+ * Supports the following parameters:
+ * <ul>
+ * <li><b>tessellate.geojson</b> - path to a GeoJSON file with a Polygon or MultiPolygon to
+ * tessellate. If not set, a wavy circle polygon is generated instead. (default: <b>null</b>)
+ * <li><b>tessellate.vertices</b> - number of vertices of the generated polygon. (default: <b>100000</b>)
+ * <li><b>tessellate.threads</b> - number of threads of the fork-join pool used to tessellate the
+ * polygons concurrently, or 0 to tessellate them one after the other on the calling thread.
+ * (default: <b>0</b>)
+ * </ul>
+ */
+public class TessellatePolygonTask extends PerfTask {
+
+  private final Polygon[] polygons;
+  private final int threads;
+  private int totalTriangleCount = 0;
+
+  // volatile data passed between setup(), doLogic(), tearDown().
+  private ForkJoinPool pool = null;
+
+  public TessellatePolygonTask(PerfRunData runData) throws Exception {
+    super(runData);
+    Config config = runData.getConfig();
+    String geoJson = config.get("tessellate.geojson", null);
+    if (geoJson != null) {
+      polygons = Polygon.fromGeoJSON(new String(Files.readAllBytes(Paths.get(geoJson)), StandardCharsets.UTF_8));
+    } else {
+      polygons = new Polygon[] {wavyCircle(config.get("tessellate.vertices", 100000))};
+    }
+    threads = config.get("tessellate.threads", 0);
+  }
+
+  /** A circle of radius 1 degree around (0, 0) whose radius varies by up to 15% */
+  static Polygon wavyCircle(int vertices) {
+    double[] lats = new double[vertices + 1];
+    double[] lons = new double[vertices + 1];
+    for (int i = 0; i < vertices; i++) {
+      double angle = -2 * Math.PI * i / vertices;
+      double radius = 1 + 0.1 * Math.sin(7 * angle) + 0.05 * Math.sin(31 * angle);
+      lats[i] = radius * Math.sin(angle);
+      lons[i] = radius * Math.cos(angle);
+    }
+    lats[vertices] = lats[0];
+    lons[vertices] = lons[0];
+    return new Polygon(lats, lons);
+  }
+
+  @Override
+  public void setup() throws Exception {
+    super.setup();
+    if (threads > 0) {
+      pool = new ForkJoinPool(threads);
+    }
+  }
+
+  @Override
+  protected String getLogMessage(int recsCount) {
+    return "tessellated " + recsCount + " polygons; " + totalTriangleCount + " triangles";
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+    super.tearDown();
+  }
+
+  @Override
+  public int doLogic() throws Exception {
+    if (pool != null) {
+      totalTriangleCount += Tessellator.tessellate(polygons, pool).size();
+    } else {
+      for (Polygon polygon : polygons) {
+        totalTriangleCount += Tessellator.tessellate(polygon).size();
+      }
+    }
+    return polygons.length;
+  }
+}
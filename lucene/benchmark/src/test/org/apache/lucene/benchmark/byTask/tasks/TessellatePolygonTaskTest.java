@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.benchmark.byTask.tasks;
+
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.apache.lucene.benchmark.BenchmarkTestCase;
+import org.apache.lucene.benchmark.byTask.PerfRunData;
+import org.apache.lucene.benchmark.byTask.utils.Config;
+
+/** Tests the functionality of {@link TessellatePolygonTask}. */
+public class TessellatePolygonTaskTest extends BenchmarkTestCase {
+
+  private PerfRunData createPerfRunData(Properties props) throws Exception {
+    props.setProperty("print.props", "false"); // don't print anything
+    props.setProperty("directory", "RAMDirectory");
+    return new PerfRunData(new Config(props));
+  }
+
+  public void testGeneratedPolygon() throws Exception {
+    for (String threads : new String[] {"0", "2"}) {
+      Properties props = new Properties();
+      props.setProperty("tessellate.vertices", "5000");
+      props.setProperty("tessellate.threads", threads);
+      TessellatePolygonTask task = new TessellatePolygonTask(createPerfRunData(props));
+      task.setup();
+      assertEquals(1, task.doLogic());
+      task.tearDown();
+    }
+  }
+
+  public void testGeoJson() throws Exception {
+    Path file = getWorkDir().resolve("polygons.geojson");
+    Files.write(file, ("{\"type\": \"MultiPolygon\", \"coordinates\": ["
+        + "[[[0, 0], [1, 0], [1, 1], [0, 1], [0, 0]]],"
+        + "[[[2, 2], [3, 2], [3, 3], [2, 3], [2, 2]]]]}").getBytes(StandardCharsets.UTF_8));
+    Properties props = new Properties();
+    props.setProperty("tessellate.geojson", file.toString());
+    props.setProperty("tessellate.threads", "1");
+    TessellatePolygonTask task = new TessellatePolygonTask(createPerfRunData(props));
+    task.setup();
+    assertEquals(2, task.doLogic());
+    task.tearDown();
+  }
+
+}
@@ -164,6 +164,10 @@ final class OrdsFieldReader extends Terms implements Accountable {
     if (compiled.type != CompiledAutomaton.AUTOMATON_TYPE.NORMAL) {
       throw new IllegalArgumentException("please use CompiledAutomaton.getTermsEnum instead");
     }
+    if (compiled.nfaAutomaton != null) {
+      // only a DFA can be intersected with the terms index
+      return super.intersect(compiled, startTerm);
+    }
     return new OrdsIntersectTermsEnum(this, compiled, startTerm);
   }
 
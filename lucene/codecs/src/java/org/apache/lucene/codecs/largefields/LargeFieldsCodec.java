@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.largefields;
+
+import org.apache.lucene.codecs.FilterCodec;
+import org.apache.lucene.codecs.StoredFieldsFormat;
+import org.apache.lucene.codecs.lucene87.Lucene87Codec;
+import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat;
+
+/**
+ * A codec that is identical to {@link Lucene87Codec}, except that large stored
+ * values are stored separately with {@link LargeFieldsStoredFieldsFormat}.
+ * @lucene.experimental
+ */
+public final class LargeFieldsCodec extends FilterCodec {
+
+  private final StoredFieldsFormat storedFieldsFormat;
+
+  /** Create a new instance that stores values of {@link LargeFieldsStoredFieldsFormat#DEFAULT_MIN_LARGE_FIELD_LENGTH} bytes or more separately. */
+  public LargeFieldsCodec() {
+    this(LargeFieldsStoredFieldsFormat.DEFAULT_MIN_LARGE_FIELD_LENGTH);
+  }
+
+  /** Create a new instance that stores values of {@code minLargeFieldLength} bytes or more separately. */
+  public LargeFieldsCodec(int minLargeFieldLength) {
+    super("LargeFields", new Lucene87Codec());
+    this.storedFieldsFormat = new LargeFieldsStoredFieldsFormat(new Lucene87StoredFieldsFormat(), minLargeFieldLength);
+  }
+
+  @Override
+  public StoredFieldsFormat storedFieldsFormat() {
+    return storedFieldsFormat;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.largefields;
+
+import java.io.IOException;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.StoredFieldsFormat;
+import org.apache.lucene.codecs.StoredFieldsReader;
+import org.apache.lucene.codecs.StoredFieldsWriter;
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+
+/**
+ * A {@link StoredFieldsFormat} that moves large string and binary values out
+ * of the documents of a delegate format, so that documents can be read
+ * without decompressing the large values that the {@link StoredFieldVisitor}
+ * does not need.
+ * <p>
+ * Values whose encoded length is at least {@code minLargeFieldLength} bytes
+ * are compressed one by one with {@link CompressionMode#FAST} into a ".lfd"
+ * file, and the delegate format only stores a small pointer in their place.
+ * When a visitor returns {@link StoredFieldVisitor.Status#NO NO} for such a
+ * field, only the pointer is skipped and the value is never read. All other
+ * values are stored by the delegate format as usual.
+ * <p>
+ * The format of the lfd file is as follows:
+ * <ul>
+ * <li>LargeFieldData (.lfd) --&gt; Header, Value<sup>NumLargeValues</sup>, Footer</li>
+ * <li>Value --&gt; Length, CompressedBytes</li>
+ * <li>Header --&gt; {@link CodecUtil#writeIndexHeader IndexHeader}</li>
+ * <li>Length --&gt; {@link DataOutput#writeVInt VInt} uncompressed length of the value</li>
+ * <li>Footer --&gt; {@link CodecUtil#writeFooter CodecFooter}</li>
+ * </ul>
+ * <p>
+ * In the delegate format, values are stored as follows:
+ * <ul>
+ * <li>small string and numeric values are stored unchanged,</li>
+ * <li>small binary values are stored as a binary value that is prefixed with a {@code 0} byte,</li>
+ * <li>large values are stored as a binary value made of a {@code 1} (binary) or {@code 2} (string)
+ * byte followed by the {@link DataOutput#writeVLong VLong} pointer of the value in the lfd file.</li>
+ * </ul>
+ * @lucene.experimental
+ */
+public final class LargeFieldsStoredFieldsFormat extends StoredFieldsFormat {
+
+  static final String DATA_CODEC_NAME = "LargeFieldsStoredFieldsData";
+  static final String DATA_EXTENSION = "lfd";
+  static final int VERSION_START = 0;
+  static final int VERSION_CURRENT = VERSION_START;
+
+  static final byte INLINE_BINARY = 0;
+  static final byte LARGE_BINARY = 1;
+  static final byte LARGE_STRING = 2;
+
+  /** Default minimum length in bytes of values that are stored separately. */
+  public static final int DEFAULT_MIN_LARGE_FIELD_LENGTH = 16 * 1024;
+
+  private final StoredFieldsFormat delegate;
+  private final int minLargeFieldLength;
+
+  /**
+   * Create a new instance.
+   * @param delegate the format that stores documents and small values
+   * @param minLargeFieldLength the minimum length in bytes of values that are stored separately
+   */
+  public LargeFieldsStoredFieldsFormat(StoredFieldsFormat delegate, int minLargeFieldLength) {
+    if (minLargeFieldLength < 1) {
+      throw new IllegalArgumentException("minLargeFieldLength must be >= 1, got " + minLargeFieldLength);
+    }
+    this.delegate = delegate;
+    this.minLargeFieldLength = minLargeFieldLength;
+  }
+
+  @Override
+  public StoredFieldsReader fieldsReader(Directory directory, SegmentInfo si, FieldInfos fn, IOContext context) throws IOException {
+    return new LargeFieldsStoredFieldsReader(delegate.fieldsReader(directory, si, fn, context), directory, si, context);
+  }
+
+  @Override
+  public StoredFieldsWriter fieldsWriter(Directory directory, SegmentInfo si, IOContext context) throws IOException {
+    return new LargeFieldsStoredFieldsWriter(delegate.fieldsWriter(directory, si, context), directory, si, context, minLargeFieldLength);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(delegate=" + delegate + ",minLargeFieldLength=" + minLargeFieldLength + ")";
+  }
+}
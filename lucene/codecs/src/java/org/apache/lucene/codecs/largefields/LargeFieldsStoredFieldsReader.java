@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.largefields;
+
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.DATA_CODEC_NAME;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.DATA_EXTENSION;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.INLINE_BINARY;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.LARGE_BINARY;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.LARGE_STRING;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.VERSION_CURRENT;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.VERSION_START;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.StoredFieldsReader;
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.codecs.compressing.Decompressor;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+
+/**
+ * Reader for {@link LargeFieldsStoredFieldsFormat}.
+ * @lucene.experimental
+ */
+final class LargeFieldsStoredFieldsReader extends StoredFieldsReader {
+
+  private final StoredFieldsReader delegate;
+  private final IndexInput dataIn;
+  private final Decompressor decompressor;
+  private final BytesRef bytes = new BytesRef();
+  private final ByteArrayDataInput pointerIn = new ByteArrayDataInput();
+
+  LargeFieldsStoredFieldsReader(StoredFieldsReader delegate, Directory directory, SegmentInfo si, IOContext context) throws IOException {
+    this.delegate = delegate;
+    this.decompressor = CompressionMode.FAST.newDecompressor();
+    boolean success = false;
+    IndexInput dataIn = null;
+    try {
+      final String dataName = IndexFileNames.segmentFileName(si.name, "", DATA_EXTENSION);
+      dataIn = directory.openInput(dataName, context);
+      CodecUtil.checkIndexHeader(dataIn, DATA_CODEC_NAME, VERSION_START, VERSION_CURRENT, si.getId(), "");
+      // NOTE: data file is too costly to verify checksum against all the bytes on open,
+      // but for now we at least verify proper structure of the checksum footer
+      CodecUtil.retrieveChecksum(dataIn);
+      this.dataIn = dataIn;
+      success = true;
+    } finally {
+      if (success == false) {
+        IOUtils.closeWhileHandlingException(delegate, dataIn);
+      }
+    }
+  }
+
+  private LargeFieldsStoredFieldsReader(LargeFieldsStoredFieldsReader reader, StoredFieldsReader delegate) {
+    this.delegate = delegate;
+    this.dataIn = reader.dataIn.clone();
+    this.decompressor = reader.decompressor.clone();
+  }
+
+  @Override
+  public void visitDocument(int docID, StoredFieldVisitor visitor) throws IOException {
+    delegate.visitDocument(docID, new StoredFieldVisitor() {
+
+      @Override
+      public Status needsField(FieldInfo fieldInfo) throws IOException {
+        return visitor.needsField(fieldInfo);
+      }
+
+      @Override
+      public void binaryField(FieldInfo fieldInfo, byte[] value) throws IOException {
+        if (value.length == 0) {
+          throw new CorruptIndexException("Missing value marker for field " + fieldInfo.name, dataIn);
+        }
+        switch (value[0]) {
+          case INLINE_BINARY:
+            visitor.binaryField(fieldInfo, ArrayUtil.copyOfSubArray(value, 1, value.length));
+            break;
+          case LARGE_BINARY:
+            visitor.binaryField(fieldInfo, readLargeValue(value));
+            break;
+          case LARGE_STRING:
+            visitor.stringField(fieldInfo, readLargeValue(value));
+            break;
+          default:
+            throw new CorruptIndexException("Invalid value marker " + value[0] + " for field " + fieldInfo.name, dataIn);
+        }
+      }
+
+      @Override
+      public void stringField(FieldInfo fieldInfo, byte[] value) throws IOException {
+        visitor.stringField(fieldInfo, value);
+      }
+
+      @Override
+      public void intField(FieldInfo fieldInfo, int value) throws IOException {
+        visitor.intField(fieldInfo, value);
+      }
+
+      @Override
+      public void longField(FieldInfo fieldInfo, long value) throws IOException {
+        visitor.longField(fieldInfo, value);
+      }
+
+      @Override
+      public void floatField(FieldInfo fieldInfo, float value) throws IOException {
+        visitor.floatField(fieldInfo, value);
+      }
+
+      @Override
+      public void doubleField(FieldInfo fieldInfo, double value) throws IOException {
+        visitor.doubleField(fieldInfo, value);
+      }
+    });
+  }
+
+  private byte[] readLargeValue(byte[] pointerBytes) throws IOException {
+    pointerIn.reset(pointerBytes, 1, pointerBytes.length - 1);
+    final long pointer = pointerIn.readVLong();
+    dataIn.seek(pointer);
+    final int length = dataIn.readVInt();
+    decompressor.decompress(dataIn, length, 0, length, bytes);
+    if (bytes.length != length) {
+      throw new CorruptIndexException("Corrupted: expected value length = " + length + ", got " + bytes.length, dataIn);
+    }
+    return ArrayUtil.copyOfSubArray(bytes.bytes, bytes.offset, bytes.offset + bytes.length);
+  }
+
+  @Override
+  public StoredFieldsReader clone() {
+    return new LargeFieldsStoredFieldsReader(this, delegate.clone());
+  }
+
+  @Override
+  public StoredFieldsReader getMergeInstance() {
+    return new LargeFieldsStoredFieldsReader(this, delegate.getMergeInstance());
+  }
+
+  @Override
+  public void checkIntegrity() throws IOException {
+    delegate.checkIntegrity();
+    CodecUtil.checksumEntireFile(dataIn);
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOUtils.close(delegate, dataIn);
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return delegate.ramBytesUsed();
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    return Collections.singleton(Accountables.namedAccountable("delegate", delegate));
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(delegate=" + delegate + ")";
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.largefields;
+
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.DATA_CODEC_NAME;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.DATA_EXTENSION;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.INLINE_BINARY;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.LARGE_BINARY;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.LARGE_STRING;
+import static org.apache.lucene.codecs.largefields.LargeFieldsStoredFieldsFormat.VERSION_CURRENT;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.StoredFieldsWriter;
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.codecs.compressing.Compressor;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.UnicodeUtil;
+
+/**
+ * Writer for {@link LargeFieldsStoredFieldsFormat}.
+ * @lucene.experimental
+ */
+final class LargeFieldsStoredFieldsWriter extends StoredFieldsWriter {
+
+  private final StoredFieldsWriter delegate;
+  private final int minLargeFieldLength;
+  private final Compressor compressor;
+  private IndexOutput dataOut;
+  private byte[] scratch = new byte[1 + 9]; // marker + vlong pointer
+  private final ByteArrayDataOutput scratchOut = new ByteArrayDataOutput();
+
+  LargeFieldsStoredFieldsWriter(StoredFieldsWriter delegate, Directory directory, SegmentInfo si, IOContext context,
+      int minLargeFieldLength) throws IOException {
+    this.delegate = delegate;
+    this.minLargeFieldLength = minLargeFieldLength;
+    this.compressor = CompressionMode.FAST.newCompressor();
+    boolean success = false;
+    try {
+      final String dataName = IndexFileNames.segmentFileName(si.name, "", DATA_EXTENSION);
+      dataOut = directory.createOutput(dataName, context);
+      CodecUtil.writeIndexHeader(dataOut, DATA_CODEC_NAME, VERSION_CURRENT, si.getId(), "");
+      success = true;
+    } finally {
+      if (success == false) {
+        IOUtils.closeWhileHandlingException(this);
+      }
+    }
+  }
+
+  @Override
+  public void startDocument() throws IOException {
+    delegate.startDocument();
+  }
+
+  @Override
+  public void finishDocument() throws IOException {
+    delegate.finishDocument();
+  }
+
+  @Override
+  public void writeField(FieldInfo info, IndexableField field) throws IOException {
+    if (field.numericValue() != null) {
+      delegate.writeField(info, field);
+      return;
+    }
+    final BytesRef binary = field.binaryValue();
+    if (binary != null) {
+      if (binary.length >= minLargeFieldLength) {
+        writeLargeValue(info, LARGE_BINARY, binary.bytes, binary.offset, binary.length);
+      } else {
+        scratch = ArrayUtil.grow(scratch, 1 + binary.length);
+        scratch[0] = INLINE_BINARY;
+        System.arraycopy(binary.bytes, binary.offset, scratch, 1, binary.length);
+        delegate.writeField(info, new StoredField(info.name, scratch, 0, 1 + binary.length));
+      }
+      return;
+    }
+    final String string = field.stringValue();
+    if (string == null) {
+      throw new IllegalArgumentException("field " + field.name() + " is stored but does not have binaryValue, stringValue nor numericValue");
+    }
+    // UTF-8 takes at most 3 bytes per UTF-16 char, so short strings do not need to be encoded
+    if ((long) string.length() * UnicodeUtil.MAX_UTF8_BYTES_PER_CHAR >= minLargeFieldLength) {
+      final BytesRef utf8 = new BytesRef(string);
+      if (utf8.length >= minLargeFieldLength) {
+        writeLargeValue(info, LARGE_STRING, utf8.bytes, utf8.offset, utf8.length);
+        return;
+      }
+    }
+    delegate.writeField(info, field);
+  }
+
+  private void writeLargeValue(FieldInfo info, byte type, byte[] bytes, int offset, int length) throws IOException {
+    final long pointer = dataOut.getFilePointer();
+    dataOut.writeVInt(length);
+    compressor.compress(bytes, offset, length, dataOut);
+
+    scratch = ArrayUtil.grow(scratch, 1 + 9);
+    scratch[0] = type;
+    scratchOut.reset(scratch, 1, scratch.length - 1);
+    scratchOut.writeVLong(pointer);
+    delegate.writeField(info, new StoredField(info.name, scratch, 0, scratchOut.getPosition()));
+  }
+
+  @Override
+  public void finish(FieldInfos fis, int numDocs) throws IOException {
+    delegate.finish(fis, numDocs);
+    CodecUtil.writeFooter(dataOut);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      IOUtils.close(delegate, dataOut, compressor);
+    } finally {
+      dataOut = null;
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return delegate.ramBytesUsed() + scratch.length;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    return Collections.singleton(Accountables.namedAccountable("delegate", delegate));
+  }
+}
@@ -0,0 +1,849 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.memory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.lucene.codecs.FieldsConsumer;
+import org.apache.lucene.codecs.FieldsProducer;
+import org.apache.lucene.codecs.PostingsFormat;
+import org.apache.lucene.codecs.lucene84.ForDeltaUtil;
+import org.apache.lucene.codecs.lucene84.ForUtil;
+import org.apache.lucene.codecs.lucene84.Lucene84PostingsFormat;
+import org.apache.lucene.codecs.lucene84.PForUtil;
+import org.apache.lucene.index.BaseTermsEnum;
+import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.ImpactsEnum;
+import org.apache.lucene.index.OrdTermState;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.SlowImpactsEnum;
+import org.apache.lucene.index.TermState;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.GrowableByteArrayDataOutput;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FutureArrays;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import static org.apache.lucene.codecs.lucene84.ForUtil.BLOCK_SIZE;
+
+/** Wraps {@link Lucene84PostingsFormat} format for on-disk
+ *  storage, but then at read time loads and stores all
+ *  terms and postings in RAM, like {@link DirectPostingsFormat},
+ *  while keeping postings compressed.
+ *
+ *  <p>The terms of a field are held in a single byte[] and
+ *  are addressed directly by ord; seeking is a binary search.
+ *  Doc IDs and term frequencies are encoded in blocks of 128
+ *  with the same FOR/PFOR encoding as {@link Lucene84PostingsFormat},
+ *  the packed longs going to a long[] and all other bytes to a
+ *  byte[], which are decoded directly without going through an
+ *  {@link org.apache.lucene.store.IndexInput}. The last doc ID of
+ *  every block is recorded so that advancing skips whole blocks.
+ *  Positions, offsets and payloads are stored as vInts.
+ *
+ *  <p>This takes a fraction of the RAM of {@link DirectPostingsFormat}
+ *  on fields with long postings lists, such as low-cardinality
+ *  fields that are often filtered on. Use it through
+ *  {@link org.apache.lucene.codecs.perfield.PerFieldPostingsFormat}
+ *  to only load such fields in RAM.
+ *
+ *  <p>This postings format supports {@link TermsEnum#ord}
+ *  and {@link TermsEnum#seekExact(long)}.
+ *
+ *  <p>Because this holds the term bytes and the encoded
+ *  postings of a field in arrays, a single field cannot have
+ *  more than 2.1GB worth of either in a single segment.
+ *
+ * @lucene.experimental */
+public final class CompressedDirectPostingsFormat extends PostingsFormat {
+
+  /** Sole constructor. */
+  public CompressedDirectPostingsFormat() {
+    super("CompressedDirect");
+  }
+
+  @Override
+  public FieldsConsumer fieldsConsumer(SegmentWriteState state) throws IOException {
+    return PostingsFormat.forName("Lucene84").fieldsConsumer(state);
+  }
+
+  @Override
+  public FieldsProducer fieldsProducer(SegmentReadState state) throws IOException {
+    FieldsProducer postings = PostingsFormat.forName("Lucene84").fieldsProducer(state);
+    if (state.context.context != IOContext.Context.MERGE) {
+      FieldsProducer loadedPostings;
+      try {
+        postings.checkIntegrity();
+        loadedPostings = new CompressedDirectFields(postings);
+      } finally {
+        postings.close();
+      }
+      return loadedPostings;
+    } else {
+      // Don't load postings for merge:
+      return postings;
+    }
+  }
+
+  private static final class CompressedDirectFields extends FieldsProducer {
+    private final Map<String,CompressedDirectField> fields = new TreeMap<>();
+
+    CompressedDirectFields(Fields fields) throws IOException {
+      for (String field : fields) {
+        this.fields.put(field, new CompressedDirectField(fields.terms(field)));
+      }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return Collections.unmodifiableSet(fields.keySet()).iterator();
+    }
+
+    @Override
+    public Terms terms(String field) {
+      return fields.get(field);
+    }
+
+    @Override
+    public int size() {
+      return fields.size();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      long sizeInBytes = 0;
+      for(Map.Entry<String,CompressedDirectField> entry: fields.entrySet()) {
+        sizeInBytes += entry.getKey().length() * Character.BYTES;
+        sizeInBytes += entry.getValue().ramBytesUsed();
+      }
+      return sizeInBytes;
+    }
+
+    @Override
+    public Collection<Accountable> getChildResources() {
+      return Accountables.namedAccountables("field", fields);
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+      // if we read entirely into ram, we already validated.
+      // otherwise returned the raw postings reader
+    }
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "(fields=" + fields.size() + ")";
+    }
+  }
+
+  /** Writes the longs that {@link ForUtil} packs to a long[], and all other bytes to a byte[]. */
+  private static final class PackedOutput extends DataOutput {
+    private long[] longs = new long[16];
+    private int longUpto;
+    private byte[] bytes = new byte[64];
+    private int byteUpto;
+
+    @Override
+    public void writeByte(byte b) {
+      if (byteUpto == bytes.length) {
+        bytes = ArrayUtil.grow(bytes, byteUpto + 1);
+      }
+      bytes[byteUpto++] = b;
+    }
+
+    @Override
+    public void writeBytes(byte[] b, int offset, int length) {
+      bytes = ArrayUtil.grow(bytes, byteUpto + length);
+      System.arraycopy(b, offset, bytes, byteUpto, length);
+      byteUpto += length;
+    }
+
+    /** Stores the long as {@link PackedInput#readLELongs} returns it, ie. byte-swapped. */
+    @Override
+    public void writeLong(long l) {
+      if (longUpto == longs.length) {
+        longs = ArrayUtil.grow(longs, longUpto + 1);
+      }
+      longs[longUpto++] = Long.reverseBytes(l);
+    }
+  }
+
+  /** Reads what {@link PackedOutput} wrote. */
+  private static final class PackedInput extends DataInput {
+    private final long[] longs;
+    private final byte[] bytes;
+    int longUpto;
+    int byteUpto;
+
+    PackedInput(long[] longs, byte[] bytes) {
+      this.longs = longs;
+      this.bytes = bytes;
+    }
+
+    @Override
+    public byte readByte() {
+      return bytes[byteUpto++];
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) {
+      System.arraycopy(bytes, byteUpto, b, offset, len);
+      byteUpto += len;
+    }
+
+    @Override
+    public void readLELongs(long[] dst, int offset, int length) {
+      System.arraycopy(longs, longUpto, dst, offset, length);
+      longUpto += length;
+    }
+
+    @Override
+    public void skipBytes(long numBytes) {
+      byteUpto += (int) numBytes;
+    }
+  }
+
+  private static final class CompressedDirectField extends Terms implements Accountable {
+
+    private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(CompressedDirectField.class);
+
+    private final boolean hasFreq;
+    private final boolean hasPos;
+    private final boolean hasOffsets;
+    private final boolean hasPayloads;
+    private final long sumTotalTermFreq;
+    private final long sumDocFreq;
+    private final int docCount;
+
+    // terms, addressed by ord:
+    private final int numTerms;
+    private final byte[] termBytes;
+    private final int[] termOffsets;
+    private final int[] docFreqs;
+    private final long[] totalTermFreqs;
+
+    // where the postings of each term start:
+    private final int[] termLongStarts;
+    private final int[] termByteStarts;
+    private final int[] termPositionStarts;
+    private final int[] termSkipStarts;
+
+    // one skip entry per full block of doc IDs, which records the last doc
+    // ID of the block and where the data that follows the block starts:
+    private final int[] skipLastDocs;
+    private final int[] skipLongStarts;
+    private final int[] skipByteStarts;
+    private final int[] skipPositionStarts;
+
+    // full blocks of doc deltas and freqs, followed by vInts for the last
+    // docFreq % 128 docs:
+    private final long[] postingsLongs;
+    private final byte[] postingsBytes;
+    // for each position: the vInt delta, then if there are payloads the vInt
+    // length and the payload, then if there are offsets the vInt start offset
+    // delta and length:
+    private final byte[] positionsBytes;
+
+    CompressedDirectField(Terms termsIn) throws IOException {
+      hasFreq = termsIn.hasFreqs();
+      hasPos = termsIn.hasPositions();
+      hasOffsets = termsIn.hasOffsets();
+      hasPayloads = termsIn.hasPayloads();
+      sumTotalTermFreq = termsIn.getSumTotalTermFreq();
+      sumDocFreq = termsIn.getSumDocFreq();
+      docCount = termsIn.getDocCount();
+
+      final long size = termsIn.size();
+      if (size == -1) {
+        throw new IllegalArgumentException("codec does not provide Terms.size()");
+      }
+      numTerms = Math.toIntExact(size);
+      termOffsets = new int[1+numTerms];
+      docFreqs = new int[numTerms];
+      totalTermFreqs = new long[numTerms];
+      termLongStarts = new int[numTerms];
+      termByteStarts = new int[numTerms];
+      termPositionStarts = hasPos ? new int[numTerms] : null;
+      termSkipStarts = new int[numTerms];
+
+      final ForUtil forUtil = new ForUtil();
+      final ForDeltaUtil forDeltaUtil = new ForDeltaUtil(forUtil);
+      final PForUtil pforUtil = new PForUtil(forUtil);
+      final long[] docDeltaBuffer = new long[BLOCK_SIZE];
+      final long[] freqBuffer = new long[BLOCK_SIZE];
+
+      final PackedOutput postingsOut = new PackedOutput();
+      final GrowableByteArrayDataOutput positionsOut = hasPos ? new GrowableByteArrayDataOutput(64) : null;
+      byte[] termBytes = new byte[1024];
+      int termOffset = 0;
+      int[] skipLastDocs = new int[8];
+      int[] skipLongStarts = new int[8];
+      int[] skipByteStarts = new int[8];
+      int[] skipPositionStarts = hasPos ? new int[8] : null;
+      int skipCount = 0;
+
+      final int flags = hasPos ? PostingsEnum.ALL : hasFreq ? PostingsEnum.FREQS : PostingsEnum.NONE;
+      final TermsEnum termsEnum = termsIn.iterator();
+      PostingsEnum postingsEnum = null;
+      int ord = 0;
+      BytesRef term;
+      while ((term = termsEnum.next()) != null) {
+        termBytes = ArrayUtil.grow(termBytes, termOffset + term.length);
+        System.arraycopy(term.bytes, term.offset, termBytes, termOffset, term.length);
+        termOffset += term.length;
+        termOffsets[ord+1] = termOffset;
+
+        final int docFreq = termsEnum.docFreq();
+        docFreqs[ord] = docFreq;
+        totalTermFreqs[ord] = termsEnum.totalTermFreq();
+        termLongStarts[ord] = postingsOut.longUpto;
+        termByteStarts[ord] = postingsOut.byteUpto;
+        if (hasPos) {
+          termPositionStarts[ord] = positionsOut.getPosition();
+        }
+        termSkipStarts[ord] = skipCount;
+
+        postingsEnum = termsEnum.postings(postingsEnum, flags);
+        int lastDoc = -1;
+        int bufferUpto = 0;
+        for (int doc = postingsEnum.nextDoc(); doc != PostingsEnum.NO_MORE_DOCS; doc = postingsEnum.nextDoc()) {
+          final int freq = hasFreq ? postingsEnum.freq() : 1;
+          docDeltaBuffer[bufferUpto] = doc - lastDoc;
+          freqBuffer[bufferUpto] = freq;
+          bufferUpto++;
+          lastDoc = doc;
+
+          if (hasPos) {
+            int lastPosition = 0;
+            int lastStartOffset = 0;
+            for (int i = 0; i < freq; i++) {
+              final int position = postingsEnum.nextPosition();
+              positionsOut.writeVInt(position - lastPosition);
+              lastPosition = position;
+              if (hasPayloads) {
+                final BytesRef payload = postingsEnum.getPayload();
+                if (payload == null) {
+                  positionsOut.writeVInt(0);
+                } else {
+                  positionsOut.writeVInt(payload.length);
+                  positionsOut.writeBytes(payload.bytes, payload.offset, payload.length);
+                }
+              }
+              if (hasOffsets) {
+                final int startOffset = postingsEnum.startOffset();
+                positionsOut.writeVInt(startOffset - lastStartOffset);
+                positionsOut.writeVInt(postingsEnum.endOffset() - startOffset);
+                lastStartOffset = startOffset;
+              }
+            }
+          }
+
+          if (bufferUpto == BLOCK_SIZE) {
+            forDeltaUtil.encodeDeltas(docDeltaBuffer, postingsOut);
+            if (hasFreq) {
+              pforUtil.encode(freqBuffer, postingsOut);
+            }
+            if (skipCount == skipLastDocs.length) {
+              final int newLength = ArrayUtil.oversize(skipCount + 1, Integer.BYTES);
+              skipLastDocs = ArrayUtil.growExact(skipLastDocs, newLength);
+              skipLongStarts = ArrayUtil.growExact(skipLongStarts, newLength);
+              skipByteStarts = ArrayUtil.growExact(skipByteStarts, newLength);
+              if (hasPos) {
+                skipPositionStarts = ArrayUtil.growExact(skipPositionStarts, newLength);
+              }
+            }
+            skipLastDocs[skipCount] = lastDoc;
+            skipLongStarts[skipCount] = postingsOut.longUpto;
+            skipByteStarts[skipCount] = postingsOut.byteUpto;
+            if (hasPos) {
+              skipPositionStarts[skipCount] = positionsOut.getPosition();
+            }
+            skipCount++;
+            bufferUpto = 0;
+          }
+        }
+
+        // Like Lucene84, the low bit of the doc delta tells whether freq is 1:
+        for (int i = 0; i < bufferUpto; i++) {
+          final int docDelta = (int) docDeltaBuffer[i];
+          if (hasFreq == false) {
+            postingsOut.writeVInt(docDelta);
+          } else if (freqBuffer[i] == 1) {
+            postingsOut.writeVInt((docDelta << 1) | 1);
+          } else {
+            postingsOut.writeVInt(docDelta << 1);
+            postingsOut.writeVInt((int) freqBuffer[i]);
+          }
+        }
+        assert termSkipStarts[ord] + (docFreq >>> 7) == skipCount;
+        ord++;
+      }
+      assert ord == numTerms;
+
+      this.termBytes = ArrayUtil.copyOfSubArray(termBytes, 0, termOffset);
+      this.skipLastDocs = ArrayUtil.copyOfSubArray(skipLastDocs, 0, skipCount);
+      this.skipLongStarts = ArrayUtil.copyOfSubArray(skipLongStarts, 0, skipCount);
+      this.skipByteStarts = ArrayUtil.copyOfSubArray(skipByteStarts, 0, skipCount);
+      this.skipPositionStarts = hasPos ? ArrayUtil.copyOfSubArray(skipPositionStarts, 0, skipCount) : null;
+      this.postingsLongs = ArrayUtil.copyOfSubArray(postingsOut.longs, 0, postingsOut.longUpto);
+      this.postingsBytes = ArrayUtil.copyOfSubArray(postingsOut.bytes, 0, postingsOut.byteUpto);
+      this.positionsBytes = hasPos ? ArrayUtil.copyOfSubArray(positionsOut.getBytes(), 0, positionsOut.getPosition()) : null;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      long sizeInBytes = BASE_RAM_BYTES_USED;
+      sizeInBytes += RamUsageEstimator.sizeOf(termBytes);
+      sizeInBytes += RamUsageEstimator.sizeOf(termOffsets);
+      sizeInBytes += RamUsageEstimator.sizeOf(docFreqs);
+      sizeInBytes += RamUsageEstimator.sizeOf(totalTermFreqs);
+      sizeInBytes += RamUsageEstimator.sizeOf(termLongStarts);
+      sizeInBytes += RamUsageEstimator.sizeOf(termByteStarts);
+      sizeInBytes += (termPositionStarts!=null) ? RamUsageEstimator.sizeOf(termPositionStarts) : 0;
+      sizeInBytes += RamUsageEstimator.sizeOf(termSkipStarts);
+      sizeInBytes += RamUsageEstimator.sizeOf(skipLastDocs);
+      sizeInBytes += RamUsageEstimator.sizeOf(skipLongStarts);
+      sizeInBytes += RamUsageEstimator.sizeOf(skipByteStarts);
+      sizeInBytes += (skipPositionStarts!=null) ? RamUsageEstimator.sizeOf(skipPositionStarts) : 0;
+      sizeInBytes += RamUsageEstimator.sizeOf(postingsLongs);
+      sizeInBytes += RamUsageEstimator.sizeOf(postingsBytes);
+      sizeInBytes += (positionsBytes!=null) ? RamUsageEstimator.sizeOf(positionsBytes) : 0;
+      return sizeInBytes;
+    }
+
+    @Override
+    public String toString() {
+      return "CompressedDirectTerms(terms=" + numTerms + ",postings=" + sumDocFreq + ",positions=" + sumTotalTermFreq + ",docs=" + docCount + ")";
+    }
+
+    /** Compares the term with the given ord to {@code other}. */
+    private int compare(int ord, BytesRef other) {
+      return FutureArrays.compareUnsigned(termBytes, termOffsets[ord], termOffsets[ord+1],
+          other.bytes, other.offset, other.offset + other.length);
+    }
+
+    @Override
+    public TermsEnum iterator() {
+      return new CompressedDirectTermsEnum();
+    }
+
+    @Override
+    public long size() {
+      return numTerms;
+    }
+
+    @Override
+    public long getSumTotalTermFreq() {
+      return sumTotalTermFreq;
+    }
+
+    @Override
+    public long getSumDocFreq() {
+      return sumDocFreq;
+    }
+
+    @Override
+    public int getDocCount() {
+      return docCount;
+    }
+
+    @Override
+    public boolean hasFreqs() {
+      return hasFreq;
+    }
+
+    @Override
+    public boolean hasOffsets() {
+      return hasOffsets;
+    }
+
+    @Override
+    public boolean hasPositions() {
+      return hasPos;
+    }
+
+    @Override
+    public boolean hasPayloads() {
+      return hasPayloads;
+    }
+
+    private final class CompressedDirectTermsEnum extends BaseTermsEnum {
+
+      private final BytesRef scratch = new BytesRef();
+      private int termOrd = -1;
+
+      private BytesRef setTerm() {
+        scratch.bytes = termBytes;
+        scratch.offset = termOffsets[termOrd];
+        scratch.length = termOffsets[termOrd+1] - termOffsets[termOrd];
+        return scratch;
+      }
+
+      @Override
+      public BytesRef next() {
+        termOrd++;
+        if (termOrd < numTerms) {
+          return setTerm();
+        } else {
+          return null;
+        }
+      }
+
+      @Override
+      public TermState termState() {
+        OrdTermState state = new OrdTermState();
+        state.ord = termOrd;
+        return state;
+      }
+
+      // If non-negative, exact match; else, -ord-1, where ord
+      // is where you would insert the term.
+      private int findTerm(BytesRef term) {
+        int low = 0;
+        int high = numTerms-1;
+
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          int cmp = compare(mid, term);
+          if (cmp < 0) {
+            low = mid + 1;
+          } else if (cmp > 0) {
+            high = mid - 1;
+          } else {
+            return mid; // key found
+          }
+        }
+
+        return -(low + 1);  // key not found.
+      }
+
+      @Override
+      public SeekStatus seekCeil(BytesRef term) {
+        final int ord = findTerm(term);
+        if (ord >= 0) {
+          termOrd = ord;
+          setTerm();
+          return SeekStatus.FOUND;
+        } else if (ord == -numTerms-1) {
+          return SeekStatus.END;
+        } else {
+          termOrd = -ord - 1;
+          setTerm();
+          return SeekStatus.NOT_FOUND;
+        }
+      }
+
+      @Override
+      public boolean seekExact(BytesRef term) {
+        final int ord = findTerm(term);
+        if (ord >= 0) {
+          termOrd = ord;
+          setTerm();
+          return true;
+        } else {
+          return false;
+        }
+      }
+
+      @Override
+      public void seekExact(long ord) {
+        termOrd = (int) ord;
+        setTerm();
+      }
+
+      @Override
+      public void seekExact(BytesRef term, TermState state) throws IOException {
+        termOrd = (int) ((OrdTermState) state).ord;
+        setTerm();
+        assert term.equals(scratch);
+      }
+
+      @Override
+      public BytesRef term() {
+        return scratch;
+      }
+
+      @Override
+      public long ord() {
+        return termOrd;
+      }
+
+      @Override
+      public int docFreq() {
+        return docFreqs[termOrd];
+      }
+
+      @Override
+      public long totalTermFreq() {
+        return totalTermFreqs[termOrd];
+      }
+
+      @Override
+      public PostingsEnum postings(PostingsEnum reuse, int flags) {
+        final boolean readPositions = hasPos && PostingsEnum.featureRequested(flags, PostingsEnum.POSITIONS);
+        if (reuse instanceof CompressedDirectPostingsEnum) {
+          final CompressedDirectPostingsEnum postingsEnum = (CompressedDirectPostingsEnum) reuse;
+          if (postingsEnum.canReuse(CompressedDirectField.this, readPositions)) {
+            return postingsEnum.reset(termOrd);
+          }
+        }
+        return new CompressedDirectPostingsEnum(readPositions).reset(termOrd);
+      }
+
+      @Override
+      public ImpactsEnum impacts(int flags) throws IOException {
+        return new SlowImpactsEnum(postings(null, flags));
+      }
+    }
+
+    private final class CompressedDirectPostingsEnum extends PostingsEnum {
+
+      private final ForDeltaUtil forDeltaUtil;
+      private final PForUtil pforUtil;
+      private final long[] docBuffer = new long[BLOCK_SIZE];
+      private final long[] freqBuffer = new long[BLOCK_SIZE];
+      private final PackedInput postingsIn;
+
+      private int docFreq;
+      private int skipStart;
+      private int numSkips;
+
+      private int docUpto; // how many docs we've read
+      private int blockUpto; // how many full blocks we've decoded or skipped
+      private int bufferUpto;
+      private int bufferSize;
+      private int accum; // last doc ID before the next block
+      private int doc;
+      private int freq;
+
+      private final ByteArrayDataInput positionsIn;
+      private int posPendingCount; // how many positions to skip before reading those of the current doc
+      private int position;
+      private int startOffset;
+      private int endOffset;
+      private final BytesRef payload;
+      private boolean hasPayload;
+
+      CompressedDirectPostingsEnum(boolean readPositions) {
+        final ForUtil forUtil = new ForUtil();
+        forDeltaUtil = new ForDeltaUtil(forUtil);
+        pforUtil = new PForUtil(forUtil);
+        postingsIn = new PackedInput(postingsLongs, postingsBytes);
+        if (readPositions) {
+          positionsIn = new ByteArrayDataInput(positionsBytes);
+          payload = hasPayloads ? new BytesRef() : null;
+        } else {
+          positionsIn = null;
+          payload = null;
+        }
+      }
+
+      boolean canReuse(CompressedDirectField field, boolean readPositions) {
+        return field == CompressedDirectField.this && (positionsIn != null) == readPositions;
+      }
+
+      CompressedDirectPostingsEnum reset(int termOrd) {
+        postingsIn.longUpto = termLongStarts[termOrd];
+        postingsIn.byteUpto = termByteStarts[termOrd];
+        docFreq = docFreqs[termOrd];
+        skipStart = termSkipStarts[termOrd];
+        numSkips = docFreq >>> 7;
+        docUpto = 0;
+        blockUpto = 0;
+        bufferUpto = bufferSize = 0;
+        accum = -1;
+        doc = -1;
+        freq = hasFreq ? 0 : 1;
+        if (positionsIn != null) {
+          positionsIn.setPosition(termPositionStarts[termOrd]);
+        }
+        posPendingCount = 0;
+        position = 0;
+        startOffset = endOffset = -1;
+        hasPayload = false;
+        return this;
+      }
+
+      private void refillDocs() throws IOException {
+        if (blockUpto < numSkips) {
+          forDeltaUtil.decodeAndPrefixSum(postingsIn, accum, docBuffer);
+          if (hasFreq) {
+            pforUtil.decode(postingsIn, freqBuffer);
+          }
+          bufferSize = BLOCK_SIZE;
+          blockUpto++;
+        } else {
+          // vInt encoded tail
+          final int left = docFreq - docUpto;
+          int lastDoc = accum;
+          for (int i = 0; i < left; i++) {
+            final int code = postingsIn.readVInt();
+            if (hasFreq == false) {
+              lastDoc += code;
+            } else {
+              lastDoc += code >>> 1;
+              freqBuffer[i] = (code & 1) != 0 ? 1 : postingsIn.readVInt();
+            }
+            docBuffer[i] = lastDoc;
+          }
+          bufferSize = left;
+        }
+        accum = (int) docBuffer[bufferSize - 1];
+        bufferUpto = 0;
+      }
+
+      @Override
+      public int nextDoc() throws IOException {
+        if (docUpto == docFreq) {
+          return doc = NO_MORE_DOCS;
+        }
+        if (bufferUpto == bufferSize) {
+          refillDocs();
+        }
+        doc = (int) docBuffer[bufferUpto];
+        if (hasFreq) {
+          freq = (int) freqBuffer[bufferUpto];
+        }
+        bufferUpto++;
+        docUpto++;
+        if (positionsIn != null) {
+          posPendingCount += freq;
+          position = 0;
+          if (hasOffsets) {
+            startOffset = 0;
+          }
+        }
+        return doc;
+      }
+
+      @Override
+      public int advance(int target) throws IOException {
+        if (blockUpto < numSkips && skipLastDocs[skipStart + blockUpto] < target) {
+          // the target is after the next block: skip the blocks that end before it
+          int block = blockUpto + 1;
+          while (block < numSkips && skipLastDocs[skipStart + block] < target) {
+            block++;
+          }
+          final int skip = skipStart + block - 1;
+          postingsIn.longUpto = skipLongStarts[skip];
+          postingsIn.byteUpto = skipByteStarts[skip];
+          accum = skipLastDocs[skip];
+          docUpto = block * BLOCK_SIZE;
+          blockUpto = block;
+          bufferUpto = bufferSize = 0;
+          if (positionsIn != null) {
+            positionsIn.setPosition(skipPositionStarts[skip]);
+            posPendingCount = 0;
+          }
+        }
+        while (nextDoc() < target) {
+        }
+        return doc;
+      }
+
+      @Override
+      public int docID() {
+        return doc;
+      }
+
+      @Override
+      public int freq() {
+        return freq;
+      }
+
+      private void skipPositions(int count) {
+        for (int i = 0; i < count; i++) {
+          positionsIn.readVInt();
+          if (hasPayloads) {
+            positionsIn.skipBytes(positionsIn.readVInt());
+          }
+          if (hasOffsets) {
+            positionsIn.readVInt();
+            positionsIn.readVInt();
+          }
+        }
+      }
+
+      @Override
+      public int nextPosition() {
+        if (positionsIn == null) {
+          return -1;
+        }
+        if (posPendingCount > freq) {
+          skipPositions(posPendingCount - freq);
+          posPendingCount = freq;
+        }
+        position += positionsIn.readVInt();
+        if (hasPayloads) {
+          final int length = positionsIn.readVInt();
+          hasPayload = length != 0;
+          if (hasPayload) {
+            payload.bytes = positionsBytes;
+            payload.offset = positionsIn.getPosition();
+            payload.length = length;
+            positionsIn.skipBytes(length);
+          }
+        }
+        if (hasOffsets) {
+          startOffset += positionsIn.readVInt();
+          endOffset = startOffset + positionsIn.readVInt();
+        }
+        posPendingCount--;
+        return position;
+      }
+
+      @Override
+      public int startOffset() {
+        return startOffset;
+      }
+
+      @Override
+      public int endOffset() {
+        return endOffset;
+      }
+
+      @Override
+      public BytesRef getPayload() {
+        return hasPayload ? payload : null;
+      }
+
+      @Override
+      public long cost() {
+        return docFreq;
+      }
+    }
+  }
+}
@@ -661,10 +661,14 @@ public final class DirectPostingsFormat extends PostingsFormat {
     }
 
     @Override
-    public TermsEnum intersect(CompiledAutomaton compiled, final BytesRef startTerm) {
+    public TermsEnum intersect(CompiledAutomaton compiled, final BytesRef startTerm) throws IOException {
       if (compiled.type != CompiledAutomaton.AUTOMATON_TYPE.NORMAL) {
         throw new IllegalArgumentException("please use CompiledAutomaton.getTermsEnum instead");
       }
+      if (compiled.nfaAutomaton != null) {
+        // only a DFA can be intersected with the terms index
+        return super.intersect(compiled, startTerm);
+      }
       return new DirectIntersectTermsEnum(compiled, startTerm);
     }
 
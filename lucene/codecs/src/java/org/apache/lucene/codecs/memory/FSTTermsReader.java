@@ -252,6 +252,10 @@ public class FSTTermsReader extends FieldsProducer {
       if (compiled.type != CompiledAutomaton.AUTOMATON_TYPE.NORMAL) {
         throw new IllegalArgumentException("please use CompiledAutomaton.getTermsEnum instead");
       }
+      if (compiled.nfaAutomaton != null) {
+        // only a DFA can be intersected with the terms index
+        return super.intersect(compiled, startTerm);
+      }
       return new IntersectTermsEnum(compiled, startTerm);
     }
 
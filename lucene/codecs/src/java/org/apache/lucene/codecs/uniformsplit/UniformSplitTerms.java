@@ -74,6 +74,10 @@ public class UniformSplitTerms extends Terms implements Accountable {
   @Override
   public TermsEnum intersect(CompiledAutomaton compiled, BytesRef startTerm) throws IOException {
     checkIntersectAutomatonType(compiled);
+    if (compiled.nfaAutomaton != null) {
+      // only a DFA can be intersected with the dictionary
+      return super.intersect(compiled, startTerm);
+    }
     return new IntersectBlockReader(compiled, startTerm, dictionaryBrowserSupplier, blockInput, postingsReader, fieldMetadata, blockDecoder);
   }
 
@@ -53,6 +53,10 @@ public class STUniformSplitTerms extends UniformSplitTerms {
   @Override
   public TermsEnum intersect(CompiledAutomaton compiled, BytesRef startTerm) throws IOException {
     checkIntersectAutomatonType(compiled);
+    if (compiled.nfaAutomaton != null) {
+      // only a DFA can be intersected with the dictionary
+      return super.intersect(compiled, startTerm);
+    }
     return new STIntersectBlockReader(compiled, startTerm, dictionaryBrowserSupplier, blockInput, postingsReader, fieldMetadata, blockDecoder, fieldInfos);
   }
 
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.largefields;
+
+import java.util.Collections;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.BaseStoredFieldsFormatTestCase;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.TestUtil;
+
+public class TestLargeFieldsStoredFieldsFormat extends BaseStoredFieldsFormatTestCase {
+
+  @Override
+  protected Codec getCodec() {
+    // use a small threshold so that many values are stored separately
+    return new LargeFieldsCodec(TestUtil.nextInt(random(), 1, 64));
+  }
+
+  public void testSkipLargeFields() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, newIndexWriterConfig().setCodec(new LargeFieldsCodec(16)));
+    final String body = TestUtil.randomSimpleString(random(), 16, 1000);
+    final byte[] binary = new byte[TestUtil.nextInt(random(), 16, 1000)];
+    random().nextBytes(binary);
+    Document doc = new Document();
+    doc.add(new StringField("title", "small", Store.YES));
+    doc.add(new StoredField("body", body));
+    doc.add(new StoredField("binary", binary));
+    doc.add(new StoredField("small_binary", new byte[] {42}));
+    doc.add(new StoredField("number", 3L));
+    w.addDocument(doc);
+    w.forceMerge(1);
+    w.close();
+
+    DirectoryReader reader = DirectoryReader.open(dir);
+    Document loaded = reader.document(0);
+    assertEquals("small", loaded.get("title"));
+    assertEquals(body, loaded.get("body"));
+    assertEquals(new BytesRef(binary), loaded.getBinaryValue("binary"));
+    assertEquals(new BytesRef(new byte[] {42}), loaded.getBinaryValue("small_binary"));
+    assertEquals(3L, loaded.getField("number").numericValue());
+
+    DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor(Collections.singleton("title"));
+    reader.document(0, visitor);
+    assertEquals(1, visitor.getDocument().getFields().size());
+    assertEquals("small", visitor.getDocument().get("title"));
+    reader.close();
+    dir.close();
+  }
+
+  public void testIllegalArgs() {
+    expectThrows(IllegalArgumentException.class, () -> new LargeFieldsCodec(0));
+  }
+}
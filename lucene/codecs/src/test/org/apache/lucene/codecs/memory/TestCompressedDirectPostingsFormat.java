@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.memory;
+
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.PostingsFormat;
+import org.apache.lucene.codecs.lucene87.Lucene87Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.BasePostingsFormatTestCase;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.TestUtil;
+
+/**
+ * Tests CompressedDirectPostingsFormat
+ */
+public class TestCompressedDirectPostingsFormat extends BasePostingsFormatTestCase {
+  private final Codec codec = TestUtil.alwaysPostingsFormat(new CompressedDirectPostingsFormat());
+
+  @Override
+  protected Codec getCodec() {
+    return codec;
+  }
+
+  /** Loads a low-cardinality field in RAM while other fields stay on disk, and advances over its blocks */
+  public void testPerField() throws Exception {
+    final PostingsFormat compressed = new CompressedDirectPostingsFormat();
+    IndexWriterConfig iwc = newIndexWriterConfig();
+    // keep docs in order
+    iwc.setMergePolicy(newLogMergePolicy());
+    iwc.setCodec(new Lucene87Codec() {
+      @Override
+      public PostingsFormat getPostingsFormatForField(String field) {
+        return "color".equals(field) ? compressed : super.getPostingsFormatForField(field);
+      }
+    });
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, iwc);
+    int numDocs = atLeast(2000);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+      doc.add(new StringField("color", i % 3 == 0 ? "red" : "blue", Field.Store.NO));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    DirectoryReader reader = DirectoryReader.open(w);
+    w.close();
+
+    LeafReader leaf = getOnlyLeafReader(reader);
+    PostingsEnum red = leaf.postings(new Term("color", "red"));
+    assertEquals(0, red.nextDoc());
+    int target = 1;
+    while (true) {
+      target += TestUtil.nextInt(random(), 1, 500);
+      int expected = (target + 2) / 3 * 3;
+      if (expected >= numDocs) {
+        expected = PostingsEnum.NO_MORE_DOCS;
+      }
+      assertEquals(expected, red.advance(target));
+      if (expected == PostingsEnum.NO_MORE_DOCS) {
+        break;
+      }
+      target = expected;
+    }
+    assertEquals(1, leaf.docFreq(new Term("id", "42")));
+    assertEquals((numDocs + 2) / 3, leaf.docFreq(new Term("color", "red")));
+    assertEquals(numDocs - (numDocs + 2) / 3, leaf.docFreq(new Term("color", "blue")));
+
+    reader.close();
+    dir.close();
+  }
+}
@@ -160,7 +160,7 @@ public abstract class Analyzer implements Closeable {
     TokenStreamComponents components = reuseStrategy.getReusableComponents(this, fieldName);
     final Reader r = initReader(fieldName, reader);
     if (components == null) {
-      components = createComponents(fieldName);
+      components = reuseStrategy.wrapNewComponents(this, fieldName, createComponents(fieldName));
       reuseStrategy.setReusableComponents(this, fieldName, components);
     }
     components.setReader(r);
@@ -196,7 +196,7 @@ public abstract class Analyzer implements Closeable {
     strReader.setValue(text);
     final Reader r = initReader(fieldName, strReader);
     if (components == null) {
-      components = createComponents(fieldName);
+      components = reuseStrategy.wrapNewComponents(this, fieldName, createComponents(fieldName));
       reuseStrategy.setReusableComponents(this, fieldName, components);
     }
 
@@ -353,6 +353,7 @@ public abstract class Analyzer implements Closeable {
     if (storedValue != null) {
       storedValue.close();
       storedValue = null;
+      reuseStrategy.analyzerClosed(this);
     }
   }
 
@@ -466,6 +467,30 @@ public abstract class Analyzer implements Closeable {
      */
     public abstract void setReusableComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components);
 
+    /**
+     * Expert: called with components that were just created by
+     * {@link Analyzer#createComponents(String)}, before they are passed to
+     * {@link #setReusableComponents(Analyzer, String, TokenStreamComponents)}.
+     * Strategies that need to know when the consumer is done with a
+     * {@link TokenStream} may return components whose sink wraps the given
+     * one. The default implementation returns the given components.
+     *
+     * @param analyzer Analyzer that created the components
+     * @param fieldName Name of the field that the components were created for
+     * @param components TokenStreamComponents that were just created
+     * @return the TokenStreamComponents to use and store
+     */
+    protected TokenStreamComponents wrapNewComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components) {
+      return components;
+    }
+
+    /**
+     * Called when the given analyzer is closed, so that strategies that keep
+     * components outside of the analyzer can release them.
+     */
+    void analyzerClosed(Analyzer analyzer) {
+    }
+
     /**
      * Returns the currently stored value.
      *
@@ -514,6 +539,10 @@ public abstract class Analyzer implements Closeable {
   /**
    * A predefined {@link ReuseStrategy} that reuses components per-field by
    * maintaining a Map of TokenStreamComponent per field name.
+   * <p>
+   * Components are kept per thread, so memory usage grows with the number of
+   * threads times the number of fields. Consider {@link PooledReuseStrategy}
+   * if both are large.
    */
   public static final ReuseStrategy PER_FIELD_REUSE_STRATEGY = new ReuseStrategy() {
 
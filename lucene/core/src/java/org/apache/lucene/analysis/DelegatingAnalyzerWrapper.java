@@ -99,6 +99,16 @@ public abstract class DelegatingAnalyzerWrapper extends AnalyzerWrapper {
         fallbackStrategy.setReusableComponents(analyzer, fieldName, components);
       }
     }
+
+    @Override
+    protected TokenStreamComponents wrapNewComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components) {
+      if (analyzer == wrapper) {
+        final Analyzer wrappedAnalyzer = wrapper.getWrappedAnalyzer(fieldName);
+        return wrappedAnalyzer.getReuseStrategy().wrapNewComponents(wrappedAnalyzer, fieldName, components);
+      } else {
+        return fallbackStrategy.wrapNewComponents(analyzer, fieldName, components);
+      }
+    }
   };
   
 }
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.analysis.Analyzer.TokenStreamComponents;
+import org.apache.lucene.store.AlreadyClosedException;
+
+/**
+ * A {@link Analyzer.ReuseStrategy} that reuses components per field through
+ * pools that are shared by all threads.
+ * <p>
+ * Unlike {@link Analyzer#PER_FIELD_REUSE_STRATEGY}, which keeps the components
+ * of every field in every thread that used them, this strategy hands out idle
+ * components of the requested field to any thread, and takes them back when
+ * the consumer {@link TokenStream#close() closes} the {@link TokenStream}. The
+ * number of components is thus bounded by the number of token streams that are
+ * consumed concurrently rather than by the number of threads times the number
+ * of fields.
+ * <p>
+ * At most {@code maxIdleComponents} idle components are kept across all fields
+ * and components that have not been used for about {@code maxIdleMillis} are
+ * dropped. The token streams that analyzers return with this strategy wrap the
+ * sink of their components, which must be closed exactly once after use, as
+ * required by the {@link TokenStream} workflow. Token streams that are never
+ * closed are not reused, so unlike with per-thread strategies, asking for a new
+ * token stream before closing the previous one does not fail.
+ * <p>
+ * A single instance may be shared by several analyzers, components are pooled
+ * per analyzer. The components of an analyzer are released when it is
+ * {@link Analyzer#close() closed}.
+ *
+ * @lucene.experimental
+ */
+public final class PooledReuseStrategy extends Analyzer.ReuseStrategy {
+
+  /** Default maximum number of idle components. */
+  public static final int DEFAULT_MAX_IDLE_COMPONENTS = 1024;
+
+  /** Default time after which idle components are dropped, in milliseconds. */
+  public static final long DEFAULT_MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  /** Idle components of one analyzer, per field. */
+  private static final class Pools {
+    final ConcurrentHashMap<String, Deque<PooledTokenStream>> perField = new ConcurrentHashMap<>();
+    volatile boolean closed;
+  }
+
+  private final int maxIdleComponents;
+  private final long maxIdleNanos;
+  // pools are removed when their analyzer is closed; keys are weak for analyzers
+  // that are never closed, which only helps if their components do not reference them
+  private final Map<Analyzer, Pools> pools = Collections.synchronizedMap(new WeakHashMap<>());
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong nextSweepNanos;
+
+  /**
+   * Create a new strategy with {@link #DEFAULT_MAX_IDLE_COMPONENTS} and
+   * {@link #DEFAULT_MAX_IDLE_MILLIS}.
+   */
+  public PooledReuseStrategy() {
+    this(DEFAULT_MAX_IDLE_COMPONENTS, DEFAULT_MAX_IDLE_MILLIS);
+  }
+
+  /**
+   * Create a new strategy that keeps at most {@code maxIdleComponents} idle
+   * components and drops those that have been idle for more than
+   * {@code maxIdleMillis} milliseconds.
+   */
+  public PooledReuseStrategy(int maxIdleComponents, long maxIdleMillis) {
+    if (maxIdleComponents < 0) {
+      throw new IllegalArgumentException("maxIdleComponents must be >= 0, got " + maxIdleComponents);
+    }
+    if (maxIdleMillis < 0) {
+      throw new IllegalArgumentException("maxIdleMillis must be >= 0, got " + maxIdleMillis);
+    }
+    this.maxIdleComponents = maxIdleComponents;
+    this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+    this.nextSweepNanos = new AtomicLong(System.nanoTime() + maxIdleNanos);
+  }
+
+  private Pools getPools(Analyzer analyzer) {
+    // every thread caches the pools of the analyzer, which also checks that the analyzer is open
+    Pools analyzerPools = (Pools) getStoredValue(analyzer);
+    if (analyzerPools == null) {
+      synchronized (pools) {
+        analyzerPools = pools.computeIfAbsent(analyzer, a -> new Pools());
+      }
+      try {
+        setStoredValue(analyzer, analyzerPools);
+      } catch (AlreadyClosedException e) {
+        // closed concurrently, make sure its pools are not kept
+        analyzerClosed(analyzer);
+        throw e;
+      }
+    }
+    return analyzerPools;
+  }
+
+  @Override
+  void analyzerClosed(Analyzer analyzer) {
+    final Pools analyzerPools;
+    synchronized (pools) {
+      analyzerPools = pools.remove(analyzer);
+    }
+    if (analyzerPools != null) {
+      analyzerPools.closed = true;
+      for (Deque<PooledTokenStream> idle : analyzerPools.perField.values()) {
+        drop(idle);
+      }
+    }
+  }
+
+  private void drop(Deque<PooledTokenStream> idle) {
+    // polling may race with a release that checks for closed pools, only one of them wins
+    while (idle.pollFirst() != null) {
+      idleCount.decrementAndGet();
+    }
+  }
+
+  @Override
+  public TokenStreamComponents getReusableComponents(Analyzer analyzer, String fieldName) {
+    final Deque<PooledTokenStream> idle = getPools(analyzer).perField.get(fieldName);
+    final PooledTokenStream stream = idle == null ? null : idle.pollFirst();
+    if (stream == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    idleCount.decrementAndGet();
+    hitCount.incrementAndGet();
+    stream.leased = true;
+    return stream.components;
+  }
+
+  @Override
+  public void setReusableComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components) {
+    // nothing to do: components join the pool when their token stream is closed
+  }
+
+  @Override
+  protected TokenStreamComponents wrapNewComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components) {
+    final Pools analyzerPools = getPools(analyzer);
+    final Deque<PooledTokenStream> idle = analyzerPools.perField.computeIfAbsent(fieldName, f -> new ConcurrentLinkedDeque<>());
+    final PooledTokenStream stream = new PooledTokenStream(components.getTokenStream(), analyzerPools, idle);
+    stream.components = new TokenStreamComponents(components.getSource(), stream);
+    return stream.components;
+  }
+
+  private void release(PooledTokenStream stream) {
+    final long now = System.nanoTime();
+    stream.releaseNanos = now;
+    if (stream.pools.closed) {
+      // the analyzer was closed while the stream was in use
+      return;
+    }
+    if (idleCount.incrementAndGet() > maxIdleComponents) {
+      idleCount.decrementAndGet();
+      evictionCount.incrementAndGet();
+    } else {
+      // most recently used components are reused first, so that idle ones age at the tail
+      stream.idle.offerFirst(stream);
+      if (stream.pools.closed) {
+        // closed concurrently, the pool may have been drained before the offer
+        drop(stream.idle);
+      }
+    }
+
+    final long nextSweep = nextSweepNanos.get();
+    if (now - nextSweep >= 0 && nextSweepNanos.compareAndSet(nextSweep, now + maxIdleNanos)) {
+      evictIdle(now);
+    }
+  }
+
+  private void evictIdle(long now) {
+    final List<Pools> analyzerPools;
+    synchronized (pools) {
+      analyzerPools = new ArrayList<>(pools.values());
+    }
+    for (Pools p : analyzerPools) {
+      for (Deque<PooledTokenStream> idle : p.perField.values()) {
+        for (PooledTokenStream oldest = idle.peekLast();
+            oldest != null && now - oldest.releaseNanos > maxIdleNanos;
+            oldest = idle.peekLast()) {
+          // another thread may have taken it in the meantime
+          if (idle.removeLastOccurrence(oldest)) {
+            idleCount.decrementAndGet();
+            evictionCount.incrementAndGet();
+          }
+        }
+      }
+    }
+  }
+
+  /** Return the number of idle components across all fields and analyzers. */
+  public int getIdleCount() {
+    return idleCount.get();
+  }
+
+  /** Return the number of requests that reused idle components. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Return the number of requests that had to create new components. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Return the number of components that were dropped, either because they
+   * had been idle for too long or because the pool was full.
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(maxIdleComponents=" + maxIdleComponents
+        + ", maxIdleMillis=" + TimeUnit.NANOSECONDS.toMillis(maxIdleNanos) + ")";
+  }
+
+  /** Wraps the sink of pooled components in order to release them on close. */
+  private final class PooledTokenStream extends TokenFilter {
+
+    final Pools pools;
+    final Deque<PooledTokenStream> idle;
+    TokenStreamComponents components;
+    boolean leased = true;
+    long releaseNanos;
+
+    PooledTokenStream(TokenStream sink, Pools pools, Deque<PooledTokenStream> idle) {
+      super(sink);
+      this.pools = pools;
+      this.idle = idle;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+      return input.incrementToken();
+    }
+
+    @Override
+    public void close() throws IOException {
+      // components that fail to close are not reused
+      super.close();
+      if (leased) {
+        leased = false;
+        release(this);
+      }
+    }
+  }
+}
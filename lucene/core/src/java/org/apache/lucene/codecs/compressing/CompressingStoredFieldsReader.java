@@ -94,6 +94,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
   private final long numChunks; // number of written blocks
   private final long numDirtyChunks; // number of incomplete compressed blocks written
   private final long numDirtyDocs; // cumulative number of docs in incomplete chunks
+  private final StoredFieldsBlockCache blockCache; // null if decompressed blocks are not cached
+  private final Object blockCacheKey; // the reader that was opened on the segment, shared by clones
   private boolean closed;
 
   // used by clone
@@ -112,6 +114,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
     this.numDirtyChunks = reader.numDirtyChunks;
     this.numDirtyDocs = reader.numDirtyDocs;
     this.merging = merging;
+    this.blockCache = merging ? null : reader.blockCache;
+    this.blockCacheKey = reader.blockCacheKey;
     this.state = new BlockState();
     this.closed = false;
   }
@@ -148,6 +152,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
 
       decompressor = compressionMode.newDecompressor();
       this.merging = false;
+      this.blockCache = StoredFieldsBlockCache.getDefault();
+      this.blockCacheKey = this;
       this.state = new BlockState();
 
       // NOTE: data file is too costly to verify checksum against all the bytes on open,
@@ -265,6 +271,9 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
   @Override
   public void close() throws IOException {
     if (!closed) {
+      if (blockCache != null && blockCacheKey == this) {
+        blockCache.clear(blockCacheKey);
+      }
       IOUtils.close(indexReader, fieldsStream);
       closed = true;
     }
@@ -638,6 +647,19 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
           }
 
         };
+      } else if (blockCache != null) {
+        byte[] block = blockCache.get(blockCacheKey, startPointer);
+        if (block == null) {
+          // decompress the whole block so that other documents of the block can be served from the cache
+          fieldsStream.seek(startPointer);
+          decompressor.decompress(fieldsStream, totalLength, 0, totalLength, bytes);
+          if (bytes.length != totalLength) {
+            throw new CorruptIndexException("Corrupted: expected chunk size = " + totalLength + ", got " + bytes.length, fieldsStream);
+          }
+          block = ArrayUtil.copyOfSubArray(bytes.bytes, bytes.offset, bytes.offset + bytes.length);
+          blockCache.put(blockCacheKey, startPointer, block);
+        }
+        documentInput = new ByteArrayDataInput(block, offset, length);
       } else {
         fieldsStream.seek(startPointer);
         decompressor.decompress(fieldsStream, totalLength, offset, length, bytes);
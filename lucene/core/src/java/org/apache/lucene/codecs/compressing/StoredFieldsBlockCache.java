@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+import static org.apache.lucene.util.RamUsageEstimator.LINKED_HASHTABLE_RAM_BYTES_PER_ENTRY;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * A size-bounded LRU cache of decompressed stored fields blocks, shared by
+ * all {@link CompressingStoredFieldsReader}s that are opened while it is the
+ * {@link #setDefault default} cache.
+ * <p>
+ * Fetching a single document requires decompressing the whole block that
+ * contains it. When the same blocks are hit repeatedly, for instance because
+ * the top hits of concurrent queries share a few hot blocks, this cache saves
+ * the decompression of the block on every fetch but the first. Blocks are
+ * keyed by segment and by start pointer in the fields data file, and entries
+ * of a segment are dropped when its reader is closed.
+ * <p>
+ * Blocks that are too large to be decompressed at once, as well as merges,
+ * never go through the cache.
+ *
+ * @lucene.experimental
+ */
+public final class StoredFieldsBlockCache implements Accountable {
+
+  private static final long BASE_RAM_BYTES_PER_ENTRY = LINKED_HASHTABLE_RAM_BYTES_PER_ENTRY
+      + RamUsageEstimator.shallowSizeOfInstance(Key.class)
+      + RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+
+  private static volatile StoredFieldsBlockCache defaultCache;
+
+  /**
+   * Set the cache that {@link CompressingStoredFieldsReader}s use for readers
+   * that are opened from now on, or {@code null} to disable caching. Already
+   * opened readers keep using the cache that was the default when they were
+   * opened.
+   */
+  public static void setDefault(StoredFieldsBlockCache cache) {
+    defaultCache = cache;
+  }
+
+  /** Return the default cache, or {@code null} if caching is disabled, which is the default. */
+  public static StoredFieldsBlockCache getDefault() {
+    return defaultCache;
+  }
+
+  private static final class Key {
+    final Object segmentKey;
+    final long startPointer;
+
+    Key(Object segmentKey, long startPointer) {
+      this.segmentKey = segmentKey;
+      this.startPointer = startPointer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == null || obj.getClass() != Key.class) {
+        return false;
+      }
+      Key that = (Key) obj;
+      return segmentKey == that.segmentKey && startPointer == that.startPointer;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(segmentKey) + Long.hashCode(startPointer);
+    }
+  }
+
+  private final long maxRamBytesUsed;
+  private final Map<Key, byte[]> cache;
+  private final ReentrantLock lock;
+
+  // these variables are volatile so that we do not need to sync reads
+  // but increments need to be performed under the lock
+  private volatile long ramBytesUsed;
+  private volatile long hitCount;
+  private volatile long missCount;
+  private volatile long evictionCount;
+
+  /**
+   * Create a new instance that will hold decompressed blocks until their
+   * cumulated size reaches {@code maxRamBytesUsed}.
+   */
+  public StoredFieldsBlockCache(long maxRamBytesUsed) {
+    if (maxRamBytesUsed < 0) {
+      throw new IllegalArgumentException("maxRamBytesUsed must be >= 0, got " + maxRamBytesUsed);
+    }
+    this.maxRamBytesUsed = maxRamBytesUsed;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.lock = new ReentrantLock();
+  }
+
+  /** Return the decompressed block that starts at {@code startPointer} in the given segment, or {@code null}. */
+  byte[] get(Object segmentKey, long startPointer) {
+    final Key key = new Key(segmentKey, startPointer);
+    lock.lock();
+    try {
+      final byte[] block = cache.get(key);
+      if (block == null) {
+        missCount += 1;
+      } else {
+        hitCount += 1;
+      }
+      return block;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Cache a decompressed block, the array must not be modified afterwards. */
+  void put(Object segmentKey, long startPointer, byte[] block) {
+    final long entryBytes = ramBytesUsed(block);
+    if (entryBytes > maxRamBytesUsed) {
+      return;
+    }
+    final Key key = new Key(segmentKey, startPointer);
+    lock.lock();
+    try {
+      final byte[] previous = cache.put(key, block);
+      if (previous != null) {
+        ramBytesUsed -= ramBytesUsed(previous);
+      }
+      ramBytesUsed += entryBytes;
+      for (Iterator<byte[]> it = cache.values().iterator(); ramBytesUsed > maxRamBytesUsed && it.hasNext(); ) {
+        final byte[] evicted = it.next();
+        it.remove();
+        ramBytesUsed -= ramBytesUsed(evicted);
+        evictionCount += 1;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Remove all blocks of the given segment. */
+  void clear(Object segmentKey) {
+    lock.lock();
+    try {
+      for (Iterator<Map.Entry<Key, byte[]>> it = cache.entrySet().iterator(); it.hasNext(); ) {
+        final Map.Entry<Key, byte[]> entry = it.next();
+        if (entry.getKey().segmentKey == segmentKey) {
+          it.remove();
+          ramBytesUsed -= ramBytesUsed(entry.getValue());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Remove all cached blocks. */
+  public void clear() {
+    lock.lock();
+    try {
+      cache.clear();
+      ramBytesUsed = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static long ramBytesUsed(byte[] block) {
+    return BASE_RAM_BYTES_PER_ENTRY + block.length;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+
+  /** Return the number of cached blocks. */
+  public int getCacheCount() {
+    lock.lock();
+    try {
+      return cache.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Return the number of lookups that found their block in the cache. */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /** Return the number of lookups that had to decompress their block. */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /** Return the number of blocks that were evicted to make room for other blocks. */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(maxRamBytesUsed=" + maxRamBytesUsed + ",ramBytesUsed=" + ramBytesUsed + ")";
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.lucene.util.packed.PackedInts;
 
 /**
  * Utility class to encode/decode increasing sequences of 128 integers.
+ * @lucene.internal
  */
 public class ForDeltaUtil {
 
@@ -45,7 +46,8 @@ public class ForDeltaUtil {
 
   private final ForUtil forUtil;
 
-  ForDeltaUtil(ForUtil forUtil) {
+  /** Sole constructor. */
+  public ForDeltaUtil(ForUtil forUtil) {
     this.forUtil = forUtil;
   }
 
@@ -53,7 +55,7 @@ public class ForDeltaUtil {
    * Encode deltas of a strictly monotonically increasing sequence of integers.
    * The provided {@code longs} are expected to be deltas between consecutive values.
    */
-  void encodeDeltas(long[] longs, DataOutput out) throws IOException {
+  public void encodeDeltas(long[] longs, DataOutput out) throws IOException {
     if (longs[0] == 1 && PForUtil.allEqual(longs)) { // happens with very dense postings
       out.writeByte((byte) 0);
     } else {
@@ -71,7 +73,7 @@ public class ForDeltaUtil {
   /**
    * Decode deltas, compute the prefix sum and add {@code base} to all decoded longs.
    */
-  void decodeAndPrefixSum(DataInput in, long base, long[] longs) throws IOException {
+  public void decodeAndPrefixSum(DataInput in, long base, long[] longs) throws IOException {
     final int bitsPerValue = Byte.toUnsignedInt(in.readByte());
     if (bitsPerValue == 0) {
       prefixSumOfOnes(longs, base);
@@ -25,8 +25,9 @@ import org.apache.lucene.util.packed.PackedInts;
 
 /**
  * Utility class to encode sequences of 128 small positive integers.
+ * @lucene.internal
  */
-final class PForUtil {
+public final class PForUtil {
 
   static boolean allEqual(long[] l) {
     for (int i = 1; i < ForUtil.BLOCK_SIZE; ++i) {
@@ -39,14 +40,15 @@ final class PForUtil {
 
   private final ForUtil forUtil;
 
-  PForUtil(ForUtil forUtil) {
+  /** Sole constructor. */
+  public PForUtil(ForUtil forUtil) {
     this.forUtil = forUtil;
   }
 
   /**
    * Encode 128 integers from {@code longs} into {@code out}.
    */
-  void encode(long[] longs, DataOutput out) throws IOException {
+  public void encode(long[] longs, DataOutput out) throws IOException {
     // At most 7 exceptions
     final long[] top8 = new long[8];
     Arrays.fill(top8, -1L);
@@ -98,7 +100,7 @@ final class PForUtil {
   /**
    * Decode 128 integers into {@code ints}.
    */
-  void decode(DataInput in, long[] longs) throws IOException {
+  public void decode(DataInput in, long[] longs) throws IOException {
     final int token = Byte.toUnsignedInt(in.readByte());
     final int bitsPerValue = token & 0x1f;
     final int numExceptions = token >>> 5;
@@ -52,9 +52,14 @@ import org.apache.lucene.store.DataOutput;
 // If bitsPerValue <= 8 then we pack 8 ints per long
 // else if bitsPerValue <= 16 we pack 4 ints per long
 // else we pack 2 ints per long
-final class ForUtil {
+/**
+ * Utility class to encode/decode blocks of 128 integers with a fixed number of bits per value.
+ * @lucene.internal
+ */
+public final class ForUtil {
 
-  static final int BLOCK_SIZE = 128;
+  /** Number of integers per block. */
+  public static final int BLOCK_SIZE = 128;
   private static final int BLOCK_SIZE_LOG2 = 7;
 
   private static long expandMask32(long mask32) {
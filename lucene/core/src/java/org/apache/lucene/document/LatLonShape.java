@@ -18,6 +18,7 @@ package org.apache.lucene.document;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.lucene.document.ShapeField.QueryRelation; // javadoc
 import org.apache.lucene.document.ShapeField.Triangle;
@@ -77,6 +78,19 @@ public class LatLonShape {
     return fields.toArray(new Field[fields.size()]);
   }
 
+  /**
+   * create indexable fields for geo multipolygon geometry; the polygons, as well as the pieces
+   * of very large polygons, are tessellated concurrently on the given pool
+   */
+  public static Field[] createIndexableFields(String fieldName, Polygon[] polygons, ForkJoinPool pool) {
+    List<Tessellator.Triangle> tessellation = Tessellator.tessellate(polygons, pool);
+    List<Triangle> fields = new ArrayList<>(tessellation.size());
+    for (Tessellator.Triangle t : tessellation) {
+      fields.add(new Triangle(fieldName, t));
+    }
+    return fields.toArray(new Field[fields.size()]);
+  }
+
   /** create indexable fields for line geometry */
   public static Field[] createIndexableFields(String fieldName, Line line) {
     int numPoints = line.numPoints();
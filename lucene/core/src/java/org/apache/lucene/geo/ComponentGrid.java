@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.geo;
+
+import org.apache.lucene.index.PointValues.Relation;
+
+/**
+ * 2D geometry implementation that answers queries from a grid over the bounding box of
+ * another component, falling back to that component only when needed.
+ * <p>
+ * Each cell of the grid stores the relation of the component with the cell. Points and
+ * bounding boxes that only intersect cells that are inside or outside of the component
+ * are answered without looking at its edges; only those that intersect a crossing cell
+ * are delegated. This pays off for components with many edges, e.g. polygons of country
+ * borders, whose interior and exterior cover most of the grid.
+ * <p>
+ * Construction takes {@code O(ARITY^2)} calls to {@link Component2D#relate}.
+ */
+final class ComponentGrid implements Component2D {
+  /** number of rows and columns of the grid */
+  static final int ARITY = 64;
+
+  private static final byte INSIDE = (byte) Relation.CELL_INSIDE_QUERY.ordinal();
+  private static final byte OUTSIDE = (byte) Relation.CELL_OUTSIDE_QUERY.ordinal();
+
+  /** the wrapped component */
+  final Component2D component;
+  private final double minX, maxX, minY, maxY;
+  /** cell {@code i} spans {@code [xs[i], xs[i+1]]} horizontally, and the same for ys */
+  private final double[] xs, ys;
+  /** scale factors to compute the cell of a coordinate */
+  private final double xScale, yScale;
+  /** relation of each cell, row by row */
+  private final byte[] relations;
+
+  private ComponentGrid(Component2D component) {
+    this.component = component;
+    this.minX = component.getMinX();
+    this.maxX = component.getMaxX();
+    this.minY = component.getMinY();
+    this.maxY = component.getMaxY();
+    this.xs = bounds(minX, maxX);
+    this.ys = bounds(minY, maxY);
+    this.xScale = maxX > minX ? (xs.length - 1) / (maxX - minX) : 0;
+    this.yScale = maxY > minY ? (ys.length - 1) / (maxY - minY) : 0;
+    final int columns = xs.length - 1;
+    this.relations = new byte[columns * (ys.length - 1)];
+    for (int row = 0; row < ys.length - 1; row++) {
+      for (int column = 0; column < columns; column++) {
+        relations[row * columns + column] =
+            (byte) component.relate(xs[column], xs[column + 1], ys[row], ys[row + 1]).ordinal();
+      }
+    }
+  }
+
+  private static double[] bounds(double min, double max) {
+    final int cells = max > min ? ARITY : 1;
+    final double[] bounds = new double[cells + 1];
+    for (int i = 0; i < cells; i++) {
+      bounds[i] = min + (max - min) * i / cells;
+    }
+    bounds[cells] = max;
+    return bounds;
+  }
+
+  /** Returns the cell whose closed interval contains {@code v}, which must be within the bounds */
+  private static int cell(double v, double min, double scale, double[] bounds) {
+    int cell = (int) ((v - min) * scale);
+    cell = Math.max(0, Math.min(bounds.length - 2, cell));
+    // correct rounding errors, so that the cell really contains the value
+    while (v < bounds[cell]) {
+      cell--;
+    }
+    while (v > bounds[cell + 1]) {
+      cell++;
+    }
+    return cell;
+  }
+
+  /**
+   * Returns the relation that all cells intersecting the given box have in common, or
+   * {@link Relation#CELL_CROSSES_QUERY} if they differ. The box must intersect the grid.
+   */
+  private Relation relateCells(double minX, double maxX, double minY, double maxY) {
+    final int minColumn = cell(Math.max(minX, this.minX), this.minX, xScale, xs);
+    final int maxColumn = cell(Math.min(maxX, this.maxX), this.minX, xScale, xs);
+    final int minRow = cell(Math.max(minY, this.minY), this.minY, yScale, ys);
+    final int maxRow = cell(Math.min(maxY, this.maxY), this.minY, yScale, ys);
+    final int columns = xs.length - 1;
+    final byte relation = relations[minRow * columns + minColumn];
+    if (relation != INSIDE && relation != OUTSIDE) {
+      return Relation.CELL_CROSSES_QUERY;
+    }
+    for (int row = minRow; row <= maxRow; row++) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        if (relations[row * columns + column] != relation) {
+          return Relation.CELL_CROSSES_QUERY;
+        }
+      }
+    }
+    return relation == INSIDE ? Relation.CELL_INSIDE_QUERY : Relation.CELL_OUTSIDE_QUERY;
+  }
+
+  /** Returns the relation of the given box with the grid: inside only if the box is within the bounding box */
+  private Relation relateBox(double minX, double maxX, double minY, double maxY) {
+    if (Component2D.disjoint(this.minX, this.maxX, this.minY, this.maxY, minX, maxX, minY, maxY)) {
+      return Relation.CELL_OUTSIDE_QUERY;
+    }
+    final Relation relation = relateCells(minX, maxX, minY, maxY);
+    if (relation == Relation.CELL_INSIDE_QUERY
+        && Component2D.within(minX, maxX, minY, maxY, this.minX, this.maxX, this.minY, this.maxY) == false) {
+      // the part of the box outside of the grid is outside of the component
+      return Relation.CELL_CROSSES_QUERY;
+    }
+    return relation;
+  }
+
+  @Override
+  public double getMinX() {
+    return minX;
+  }
+
+  @Override
+  public double getMaxX() {
+    return maxX;
+  }
+
+  @Override
+  public double getMinY() {
+    return minY;
+  }
+
+  @Override
+  public double getMaxY() {
+    return maxY;
+  }
+
+  @Override
+  public boolean contains(double x, double y) {
+    if (Component2D.containsPoint(x, y, minX, maxX, minY, maxY) == false) {
+      return false;
+    }
+    final byte relation = relations[cell(y, minY, yScale, ys) * (xs.length - 1) + cell(x, minX, xScale, xs)];
+    if (relation == INSIDE) {
+      return true;
+    } else if (relation == OUTSIDE) {
+      return false;
+    }
+    return component.contains(x, y);
+  }
+
+  @Override
+  public Relation relate(double minX, double maxX, double minY, double maxY) {
+    final Relation relation = relateBox(minX, maxX, minY, maxY);
+    if (relation != Relation.CELL_CROSSES_QUERY) {
+      return relation;
+    }
+    return component.relate(minX, maxX, minY, maxY);
+  }
+
+  @Override
+  public boolean intersectsLine(double minX, double maxX, double minY, double maxY,
+                                double aX, double aY, double bX, double bY) {
+    final Relation relation = relateBox(minX, maxX, minY, maxY);
+    if (relation != Relation.CELL_CROSSES_QUERY) {
+      return relation == Relation.CELL_INSIDE_QUERY;
+    }
+    return component.intersectsLine(minX, maxX, minY, maxY, aX, aY, bX, bY);
+  }
+
+  @Override
+  public boolean intersectsTriangle(double minX, double maxX, double minY, double maxY,
+                                    double aX, double aY, double bX, double bY, double cX, double cY) {
+    final Relation relation = relateBox(minX, maxX, minY, maxY);
+    if (relation != Relation.CELL_CROSSES_QUERY) {
+      return relation == Relation.CELL_INSIDE_QUERY;
+    }
+    return component.intersectsTriangle(minX, maxX, minY, maxY, aX, aY, bX, bY, cX, cY);
+  }
+
+  @Override
+  public boolean containsLine(double minX, double maxX, double minY, double maxY,
+                              double aX, double aY, double bX, double bY) {
+    final Relation relation = relateBox(minX, maxX, minY, maxY);
+    if (relation != Relation.CELL_CROSSES_QUERY) {
+      return relation == Relation.CELL_INSIDE_QUERY;
+    }
+    return component.containsLine(minX, maxX, minY, maxY, aX, aY, bX, bY);
+  }
+
+  @Override
+  public boolean containsTriangle(double minX, double maxX, double minY, double maxY,
+                                  double aX, double aY, double bX, double bY, double cX, double cY) {
+    final Relation relation = relateBox(minX, maxX, minY, maxY);
+    if (relation != Relation.CELL_CROSSES_QUERY) {
+      return relation == Relation.CELL_INSIDE_QUERY;
+    }
+    return component.containsTriangle(minX, maxX, minY, maxY, aX, aY, bX, bY, cX, cY);
+  }
+
+  @Override
+  public WithinRelation withinPoint(double x, double y) {
+    return component.withinPoint(x, y);
+  }
+
+  @Override
+  public WithinRelation withinLine(double minX, double maxX, double minY, double maxY,
+                                   double aX, double aY, boolean ab, double bX, double bY) {
+    return component.withinLine(minX, maxX, minY, maxY, aX, aY, ab, bX, bY);
+  }
+
+  @Override
+  public WithinRelation withinTriangle(double minX, double maxX, double minY, double maxY,
+                                       double aX, double aY, boolean ab, double bX, double bY, boolean bc, double cX, double cY, boolean ca) {
+    return component.withinTriangle(minX, maxX, minY, maxY, aX, aY, ab, bX, bY, bc, cX, cY, ca);
+  }
+
+  @Override
+  public String toString() {
+    return "ComponentGrid(" + component + ")";
+  }
+
+  /** Builds a grid over the given component */
+  static Component2D create(Component2D component) {
+    return new ComponentGrid(component);
+  }
+}
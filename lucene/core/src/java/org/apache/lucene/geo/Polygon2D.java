@@ -271,24 +271,37 @@ final class Polygon2D implements Component2D {
     return containsCount;
   }
 
+  /** Polygons with at least this many vertices, including their holes, are wrapped in a {@link ComponentGrid} */
+  static final int GRID_MIN_VERTICES = 1024;
+
   /** Builds a Polygon2D from LatLon polygon */
   static Component2D create(Polygon polygon) {
     Polygon gonHoles[] = polygon.getHoles();
     Component2D holes = null;
+    int numPoints = polygon.numPoints();
     if (gonHoles.length > 0) {
       holes = LatLonGeometry.create(gonHoles);
+      for (Polygon hole : gonHoles) {
+        numPoints += hole.numPoints();
+      }
     }
-    return new Polygon2D(polygon, holes);
+    Component2D polygon2D = new Polygon2D(polygon, holes);
+    return numPoints >= GRID_MIN_VERTICES ? ComponentGrid.create(polygon2D) : polygon2D;
   }
 
   /** Builds a Polygon2D from XY polygon */
   static Component2D create(XYPolygon polygon) {
     XYPolygon gonHoles[] = polygon.getHoles();
     Component2D holes = null;
+    int numPoints = polygon.numPoints();
     if (gonHoles.length > 0) {
       holes = XYGeometry.create(gonHoles);
+      for (XYPolygon hole : gonHoles) {
+        numPoints += hole.numPoints();
+      }
     }
-    return new Polygon2D(polygon, holes);
+    Component2D polygon2D = new Polygon2D(polygon, holes);
+    return numPoints >= GRID_MIN_VERTICES ? ComponentGrid.create(polygon2D) : polygon2D;
   }
 
 }
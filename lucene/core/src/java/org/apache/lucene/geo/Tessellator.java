@@ -20,6 +20,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
 
 import org.apache.lucene.geo.GeoUtils.WindingOrder;
 import org.apache.lucene.util.BitUtil;
@@ -71,6 +75,10 @@ import static org.apache.lucene.geo.GeoUtils.orient;
 final public class Tessellator {
   // this is a dumb heuristic to control whether we cut over to sorted morton values
   private static final int VERTEX_THRESHOLD = 80;
+  // polygons with at least this many vertices are split into pieces that are tessellated concurrently
+  static final int SPLIT_THRESHOLD = 4096;
+  // maximum number of diagonals that are checked when looking for a balanced split
+  private static final int MAX_SPLIT_ATTEMPTS = 32;
 
   /** state of the tessellated split - avoids recursion */
   private enum State {
@@ -81,6 +89,15 @@ final public class Tessellator {
   private Tessellator() {}
 
   public static final List<Triangle> tessellate(final Polygon polygon) {
+    return tessellate(polygon, null);
+  }
+
+  /**
+   * Tessellates the given polygon. If a pool is provided, large polygons are split into pieces
+   * that are tessellated concurrently on it; the resulting triangles may then differ from the
+   * ones computed by {@link #tessellate(Polygon)} but cover the same area.
+   */
+  public static final List<Triangle> tessellate(final Polygon polygon, final ForkJoinPool pool) {
     // Attempt to establish a doubly-linked list of the provided shell points (should be CCW, but this will correct);
     // then filter instances of intersections.
     Node outerNode = createDoublyLinkedList(polygon.getPolyLons(), polygon.getPolyLats(),polygon.getWindingOrder(), true,
@@ -111,7 +128,7 @@ final public class Tessellator {
       }
     }
     // Calculate the tessellation using the doubly LinkedList.
-    List<Triangle> result = earcutLinkedList(polygon, outerNode, new ArrayList<>(), State.INIT, mortonOptimized);
+    List<Triangle> result = earcut(polygon, outerNode, mortonOptimized, pool);
     if (result.size() == 0) {
       throw new IllegalArgumentException("Unable to Tessellate shape [" + polygon + "]. Possible malformed shape detected.");
     }
@@ -121,6 +138,15 @@ final public class Tessellator {
 
 
   public static final List<Triangle> tessellate(final XYPolygon polygon) {
+    return tessellate(polygon, null);
+  }
+
+  /**
+   * Tessellates the given polygon. If a pool is provided, large polygons are split into pieces
+   * that are tessellated concurrently on it.
+   * @see #tessellate(Polygon, ForkJoinPool)
+   */
+  public static final List<Triangle> tessellate(final XYPolygon polygon, final ForkJoinPool pool) {
     // Attempt to establish a doubly-linked list of the provided shell points (should be CCW, but this will correct);
     // then filter instances of intersections.0
     Node outerNode = createDoublyLinkedList(XYEncodingUtils.floatArrayToDoubleArray(polygon.getPolyX()), XYEncodingUtils.floatArrayToDoubleArray(polygon.getPolyY()),
@@ -151,7 +177,7 @@ final public class Tessellator {
       }
     }
     // Calculate the tessellation using the doubly LinkedList.
-    List<Triangle> result = earcutLinkedList(polygon, outerNode, new ArrayList<>(), State.INIT, mortonOptimized);
+    List<Triangle> result = earcut(polygon, outerNode, mortonOptimized, pool);
     if (result.size() == 0) {
       throw new IllegalArgumentException("Unable to Tessellate shape [" + polygon + "]. Possible malformed shape detected.");
     }
@@ -159,6 +185,143 @@ final public class Tessellator {
     return result;
   }
 
+  /**
+   * Tessellates the polygons of a multipolygon concurrently on the given pool, and returns
+   * their triangles in the order of the polygons.
+   */
+  public static final List<Triangle> tessellate(final Polygon[] polygons, final ForkJoinPool pool) {
+    return pool.invoke(new MultiPolygonTask(polygons.length, i -> tessellate(polygons[i], pool)));
+  }
+
+  /**
+   * Tessellates the polygons of a multipolygon concurrently on the given pool, and returns
+   * their triangles in the order of the polygons.
+   */
+  public static final List<Triangle> tessellate(final XYPolygon[] polygons, final ForkJoinPool pool) {
+    return pool.invoke(new MultiPolygonTask(polygons.length, i -> tessellate(polygons[i], pool)));
+  }
+
+  /** Tessellates each polygon of a multipolygon in its own task */
+  private static final class MultiPolygonTask extends RecursiveTask<List<Triangle>> {
+    private final int numPolygons;
+    private final IntFunction<List<Triangle>> tessellator;
+
+    MultiPolygonTask(int numPolygons, IntFunction<List<Triangle>> tessellator) {
+      this.numPolygons = numPolygons;
+      this.tessellator = tessellator;
+    }
+
+    @Override
+    protected List<Triangle> compute() {
+      final List<ForkJoinTask<List<Triangle>>> tasks = new ArrayList<>(numPolygons);
+      for (int i = 0; i < numPolygons; i++) {
+        final int polygon = i;
+        tasks.add(ForkJoinTask.adapt(() -> tessellator.apply(polygon)));
+      }
+      final List<Triangle> result = new ArrayList<>();
+      for (ForkJoinTask<List<Triangle>> task : ForkJoinTask.invokeAll(tasks)) {
+        result.addAll(task.join());
+      }
+      return result;
+    }
+  }
+
+  /** Tessellates the polygon starting at the given node, on the given pool if it is not null */
+  private static final List<Triangle> earcut(final Object polygon, final Node outerNode,
+                                             final boolean mortonOptimized, final ForkJoinPool pool) {
+    if (pool == null) {
+      return earcutLinkedList(polygon, outerNode, new ArrayList<>(), State.INIT, mortonOptimized);
+    }
+    final EarcutTask task = new EarcutTask(polygon, outerNode, mortonOptimized);
+    // avoid blocking a worker when called from a task of the same pool, e.g. a multipolygon
+    return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+  }
+
+  /**
+   * Splits large polygons in two along a diagonal, so that both pieces are tessellated
+   * concurrently, and tessellates small polygons with {@link #earcutLinkedList}.
+   */
+  private static final class EarcutTask extends RecursiveTask<List<Triangle>> {
+    private final Object polygon;
+    private final Node start;
+    private final boolean mortonOptimized;
+
+    EarcutTask(Object polygon, Node start, boolean mortonOptimized) {
+      this.polygon = polygon;
+      this.start = start;
+      this.mortonOptimized = mortonOptimized;
+    }
+
+    @Override
+    protected List<Triangle> compute() {
+      if (start != null && start.previous != start.next) {
+        final int size = ringSize(start);
+        if (size >= SPLIT_THRESHOLD) {
+          final Node[] pieces = splitBalanced(start, size, mortonOptimized);
+          if (pieces != null) {
+            final EarcutTask second = new EarcutTask(polygon, pieces[1], mortonOptimized);
+            second.fork();
+            final List<Triangle> tessellation = new EarcutTask(polygon, pieces[0], mortonOptimized).compute();
+            tessellation.addAll(second.join());
+            return tessellation;
+          }
+        }
+      }
+      return earcutLinkedList(polygon, start, new ArrayList<>(), State.INIT, mortonOptimized);
+    }
+  }
+
+  /** Returns the number of nodes of the ring containing the given node */
+  private static int ringSize(final Node start) {
+    int size = 0;
+    Node node = start;
+    do {
+      size++;
+      node = node.next;
+    } while (node != start);
+    return size;
+  }
+
+  /**
+   * Attempts to split the polygon into two pieces of similar size along a valid diagonal between
+   * nodes that are half the ring apart, and returns a node of each piece, or null if none of the
+   * checked diagonals is valid. The z-order links of both pieces are rebuilt if needed.
+   */
+  private static Node[] splitBalanced(final Node start, final int size, final boolean mortonOptimized) {
+    Node a = start;
+    Node b = start;
+    for (int i = 0; i < size / 2; i++) {
+      b = b.next;
+    }
+    // slide the diagonal along the ring; only diagonals that are locally inside at both ends
+    // are fully validated, which is linear in the size of the polygon, and failed ones are
+    // followed by a jump to spread the attempts over the whole polygon
+    final int step = Math.max(1, size / (2 * MAX_SPLIT_ATTEMPTS));
+    for (int i = 0, attempts = 0; i < size / 2 && attempts < MAX_SPLIT_ATTEMPTS; ) {
+      int advance = 1;
+      if (a.idx != b.idx && isLocallyInside(a, b) && isLocallyInside(b, a)) {
+        attempts++;
+        if (isValidDiagonal(a, b)) {
+          Node splitNode = splitPolygon(a, b, isEdgeFromPolygon(a, b, mortonOptimized));
+          a = filterPoints(a, a.next);
+          splitNode = filterPoints(splitNode, splitNode.next);
+          if (mortonOptimized) {
+            sortByMortonWithReset(a);
+            sortByMortonWithReset(splitNode);
+          }
+          return new Node[] {a, splitNode};
+        }
+        advance = step;
+      }
+      for (int j = 0; j < advance; j++) {
+        a = a.next;
+        b = b.next;
+      }
+      i += advance;
+    }
+    return null;
+  }
+
   /** Creates a circular doubly linked list using polygon points. The order is governed by the specified winding order */
   private static final Node createDoublyLinkedList(final double[] x, final double[] y, final WindingOrder polyWindingOrder,
                                                    boolean isGeo, int startIndex, final WindingOrder windingOrder) {
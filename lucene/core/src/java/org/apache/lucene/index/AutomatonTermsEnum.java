@@ -25,10 +25,11 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.IntsRefBuilder;
 import org.apache.lucene.util.StringHelper;
-import org.apache.lucene.util.automaton.Automaton;
-import org.apache.lucene.util.automaton.ByteRunAutomaton;
+import org.apache.lucene.util.automaton.ByteRunnable;
 import org.apache.lucene.util.automaton.CompiledAutomaton;
+import org.apache.lucene.util.automaton.NFARunAutomaton;
 import org.apache.lucene.util.automaton.Transition;
+import org.apache.lucene.util.automaton.TransitionAccessor;
 
 /**
  * A FilteredTermsEnum that enumerates terms based upon what is accepted by a
@@ -48,17 +49,17 @@ import org.apache.lucene.util.automaton.Transition;
  * @lucene.internal
  */
 public class AutomatonTermsEnum extends FilteredTermsEnum {
-  // a tableized array-based form of the DFA
-  private final ByteRunAutomaton runAutomaton;
+  // a tableized array-based form of the DFA, or a lazily determinized NFA
+  private final ByteRunnable runAutomaton;
   // common suffix of the automaton
   private final BytesRef commonSuffixRef;
   // true if the automaton accepts a finite language
   private final boolean finite;
   // array of sorted transitions for each state, indexed by state number
-  private final Automaton automaton;
+  private final TransitionAccessor automaton;
   // Used for visited state tracking: each short records gen when we last
   // visited the state; we use gens to avoid having to clear
-  private final short[] visited;
+  private short[] visited;
   private short curGen;
   // the reference used for seeking forwards through the term dictionary
   private final BytesRefBuilder seekBytesRef = new BytesRefBuilder(); 
@@ -84,10 +85,17 @@ public class AutomatonTermsEnum extends FilteredTermsEnum {
       throw new IllegalArgumentException("please use CompiledAutomaton.getTermsEnum instead");
     }
     this.finite = compiled.finite;
-    this.runAutomaton = compiled.runAutomaton;
+    if (compiled.nfaAutomaton != null) {
+      // determinize lazily; states are cached by this enum, which is not shared across threads
+      NFARunAutomaton nfaRunAutomaton = new NFARunAutomaton(compiled.nfaAutomaton);
+      this.runAutomaton = nfaRunAutomaton;
+      this.automaton = nfaRunAutomaton;
+    } else {
+      this.runAutomaton = compiled.runAutomaton;
+      this.automaton = compiled.automaton;
+    }
     assert this.runAutomaton != null;
     this.commonSuffixRef = compiled.commonSuffixRef;
-    this.automaton = compiled.automaton;
 
     // No need to track visited states for a finite language without loops.
     visited = finite ? null : new short[runAutomaton.getSize()];
@@ -98,6 +106,12 @@ public class AutomatonTermsEnum extends FilteredTermsEnum {
    */
   private void setVisited(int state) {
     if (!finite) {
+      if (state >= visited.length) {
+        // states of a lazily determinized automaton are created as we go
+        final int oldLength = visited.length;
+        visited = ArrayUtil.grow(visited, state + 1);
+        Arrays.fill(visited, oldLength, visited.length, (short) (curGen - 1));
+      }
       visited[state] = curGen;
     }
   }
@@ -106,7 +120,7 @@ public class AutomatonTermsEnum extends FilteredTermsEnum {
    * Indicates whether the given state has been visited.
    */
   private boolean isVisited(int state) {
-    return !finite && visited[state] == curGen;
+    return !finite && state < visited.length && visited[state] == curGen;
   }
 
   /**
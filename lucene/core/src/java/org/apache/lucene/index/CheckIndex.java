@@ -66,6 +66,7 @@ import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.CommandLineUtil;
+import org.apache.lucene.util.ConcurrencyUtil;
 import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.FutureArrays;
 import org.apache.lucene.util.IOUtils;
@@ -493,7 +494,12 @@ public final class CheckIndex implements Closeable {
   
   private boolean checksumsOnly;
 
-  /** Set threadCount used for parallelizing index integrity checking. */
+  /**
+   * Set threadCount used for parallelizing index integrity checking. Segments, as well as the
+   * independent parts of a segment such as postings, stored fields, term vectors, doc values and
+   * points, are checked concurrently. Output is still printed segment by segment, in a
+   * deterministic order within each segment.
+   */
   public void setThreadCount(int tc) {
     if (tc <= 0) {
       throw new IllegalArgumentException(
@@ -707,7 +713,7 @@ public final class CheckIndex implements Closeable {
                 + info.info.name
                 + " maxDoc="
                 + info.info.maxDoc());
-        Status.SegmentInfoStatus segmentInfoStatus = testSegment(sis, info, infoStream);
+        Status.SegmentInfoStatus segmentInfoStatus = testSegment(sis, info, infoStream, null);
 
         processSegmentInfoStatusResult(result, info, segmentInfoStatus);
       }
@@ -717,18 +723,24 @@ public final class CheckIndex implements Closeable {
       CompletableFuture<Status.SegmentInfoStatus>[] futures = new CompletableFuture[numSegments];
 
       // checks segments concurrently
-      List<SegmentCommitInfo> segmentCommitInfos = new ArrayList<>();
-      for (SegmentCommitInfo sci : sis) {
-        segmentCommitInfos.add(sci);
+      List<Integer> segmentOrds = new ArrayList<>();
+      for (int i = 0; i < numSegments; i++) {
+        final SegmentCommitInfo info = sis.info(i);
+        updateMaxSegmentName(result, info);
+        if (onlySegments != null && !onlySegments.contains(info.info.name)) {
+          continue;
+        }
+        segmentOrds.add(i);
       }
 
-      // sort segmentCommitInfos by segment size, as smaller segment tends to finish faster, and
-      // hence its output can be printed out faster
+      // start larger segments earlier, as they take longer to check
+      final SegmentInfos finalSis = sis;
       Collections.sort(
-          segmentCommitInfos,
-          (info1, info2) -> {
+          segmentOrds,
+          (ord1, ord2) -> {
             try {
-              return Long.compare(info1.sizeInBytes(), info2.sizeInBytes());
+              return Long.compare(
+                  finalSis.info(ord2).sizeInBytes(), finalSis.info(ord1).sizeInBytes());
             } catch (IOException e) {
               msg(
                   infoStream,
@@ -738,15 +750,8 @@ public final class CheckIndex implements Closeable {
             }
           });
 
-      // start larger segments earlier
-      for (int i = numSegments - 1; i >= 0; i--) {
-        final SegmentCommitInfo info = segmentCommitInfos.get(i);
-        updateMaxSegmentName(result, info);
-        if (onlySegments != null && !onlySegments.contains(info.info.name)) {
-          continue;
-        }
-
-        SegmentInfos finalSis = sis;
+      for (int i : segmentOrds) {
+        final SegmentCommitInfo info = sis.info(i);
 
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         PrintStream stream = new PrintStream(output, true, IOUtils.UTF_8);
@@ -762,39 +767,39 @@ public final class CheckIndex implements Closeable {
 
         outputs[i] = output;
         futures[i] =
-            runAsyncSegmentCheck(() -> testSegment(finalSis, info, stream), executorService);
+            runAsyncSegmentCheck(
+                () -> testSegment(finalSis, info, stream, executorService), executorService);
       }
 
+      // print segment results in the same order as a sequential check would
       for (int i = 0; i < numSegments; i++) {
-        SegmentCommitInfo info = segmentCommitInfos.get(i);
-        if (onlySegments != null && !onlySegments.contains(info.info.name)) {
+        if (futures[i] == null) {
           continue;
         }
-
+        SegmentCommitInfo info = sis.info(i);
         ByteArrayOutputStream output = outputs[i];
 
-        // print segment results in order
         Status.SegmentInfoStatus segmentInfoStatus = null;
         try {
           segmentInfoStatus = futures[i].get();
         } catch (InterruptedException e) {
           // the segment test output should come before interrupted exception message that follows,
           // hence it's not emitted from finally clause
-          infoStream.println(output.toString(IOUtils.UTF_8));
+          if (infoStream != null) infoStream.println(output.toString(IOUtils.UTF_8));
           msg(
               infoStream,
               "ERROR: Interrupted exception occurred when getting segment check result for segment "
                   + info.info.name);
           if (infoStream != null) e.printStackTrace(infoStream);
         } catch (ExecutionException e) {
-          infoStream.println(output.toString(IOUtils.UTF_8));
+          if (infoStream != null) infoStream.println(output.toString(IOUtils.UTF_8));
 
           assert failFast;
           throw new CheckIndexException(
               "Segment " + info.info.name + " check failed.", e.getCause());
         }
 
-        infoStream.print(output.toString(IOUtils.UTF_8));
+        if (infoStream != null) infoStream.print(output.toString(IOUtils.UTF_8));
 
         processSegmentInfoStatusResult(result, info, segmentInfoStatus);
       }
@@ -856,8 +861,66 @@ public final class CheckIndex implements Closeable {
     };
   }
 
+  /** A check of one part of a segment that prints its messages to the given stream. */
+  @FunctionalInterface
+  private interface SegmentPartCheck {
+    void check(PrintStream infoStream) throws IOException;
+  }
+
+  /**
+   * Runs the given checks of a segment and prints their output in order. If an executor is
+   * provided, checks run concurrently and buffer their output, which is printed once all checks
+   * have completed. The first exception is rethrown once all checks have completed, so that no
+   * check still prints messages after the segment has been reported as failed.
+   */
+  private static void runSegmentPartChecks(
+      List<SegmentPartCheck> checks, PrintStream infoStream, ExecutorService executorService)
+      throws IOException {
+    if (executorService == null) {
+      for (SegmentPartCheck check : checks) {
+        check.check(infoStream);
+      }
+      return;
+    }
+
+    final int numChecks = checks.size();
+    final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[numChecks];
+    final List<Callable<Void>> tasks = new ArrayList<>(numChecks);
+    for (int i = 0; i < numChecks; i++) {
+      final SegmentPartCheck check = checks.get(i);
+      final PrintStream stream;
+      if (infoStream != null) {
+        outputs[i] = new ByteArrayOutputStream();
+        stream = new PrintStream(outputs[i], true, IOUtils.UTF_8);
+      } else {
+        stream = null;
+      }
+      tasks.add(
+          () -> {
+            check.check(stream);
+            return null;
+          });
+    }
+
+    try {
+      // the current thread runs the checks that the executor did not start, so we never wait on a
+      // queued check, even if all threads of the executor are busy checking other segments
+      ConcurrencyUtil.invokeAll(executorService, tasks);
+    } finally {
+      for (ByteArrayOutputStream output : outputs) {
+        if (output != null) {
+          infoStream.print(output.toString(IOUtils.UTF_8));
+        }
+      }
+    }
+  }
+
   private Status.SegmentInfoStatus testSegment(
-      SegmentInfos sis, SegmentCommitInfo info, PrintStream infoStream) throws IOException {
+      SegmentInfos sis,
+      SegmentCommitInfo info,
+      PrintStream infoStream,
+      ExecutorService executorService)
+      throws IOException {
     Status.SegmentInfoStatus segInfoStat = new Status.SegmentInfoStatus();
     segInfoStat.name = info.info.name;
     segInfoStat.maxDoc = info.info.maxDoc();
@@ -974,38 +1037,59 @@ public final class CheckIndex implements Closeable {
         // Test Fieldinfos
         segInfoStat.fieldInfoStatus = testFieldInfos(reader, infoStream, failFast);
 
+        // The remaining checks are independent of each other and may run concurrently, their
+        // output is still printed in this order
+        final SegmentReader segmentReader = reader;
+        final List<SegmentPartCheck> partChecks = new ArrayList<>();
+
         // Test Field Norms
-        segInfoStat.fieldNormStatus = testFieldNorms(reader, infoStream, failFast);
+        partChecks.add(
+            stream -> segInfoStat.fieldNormStatus = testFieldNorms(segmentReader, stream, failFast));
 
         // Test the Term Index
-        segInfoStat.termIndexStatus =
-            testPostings(reader, infoStream, verbose, doSlowChecks, failFast);
+        partChecks.add(
+            stream ->
+                segInfoStat.termIndexStatus =
+                    testPostings(segmentReader, stream, verbose, doSlowChecks, failFast));
 
         // Test Stored Fields
-        segInfoStat.storedFieldStatus = testStoredFields(reader, infoStream, failFast);
+        partChecks.add(
+            stream ->
+                segInfoStat.storedFieldStatus = testStoredFields(segmentReader, stream, failFast));
 
         // Test Term Vectors
-        segInfoStat.termVectorStatus =
-            testTermVectors(reader, infoStream, verbose, doSlowChecks, failFast);
+        partChecks.add(
+            stream ->
+                segInfoStat.termVectorStatus =
+                    testTermVectors(segmentReader, stream, verbose, doSlowChecks, failFast));
 
         // Test Docvalues
-        segInfoStat.docValuesStatus = testDocValues(reader, infoStream, failFast);
+        partChecks.add(
+            stream -> segInfoStat.docValuesStatus = testDocValues(segmentReader, stream, failFast));
 
         // Test PointValues
-        segInfoStat.pointsStatus = testPoints(reader, infoStream, failFast);
+        partChecks.add(
+            stream -> segInfoStat.pointsStatus = testPoints(segmentReader, stream, failFast));
 
         // Test Index Sort
         if (indexSort != null) {
-          segInfoStat.indexSortStatus = testSort(reader, indexSort, infoStream, failFast);
+          partChecks.add(
+              stream ->
+                  segInfoStat.indexSortStatus =
+                      testSort(segmentReader, indexSort, stream, failFast));
         }
 
         // Test Soft Deletes
         final String softDeletesField = reader.getFieldInfos().getSoftDeletesField();
         if (softDeletesField != null) {
-          segInfoStat.softDeletesStatus =
-              checkSoftDeletes(softDeletesField, info, reader, infoStream, failFast);
+          partChecks.add(
+              stream ->
+                  segInfoStat.softDeletesStatus =
+                      checkSoftDeletes(softDeletesField, info, segmentReader, stream, failFast));
         }
 
+        runSegmentPartChecks(partChecks, infoStream, executorService);
+
         // Rethrow the first exception we encountered
         //  This will cause stats for failed segments to be incremented properly
         // We won't be able to (easily) stop check running in another thread, so we may as well
@@ -3844,7 +3928,7 @@ public final class CheckIndex implements Closeable {
                          "  -segment X: only check the specified segments.  This can be specified multiple\n" + 
                          "              times, to check more than one segment, eg '-segment _2 -segment _a'.\n" +
                          "              You can't use this with the -exorcise option\n" +
-                         "  -threadCount X: number of threads used to check index concurrently.\n" +
+                         "  -threadCount X: number of threads used to check segments, and parts of segments, concurrently.\n" +
                          "                  When not specified, this will default to the number of CPU cores.\n" +
                          "                  When '-threadCount 1' is used, index checking will be performed sequentially.\n" +
                          "  -dir-impl X: use a specific " + FSDirectory.class.getSimpleName() + " implementation. " +
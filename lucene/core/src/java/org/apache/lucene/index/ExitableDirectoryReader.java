@@ -465,6 +465,12 @@ public class ExitableDirectoryReader extends FilterDirectoryReader {
       checkAndThrow();
       in.grow(count);
     }
+
+    @Override
+    public boolean visitCount(int count) throws IOException {
+      checkAndThrowWithSampling();
+      return in.visitCount(count);
+    }
   }
 
   /**
@@ -228,6 +228,16 @@ public abstract class PointValues {
 
     /** Notifies the caller that this many documents are about to be visited */
     default void grow(int count) {};
+
+    /** Called for a leaf cell that's fully contained by the query, with the number of points that
+     *  it holds, before any of its docIDs is passed to {@link #visit(int)}. Visitors that only
+     *  count points may return {@code true} to skip the docIDs of the cell. The default
+     *  implementation returns {@code false}. Implementations of {@link PointValues} are free to
+     *  not call this method, in which case all docIDs are visited.
+     *  @lucene.experimental */
+    default boolean visitCount(int count) throws IOException {
+      return false;
+    }
   }
 
   /** Finds all documents and points matching the provided visitor.
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import static org.apache.lucene.util.RamUsageEstimator.LINKED_HASHTABLE_RAM_BYTES_PER_ENTRY;
+
+/**
+ * A bounded, thread-safe, LRU cache of the compiled automata of {@link AutomatonQuery automaton queries}
+ * and {@link FuzzyQuery fuzzy queries}, so that queries that are built over and over again from the same
+ * patterns, e.g. by auto-completion or typo-tolerant search, do not parse, determinize and compile the
+ * same automata again.
+ * <p>
+ * Keys are the normalized patterns together with all parameters that affect the compiled automata, but
+ * not the field since automata do not depend on it. Cached values are immutable and are shared by all
+ * queries that are created from the same key. Automata are compiled outside of the lock of the cache, so
+ * that threads that compile different automata do not wait on each other; if several threads miss the
+ * same key concurrently, they all compile the automaton and only the first one is cached.
+ * <p>
+ * By default, queries use the {@link #getDefault() default cache}, which caches up to 1000 entries and
+ * 32MB or 5% of the heap size, whichever is smaller. It can be replaced or disabled with
+ * {@link #setDefault(AutomatonCache)}.
+ * <p>
+ * This cache exposes some global statistics ({@link #getHitCount() hit count},
+ * {@link #getMissCount() miss count}, {@link #getCacheSize() number of cache
+ * entries}, {@link #getEvictionCount() number of evicted entries}).
+ *
+ * @lucene.experimental
+ */
+public class AutomatonCache implements Accountable {
+
+  private static volatile AutomatonCache DEFAULT_CACHE;
+  static {
+    final int maxSize = 1000;
+    // min of 32MB or 5% of the heap size
+    final long maxRamBytesUsed = Math.min(1L << 25, Runtime.getRuntime().maxMemory() / 20);
+    DEFAULT_CACHE = new AutomatonCache(maxSize, maxRamBytesUsed);
+  }
+
+  /**
+   * Expert: Get the default {@link AutomatonCache} or {@code null} if automata
+   * are not cached by default.
+   */
+  public static AutomatonCache getDefault() {
+    return DEFAULT_CACHE;
+  }
+
+  /**
+   * Expert: set the default {@link AutomatonCache} instance, or {@code null} to
+   * not cache automata. This only affects queries that are created afterwards.
+   */
+  public static void setDefault(AutomatonCache cache) {
+    DEFAULT_CACHE = cache;
+  }
+
+  private final int maxSize;
+  private final long maxRamBytesUsed;
+  // maps keys to values in access order, so that the eldest entry is the least recently used
+  private final Map<Object,Entry> cache;
+  private final ReentrantLock lock;
+
+  // these variables are volatile so that we do not need to sync reads
+  // but increments need to be performed under the lock
+  private volatile long ramBytesUsed;
+  private volatile long hitCount;
+  private volatile long missCount;
+  private volatile long evictionCount;
+
+  /**
+   * Create a new instance that will cache at most <code>maxSize</code> automata
+   * with at most <code>maxRamBytesUsed</code> bytes of memory.
+   */
+  public AutomatonCache(int maxSize, long maxRamBytesUsed) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize must be >= 0, got " + maxSize);
+    }
+    if (maxRamBytesUsed < 0) {
+      throw new IllegalArgumentException("maxRamBytesUsed must be >= 0, got " + maxRamBytesUsed);
+    }
+    this.maxSize = maxSize;
+    this.maxRamBytesUsed = maxRamBytesUsed;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.lock = new ReentrantLock();
+  }
+
+  /**
+   * Key of the automata of the queries of this package: the kind of query,
+   * its normalized pattern and its integer parameters.
+   */
+  static final class Key implements Accountable {
+    private static final long BASE_RAM_BYTES = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+    private final String type;
+    private final String pattern;
+    private final int[] params;
+    private final int hashCode;
+
+    Key(String type, String pattern, int... params) {
+      this.type = type;
+      this.pattern = pattern;
+      this.params = params;
+      this.hashCode = 31 * (31 * type.hashCode() + pattern.hashCode()) + Arrays.hashCode(params);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == null || obj.getClass() != Key.class) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hashCode == other.hashCode
+          && type.equals(other.type)
+          && pattern.equals(other.pattern)
+          && Arrays.equals(params, other.params);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      // the type is an interned constant
+      return BASE_RAM_BYTES + RamUsageEstimator.sizeOf(pattern) + RamUsageEstimator.sizeOf(params);
+    }
+
+    @Override
+    public String toString() {
+      return type + "(" + pattern + ", " + Arrays.toString(params) + ")";
+    }
+  }
+
+  private static class Entry {
+    final Accountable value;
+    final long ramBytesUsed;
+
+    Entry(Object key, Accountable value) {
+      this.value = value;
+      this.ramBytesUsed = LINKED_HASHTABLE_RAM_BYTES_PER_ENTRY
+          + RamUsageEstimator.sizeOfObject(key) + value.ramBytesUsed();
+    }
+  }
+
+  /**
+   * Returns the value that is cached for the given key, or computes it with the given supplier
+   * and caches it. Exceptions of the supplier are propagated and nothing is cached for the key.
+   * Keys must implement {@link Object#equals} and {@link Object#hashCode}, and must identify the
+   * type of the value since a single cache holds the automata of different kinds of queries.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Accountable> T computeIfAbsent(Object key, Supplier<T> supplier) {
+    lock.lock();
+    try {
+      final Entry entry = cache.get(key);
+      if (entry != null) {
+        hitCount += 1;
+        return (T) entry.value;
+      }
+      missCount += 1;
+    } finally {
+      lock.unlock();
+    }
+
+    final T value = supplier.get();
+    final Entry newEntry = new Entry(key, value);
+
+    lock.lock();
+    try {
+      final Entry existing = cache.putIfAbsent(key, newEntry);
+      if (existing != null) {
+        // another thread compiled the same automaton concurrently
+        return (T) existing.value;
+      }
+      ramBytesUsed += newEntry.ramBytesUsed;
+      evictIfNecessary();
+      assert assertConsistent();
+    } finally {
+      lock.unlock();
+    }
+    return value;
+  }
+
+  private void evictIfNecessary() {
+    assert lock.isHeldByCurrentThread();
+    while (cache.size() > maxSize || ramBytesUsed > maxRamBytesUsed) {
+      final Map.Entry<Object,Entry> eldest = cache.entrySet().iterator().next();
+      cache.remove(eldest.getKey());
+      ramBytesUsed -= eldest.getValue().ramBytesUsed;
+      evictionCount += 1;
+    }
+  }
+
+  private boolean assertConsistent() {
+    long recomputedRamBytesUsed = 0;
+    for (Entry entry : cache.values()) {
+      recomputedRamBytesUsed += entry.ramBytesUsed;
+    }
+    assert recomputedRamBytesUsed == ramBytesUsed : recomputedRamBytesUsed + " != " + ramBytesUsed;
+    return true;
+  }
+
+  /** Remove all entries from this cache. */
+  public void clear() {
+    lock.lock();
+    try {
+      cache.clear();
+      ramBytesUsed = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+
+  /**
+   * Return the total number of times that an automaton has been looked up
+   * in this cache. This is the sum of {@link #getHitCount()} and
+   * {@link #getMissCount()}.
+   */
+  public final long getTotalCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * Over the {@link #getTotalCount() total} number of times that an automaton
+   * has been looked up, return how many times it was found in the cache.
+   */
+  public final long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Over the {@link #getTotalCount() total} number of times that an automaton
+   * has been looked up, return how many times it had to be compiled.
+   */
+  public final long getMissCount() {
+    return missCount;
+  }
+
+  /** Return the number of automata which are currently stored in the cache. */
+  public final long getCacheSize() {
+    lock.lock();
+    try {
+      return cache.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Return the number of automata that have been removed from the cache
+   * in order to stay under the maximum configured size or RAM usage.
+   */
+  public final long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(maxSize=" + maxSize + ", maxRamBytesUsed=" + maxRamBytesUsed
+        + ", size=" + getCacheSize() + ", ramBytesUsed=" + ramBytesUsed() + ")";
+  }
+}
@@ -18,6 +18,7 @@ package org.apache.lucene.search;
 
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
@@ -100,16 +101,76 @@ public class AutomatonQuery extends MultiTermQuery implements Accountable {
    *   will not go through the UTF32ToUTF8 conversion
    */
   public AutomatonQuery(final Term term, Automaton automaton, int determinizeWorkLimit, boolean isBinary) {
+    this(term, automaton, determinizeWorkLimit, isBinary, false);
+  }
+
+  /**
+   * Create a new AutomatonQuery from an {@link Automaton}.
+   * 
+   * @param term Term containing field and possibly some pattern structure. The
+   *        term text is ignored.
+   * @param automaton Automaton to run, terms that are accepted are considered a
+   *        match.
+   * @param determinizeWorkLimit maximum effort to spend determinizing the automaton. If the
+   *        automaton will need more than this much effort, TooComplexToDeterminizeException is thrown.
+   *        Higher numbers require more space but can process more complex automata.
+   * @param isBinary if true, this automaton is already binary and
+   *   will not go through the UTF32ToUTF8 conversion
+   * @param doingNFA if true, the automaton is not determinized up front, instead only the
+   *   states that the terms dictionary reaches are determinized while terms are enumerated. This
+   *   never throws TooComplexToDeterminizeException but may be slower since the terms
+   *   dictionary is not intersected with the automaton.
+   * @see CompiledAutomaton#CompiledAutomaton(Automaton, Boolean, boolean, int, boolean, boolean)
+   * @lucene.experimental
+   */
+  public AutomatonQuery(final Term term, Automaton automaton, int determinizeWorkLimit, boolean isBinary,
+                        boolean doingNFA) {
+    this(term, new CachedAutomaton(automaton, determinizeWorkLimit, isBinary, doingNFA), isBinary);
+  }
+
+  /** Create a new AutomatonQuery from an automaton that may be shared with other queries. */
+  AutomatonQuery(final Term term, CachedAutomaton cached, boolean isBinary) {
     super(term.field());
     this.term = term;
-    this.automaton = automaton;
+    this.automaton = cached.automaton;
     this.automatonIsBinary = isBinary;
-    // TODO: we could take isFinite too, to save a bit of CPU in CompiledAutomaton ctor?:
-    this.compiled = new CompiledAutomaton(automaton, null, true, determinizeWorkLimit, isBinary);
+    this.compiled = cached.compiled;
 
     this.ramBytesUsed = BASE_RAM_BYTES + term.ramBytesUsed() + automaton.ramBytesUsed() + compiled.ramBytesUsed();
   }
 
+  /** An automaton together with its compiled form. */
+  static final class CachedAutomaton implements Accountable {
+    final Automaton automaton;
+    final CompiledAutomaton compiled;
+
+    CachedAutomaton(Automaton automaton, int determinizeWorkLimit, boolean isBinary, boolean doingNFA) {
+      this.automaton = automaton;
+      // TODO: we could take isFinite too, to save a bit of CPU in CompiledAutomaton ctor?:
+      this.compiled = new CompiledAutomaton(automaton, null, true, determinizeWorkLimit, isBinary, doingNFA);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return automaton.ramBytesUsed() + compiled.ramBytesUsed();
+    }
+  }
+
+  /**
+   * Returns the automaton that the given supplier builds together with its compiled form, from the
+   * {@link AutomatonCache#getDefault() default cache} if it has already been compiled for the given key.
+   */
+  static CachedAutomaton compile(AutomatonCache.Key key, Supplier<Automaton> automaton,
+                                 int determinizeWorkLimit, boolean isBinary, boolean doingNFA) {
+    final Supplier<CachedAutomaton> compiler =
+        () -> new CachedAutomaton(automaton.get(), determinizeWorkLimit, isBinary, doingNFA);
+    final AutomatonCache cache = AutomatonCache.getDefault();
+    if (cache == null) {
+      return compiler.get();
+    }
+    return cache.computeIfAbsent(key, compiler);
+  }
+
   @Override
   protected TermsEnum getTermsEnum(Terms terms, AttributeSource atts) throws IOException {
     return compiled.getTermsEnum(terms);
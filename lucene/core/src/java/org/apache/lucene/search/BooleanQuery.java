@@ -510,6 +510,31 @@ public class BooleanQuery extends Query implements Iterable<BooleanClause> {
     return super.rewrite(reader);
   }
 
+  /**
+   * Rewrites the clauses with the searcher, so that they may use its executor, and then
+   * rewrites this query with {@link #rewrite(IndexReader)}.
+   */
+  @Override
+  public Query rewrite(IndexSearcher searcher) throws IOException {
+    BooleanQuery.Builder builder = new BooleanQuery.Builder();
+    builder.setMinimumNumberShouldMatch(getMinimumNumberShouldMatch());
+    boolean actuallyRewritten = false;
+    for (BooleanClause clause : this) {
+      Query query = clause.getQuery();
+      Query rewritten = query.rewrite(searcher);
+      if (rewritten != query) {
+        actuallyRewritten = true;
+        builder.add(rewritten, clause.getOccur());
+      } else {
+        builder.add(clause);
+      }
+    }
+    if (actuallyRewritten) {
+      return builder.build();
+    }
+    return rewrite(searcher.getIndexReader());
+  }
+
   @Override
   public void visit(QueryVisitor visitor) {
     QueryVisitor sub = visitor.getSubVisitor(Occur.MUST, this);
@@ -104,6 +104,19 @@ public final class BoostQuery extends Query {
     return super.rewrite(reader);
   }
 
+  /**
+   * Rewrites the wrapped query with the searcher, so that it may use its executor, and then
+   * rewrites this query with {@link #rewrite(IndexReader)}.
+   */
+  @Override
+  public Query rewrite(IndexSearcher searcher) throws IOException {
+    final Query rewritten = query.rewrite(searcher);
+    if (query != rewritten) {
+      return new BoostQuery(rewritten, boost);
+    }
+    return rewrite(searcher.getIndexReader());
+  }
+
   @Override
   public void visit(QueryVisitor visitor) {
     query.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
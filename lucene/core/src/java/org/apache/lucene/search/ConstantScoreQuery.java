@@ -62,6 +62,19 @@ public final class ConstantScoreQuery extends Query {
     return super.rewrite(reader);
   }
 
+  /**
+   * Rewrites the wrapped query with the searcher, so that it may use its executor, and then
+   * rewrites this query with {@link #rewrite(IndexReader)}.
+   */
+  @Override
+  public Query rewrite(IndexSearcher searcher) throws IOException {
+    Query rewritten = query.rewrite(searcher);
+    if (rewritten != query) {
+      return new ConstantScoreQuery(rewritten);
+    }
+    return rewrite(searcher.getIndexReader());
+  }
+
   @Override
   public void visit(QueryVisitor visitor) {
     query.visit(visitor.getSubVisitor(BooleanClause.Occur.FILTER, this));
@@ -241,6 +241,25 @@ public final class DisjunctionMaxQuery extends Query implements Iterable<Query>
     return super.rewrite(reader);
   }
 
+  /**
+   * Rewrites the disjuncts with the searcher, so that they may use its executor, and then
+   * rewrites this query with {@link #rewrite(IndexReader)}.
+   */
+  @Override
+  public Query rewrite(IndexSearcher searcher) throws IOException {
+    boolean actuallyRewritten = false;
+    List<Query> rewrittenDisjuncts = new ArrayList<>();
+    for (Query sub : disjuncts) {
+      Query rewrittenSub = sub.rewrite(searcher);
+      actuallyRewritten |= rewrittenSub != sub;
+      rewrittenDisjuncts.add(rewrittenSub);
+    }
+    if (actuallyRewritten) {
+      return new DisjunctionMaxQuery(rewrittenDisjuncts, tieBreakerMultiplier);
+    }
+    return rewrite(searcher.getIndexReader());
+  }
+
   @Override
   public void visit(QueryVisitor visitor) {
     QueryVisitor v = visitor.getSubVisitor(BooleanClause.Occur.SHOULD, this);
@@ -31,9 +31,12 @@ class FuzzyAutomatonBuilder {
 
   private final String term;
   private final int maxEdits;
-  private final LevenshteinAutomata levBuilder;
-  private final String prefix;
+  private final int prefixLength;
+  private final boolean transpositions;
+  private final int[] codePoints;
   private final int termLength;
+  private LevenshteinAutomata levBuilder;
+  private String prefix;
 
   FuzzyAutomatonBuilder(String term, int maxEdits, int prefixLength, boolean transpositions) {
     if (maxEdits < 0 || maxEdits > LevenshteinAutomata.MAXIMUM_SUPPORTED_DISTANCE) {
@@ -44,36 +47,50 @@ class FuzzyAutomatonBuilder {
     }
     this.term = term;
     this.maxEdits = maxEdits;
-    int[] codePoints = stringToUTF32(term);
+    this.codePoints = stringToUTF32(term);
     this.termLength = codePoints.length;
-    prefixLength = Math.min(prefixLength, codePoints.length);
-    int[] suffix = new int[codePoints.length - prefixLength];
-    System.arraycopy(codePoints, prefixLength, suffix, 0, suffix.length);
-    this.levBuilder = new LevenshteinAutomata(suffix, Character.MAX_CODE_POINT, transpositions);
-    this.prefix = UnicodeUtil.newString(codePoints, 0, prefixLength);
+    this.prefixLength = Math.min(prefixLength, codePoints.length);
+    this.transpositions = transpositions;
   }
 
   CompiledAutomaton[] buildAutomatonSet() {
     CompiledAutomaton[] compiled = new CompiledAutomaton[maxEdits + 1];
     for (int i = 0; i <= maxEdits; i++) {
-      try {
-        compiled[i] = new CompiledAutomaton(levBuilder.toAutomaton(i, prefix), true, false);
-      }
-      catch (TooComplexToDeterminizeException e) {
-        throw new FuzzyTermsEnum.FuzzyTermsException(term, e);
-      }
+      compiled[i] = buildAutomaton(i);
     }
     return compiled;
   }
 
   CompiledAutomaton buildMaxEditAutomaton() {
+    return buildAutomaton(maxEdits);
+  }
+
+  /** Returns the automaton for the given number of edits, from the default {@link AutomatonCache} if possible */
+  private CompiledAutomaton buildAutomaton(int edits) {
     try {
-      return new CompiledAutomaton(levBuilder.toAutomaton(maxEdits, prefix), true, false);
+      final AutomatonCache cache = AutomatonCache.getDefault();
+      if (cache == null) {
+        return compile(edits);
+      }
+      final AutomatonCache.Key key = new AutomatonCache.Key("fuzzy", term,
+          edits, prefixLength, transpositions ? 1 : 0);
+      return cache.computeIfAbsent(key, () -> compile(edits));
     } catch (TooComplexToDeterminizeException e) {
       throw new FuzzyTermsEnum.FuzzyTermsException(term, e);
     }
   }
 
+  private CompiledAutomaton compile(int edits) {
+    if (levBuilder == null) {
+      // only needed on cache misses
+      int[] suffix = new int[codePoints.length - prefixLength];
+      System.arraycopy(codePoints, prefixLength, suffix, 0, suffix.length);
+      levBuilder = new LevenshteinAutomata(suffix, Character.MAX_CODE_POINT, transpositions);
+      prefix = UnicodeUtil.newString(codePoints, 0, prefixLength);
+    }
+    return new CompiledAutomaton(levBuilder.toAutomaton(edits, prefix), true, false);
+  }
+
   int getTermLength() {
     return this.termLength;
   }
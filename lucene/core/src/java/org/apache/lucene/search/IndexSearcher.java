@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -46,6 +47,8 @@ import org.apache.lucene.search.similarities.BM25Similarity;
 import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.store.NIOFSDirectory;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.ConcurrencyUtil;
+import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.ThreadInterruptedException;
 
 /** Implements search over a single IndexReader.
@@ -303,6 +306,31 @@ public class IndexSearcher {
     return reader.document(docID, fieldsToLoad);
   }
 
+  /**
+   * Load the stored fields of several documents at once. Documents are
+   * loaded in increasing doc ID order, so that documents that are stored in
+   * the same compressed block are read one after the other, and returned in
+   * the order of {@code docIDs}.
+   * @param docIDs the documents to load, in any order
+   * @param fieldsToLoad the fields to load, or {@code null} to load all fields
+   * @see IndexReader#document(int, Set)
+   */
+  public Document[] docs(int[] docIDs, Set<String> fieldsToLoad) throws IOException {
+    // sort doc IDs together with their index in the input array
+    final long[] sorted = new long[docIDs.length];
+    for (int i = 0; i < docIDs.length; ++i) {
+      sorted[i] = ((long) docIDs[i] << 32) | i;
+    }
+    Arrays.sort(sorted);
+    final Document[] documents = new Document[docIDs.length];
+    for (long docAndIndex : sorted) {
+      final int docID = (int) (docAndIndex >>> 32);
+      final int index = (int) docAndIndex;
+      documents[index] = fieldsToLoad == null ? reader.document(docID) : reader.document(docID, fieldsToLoad);
+    }
+    return documents;
+  }
+
   /** Expert: Set the Similarity implementation used by this IndexSearcher.
    *
    */
@@ -371,6 +399,30 @@ public class IndexSearcher {
   public LeafSlice[] getSlices() {
       return leafSlices;
   }
+
+  /**
+   * Expert: applies the given function to the leaves of each {@link LeafSlice}, running slices
+   * concurrently on the {@code Executor} that was passed to the constructor, and returns the
+   * results in the order of the slices. The calling thread processes the first slice, as well as
+   * any slice that the executor has not started or rejected by the time its result is needed. If
+   * there is no {@code Executor} or a single slice, the function is applied once to all leaves
+   * on the calling thread.
+   * <p>
+   * Exceptions thrown by the function are rethrown as-is, once all slices have completed.
+   *
+   * @lucene.experimental
+   */
+  public <T> List<T> applyPerSlice(IOUtils.IOFunction<LeafReaderContext[], T> function) throws IOException {
+    if (executor == null || leafSlices.length <= 1) {
+      return Collections.singletonList(function.apply(leafContexts.toArray(new LeafReaderContext[0])));
+    }
+    final List<Callable<T>> tasks = new ArrayList<>(leafSlices.length);
+    for (LeafSlice slice : leafSlices) {
+      final LeafReaderContext[] leaves = slice.leaves;
+      tasks.add(() -> function.apply(leaves));
+    }
+    return ConcurrencyUtil.invokeAll(executor, tasks);
+  }
   
   /** Finds the top <code>n</code>
    * hits for <code>query</code> where all results are after a previous 
@@ -671,8 +723,8 @@ public class IndexSearcher {
    */
   public Query rewrite(Query original) throws IOException {
     Query query = original;
-    for (Query rewrittenQuery = query.rewrite(reader); rewrittenQuery != query;
-         rewrittenQuery = query.rewrite(reader)) {
+    for (Query rewrittenQuery = query.rewrite(this); rewrittenQuery != query;
+         rewrittenQuery = query.rewrite(this)) {
       query = rewrittenQuery;
     }
     return query;
@@ -70,6 +70,15 @@ public abstract class MultiTermQuery extends Query {
   /** Abstract class that defines how the query is rewritten. */
   public static abstract class RewriteMethod {
     public abstract Query rewrite(IndexReader reader, MultiTermQuery query) throws IOException;
+    /**
+     * Rewrites the query with access to the searcher, e.g. to collect terms concurrently
+     * using its executor. The result must be the same as {@link #rewrite(IndexReader, MultiTermQuery)}
+     * on the searcher's reader, which the default implementation calls.
+     * @lucene.experimental
+     */
+    public Query rewrite(IndexSearcher searcher, MultiTermQuery query) throws IOException {
+      return rewrite(searcher.getIndexReader(), query);
+    }
     /**
      * Returns the {@link MultiTermQuery}s {@link TermsEnum}
      * @see MultiTermQuery#getTermsEnum(Terms, AttributeSource)
@@ -312,6 +321,11 @@ public abstract class MultiTermQuery extends Query {
     return rewriteMethod.rewrite(reader, this);
   }
 
+  @Override
+  public final Query rewrite(IndexSearcher searcher) throws IOException {
+    return rewriteMethod.rewrite(searcher, this);
+  }
+
   /**
    * @see #setRewriteMethod
    */
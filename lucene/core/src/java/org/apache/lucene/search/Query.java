@@ -79,6 +79,23 @@ public abstract class Query {
     return this;
   }
 
+  /**
+   * Expert: called to re-write queries into primitive queries, like
+   * {@link #rewrite(IndexReader)}, with access to the searcher that will run the
+   * query. Queries may use the searcher's executor to rewrite concurrently, see
+   * {@link IndexSearcher#applyPerSlice}. Queries that wrap other queries should
+   * rewrite them with this method too.
+   * <p>
+   * The default implementation calls {@link #rewrite(IndexReader)} with the searcher's
+   * reader.
+   *
+   * @see IndexSearcher#rewrite(Query)
+   * @lucene.experimental
+   */
+  public Query rewrite(IndexSearcher searcher) throws IOException {
+    return rewrite(searcher.getIndexReader());
+  }
+
   /**
    * Recurse through the query tree, visiting any child queries
    * @param visitor a QueryVisitor to be called by each query in the tree
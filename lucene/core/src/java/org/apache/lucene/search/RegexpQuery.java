@@ -17,6 +17,8 @@
 package org.apache.lucene.search;
 
 
+import java.util.function.Supplier;
+
 import org.apache.lucene.index.Term;
 import org.apache.lucene.util.automaton.Automaton;
 import org.apache.lucene.util.automaton.AutomatonProvider;
@@ -140,9 +142,46 @@ public class RegexpQuery extends AutomatonQuery {
    */
   public RegexpQuery(Term term, int syntax_flags, int match_flags, AutomatonProvider provider,
       int determinizeWorkLimit) {
-    super(term,
-          new RegExp(term.text(), syntax_flags, match_flags).toAutomaton(
-                       provider, determinizeWorkLimit), determinizeWorkLimit);
+    this(term, syntax_flags, match_flags, provider, determinizeWorkLimit, false);
+  }
+
+  /**
+   * Constructs a query for terms matching <code>term</code>.
+   * 
+   * @param term regular expression.
+   * @param syntax_flags optional RegExp features from {@link RegExp}
+   * @param match_flags boolean 'or' of match behavior options such as case insensitivity
+   * @param provider custom AutomatonProvider for named automata
+   * @param determinizeWorkLimit maximum effort to spend while compiling the automaton from this
+   *        regexp. Set higher to allow more complex queries and lower to prevent memory exhaustion.
+   *        Use {@link Operations#DEFAULT_DETERMINIZE_WORK_LIMIT} as a decent default if you don't
+   *        otherwise know what to specify.
+   * @param doingNFA if true, the regexp is compiled to an automaton that is not determinized up
+   *        front, see {@link RegExp#toNFA} and {@link AutomatonQuery}. Only complements are
+   *        then determinized while compiling.
+   * @lucene.experimental
+   */
+  public RegexpQuery(Term term, int syntax_flags, int match_flags, AutomatonProvider provider,
+      int determinizeWorkLimit, boolean doingNFA) {
+    super(term, compile(term.text(), syntax_flags, match_flags, provider, determinizeWorkLimit, doingNFA), false);
+  }
+
+  private static CachedAutomaton compile(String regexp, int syntax_flags, int match_flags,
+      AutomatonProvider provider, int determinizeWorkLimit, boolean doingNFA) {
+    final Supplier<Automaton> automaton = () -> {
+      final RegExp regExp = new RegExp(regexp, syntax_flags, match_flags);
+      if (doingNFA) {
+        return regExp.toNFA(provider, determinizeWorkLimit);
+      }
+      return regExp.toAutomaton(provider, determinizeWorkLimit);
+    };
+    if (provider != defaultProvider) {
+      // named automata depend on the provider
+      return new CachedAutomaton(automaton.get(), determinizeWorkLimit, false, doingNFA);
+    }
+    final AutomatonCache.Key key = new AutomatonCache.Key("regexp", regexp,
+        syntax_flags, match_flags, determinizeWorkLimit, doingNFA ? 1 : 0);
+    return compile(key, automaton, determinizeWorkLimit, false, doingNFA);
   }
 
   /** Returns the regexp of this query wrapped in a Term. */
@@ -17,8 +17,10 @@
 package org.apache.lucene.search;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermStates;
 import org.apache.lucene.index.TermState;
@@ -93,6 +95,13 @@ public abstract class ScoringRewrite<B> extends TermCollectingRewrite<B> {
       // strip the scores off
       return new ConstantScoreQuery(bq);
     }
+
+    @Override
+    public Query rewrite(IndexSearcher searcher, MultiTermQuery query) throws IOException {
+      final Query bq = SCORING_BOOLEAN_REWRITE.rewrite(searcher, query);
+      // strip the scores off
+      return new ConstantScoreQuery(bq);
+    }
   };
 
   /** This method is called after every new term to check if the number of max clauses
@@ -101,10 +110,27 @@ public abstract class ScoringRewrite<B> extends TermCollectingRewrite<B> {
   
   @Override
   public final Query rewrite(final IndexReader reader, final MultiTermQuery query) throws IOException {
-    final B builder = getTopLevelBuilder();
     final ParallelArraysTermCollector col = new ParallelArraysTermCollector();
     collectTerms(reader, query, col);
-    
+    return buildQuery(reader, query, col);
+  }
+
+  /**
+   * Collects the terms of each slice concurrently if the searcher has an executor, and then
+   * merges them. This gives the same query as {@link #rewrite(IndexReader, MultiTermQuery)}.
+   */
+  @Override
+  public final Query rewrite(final IndexSearcher searcher, final MultiTermQuery query) throws IOException {
+    final List<ParallelArraysTermCollector> collectors = collectTerms(searcher, query, ParallelArraysTermCollector::new);
+    final ParallelArraysTermCollector col = collectors.get(0);
+    for (int i = 1; i < collectors.size(); i++) {
+      col.merge(collectors.get(i), searcher.getTopReaderContext());
+    }
+    return buildQuery(searcher.getIndexReader(), query, col);
+  }
+
+  private Query buildQuery(IndexReader reader, MultiTermQuery query, ParallelArraysTermCollector col) throws IOException {
+    final B builder = getTopLevelBuilder();
     final int size = col.terms.size();
     if (size > 0) {
       final int sort[] = col.terms.sort();
@@ -151,6 +177,26 @@ public abstract class ScoringRewrite<B> extends TermCollectingRewrite<B> {
       }
       return true;
     }
+
+    /** Adds the terms that another collector collected on other leaves. */
+    void merge(ParallelArraysTermCollector other, IndexReaderContext topReaderContext) throws IOException {
+      final BytesRef bytes = new BytesRef();
+      for (int i = 0; i < other.terms.size(); i++) {
+        other.terms.get(i, bytes);
+        final int e = terms.add(bytes);
+        final TermStates otherStates = other.array.termState[i];
+        if (e < 0) {
+          final int pos = (-e)-1;
+          mergeTermStates(array.termState[pos], otherStates, other.collectedLeaves);
+          assert array.boost[pos] == other.array.boost[i] : "boost should be equal in all segment TermsEnums";
+        } else {
+          array.boost[e] = other.array.boost[i];
+          array.termState[e] = new TermStates(topReaderContext);
+          mergeTermStates(array.termState[e], otherStates, other.collectedLeaves);
+          ScoringRewrite.this.checkMaxClauseCount(terms.size());
+        }
+      }
+    }
   }
   
   /** Special implementation of BytesStartArray that keeps parallel arrays for boost and docFreq */
@@ -18,11 +18,16 @@ package org.apache.lucene.search;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermState;
 import org.apache.lucene.index.TermStates;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
@@ -48,7 +53,27 @@ abstract class TermCollectingRewrite<B> extends MultiTermQuery.RewriteMethod {
   
   final void collectTerms(IndexReader reader, MultiTermQuery query, TermCollector collector) throws IOException {
     IndexReaderContext topReaderContext = reader.getContext();
-    for (LeafReaderContext context : topReaderContext.leaves()) {
+    collectTerms(topReaderContext, topReaderContext.leaves(), query, collector);
+  }
+
+  /**
+   * Collects the terms of each slice of the searcher with a new collector, running slices
+   * concurrently if the searcher has an executor, and returns the collectors in the order of
+   * the slices. Each collector sees the leaves of its slice in order, like a single collector
+   * would see all leaves with {@link #collectTerms(IndexReader, MultiTermQuery, TermCollector)}.
+   */
+  final <C extends TermCollector> List<C> collectTerms(IndexSearcher searcher, MultiTermQuery query, Supplier<C> collectorSupplier) throws IOException {
+    final IndexReaderContext topReaderContext = searcher.getTopReaderContext();
+    return searcher.applyPerSlice(leaves -> {
+      final C collector = collectorSupplier.get();
+      collectTerms(topReaderContext, Arrays.asList(leaves), query, collector);
+      return collector;
+    });
+  }
+
+  private void collectTerms(IndexReaderContext topReaderContext, List<LeafReaderContext> leaves,
+                            MultiTermQuery query, TermCollector collector) throws IOException {
+    for (LeafReaderContext context : leaves) {
       final Terms terms = context.reader().terms(query.field);
       if (terms == null) {
         // field does not exist
@@ -71,14 +96,32 @@ abstract class TermCollectingRewrite<B> extends MultiTermQuery.RewriteMethod {
     }
   }
   
+  /**
+   * Registers the {@link TermState}s of the given leaves from {@code from} into {@code to},
+   * and adds up their statistics. This is used to merge the states that were collected on
+   * different slices, which have distinct leaves.
+   */
+  static void mergeTermStates(TermStates to, TermStates from, List<LeafReaderContext> leaves) throws IOException {
+    for (LeafReaderContext context : leaves) {
+      final TermState state = from.get(context);
+      if (state != null) {
+        to.register(state, context.ord);
+      }
+    }
+    to.accumulateStatistics(from.docFreq(), from.totalTermFreq());
+  }
+
   static abstract class TermCollector {
     
     protected LeafReaderContext readerContext;
     protected IndexReaderContext topReaderContext;
+    /** the leaves that were collected, in order */
+    final List<LeafReaderContext> collectedLeaves = new ArrayList<>();
 
     public void setReaderContext(IndexReaderContext topReaderContext, LeafReaderContext readerContext) {
       this.readerContext = readerContext;
       this.topReaderContext = topReaderContext;
+      collectedLeaves.add(readerContext);
     }
     /** attributes used for communication with the enum */
     public final AttributeSource attributes = new AttributeSource();
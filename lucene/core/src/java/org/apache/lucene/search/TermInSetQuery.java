@@ -26,12 +26,16 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.PrefixCodedTerms;
 import org.apache.lucene.index.PrefixCodedTerms.TermIterator;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermState;
 import org.apache.lucene.index.TermStates;
@@ -43,11 +47,13 @@ import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.DocIdSetBuilder;
+import org.apache.lucene.util.LongBitSet;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.lucene.util.automaton.Automata;
 import org.apache.lucene.util.automaton.Automaton;
 import org.apache.lucene.util.automaton.ByteRunAutomaton;
 import org.apache.lucene.util.automaton.CompiledAutomaton;
+import org.apache.lucene.util.automaton.DaciukMihovAutomatonBuilder;
 import org.apache.lucene.util.automaton.Operations;
 
 /**
@@ -68,6 +74,14 @@ import org.apache.lucene.util.automaton.Operations;
  * However, when there are many terms, instead of merging iterators on the fly,
  * it will populate a bit set with matching docs and return a {@link Scorer}
  * over this bit set.
+ * <p>On each segment, matching terms are found either by seeking the terms
+ * dictionary to each term, or, when the query has many terms compared to the
+ * number of terms of the segment, by intersecting the terms dictionary with an
+ * automaton of the query terms in a single pass. When doc values are enabled
+ * with {@link #TermInSetQuery(String, Collection, boolean)} and the query has
+ * many terms compared to the number of unique values of the field's
+ * {@link SortedSetDocValues}, matches are instead verified against a bit set of
+ * the ordinals of the query terms.
  * <p>NOTE: This query produces scores that are equal to its boost
  */
 public class TermInSetQuery extends Query implements Accountable {
@@ -75,15 +89,42 @@ public class TermInSetQuery extends Query implements Accountable {
   private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(TermInSetQuery.class);
   // Same threshold as MultiTermQueryConstantScoreWrapper
   static final int BOOLEAN_REWRITE_TERM_COUNT_THRESHOLD = 16;
+  // Intersect the terms dictionary when there is at least one query term for every 32 terms of the segment
+  static final int INTERSECT_TERM_RATIO = 32;
+  // Scan doc values when there is at least one query term for every 8 unique values of the segment
+  static final int DOC_VALUES_TERM_RATIO = 8;
+  // Don't intersect if the run automaton of the query terms would take more memory than that
+  static final long MAX_INTERSECT_RAM_BYTES_USED = 16 * 1024 * 1024;
 
   private final String field;
   private final PrefixCodedTerms termData;
   private final int termDataHashCode; // cached hashcode of termData
+  private final boolean useDocValues;
+  private final int intersectTermRatio;
+  private final int docValuesTermRatio;
 
   /**
    * Creates a new {@link TermInSetQuery} from the given collection of terms.
    */
   public TermInSetQuery(String field, Collection<BytesRef> terms) {
+    this(field, terms, false);
+  }
+
+  /**
+   * Creates a new {@link TermInSetQuery} from the given collection of terms.
+   * If {@code useDocValues} is true, segments where the field has
+   * {@link DocValuesType#SORTED} or {@link DocValuesType#SORTED_SET} doc values
+   * may be searched by checking the values of each candidate document rather
+   * than by reading postings, which is faster when the query has about as many
+   * terms as the field has unique values. The doc values must then have been
+   * indexed with the same values as the terms of the field.
+   */
+  public TermInSetQuery(String field, Collection<BytesRef> terms, boolean useDocValues) {
+    this(field, terms, useDocValues, INTERSECT_TERM_RATIO, DOC_VALUES_TERM_RATIO);
+  }
+
+  // for testing other thresholds
+  TermInSetQuery(String field, Collection<BytesRef> terms, boolean useDocValues, int intersectTermRatio, int docValuesTermRatio) {
     BytesRef[] sortedTerms = terms.toArray(new BytesRef[0]);
     // already sorted if we are a SortedSet with natural order
     boolean sorted = terms instanceof SortedSet && ((SortedSet<BytesRef>)terms).comparator() == null;
@@ -104,6 +145,9 @@ public class TermInSetQuery extends Query implements Accountable {
     this.field = field;
     termData = builder.finish();
     termDataHashCode = termData.hashCode();
+    this.useDocValues = useDocValues;
+    this.intersectTermRatio = intersectTermRatio;
+    this.docValuesTermRatio = docValuesTermRatio;
   }
 
   /**
@@ -160,12 +204,13 @@ public class TermInSetQuery extends Query implements Accountable {
     // no need to check 'field' explicitly since it is encoded in 'termData'
     // termData might be heavy to compare so check the hash code first
     return termDataHashCode == other.termDataHashCode &&
+        useDocValues == other.useDocValues &&
         termData.equals(other.termData);
   }
 
   @Override
   public int hashCode() {
-    return 31 * classHash() + termDataHashCode;
+    return 31 * (31 * classHash() + termDataHashCode) + Boolean.hashCode(useDocValues);
   }
 
   /** Returns the terms wrapped in a PrefixCodedTerms. */
@@ -203,9 +248,39 @@ public class TermInSetQuery extends Query implements Accountable {
     return Collections.emptyList();
   }
 
+  /**
+   * Returns a compiled automaton that accepts the terms of this query, or null
+   * if it would be too large or some terms are too long to build it.
+   */
+  private CompiledAutomaton compileTerms() throws IOException {
+    final boolean[] usedBytes = new boolean[256];
+    int numUsedBytes = 0;
+    TermIterator iterator = termData.iterator();
+    for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
+      if (term.length > DaciukMihovAutomatonBuilder.MAX_TERM_LENGTH) {
+        return null;
+      }
+      for (int i = term.offset, end = term.offset + term.length; i < end; i++) {
+        final int b = term.bytes[i] & 0xff;
+        if (usedBytes[b] == false) {
+          usedBytes[b] = true;
+          numUsedBytes++;
+        }
+      }
+    }
+    Automaton automaton = Automata.makeBinaryStringUnion(termData.iterator());
+    // the run automaton has a transition table with one int per state and label class,
+    // and every byte used by the terms starts and ends at most one class
+    final int maxLabelClasses = Math.min(256, 2 * numUsedBytes + 1);
+    long runAutomatonBytes = (long) automaton.getNumStates() * maxLabelClasses * Integer.BYTES;
+    if (runAutomatonBytes > MAX_INTERSECT_RAM_BYTES_USED) {
+      return null;
+    }
+    return new CompiledAutomaton(automaton, true, false, Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+  }
+
   private static class TermAndState {
     final String field;
-    final TermsEnum termsEnum;
     final BytesRef term;
     final TermState state;
     final int docFreq;
@@ -213,7 +288,6 @@ public class TermInSetQuery extends Query implements Accountable {
 
     TermAndState(String field, TermsEnum termsEnum) throws IOException {
       this.field = field;
-      this.termsEnum = termsEnum;
       this.term = BytesRef.deepCopyOf(termsEnum.term());
       this.state = termsEnum.termState();
       this.docFreq = termsEnum.docFreq();
@@ -240,6 +314,18 @@ public class TermInSetQuery extends Query implements Accountable {
   public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
     return new ConstantScoreWeight(this, boost) {
 
+      // lazily compiled the first time that a segment intersects its terms dictionary
+      private CompiledAutomaton automaton;
+      private boolean automatonCompiled;
+
+      private synchronized CompiledAutomaton getAutomaton() throws IOException {
+        if (automatonCompiled == false) {
+          automaton = compileTerms();
+          automatonCompiled = true;
+        }
+        return automaton;
+      }
+
       @Override
       public void extractTerms(Set<Term> terms) {
         // no-op
@@ -257,6 +343,81 @@ public class TermInSetQuery extends Query implements Accountable {
         return MatchesUtils.forField(field, () -> DisjunctionMatchesIterator.fromTermsEnum(context, doc, getQuery(), field, termData.iterator()));
       }
 
+      /**
+       * Positions {@code termsEnum} on the next term of this query that exists in the segment,
+       * and returns false once there are no more such terms.
+       */
+      private boolean nextMatchingTerm(TermsEnum termsEnum, TermIterator iterator, boolean intersecting) throws IOException {
+        if (intersecting) {
+          return termsEnum.next() != null;
+        }
+        for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
+          assert field.equals(iterator.field());
+          if (termsEnum.seekExact(term)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      /**
+       * Returns the doc values of the field if they should be used to search the given leaf
+       * context rather than its postings, or null otherwise.
+       */
+      private SortedSetDocValues docValuesIfCheaper(LeafReaderContext context) throws IOException {
+        if (useDocValues == false) {
+          return null;
+        }
+        final FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(field);
+        if (fieldInfo == null) {
+          return null;
+        }
+        final DocValuesType type = fieldInfo.getDocValuesType();
+        if (type != DocValuesType.SORTED && type != DocValuesType.SORTED_SET) {
+          return null;
+        }
+        final SortedSetDocValues values = DocValues.getSortedSet(context.reader(), field);
+        if (termData.size() * docValuesTermRatio < values.getValueCount()) {
+          return null;
+        }
+        return values;
+      }
+
+      /** Returns a scorer that checks the doc values of every candidate document against the ordinals of the terms. */
+      private Scorer docValuesScorer(SortedSetDocValues values) throws IOException {
+        final LongBitSet bits = new LongBitSet(values.getValueCount());
+        boolean matchesAtLeastOneTerm = false;
+        TermIterator iterator = termData.iterator();
+        for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
+          final long ord = values.lookupTerm(term);
+          if (ord >= 0) {
+            matchesAtLeastOneTerm = true;
+            bits.set(ord);
+          }
+        }
+        if (matchesAtLeastOneTerm == false) {
+          return null;
+        }
+        return new ConstantScoreScorer(this, score(), scoreMode, new TwoPhaseIterator(values) {
+
+          @Override
+          public boolean matches() throws IOException {
+            for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+              if (bits.get(ord)) {
+                return true;
+              }
+            }
+            return false;
+          }
+
+          @Override
+          public float matchCost() {
+            return 3; // lookup in a bitset
+          }
+
+        });
+      }
+
       /**
        * On the given leaf context, try to either rewrite to a disjunction if
        * there are few matching terms, or build a bitset containing matching docs.
@@ -268,7 +429,14 @@ public class TermInSetQuery extends Query implements Accountable {
         if (terms == null) {
           return null;
         }
-        TermsEnum termsEnum = terms.iterator();
+        // Intersecting visits the terms dictionary in one pass, which is cheaper than
+        // seeking to every term when the query has many terms compared to the segment
+        final long segmentTermCount = terms.size();
+        CompiledAutomaton automaton = null;
+        if (segmentTermCount != -1 && termData.size() * intersectTermRatio >= segmentTermCount) {
+          automaton = getAutomaton();
+        }
+        final TermsEnum termsEnum = automaton == null ? terms.iterator() : terms.intersect(automaton, null);
         PostingsEnum docs = null;
         TermIterator iterator = termData.iterator();
 
@@ -279,26 +447,25 @@ public class TermInSetQuery extends Query implements Accountable {
         List<TermAndState> matchingTerms = new ArrayList<>(threshold);
         DocIdSetBuilder builder = null;
 
-        for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
-          assert field.equals(iterator.field());
-          if (termsEnum.seekExact(term)) {
-            if (matchingTerms == null) {
-              docs = termsEnum.postings(docs, PostingsEnum.NONE);
+        while (nextMatchingTerm(termsEnum, iterator, automaton != null)) {
+          if (matchingTerms == null) {
+            docs = termsEnum.postings(docs, PostingsEnum.NONE);
+            builder.add(docs);
+          } else if (matchingTerms.size() < threshold) {
+            matchingTerms.add(new TermAndState(field, termsEnum));
+          } else {
+            assert matchingTerms.size() == threshold;
+            builder = new DocIdSetBuilder(reader.maxDoc(), terms);
+            docs = termsEnum.postings(docs, PostingsEnum.NONE);
+            builder.add(docs);
+            // an intersecting terms enum can't seek, so use another one
+            TermsEnum seekingTermsEnum = terms.iterator();
+            for (TermAndState t : matchingTerms) {
+              seekingTermsEnum.seekExact(t.term, t.state);
+              docs = seekingTermsEnum.postings(docs, PostingsEnum.NONE);
               builder.add(docs);
-            } else if (matchingTerms.size() < threshold) {
-              matchingTerms.add(new TermAndState(field, termsEnum));
-            } else {
-              assert matchingTerms.size() == threshold;
-              builder = new DocIdSetBuilder(reader.maxDoc(), terms);
-              docs = termsEnum.postings(docs, PostingsEnum.NONE);
-              builder.add(docs);
-              for (TermAndState t : matchingTerms) {
-                t.termsEnum.seekExact(t.term, t.state);
-                docs = t.termsEnum.postings(docs, PostingsEnum.NONE);
-                builder.add(docs);
-              }
-              matchingTerms = null;
             }
+            matchingTerms = null;
           }
         }
         if (matchingTerms != null) {
@@ -331,6 +498,11 @@ public class TermInSetQuery extends Query implements Accountable {
 
       @Override
       public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+        final SortedSetDocValues values = docValuesIfCheaper(context);
+        if (values != null) {
+          final Scorer scorer = docValuesScorer(values);
+          return scorer == null ? null : new DefaultBulkScorer(scorer);
+        }
         final WeightOrDocIdSet weightOrBitSet = rewrite(context);
         if (weightOrBitSet == null) {
           return null;
@@ -347,6 +519,10 @@ public class TermInSetQuery extends Query implements Accountable {
 
       @Override
       public Scorer scorer(LeafReaderContext context) throws IOException {
+        final SortedSetDocValues values = docValuesIfCheaper(context);
+        if (values != null) {
+          return docValuesScorer(values);
+        }
         final WeightOrDocIdSet weightOrBitSet = rewrite(context);
         if (weightOrBitSet == null) {
           return null;
@@ -361,7 +537,8 @@ public class TermInSetQuery extends Query implements Accountable {
       public boolean isCacheable(LeafReaderContext ctx) {
         // Only cache instances that have a reasonable size. Otherwise it might cause memory issues
         // with the query cache if most memory ends up being spent on queries rather than doc id sets.
-        return ramBytesUsed() <= RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_USED;
+        return ramBytesUsed() <= RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_USED
+            && (useDocValues == false || DocValues.isCacheable(ctx, field));
       }
 
     };
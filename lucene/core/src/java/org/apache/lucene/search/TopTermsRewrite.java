@@ -20,6 +20,7 @@ package org.apache.lucene.search;
 import java.io.IOException;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 
@@ -62,98 +63,46 @@ public abstract class TopTermsRewrite<B> extends TermCollectingRewrite<B> {
   
   @Override
   public final Query rewrite(final IndexReader reader, final MultiTermQuery query) throws IOException {
-    final int maxSize = Math.min(size, getMaxSize());
-    final PriorityQueue<ScoreTerm> stQueue = new PriorityQueue<>();
-    collectTerms(reader, query, new TermCollector() {
-      private final MaxNonCompetitiveBoostAttribute maxBoostAtt =
-        attributes.addAttribute(MaxNonCompetitiveBoostAttribute.class);
-      
-      private final Map<BytesRef,ScoreTerm> visitedTerms = new HashMap<>();
-      
-      private TermsEnum termsEnum;
-      private BoostAttribute boostAtt;        
-      private ScoreTerm st;
-      
-      @Override
-      public void setNextEnum(TermsEnum termsEnum) {
-        this.termsEnum = termsEnum;
-        
-        assert compareToLastTerm(null);
+    final TopTermsCollector collector = new TopTermsCollector(Math.min(size, getMaxSize()));
+    collectTerms(reader, query, collector);
+    return buildQuery(query, collector.stQueue);
+  }
 
-        // lazy init the initial ScoreTerm because comparator is not known on ctor:
-        if (st == null)
-          st = new ScoreTerm(new TermStates(topReaderContext));
-        boostAtt = termsEnum.attributes().addAttribute(BoostAttribute.class);
-      }
-    
-      // for assert:
-      private BytesRefBuilder lastTerm;
-      private boolean compareToLastTerm(BytesRef t) {
-        if (lastTerm == null && t != null) {
-          lastTerm = new BytesRefBuilder();
-          lastTerm.append(t);
-        } else if (t == null) {
-          lastTerm = null;
+  /**
+   * Collects the top terms of each slice concurrently if the searcher has an executor, and
+   * then merges them. This gives the same query as {@link #rewrite(IndexReader, MultiTermQuery)}
+   * since a top term of all slices is also a top term of every slice that contains it.
+   */
+  @Override
+  public final Query rewrite(final IndexSearcher searcher, final MultiTermQuery query) throws IOException {
+    final int maxSize = Math.min(size, getMaxSize());
+    final List<TopTermsCollector> collectors = collectTerms(searcher, query, () -> new TopTermsCollector(maxSize));
+    if (collectors.size() == 1) {
+      return buildQuery(query, collectors.get(0).stQueue);
+    }
+    final Map<BytesRef,ScoreTerm> mergedTerms = new HashMap<>();
+    for (TopTermsCollector collector : collectors) {
+      for (ScoreTerm st : collector.stQueue) {
+        final ScoreTerm merged = mergedTerms.get(st.bytes.get());
+        if (merged == null) {
+          mergedTerms.put(st.bytes.get(), st);
         } else {
-          assert lastTerm.get().compareTo(t) < 0: "lastTerm=" + lastTerm + " t=" + t;
-          lastTerm.copyBytes(t);
+          assert merged.boost == st.boost : "boost should be equal in all segment TermsEnums";
+          mergeTermStates(merged.termState, st.termState, collector.collectedLeaves);
         }
-        return true;
       }
-  
-      @Override
-      public boolean collect(BytesRef bytes) throws IOException {
-        final float boost = boostAtt.getBoost();
-
-        // make sure within a single seg we always collect
-        // terms in order
-        assert compareToLastTerm(bytes);
-
-        //System.out.println("TTR.collect term=" + bytes.utf8ToString() + " boost=" + boost + " ord=" + readerContext.ord);
-        // ignore uncompetitive hits
-        if (stQueue.size() == maxSize) {
-          final ScoreTerm t = stQueue.peek();
-          if (boost < t.boost)
-            return true;
-          if (boost == t.boost && bytes.compareTo(t.bytes.get()) > 0)
-            return true;
-        }
-        ScoreTerm t = visitedTerms.get(bytes);
-        final TermState state = termsEnum.termState();
-        assert state != null;
-        if (t != null) {
-          // if the term is already in the PQ, only update docFreq of term in PQ
-          assert t.boost == boost : "boost should be equal in all segment TermsEnums";
-          t.termState.register(state, readerContext.ord, termsEnum.docFreq(), termsEnum.totalTermFreq());
-        } else {
-          // add new entry in PQ, we must clone the term, else it may get overwritten!
-          st.bytes.copyBytes(bytes);
-          st.boost = boost;
-          visitedTerms.put(st.bytes.get(), st);
-          assert st.termState.docFreq() == 0;
-          st.termState.register(state, readerContext.ord, termsEnum.docFreq(), termsEnum.totalTermFreq());
-          stQueue.offer(st);
-          // possibly drop entries from queue
-          if (stQueue.size() > maxSize) {
-            st = stQueue.poll();
-            visitedTerms.remove(st.bytes.get());
-            st.termState.clear(); // reset the termstate! 
-          } else {
-            st = new ScoreTerm(new TermStates(topReaderContext));
-          }
-          assert stQueue.size() <= maxSize : "the PQ size must be limited to maxSize";
-          // set maxBoostAtt with values to help FuzzyTermsEnum to optimize
-          if (stQueue.size() == maxSize) {
-            t = stQueue.peek();
-            maxBoostAtt.setMaxNonCompetitiveBoost(t.boost);
-            maxBoostAtt.setCompetitiveTerm(t.bytes.get());
-          }
-        }
-       
-        return true;
+    }
+    final PriorityQueue<ScoreTerm> stQueue = new PriorityQueue<>();
+    for (ScoreTerm st : mergedTerms.values()) {
+      stQueue.offer(st);
+      if (stQueue.size() > maxSize) {
+        stQueue.poll();
       }
-    });
-    
+    }
+    return buildQuery(query, stQueue);
+  }
+
+  private Query buildQuery(MultiTermQuery query, PriorityQueue<ScoreTerm> stQueue) throws IOException {
     final B b = getTopLevelBuilder();
     final ScoreTerm[] scoreTerms = stQueue.toArray(new ScoreTerm[stQueue.size()]);
     ArrayUtil.timSort(scoreTerms, scoreTermSortByTermComp);
@@ -167,6 +116,104 @@ public abstract class TopTermsRewrite<B> extends TermCollectingRewrite<B> {
     return build(b);
   }
 
+  /** Collects the top terms into a priority queue. */
+  private final class TopTermsCollector extends TermCollector {
+    private final int maxSize;
+    final PriorityQueue<ScoreTerm> stQueue = new PriorityQueue<>();
+
+    TopTermsCollector(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    private final MaxNonCompetitiveBoostAttribute maxBoostAtt =
+      attributes.addAttribute(MaxNonCompetitiveBoostAttribute.class);
+    
+    private final Map<BytesRef,ScoreTerm> visitedTerms = new HashMap<>();
+    
+    private TermsEnum termsEnum;
+    private BoostAttribute boostAtt;        
+    private ScoreTerm st;
+    
+    @Override
+    public void setNextEnum(TermsEnum termsEnum) {
+      this.termsEnum = termsEnum;
+      
+      assert compareToLastTerm(null);
+
+      // lazy init the initial ScoreTerm because comparator is not known on ctor:
+      if (st == null)
+        st = new ScoreTerm(new TermStates(topReaderContext));
+      boostAtt = termsEnum.attributes().addAttribute(BoostAttribute.class);
+    }
+  
+    // for assert:
+    private BytesRefBuilder lastTerm;
+    private boolean compareToLastTerm(BytesRef t) {
+      if (lastTerm == null && t != null) {
+        lastTerm = new BytesRefBuilder();
+        lastTerm.append(t);
+      } else if (t == null) {
+        lastTerm = null;
+      } else {
+        assert lastTerm.get().compareTo(t) < 0: "lastTerm=" + lastTerm + " t=" + t;
+        lastTerm.copyBytes(t);
+      }
+      return true;
+    }
+
+    @Override
+    public boolean collect(BytesRef bytes) throws IOException {
+      final float boost = boostAtt.getBoost();
+
+      // make sure within a single seg we always collect
+      // terms in order
+      assert compareToLastTerm(bytes);
+
+      //System.out.println("TTR.collect term=" + bytes.utf8ToString() + " boost=" + boost + " ord=" + readerContext.ord);
+      // ignore uncompetitive hits
+      if (stQueue.size() == maxSize) {
+        final ScoreTerm t = stQueue.peek();
+        if (boost < t.boost)
+          return true;
+        if (boost == t.boost && bytes.compareTo(t.bytes.get()) > 0)
+          return true;
+      }
+      ScoreTerm t = visitedTerms.get(bytes);
+      final TermState state = termsEnum.termState();
+      assert state != null;
+      if (t != null) {
+        // if the term is already in the PQ, only update docFreq of term in PQ
+        assert t.boost == boost : "boost should be equal in all segment TermsEnums";
+        t.termState.register(state, readerContext.ord, termsEnum.docFreq(), termsEnum.totalTermFreq());
+      } else {
+        // add new entry in PQ, we must clone the term, else it may get overwritten!
+        st.bytes.copyBytes(bytes);
+        st.boost = boost;
+        visitedTerms.put(st.bytes.get(), st);
+        assert st.termState.docFreq() == 0;
+        st.termState.register(state, readerContext.ord, termsEnum.docFreq(), termsEnum.totalTermFreq());
+        stQueue.offer(st);
+        // possibly drop entries from queue
+        if (stQueue.size() > maxSize) {
+          st = stQueue.poll();
+          visitedTerms.remove(st.bytes.get());
+          st.termState.clear(); // reset the termstate! 
+        } else {
+          st = new ScoreTerm(new TermStates(topReaderContext));
+        }
+        assert stQueue.size() <= maxSize : "the PQ size must be limited to maxSize";
+        // set maxBoostAtt with values to help FuzzyTermsEnum to optimize
+        if (stQueue.size() == maxSize) {
+          t = stQueue.peek();
+          maxBoostAtt.setMaxNonCompetitiveBoost(t.boost);
+          maxBoostAtt.setCompetitiveTerm(t.bytes.get());
+        }
+      }
+     
+      return true;
+    }
+  }
+
   @Override
   public int hashCode() {
     return 31 * size;
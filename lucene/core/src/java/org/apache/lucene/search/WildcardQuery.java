@@ -53,7 +53,7 @@ public class WildcardQuery extends AutomatonQuery {
    * Constructs a query for terms matching <code>term</code>. 
    */
   public WildcardQuery(Term term) {
-    super(term, toAutomaton(term));
+    this(term, Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
   }
   
   /**
@@ -64,7 +64,21 @@ public class WildcardQuery extends AutomatonQuery {
    *        otherwise know what to specify.
    */
   public WildcardQuery(Term term, int determinizeWorkLimit) {
-    super(term, toAutomaton(term), determinizeWorkLimit);
+    this(term, determinizeWorkLimit, false);
+  }
+
+  /**
+   * Constructs a query for terms matching <code>term</code>.
+   * @param determinizeWorkLimit maximum effort to spend while compiling the automaton from this
+   *        wildcard. Set higher to allow more complex queries and lower to prevent memory exhaustion.
+   *        Use {@link Operations#DEFAULT_DETERMINIZE_WORK_LIMIT} as a decent default if you don't
+   *        otherwise know what to specify.
+   * @param doingNFA if true, the automaton is not determinized up front, see {@link AutomatonQuery}
+   * @lucene.experimental
+   */
+  public WildcardQuery(Term term, int determinizeWorkLimit, boolean doingNFA) {
+    super(term, compile(new AutomatonCache.Key("wildcard", term.text(), determinizeWorkLimit, doingNFA ? 1 : 0),
+        () -> toAutomaton(term), determinizeWorkLimit, false, doingNFA), false);
   }
 
   /**
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Utilities to run tasks concurrently.
+ *
+ * @lucene.internal
+ */
+public final class ConcurrencyUtil {
+
+  private ConcurrencyUtil() {} // no instance
+
+  /**
+   * Runs the given tasks concurrently on the executor and on the calling thread, and returns their
+   * results in the order of the tasks.
+   * <p>
+   * The tasks are handed out to the executor in reverse order, while the calling thread runs the
+   * tasks in order, starting with the first one, and runs any task that the executor has not
+   * started yet or rejected. So the calling thread never waits for a task that is queued behind
+   * other work, even if the executor is busy or saturated.
+   * <p>
+   * If tasks fail, this method still waits for all tasks to complete, and then rethrows the error
+   * of the first failed task, to which the errors of the other failed tasks are added as
+   * suppressed exceptions.
+   */
+  public static <T> List<T> invokeAll(Executor executor, List<? extends Callable<T>> tasks) throws IOException {
+    final List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      futures.add(new FutureTask<>(task));
+    }
+    for (int i = futures.size() - 1; i > 0; i--) {
+      try {
+        executor.execute(futures.get(i));
+      } catch (RejectedExecutionException e) {
+        // the calling thread runs it below
+      }
+    }
+    final List<T> results = new ArrayList<>(futures.size());
+    Throwable error = null;
+    for (FutureTask<T> future : futures) {
+      future.run(); // no-op if the task was started already
+      try {
+        results.add(future.get());
+      } catch (InterruptedException e) {
+        throw new ThreadInterruptedException(e);
+      } catch (ExecutionException e) {
+        error = IOUtils.useOrSuppress(error, e.getCause());
+      }
+    }
+    if (error != null) {
+      throw IOUtils.rethrowAlways(error);
+    }
+    return results;
+  }
+}
@@ -29,9 +29,11 @@
 
 package org.apache.lucene.util.automaton;
 
+import java.io.IOException;
 import java.util.*;
 
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.StringHelper;
 
 /**
@@ -600,4 +602,16 @@ final public class Automata {
       return DaciukMihovAutomatonBuilder.build(utf8Strings);
     }
   }
+
+  /**
+   * Returns a new (deterministic and minimal) binary automaton, whose labels are bytes, that
+   * accepts the union of the given byte sequences, which must be sorted in binary order.
+   *
+   * @param byteStrings The input byte sequences, sorted in binary order.
+   * @return An {@link Automaton} accepting all input byte sequences. The resulting
+   *         automaton is binary based (byte transition labels).
+   */
+  public static Automaton makeBinaryStringUnion(BytesRefIterator byteStrings) throws IOException {
+    return DaciukMihovAutomatonBuilder.buildBinary(byteStrings);
+  }
 }
@@ -53,7 +53,7 @@ import org.apache.lucene.util.Sorter;
  *
  * @lucene.experimental */
 
-public class Automaton implements Accountable {
+public class Automaton implements Accountable, TransitionAccessor {
 
   /** Where we next write to the int[] states; this increments by 2 for
    *  each added state because we pack a pointer to the transitions
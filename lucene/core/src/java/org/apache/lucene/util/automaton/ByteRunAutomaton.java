@@ -19,7 +19,7 @@ package org.apache.lucene.util.automaton;
 /**
  * Automaton representation for matching UTF-8 byte[].
  */
-public class ByteRunAutomaton extends RunAutomaton {
+public class ByteRunAutomaton extends RunAutomaton implements ByteRunnable {
 
   /** Converts incoming automaton to byte-based (UTF32ToUTF8) first */
   public ByteRunAutomaton(Automaton a) {
@@ -34,6 +34,7 @@ public class ByteRunAutomaton extends RunAutomaton {
   /**
    * Returns true if the given byte array is accepted by this automaton
    */
+  @Override
   public boolean run(byte[] s, int offset, int length) {
     int p = 0;
     int l = offset + length;
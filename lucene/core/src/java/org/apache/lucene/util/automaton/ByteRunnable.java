@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.automaton;
+
+/**
+ * A deterministic automaton that runs on UTF-8 bytes. The initial state is always 0, and
+ * {@link #step} returns -1 when there is no transition for a label.
+ *
+ * @lucene.experimental
+ */
+public interface ByteRunnable {
+
+  /**
+   * Returns the state obtained by reading the given byte from the current state, or -1 if
+   * there is no such transition.
+   */
+  int step(int state, int c);
+
+  /** Returns acceptance status for the given state. */
+  boolean isAccept(int state);
+
+  /** Returns the number of states this automaton has; states are numbered from 0 to this number, exclusive. */
+  int getSize();
+
+  /** Returns true if the given byte array is accepted by this automaton */
+  default boolean run(byte[] s, int offset, int length) {
+    int p = 0;
+    int l = offset + length;
+    for (int i = offset; i < l; i++) {
+      p = step(p, s[i] & 0xFF);
+      if (p == -1) return false;
+    }
+    return isAccept(p);
+  }
+}
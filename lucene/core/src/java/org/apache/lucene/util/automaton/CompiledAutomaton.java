@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.lucene.index.AutomatonTermsEnum;
 import org.apache.lucene.index.SingleTermsEnum;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
@@ -38,7 +39,9 @@ import org.apache.lucene.util.UnicodeUtil;
 /**
  * Immutable class holding compiled details for a given
  * Automaton.  The Automaton is deterministic, must not have
- * dead states but is not necessarily minimal.
+ * dead states but is not necessarily minimal, unless it is
+ * compiled in NFA mode, in which case it is determinized lazily
+ * by each {@link TermsEnum} that runs it.
  *
  * @lucene.experimental
  */
@@ -82,6 +85,16 @@ public class CompiledAutomaton implements Accountable {
    */
   public final Automaton automaton;
 
+  /**
+   * Binary automaton without dead states, that is not necessarily
+   * deterministic and that each {@link AutomatonTermsEnum}
+   * determinizes lazily, or null if this automaton was not compiled in
+   * NFA mode. When this is not null, {@link #runAutomaton} and
+   * {@link #automaton} are null.
+   * Only valid for {@link AUTOMATON_TYPE#NORMAL}.
+   */
+  public final Automaton nfaAutomaton;
+
   /**
    * Shared common suffix accepted by the automaton. Only valid
    * for {@link AUTOMATON_TYPE#NORMAL}, and only when the
@@ -100,6 +113,9 @@ public class CompiledAutomaton implements Accountable {
   /** Which state, if any, accepts all suffixes, else -1. */
   public final int sinkState;
 
+  // only used to determinize nfaAutomaton for visitors
+  private final int determinizeWorkLimit;
+
   /** Create this, passing simplify=true and finite=null, so that we try
    *  to simplify the automaton and determine if it is finite. */
   public CompiledAutomaton(Automaton automaton) {
@@ -151,6 +167,29 @@ public class CompiledAutomaton implements Accountable {
    */
   public CompiledAutomaton(Automaton automaton, Boolean finite, boolean simplify,
                            int determinizeWorkLimit, boolean isBinary) {
+    this(automaton, finite, simplify, determinizeWorkLimit, isBinary, false);
+  }
+
+  /** Create this.  If finite is null, we use {@link Operations#isFinite}
+   *  to determine whether it is finite.  If simplify is true, we run
+   *  possibly expensive operations to determine if the automaton is one
+   *  the cases in {@link CompiledAutomaton.AUTOMATON_TYPE}. If doingNFA
+   *  is true, the automaton is not determinized up front: instead each
+   *  {@link TermsEnum} returned by {@link #getTermsEnum} determinizes the
+   *  states it visits, so that compiling never throws
+   *  {@link TooComplexToDeterminizeException} and memory usage is
+   *  proportional to the part of the automaton that the terms dictionary
+   *  actually reaches. In that case simplify does not detect
+   *  {@link AUTOMATON_TYPE#SINGLE} automata. Otherwise, if simplify
+   *  requires determinizing the automaton then at most determinizeWorkLimit
+   *  effort will be spent.  Any more than that will cause a
+   *  TooComplexToDeterminizeException.
+   *
+   *  @lucene.experimental
+   */
+  public CompiledAutomaton(Automaton automaton, Boolean finite, boolean simplify,
+                           int determinizeWorkLimit, boolean isBinary, boolean doingNFA) {
+    this.determinizeWorkLimit = determinizeWorkLimit;
     if (automaton.getNumStates() == 0) {
       automaton = new Automaton();
       automaton.createState();
@@ -169,6 +208,7 @@ public class CompiledAutomaton implements Accountable {
         commonSuffixRef = null;
         runAutomaton = null;
         this.automaton = null;
+        nfaAutomaton = null;
         this.finite = null;
         sinkState = -1;
         return;
@@ -190,14 +230,17 @@ public class CompiledAutomaton implements Accountable {
         commonSuffixRef = null;
         runAutomaton = null;
         this.automaton = null;
+        nfaAutomaton = null;
         this.finite = null;
         sinkState = -1;
         return;
       }
 
-      automaton = Operations.determinize(automaton, determinizeWorkLimit);
-
-      IntsRef singleton = Operations.getSingleton(automaton);
+      IntsRef singleton = null;
+      if (doingNFA == false) {
+        automaton = Operations.determinize(automaton, determinizeWorkLimit);
+        singleton = Operations.getSingleton(automaton);
+      }
 
       if (singleton != null) {
         // matches a fixed string
@@ -205,6 +248,7 @@ public class CompiledAutomaton implements Accountable {
         commonSuffixRef = null;
         runAutomaton = null;
         this.automaton = null;
+        nfaAutomaton = null;
         this.finite = null;
 
         if (isBinary) {
@@ -237,6 +281,24 @@ public class CompiledAutomaton implements Accountable {
       binary = new UTF32ToUTF8().convert(automaton);
     }
 
+    if (doingNFA) {
+      // the terms enum needs every state to lead to an accept state
+      binary = Operations.removeDeadStates(binary);
+      if (binary.getNumStates() == 0) {
+        binary = new Automaton();
+        binary.createState();
+        binary.finishState();
+      }
+      nfaAutomaton = binary;
+      // computing these would require determinizing the whole automaton
+      commonSuffixRef = null;
+      runAutomaton = null;
+      this.automaton = null;
+      sinkState = -1;
+      return;
+    }
+    nfaAutomaton = null;
+
     // compute a common suffix for infinite DFAs, this is an optimization for "leading wildcard"
     // so don't burn cycles on it if the DFA is finite, or largeish
     if (this.finite || automaton.getNumStates() + automaton.getNumTransitions() > 1000) {
@@ -260,11 +322,9 @@ public class CompiledAutomaton implements Accountable {
     sinkState = findSinkState(this.automaton);
   }
 
-  private Transition transition = new Transition();
-  
   //private static final boolean DEBUG = BlockTreeTermsWriter.DEBUG;
 
-  private BytesRef addTail(int state, BytesRefBuilder term, int idx, int leadLabel) {
+  private BytesRef addTail(int state, BytesRefBuilder term, int idx, int leadLabel, Transition transition) {
     //System.out.println("addTail state=" + state + " term=" + term.utf8ToString() + " idx=" + idx + " leadLabel=" + (char) leadLabel);
     //System.out.println(automaton.toDot());
     // Find biggest transition that's < label
@@ -340,6 +400,10 @@ public class CompiledAutomaton implements Accountable {
     case SINGLE:
       return new SingleTermsEnum(terms.iterator(), term);
     case NORMAL:
+      if (nfaAutomaton != null) {
+        // terms dictionaries can only intersect with a DFA
+        return new AutomatonTermsEnum(terms.iterator(), this);
+      }
       return terms.intersect(this, null);
     default:
       // unreachable
@@ -354,7 +418,12 @@ public class CompiledAutomaton implements Accountable {
     if (visitor.acceptField(field)) {
       switch (type) {
         case NORMAL:
-          visitor.consumeTermsMatching(parent, field, () -> runAutomaton);
+          if (nfaAutomaton != null) {
+            visitor.consumeTermsMatching(parent, field,
+                () -> new ByteRunAutomaton(nfaAutomaton, true, determinizeWorkLimit));
+          } else {
+            visitor.consumeTermsMatching(parent, field, () -> runAutomaton);
+          }
           break;
         case NONE:
           break;
@@ -391,6 +460,8 @@ public class CompiledAutomaton implements Accountable {
       }
     }
 
+    // instances are shared across threads, e.g. through AutomatonQuery or AutomatonCache
+    final Transition transition = new Transition();
     final List<Integer> stack = new ArrayList<>();
 
     int idx = 0;
@@ -452,7 +523,7 @@ public class CompiledAutomaton implements Accountable {
 
         //if (DEBUG) System.out.println("  label=" + (char) label + " idx=" + idx);
 
-        return addTail(state, output, idx, label);
+        return addTail(state, output, idx, label, transition);
         
       } else {
         output.grow(1+idx);
@@ -469,6 +540,7 @@ public class CompiledAutomaton implements Accountable {
     final int prime = 31;
     int result = 1;
     result = prime * result + ((runAutomaton == null) ? 0 : runAutomaton.hashCode());
+    result = prime * result + ((nfaAutomaton == null) ? 0 : nfaAutomaton.getNumStates());
     result = prime * result + ((term == null) ? 0 : term.hashCode());
     result = prime * result + ((type == null) ? 0 : type.hashCode());
     return result;
@@ -484,20 +556,51 @@ public class CompiledAutomaton implements Accountable {
     if (type == AUTOMATON_TYPE.SINGLE) {
       if (!term.equals(other.term)) return false;
     } else if (type == AUTOMATON_TYPE.NORMAL) {
+      if (nfaAutomaton != null || other.nfaAutomaton != null) {
+        // NFAs are only compared structurally, two NFAs that accept the same language may differ
+        return nfaAutomaton != null && other.nfaAutomaton != null
+            && sameNFA(nfaAutomaton, other.nfaAutomaton);
+      }
       if (!runAutomaton.equals(other.runAutomaton)) return false;
     }
 
     return true;
   }
 
+  /** Returns true if both automata have the same states and transitions, in the same order */
+  private static boolean sameNFA(Automaton a1, Automaton a2) {
+    if (a1.getNumStates() != a2.getNumStates() || a1.getNumTransitions() != a2.getNumTransitions()) {
+      return false;
+    }
+    Transition t1 = new Transition();
+    Transition t2 = new Transition();
+    for (int state = 0; state < a1.getNumStates(); state++) {
+      if (a1.isAccept(state) != a2.isAccept(state)) {
+        return false;
+      }
+      int count = a1.initTransition(state, t1);
+      if (a2.initTransition(state, t2) != count) {
+        return false;
+      }
+      for (int i = 0; i < count; i++) {
+        a1.getNextTransition(t1);
+        a2.getNextTransition(t2);
+        if (t1.min != t2.min || t1.max != t2.max || t1.dest != t2.dest) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   @Override
   public long ramBytesUsed() {
     return BASE_RAM_BYTES +
         RamUsageEstimator.sizeOfObject(automaton) +
+        RamUsageEstimator.sizeOfObject(nfaAutomaton) +
         RamUsageEstimator.sizeOfObject(commonSuffixRef) +
         RamUsageEstimator.sizeOfObject(runAutomaton) +
-        RamUsageEstimator.sizeOfObject(term) +
-        RamUsageEstimator.sizeOfObject(transition);
+        RamUsageEstimator.sizeOfObject(term);
   }
 
 }
@@ -17,10 +17,13 @@
 package org.apache.lucene.util.automaton;
 
 
+import java.io.IOException;
 import java.util.*;
 
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.CharsRef;
 import org.apache.lucene.util.UnicodeUtil;
 
@@ -39,7 +42,7 @@ public final class DaciukMihovAutomatonBuilder {
    * uses recursion based on the length of the string, which might cause stack
    * overflows.
    */
-  static final int MAX_TERM_LENGTH = 1_000;
+  public static final int MAX_TERM_LENGTH = 1_000;
 
   /**
    * The default constructor is private.  Use static methods directly.
@@ -250,6 +253,35 @@ public final class DaciukMihovAutomatonBuilder {
     addSuffix(state, current, pos);
   }
   
+  /**
+   * Add another byte sequence to this automaton, with one transition per byte. The sequence
+   * must be larger or equal compared to any previous sequences added to this automaton in
+   * binary order.
+   */
+  private void addBinary(BytesRef current) {
+    if (current.length > MAX_TERM_LENGTH) {
+      throw new IllegalArgumentException("This builder doesn't allow terms that are larger than 1,000 bytes, got " + current);
+    }
+    assert stateRegistry != null : "Automaton already built.";
+
+    // Descend in the automaton (find matching prefix).
+    int pos = 0;
+    final int max = current.length;
+    State next, state = root;
+    while (pos < max && (next = state.lastChild(current.bytes[current.offset + pos] & 0xff)) != null) {
+      state = next;
+      pos++;
+    }
+
+    if (state.hasChildren()) replaceOrRegister(state);
+
+    while (pos < max) {
+      state = state.newState(current.bytes[current.offset + pos] & 0xff);
+      pos++;
+    }
+    state.is_final = true;
+  }
+
   /**
    * Finalize the automaton and return the root state. No more strings can be
    * added to the builder after this call.
@@ -314,6 +346,36 @@ public final class DaciukMihovAutomatonBuilder {
     return a.finish();
   }
 
+  /**
+   * Build a minimal, deterministic binary automaton, whose labels are bytes, from a sorted
+   * iterator of {@link BytesRef}s. These byte sequences must be binary-sorted, and may be
+   * arbitrary bytes rather than UTF-8.
+   */
+  public static Automaton buildBinary(BytesRefIterator input) throws IOException {
+    final DaciukMihovAutomatonBuilder builder = new DaciukMihovAutomatonBuilder();
+
+    final BytesRefBuilder previous = new BytesRefBuilder();
+    for (BytesRef b = input.next(); b != null; b = input.next()) {
+      assert previous.get().compareTo(b) <= 0 : "Input must be in sorted binary order: "
+          + previous.get() + " >= " + b;
+      assert copyPrevious(previous, b);
+      builder.addBinary(b);
+    }
+
+    Automaton.Builder a = new Automaton.Builder();
+    convert(a,
+        builder.complete(),
+        new IdentityHashMap<State,Integer>());
+
+    return a.finish();
+  }
+
+  // called only from assert
+  private static boolean copyPrevious(BytesRefBuilder previous, BytesRef current) {
+    previous.copyBytes(current);
+    return true;
+  }
+
   /**
    * Copy <code>current</code> into an internal buffer.
    */
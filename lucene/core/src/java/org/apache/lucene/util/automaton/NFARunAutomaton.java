@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.automaton;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * A {@link ByteRunnable} and {@link TransitionAccessor} over a non-deterministic binary
+ * automaton that is determinized lazily. Each state of this automaton is a set of states of
+ * the NFA. A state's transitions are computed the first time they are needed, and are then
+ * cached. Unlike {@link ByteRunAutomaton}, creating it costs nothing and never throws
+ * {@link TooComplexToDeterminizeException}. Determinization is only paid for the states that
+ * are actually reached, e.g. by the prefixes of the terms that an
+ * {@link org.apache.lucene.index.AutomatonTermsEnum} visits.
+ * <p>
+ * The NFA must not have dead states, so that this automaton has no dead states either.
+ * <p>
+ * This class is not thread-safe since running it creates states.
+ *
+ * @lucene.experimental
+ */
+public class NFARunAutomaton implements ByteRunnable, TransitionAccessor {
+
+  private final Automaton nfa;
+  // the NFA states of each state of this automaton, keyed by their sets
+  private final Map<IntSet,Integer> states = new HashMap<>();
+  private int[][] nfaStates = new int[4][];
+  private boolean[] accept = new boolean[4];
+  // (min, max, dest) triples sorted by label for each state, or null if not computed yet
+  private int[][] transitions = new int[4][];
+  private int size;
+
+  // scratch data used to compute transitions
+  private final Transition scratch = new Transition();
+  private final StateSet stateSet = new StateSet(5);
+  private long[] starts = new long[8];
+  private long[] ends = new long[8];
+  private int[] dests = new int[8];
+  private int[] newTransitions = new int[24];
+
+  /**
+   * Creates a lazily determinized view of the given automaton, which must be binary and
+   * must not have dead states.
+   */
+  public NFARunAutomaton(Automaton nfa) {
+    this.nfa = nfa;
+    stateSet.incr(0);
+    int initial = getOrCreateState(stateSet);
+    assert initial == 0;
+    stateSet.decr(0);
+  }
+
+  /** Returns the state for the current set of NFA states, creating it if needed */
+  private int getOrCreateState(StateSet set) {
+    Integer state = states.get(set);
+    if (state != null) {
+      return state;
+    }
+    if (size == nfaStates.length) {
+      int newLength = ArrayUtil.oversize(size + 1, RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+      nfaStates = ArrayUtil.growExact(nfaStates, newLength);
+      transitions = ArrayUtil.growExact(transitions, newLength);
+      accept = Arrays.copyOf(accept, newLength);
+    }
+    FrozenIntSet frozen = set.freeze(size);
+    states.put(frozen, size);
+    nfaStates[size] = frozen.values;
+    for (int nfaState : frozen.values) {
+      if (nfa.isAccept(nfaState)) {
+        accept[size] = true;
+        break;
+      }
+    }
+    return size++;
+  }
+
+  /** Returns the transitions of the given state, computing them if needed */
+  private int[] transitions(int state) {
+    int[] result = transitions[state];
+    if (result == null) {
+      result = computeTransitions(state);
+      transitions[state] = result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the transitions of a state by sweeping the labels of the transitions of its NFA
+   * states, like {@link Operations#determinize} does for all states at once.
+   */
+  private int[] computeTransitions(int state) {
+    int count = 0;
+    for (int nfaState : nfaStates[state]) {
+      int numTransitions = nfa.initTransition(nfaState, scratch);
+      for (int i = 0; i < numTransitions; i++) {
+        nfa.getNextTransition(scratch);
+        if (count == starts.length) {
+          int newLength = ArrayUtil.oversize(count + 1, Long.BYTES);
+          starts = ArrayUtil.growExact(starts, newLength);
+          ends = ArrayUtil.growExact(ends, newLength);
+          dests = ArrayUtil.growExact(dests, newLength);
+        }
+        // labels in the high bits, so that sorting orders by label
+        starts[count] = ((long) scratch.min << 32) | count;
+        ends[count] = ((long) (scratch.max + 1) << 32) | count;
+        dests[count] = scratch.dest;
+        count++;
+      }
+    }
+    Arrays.sort(starts, 0, count);
+    Arrays.sort(ends, 0, count);
+
+    int upto = 0;
+    int lastPoint = -1;
+    for (int s = 0, e = 0; s < count || e < count; ) {
+      int point = Integer.MAX_VALUE;
+      if (s < count) {
+        point = (int) (starts[s] >>> 32);
+      }
+      if (e < count) {
+        point = Math.min(point, (int) (ends[e] >>> 32));
+      }
+      if (stateSet.size() > 0) {
+        int dest = getOrCreateState(stateSet);
+        if (upto > 0 && newTransitions[upto - 1] == dest && newTransitions[upto - 2] == lastPoint - 1) {
+          // extend the previous transition
+          newTransitions[upto - 2] = point - 1;
+        } else {
+          newTransitions = ArrayUtil.grow(newTransitions, upto + 3);
+          newTransitions[upto++] = lastPoint;
+          newTransitions[upto++] = point - 1;
+          newTransitions[upto++] = dest;
+        }
+      }
+      for (; e < count && (int) (ends[e] >>> 32) == point; e++) {
+        stateSet.decr(dests[(int) ends[e]]);
+      }
+      for (; s < count && (int) (starts[s] >>> 32) == point; s++) {
+        stateSet.incr(dests[(int) starts[s]]);
+      }
+      lastPoint = point;
+    }
+    assert stateSet.size() == 0;
+    return ArrayUtil.copyOfSubArray(newTransitions, 0, upto);
+  }
+
+  @Override
+  public int step(int state, int c) {
+    final int[] stateTransitions = transitions(state);
+    int low = 0;
+    int high = stateTransitions.length / 3 - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (c < stateTransitions[3 * mid]) {
+        high = mid - 1;
+      } else if (c > stateTransitions[3 * mid + 1]) {
+        low = mid + 1;
+      } else {
+        return stateTransitions[3 * mid + 2];
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean isAccept(int state) {
+    return accept[state];
+  }
+
+  /** Returns the number of states created so far; this grows as the automaton is run. */
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public int initTransition(int state, Transition t) {
+    t.source = state;
+    t.transitionUpto = 0;
+    return getNumTransitions(state);
+  }
+
+  @Override
+  public void getNextTransition(Transition t) {
+    final int[] stateTransitions = transitions[t.source];
+    assert stateTransitions != null && t.transitionUpto < stateTransitions.length;
+    t.min = stateTransitions[t.transitionUpto++];
+    t.max = stateTransitions[t.transitionUpto++];
+    t.dest = stateTransitions[t.transitionUpto++];
+  }
+
+  @Override
+  public int getNumTransitions(int state) {
+    return transitions(state).length / 3;
+  }
+
+  @Override
+  public void getTransition(int state, int index, Transition t) {
+    final int[] stateTransitions = transitions(state);
+    t.source = state;
+    t.min = stateTransitions[3 * index];
+    t.max = stateTransitions[3 * index + 1];
+    t.dest = stateTransitions[3 * index + 2];
+  }
+}
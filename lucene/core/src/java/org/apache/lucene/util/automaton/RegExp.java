@@ -603,19 +603,42 @@ public class RegExp {
     return toAutomaton(automata, null, determinizeWorkLimit);
   }
 
+  /**
+   * Constructs a new <code>Automaton</code> from this <code>RegExp</code> without minimizing
+   * the automata of its sub-expressions. The constructed automaton is generally not
+   * deterministic, and may have dead states, but building it is linear in the size of the
+   * regexp except for complements, which still need to be determinized.
+   *
+   * @param automaton_provider provider of automata for named identifiers
+   * @param determinizeWorkLimit maximum effort to spend while determinizing complements, and
+   *     maximum number of states of repeated sub-expressions
+   * @exception IllegalArgumentException if this regular expression uses a named
+   *     identifier that is not available from the automaton provider
+   * @exception TooComplexToDeterminizeException if a complement requires more effort
+   *     than determinizeWorkLimit states
+   */
+  public Automaton toNFA(AutomatonProvider automaton_provider, int determinizeWorkLimit)
+      throws IllegalArgumentException, TooComplexToDeterminizeException {
+    try {
+      return toAutomatonInternal(null, automaton_provider, determinizeWorkLimit, false);
+    } catch (TooComplexToDeterminizeException e) {
+      throw new TooComplexToDeterminizeException(this, e);
+    }
+  }
+
   private Automaton toAutomaton(Map<String,Automaton> automata,
       AutomatonProvider automaton_provider, int determinizeWorkLimit)
       throws IllegalArgumentException, TooComplexToDeterminizeException {
     try {
       return toAutomatonInternal(automata, automaton_provider,
-        determinizeWorkLimit);
+        determinizeWorkLimit, true);
     } catch (TooComplexToDeterminizeException e) {
       throw new TooComplexToDeterminizeException(this, e);
     }
   }
 
   private Automaton toAutomatonInternal(Map<String,Automaton> automata,
-      AutomatonProvider automaton_provider, int determinizeWorkLimit)
+      AutomatonProvider automaton_provider, int determinizeWorkLimit, boolean minimize)
       throws IllegalArgumentException {
     List<Automaton> list;
     Automaton a = null;
@@ -623,50 +646,50 @@ public class RegExp {
       case REGEXP_UNION:
         list = new ArrayList<>();
         findLeaves(exp1, Kind.REGEXP_UNION, list, automata, automaton_provider,
-          determinizeWorkLimit);
+          determinizeWorkLimit, minimize);
         findLeaves(exp2, Kind.REGEXP_UNION, list, automata, automaton_provider,
-          determinizeWorkLimit);
+          determinizeWorkLimit, minimize);
         a = Operations.union(list);
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_CONCATENATION:
         list = new ArrayList<>();
         findLeaves(exp1, Kind.REGEXP_CONCATENATION, list, automata,
-            automaton_provider, determinizeWorkLimit);
+            automaton_provider, determinizeWorkLimit, minimize);
         findLeaves(exp2, Kind.REGEXP_CONCATENATION, list, automata,
-            automaton_provider, determinizeWorkLimit);
+            automaton_provider, determinizeWorkLimit, minimize);
         a = Operations.concatenate(list);
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_INTERSECTION:
         a = Operations.intersection(
             exp1.toAutomatonInternal(
-              automata, automaton_provider, determinizeWorkLimit),
+              automata, automaton_provider, determinizeWorkLimit, minimize),
             exp2.toAutomatonInternal(
-              automata, automaton_provider, determinizeWorkLimit));
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+              automata, automaton_provider, determinizeWorkLimit, minimize));
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_OPTIONAL:
         a = Operations.optional(exp1.toAutomatonInternal(automata,
-          automaton_provider, determinizeWorkLimit));
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+          automaton_provider, determinizeWorkLimit, minimize));
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_REPEAT:
         a = Operations.repeat(exp1.toAutomatonInternal(
-          automata, automaton_provider, determinizeWorkLimit));
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+          automata, automaton_provider, determinizeWorkLimit, minimize));
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_REPEAT_MIN:
-        a = exp1.toAutomatonInternal(automata, automaton_provider, determinizeWorkLimit);
+        a = exp1.toAutomatonInternal(automata, automaton_provider, determinizeWorkLimit, minimize);
         int minNumStates = (a.getNumStates() - 1) * min;
         if (minNumStates > determinizeWorkLimit) {
           throw new TooComplexToDeterminizeException(a, minNumStates);
         }
         a = Operations.repeat(a, min);
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_REPEAT_MINMAX:
-        a = exp1.toAutomatonInternal(automata, automaton_provider, determinizeWorkLimit);
+        a = exp1.toAutomatonInternal(automata, automaton_provider, determinizeWorkLimit, minimize);
         int minMaxNumStates = (a.getNumStates() - 1) * max;
         if (minMaxNumStates > determinizeWorkLimit) {
           throw new TooComplexToDeterminizeException(a, minMaxNumStates);
@@ -676,13 +699,13 @@ public class RegExp {
       case REGEXP_COMPLEMENT:
         a = Operations.complement(
           exp1.toAutomatonInternal(automata, automaton_provider,
-            determinizeWorkLimit),
+            determinizeWorkLimit, minimize),
           determinizeWorkLimit);
-        a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+        a = minimize(a, minimize, determinizeWorkLimit);
         break;
       case REGEXP_CHAR:
         if (check(ASCII_CASE_INSENSITIVE)) {
-          a = toCaseInsensitiveChar(c, determinizeWorkLimit);
+          a = toCaseInsensitiveChar(c, determinizeWorkLimit, minimize);
         } else {
           a = Automata.makeChar(c);          
         }
@@ -698,7 +721,7 @@ public class RegExp {
         break;
       case REGEXP_STRING:
         if (check(ASCII_CASE_INSENSITIVE)) {
-          a = toCaseInsensitiveString(determinizeWorkLimit);
+          a = toCaseInsensitiveString(determinizeWorkLimit, minimize);
         } else {
           a = Automata.makeString(s);
         }
@@ -731,7 +754,7 @@ public class RegExp {
   }
   
   
-  private Automaton toCaseInsensitiveChar(int codepoint, int determinizeWorkLimit) {
+  private Automaton toCaseInsensitiveChar(int codepoint, int determinizeWorkLimit, boolean minimize) {
     Automaton case1 = Automata.makeChar(codepoint);
     // For now we only work with ASCII characters
     if (codepoint > 128) {
@@ -741,36 +764,40 @@ public class RegExp {
     Automaton result;
     if (altCase != codepoint) {
       result = Operations.union(case1, Automata.makeChar(altCase));
-      result = MinimizationOperations.minimize(result, determinizeWorkLimit);          
+      result = minimize(result, minimize, determinizeWorkLimit);          
     } else {
       result = case1;                      
     }          
     return result;
   }
   
-  private Automaton toCaseInsensitiveString(int determinizeWorkLimit) {
+  private Automaton toCaseInsensitiveString(int determinizeWorkLimit, boolean minimize) {
     List<Automaton> list = new ArrayList<>();
     
     Iterator<Integer> iter = s.codePoints().iterator();
     while (iter.hasNext()) {
-      list.add(toCaseInsensitiveChar(iter.next(), determinizeWorkLimit));
+      list.add(toCaseInsensitiveChar(iter.next(), determinizeWorkLimit, minimize));
     }
     Automaton a = Operations.concatenate(list);
-    a = MinimizationOperations.minimize(a, determinizeWorkLimit);
+    a = minimize(a, minimize, determinizeWorkLimit);
     return a;
   }    
   
+  private static Automaton minimize(Automaton a, boolean minimize, int determinizeWorkLimit) {
+    return minimize ? MinimizationOperations.minimize(a, determinizeWorkLimit) : a;
+  }
+
   private void findLeaves(RegExp exp, Kind kind, List<Automaton> list,
       Map<String,Automaton> automata, AutomatonProvider automaton_provider,
-      int determinizeWorkLimit) {
+      int determinizeWorkLimit, boolean minimize) {
     if (exp.kind == kind) {
       findLeaves(exp.exp1, kind, list, automata, automaton_provider,
-        determinizeWorkLimit);
+        determinizeWorkLimit, minimize);
       findLeaves(exp.exp2, kind, list, automata, automaton_provider,
-        determinizeWorkLimit);
+        determinizeWorkLimit, minimize);
     } else {
       list.add(exp.toAutomatonInternal(automata, automaton_provider, 
-        determinizeWorkLimit));
+        determinizeWorkLimit, minimize));
     }
   }
 
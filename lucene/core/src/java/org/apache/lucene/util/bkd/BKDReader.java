@@ -421,7 +421,9 @@ public final class BKDReader extends PointValues {
     int count = in.readVInt();
     // No need to call grow(), it has been called up-front
 
-    DocIdsWriter.readInts(in, count, visitor);
+    if (visitor.visitCount(count) == false) {
+      DocIdsWriter.readInts(in, count, visitor);
+    }
   }
 
   int readDocIDs(IndexInput in, long blockFP, BKDReaderDocIDSetIterator iterator) throws IOException {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.analysis;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.store.AlreadyClosedException;
+
+public class TestPooledReuseStrategy extends BaseTokenStreamTestCase {
+
+  private static class PooledAnalyzer extends Analyzer {
+    final AtomicInteger created = new AtomicInteger();
+
+    PooledAnalyzer(ReuseStrategy strategy) {
+      super(strategy);
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+      created.incrementAndGet();
+      Tokenizer tokenizer = new MockTokenizer(MockTokenizer.WHITESPACE, false);
+      return new TokenStreamComponents(tokenizer, new MockTokenFilter(tokenizer, MockTokenFilter.EMPTY_STOPSET));
+    }
+  }
+
+  // assertAnalyzesTo also checks that a missing close() is detected, which
+  // does not apply since unclosed components are simply not reused
+  private static void assertAnalyzes(Analyzer analyzer, String input, String[] output) throws Exception {
+    assertTokenStreamContents(analyzer.tokenStream("field", input), output);
+  }
+
+  public void testReusesClosedComponents() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy();
+    PooledAnalyzer analyzer = new PooledAnalyzer(strategy);
+
+    assertAnalyzes(analyzer, "a b", new String[] { "a", "b" });
+    assertEquals(1, analyzer.created.get());
+    assertEquals(1, strategy.getIdleCount());
+    assertAnalyzes(analyzer, "c", new String[] { "c" });
+    assertEquals(1, analyzer.created.get());
+    assertEquals(1, strategy.getHitCount());
+    assertEquals(1, strategy.getMissCount());
+
+    // a stream that is still in use is not shared
+    TokenStream ts1 = analyzer.tokenStream("field", "d");
+    TokenStream ts2 = analyzer.tokenStream("field", "e");
+    assertNotSame(ts1, ts2);
+    assertEquals(2, analyzer.created.get());
+    assertEquals(0, strategy.getIdleCount());
+    assertTokenStreamContents(ts1, new String[] { "d" });
+    assertTokenStreamContents(ts2, new String[] { "e" });
+    assertEquals(2, strategy.getIdleCount());
+
+    // fields have their own pools
+    assertAnalyzes(analyzer, "f", new String[] { "f" });
+    assertEquals(2, analyzer.created.get());
+    TokenStream ts = analyzer.tokenStream("other_field", "g");
+    assertEquals(3, analyzer.created.get());
+    assertTokenStreamContents(ts, new String[] { "g" });
+    assertEquals(3, strategy.getIdleCount());
+
+    analyzer.close();
+    expectThrows(AlreadyClosedException.class, () -> analyzer.tokenStream("field", "h"));
+  }
+
+  public void testClosedAnalyzerIsReleased() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy();
+    Analyzer analyzer = new Analyzer(strategy) {
+      @Override
+      protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer tokenizer = new MockTokenizer(MockTokenizer.WHITESPACE, false);
+        // like most analyzers, the components reference the analyzer
+        return new TokenStreamComponents(tokenizer, new TokenFilter(tokenizer) {
+          @Override
+          public boolean incrementToken() throws IOException {
+            return getReuseStrategy() == strategy && input.incrementToken();
+          }
+        });
+      }
+    };
+    TokenStream inUse = analyzer.tokenStream("field", "b");
+    assertAnalyzes(analyzer, "a", new String[] { "a" });
+    assertEquals(1, strategy.getIdleCount());
+
+    analyzer.close();
+    assertEquals(0, strategy.getIdleCount());
+    // components that are released after the analyzer was closed are not pooled
+    assertTokenStreamContents(inUse, new String[] { "b" });
+    assertEquals(0, strategy.getIdleCount());
+
+    WeakReference<Analyzer> ref = new WeakReference<>(analyzer);
+    analyzer = null;
+    inUse = null;
+    for (int i = 0; i < 10 && ref.get() != null; i++) {
+      System.gc();
+      Thread.sleep(100L);
+    }
+    assertNull("closed analyzer was not released", ref.get());
+  }
+
+  public void testSharedAcrossThreads() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy();
+    PooledAnalyzer analyzer = new PooledAnalyzer(strategy);
+    Thread[] threads = new Thread[atLeast(4)];
+    CountDownLatch latch = new CountDownLatch(1);
+    for (int i = 0; i < threads.length; ++i) {
+      threads[i] = new Thread(() -> {
+        try {
+          latch.await();
+          for (int j = 0; j < 100; ++j) {
+            assertAnalyzes(analyzer, "a b c", new String[] { "a", "b", "c" });
+          }
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      });
+      threads[i].start();
+    }
+    latch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    // never more components than concurrent consumers
+    assertTrue(analyzer.created.get() <= threads.length);
+    assertEquals(analyzer.created.get(), strategy.getIdleCount());
+    assertEquals(threads.length * 100, strategy.getHitCount() + strategy.getMissCount());
+    analyzer.close();
+  }
+
+  public void testMaxIdleComponents() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy(1, PooledReuseStrategy.DEFAULT_MAX_IDLE_MILLIS);
+    PooledAnalyzer analyzer = new PooledAnalyzer(strategy);
+    TokenStream ts1 = analyzer.tokenStream("field", "a");
+    TokenStream ts2 = analyzer.tokenStream("field", "b");
+    assertTokenStreamContents(ts1, new String[] { "a" });
+    assertTokenStreamContents(ts2, new String[] { "b" });
+    assertEquals(1, strategy.getIdleCount());
+    assertEquals(1, strategy.getEvictionCount());
+    analyzer.close();
+  }
+
+  public void testEvictsIdleComponents() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy(PooledReuseStrategy.DEFAULT_MAX_IDLE_COMPONENTS, 0);
+    PooledAnalyzer analyzer = new PooledAnalyzer(strategy);
+    TokenStream ts1 = analyzer.tokenStream("field", "a");
+    TokenStream ts2 = analyzer.tokenStream("field", "b");
+    assertTokenStreamContents(ts1, new String[] { "a" });
+    assertTokenStreamContents(ts2, new String[] { "b" });
+    Thread.sleep(10);
+    // reuses the most recently released components and drops the other ones
+    assertAnalyzes(analyzer, "c", new String[] { "c" });
+    assertEquals(1, strategy.getEvictionCount());
+    assertEquals(1, strategy.getIdleCount());
+    Thread.sleep(10);
+    // releasing components of another field drops those that are idle
+    TokenStream ts = analyzer.tokenStream("other_field", "d");
+    assertTokenStreamContents(ts, new String[] { "d" });
+    assertEquals(2, strategy.getEvictionCount());
+    assertEquals(1, strategy.getIdleCount());
+    analyzer.close();
+  }
+
+  public void testDelegatingWrapper() throws Exception {
+    PooledReuseStrategy strategy = new PooledReuseStrategy();
+    PooledAnalyzer analyzer = new PooledAnalyzer(strategy);
+    Analyzer wrapper = new DelegatingAnalyzerWrapper(Analyzer.PER_FIELD_REUSE_STRATEGY) {
+      @Override
+      protected Analyzer getWrappedAnalyzer(String fieldName) {
+        return analyzer;
+      }
+    };
+    for (int i = 0; i < 3; ++i) {
+      assertAnalyzes(wrapper, "a", new String[] { "a" });
+    }
+    assertEquals(1, analyzer.created.get());
+    assertEquals(2, strategy.getHitCount());
+    wrapper.close();
+    analyzer.close();
+  }
+
+  public void testIllegalArgs() {
+    expectThrows(IllegalArgumentException.class, () -> new PooledReuseStrategy(-1, 10));
+    expectThrows(IllegalArgumentException.class, () -> new PooledReuseStrategy(10, -1));
+  }
+}
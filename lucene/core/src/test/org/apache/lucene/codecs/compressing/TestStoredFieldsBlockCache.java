@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+public class TestStoredFieldsBlockCache extends LuceneTestCase {
+
+  public void testSharedAcrossReaders() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig().setCodec(TestUtil.getDefaultCodec());
+    IndexWriter w = new IndexWriter(dir, iwc);
+    final int numDocs = atLeast(200);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Store.YES));
+      doc.add(new StoredField("body", TestUtil.randomSimpleString(random(), 10, 100)));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    w.close();
+
+    // read expected documents without a cache
+    DirectoryReader reader = DirectoryReader.open(dir);
+    Document[] expected = new Document[numDocs];
+    for (int i = 0; i < numDocs; ++i) {
+      expected[i] = reader.document(i);
+    }
+    reader.close();
+
+    StoredFieldsBlockCache cache = new StoredFieldsBlockCache(1 << 20);
+    StoredFieldsBlockCache.setDefault(cache);
+    try {
+      reader = DirectoryReader.open(dir);
+    } finally {
+      StoredFieldsBlockCache.setDefault(null);
+    }
+    IndexSearcher searcher = new IndexSearcher(reader);
+    for (int iter = 0; iter < 2; ++iter) {
+      for (int i = 0; i < numDocs; ++i) {
+        Document doc = searcher.doc(i);
+        assertEquals(expected[i].get("id"), doc.get("id"));
+        assertEquals(expected[i].get("body"), doc.get("body"));
+      }
+    }
+    assertTrue(cache.getCacheCount() > 0);
+    assertTrue(cache.ramBytesUsed() > 0);
+    // every block is decompressed once, the second iteration only hits the cache
+    assertEquals(cache.getCacheCount(), cache.getMissCount());
+    assertEquals(2L * numDocs - cache.getMissCount(), cache.getHitCount());
+
+    reader.close();
+    assertEquals(0, cache.getCacheCount());
+    assertEquals(0, cache.ramBytesUsed());
+    dir.close();
+  }
+
+  public void testEviction() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig().setCodec(TestUtil.getDefaultCodec());
+    IndexWriter w = new IndexWriter(dir, iwc);
+    final int numDocs = atLeast(5000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StoredField("body", TestUtil.randomSimpleString(random(), 100, 200)));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    w.close();
+
+    final long maxRamBytesUsed = 200 * 1024;
+    StoredFieldsBlockCache cache = new StoredFieldsBlockCache(maxRamBytesUsed);
+    StoredFieldsBlockCache.setDefault(cache);
+    DirectoryReader reader;
+    try {
+      reader = DirectoryReader.open(dir);
+    } finally {
+      StoredFieldsBlockCache.setDefault(null);
+    }
+    for (int i = 0; i < numDocs; ++i) {
+      assertNotNull(reader.document(i).get("body"));
+      assertTrue(cache.ramBytesUsed() <= maxRamBytesUsed);
+    }
+    assertTrue(cache.getEvictionCount() > 0);
+    reader.close();
+    dir.close();
+  }
+
+  public void testIllegalArgs() {
+    expectThrows(IllegalArgumentException.class, () -> new StoredFieldsBlockCache(-1));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.geo;
+
+import static org.apache.lucene.geo.GeoTestUtil.createRegularPolygon;
+import static org.apache.lucene.geo.GeoTestUtil.nextPointNear;
+import static org.apache.lucene.geo.GeoTestUtil.nextPolygon;
+
+import org.apache.lucene.util.LuceneTestCase;
+
+/** Test ComponentGrid impl */
+public class TestComponentGrid extends LuceneTestCase {
+
+  private static Component2D withoutGrid(Component2D component) {
+    return component instanceof ComponentGrid ? ((ComponentGrid) component).component : component;
+  }
+
+  /** The grid must give the same answers as the component it wraps */
+  public void testSameAsComponent() {
+    int iters = atLeast(20);
+    for (int i = 0; i < iters; i++) {
+      Polygon polygon = nextPolygon();
+      Component2D impl = withoutGrid(Polygon2D.create(polygon));
+      Component2D grid = ComponentGrid.create(impl);
+      assertEquals(impl.getMinX(), grid.getMinX(), 0d);
+      assertEquals(impl.getMaxY(), grid.getMaxY(), 0d);
+
+      for (int j = 0; j < 500; j++) {
+        double[] point = nextPointNear(polygon);
+        assertEquals(impl.contains(point[1], point[0]), grid.contains(point[1], point[0]));
+      }
+
+      for (int j = 0; j < 200; j++) {
+        Rectangle box = GeoTestUtil.nextBoxNear(polygon);
+        assertEquals(box.toString(), impl.relate(box.minLon, box.maxLon, box.minLat, box.maxLat),
+            grid.relate(box.minLon, box.maxLon, box.minLat, box.maxLat));
+      }
+
+      for (int j = 0; j < 200; j++) {
+        double[] a = nextPointNear(polygon);
+        double[] b = nextPointNear(polygon);
+        double[] c = nextPointNear(polygon);
+        assertEquals(impl.intersectsLine(a[1], a[0], b[1], b[0]), grid.intersectsLine(a[1], a[0], b[1], b[0]));
+        assertEquals(impl.containsLine(a[1], a[0], b[1], b[0]), grid.containsLine(a[1], a[0], b[1], b[0]));
+        assertEquals(impl.intersectsTriangle(a[1], a[0], b[1], b[0], c[1], c[0]),
+            grid.intersectsTriangle(a[1], a[0], b[1], b[0], c[1], c[0]));
+        assertEquals(impl.containsTriangle(a[1], a[0], b[1], b[0], c[1], c[0]),
+            grid.containsTriangle(a[1], a[0], b[1], b[0], c[1], c[0]));
+      }
+    }
+  }
+
+  /** Points exactly on the boundaries of the cells */
+  public void testCellBoundaries() {
+    Polygon polygon = createRegularPolygon(0, 0, 100000, 50);
+    Component2D impl = withoutGrid(Polygon2D.create(polygon));
+    Component2D grid = ComponentGrid.create(impl);
+    for (int i = 0; i <= ComponentGrid.ARITY; i++) {
+      double x = impl.getMinX() + (impl.getMaxX() - impl.getMinX()) * i / ComponentGrid.ARITY;
+      for (int j = 0; j <= ComponentGrid.ARITY; j++) {
+        double y = impl.getMinY() + (impl.getMaxY() - impl.getMinY()) * j / ComponentGrid.ARITY;
+        assertEquals(impl.contains(x, y), grid.contains(x, y));
+        assertEquals(impl.relate(x, x, y, y), grid.relate(x, x, y, y));
+      }
+    }
+  }
+
+  public void testLargePolygonsUseGrid() {
+    Polygon polygon = createRegularPolygon(10, 20, 500000, Polygon2D.GRID_MIN_VERTICES);
+    Component2D impl = Polygon2D.create(polygon);
+    assertTrue(impl instanceof ComponentGrid);
+    assertFalse(Polygon2D.create(createRegularPolygon(10, 20, 500000, 10)) instanceof ComponentGrid);
+    for (int i = 0; i < 1000; i++) {
+      double[] point = nextPointNear(polygon);
+      assertEquals(GeoTestUtil.containsSlowly(polygon, point[0], point[1]), impl.contains(point[1], point[0]));
+    }
+  }
+}
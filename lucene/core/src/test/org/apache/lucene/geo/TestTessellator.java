@@ -17,9 +17,13 @@
 package org.apache.lucene.geo;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 
 import static org.apache.lucene.geo.GeoTestUtil.nextBoxNotCrossingDateline;
 
@@ -738,6 +742,55 @@ public class TestTessellator extends LuceneTestCase {
     }
   }
 
+  public void testConcurrentTessellation() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(TestUtil.nextInt(random(), 1, 4));
+    try {
+      int gons = TestUtil.nextInt(random(), Tessellator.SPLIT_THRESHOLD, 4 * Tessellator.SPLIT_THRESHOLD);
+      Polygon poly = GeoTestUtil.createRegularPolygon(0.0, 0.0, 100000, gons);
+      if (random().nextBoolean()) {
+        Polygon hole = GeoTestUtil.createRegularPolygon(0.0, 0.0, 50000, TestUtil.nextInt(random(), 3, 1000));
+        poly = new Polygon(poly.getPolyLats(), poly.getPolyLons(), hole);
+      }
+      List<Tessellator.Triangle> tessellation = Tessellator.tessellate(poly, pool);
+      double expectedArea = area(poly);
+      assertEquals(expectedArea, area(tessellation), expectedArea * 1e-9);
+      assertEquals(area(Tessellator.tessellate(poly)), area(tessellation), expectedArea * 1e-9);
+      for (int i = 0; i < 100; i++) {
+        checkTriangleEdgesFromPolygon(poly, tessellation.get(random().nextInt(tessellation.size())));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testConcurrentMultiPolygon() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(TestUtil.nextInt(random(), 1, 4));
+    try {
+      Polygon[] polygons = new Polygon[TestUtil.nextInt(random(), 1, 20)];
+      List<Tessellator.Triangle> expected = new ArrayList<>();
+      for (int i = 0; i < polygons.length; i++) {
+        polygons[i] = GeoTestUtil.createRegularPolygon(random().nextDouble() * 120 - 60, random().nextDouble() * 340 - 170,
+            TestUtil.nextInt(random(), 1000, 100000), TestUtil.nextInt(random(), 3, 500));
+        expected.addAll(Tessellator.tessellate(polygons[i]));
+      }
+      // small polygons are not split, so the triangles are the same
+      List<Tessellator.Triangle> actual = Tessellator.tessellate(polygons, pool);
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        for (int j = 0; j < 3; j++) {
+          assertEquals(expected.get(i).getX(j), actual.get(i).getX(j), 0d);
+          assertEquals(expected.get(i).getY(j), actual.get(i).getY(j), 0d);
+        }
+      }
+
+      Polygon[] invalid = ArrayUtil.growExact(polygons, polygons.length + 1);
+      invalid[polygons.length] = (Polygon) SimpleWKTShapeParser.parse("POLYGON((0 0, 1 1, 0 1, 1 0, 0 0))");
+      expectThrows(IllegalArgumentException.class, () -> Tessellator.tessellate(invalid, pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   private void checkPolygon(String wkt) throws Exception {
     Polygon polygon = (Polygon) SimpleWKTShapeParser.parse(wkt);
     List<Tessellator.Triangle> tessellation = Tessellator.tessellate(polygon);
@@ -20,6 +20,7 @@ package org.apache.lucene.index;
 import java.io.IOException;
 
 import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import org.apache.lucene.analysis.CannedTokenStream;
 import org.apache.lucene.analysis.Token;
 import org.apache.lucene.document.*;
@@ -187,6 +188,68 @@ public class TestCheckIndex extends BaseTestCheckIndex {
     }
   }
 
+  public void testConcurrentCheckMatchesSequentialCheck() throws Exception {
+    try (Directory dir = newDirectory()) {
+      IndexWriterConfig config = newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+      try (IndexWriter w = new IndexWriter(dir, config)) {
+        final int numSegments = TestUtil.nextInt(random(), 2, 5);
+        for (int i = 0; i < numSegments; i++) {
+          final int numDocs = TestUtil.nextInt(random(), 1, 100);
+          for (int j = 0; j < numDocs; j++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", Integer.toString(j), Field.Store.YES));
+            doc.add(new TextField("body", TestUtil.randomSimpleString(random()), Field.Store.NO));
+            doc.add(new NumericDocValuesField("dv", random().nextLong()));
+            doc.add(new IntPoint("point", random().nextInt()));
+            w.addDocument(doc);
+          }
+          if (random().nextBoolean()) {
+            w.deleteDocuments(new Term("id", "0"));
+          }
+          w.commit();
+        }
+      }
+
+      String sequentialOutput = null;
+      CheckIndex.Status sequentialStatus = null;
+      for (int threadCount : new int[] {1, TestUtil.nextInt(random(), 2, 4)}) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CheckIndex.Status status;
+        try (CheckIndex checker = new CheckIndex(dir)) {
+          checker.setThreadCount(threadCount);
+          checker.setInfoStream(new PrintStream(output, true, IOUtils.UTF_8));
+          status = checker.checkIndex();
+        }
+        assertTrue(status.clean);
+        // timings and the thread count are the only differences
+        String normalizedOutput =
+            output
+                .toString(IOUtils.UTF_8)
+                .replaceAll("(?i)took [0-9.]+ sec", "")
+                .replaceAll("Checking index with threadCount: [0-9]+", "");
+        if (sequentialStatus == null) {
+          sequentialOutput = normalizedOutput;
+          sequentialStatus = status;
+        } else {
+          assertEquals(sequentialOutput, normalizedOutput);
+          assertEquals(sequentialStatus.segmentInfos.size(), status.segmentInfos.size());
+          for (int i = 0; i < status.segmentInfos.size(); i++) {
+            CheckIndex.Status.SegmentInfoStatus expected = sequentialStatus.segmentInfos.get(i);
+            CheckIndex.Status.SegmentInfoStatus actual = status.segmentInfos.get(i);
+            assertEquals(expected.name, actual.name);
+            assertEquals(expected.termIndexStatus.totFreq, actual.termIndexStatus.totFreq);
+            assertEquals(expected.storedFieldStatus.totFields, actual.storedFieldStatus.totFields);
+            assertEquals(
+                expected.docValuesStatus.totalNumericFields,
+                actual.docValuesStatus.totalNumericFields);
+            assertEquals(
+                expected.pointsStatus.totalValuePoints, actual.pointsStatus.totalValuePoints);
+          }
+        }
+      }
+    }
+  }
+
   public void testInvalidThreadCountArgument() {
     String[] args = new String[] {"-threadCount", "0"};
     expectThrows(IllegalArgumentException.class, () -> CheckIndex.parseOptions(args));
@@ -18,6 +18,7 @@ package org.apache.lucene.search;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -28,6 +29,8 @@ import java.util.function.Supplier;
 import com.carrotsearch.randomizedtesting.generators.RandomStrings;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FilterDirectoryReader;
@@ -103,6 +106,70 @@ public class TermInSetQueryTest extends LuceneTestCase {
     }
   }
 
+  /** All strategies to find matching terms must give the same results. */
+  public void testDuelStrategies() throws IOException {
+    final int iters = atLeast(2);
+    final String field = "f";
+    for (int iter = 0; iter < iters; ++iter) {
+      final List<BytesRef> allTerms = new ArrayList<>();
+      final int numTerms = TestUtil.nextInt(random(), 1, 1 << TestUtil.nextInt(random(), 1, 12));
+      for (int i = 0; i < numTerms; ++i) {
+        // arbitrary bytes, which need not be valid UTF-8
+        final byte[] bytes = new byte[TestUtil.nextInt(random(), 1, 6)];
+        random().nextBytes(bytes);
+        allTerms.add(new BytesRef(bytes));
+      }
+      final boolean multiValued = random().nextBoolean();
+      Directory dir = newDirectory();
+      RandomIndexWriter iw = new RandomIndexWriter(random(), dir);
+      final int numDocs = atLeast(200);
+      for (int i = 0; i < numDocs; ++i) {
+        Document doc = new Document();
+        final int numValues = multiValued ? random().nextInt(3) : 1;
+        for (int j = 0; j < numValues; ++j) {
+          final BytesRef term = allTerms.get(random().nextInt(allTerms.size()));
+          doc.add(new StringField(field, term, Store.NO));
+          if (multiValued) {
+            doc.add(new SortedSetDocValuesField(field, term));
+          } else {
+            doc.add(new SortedDocValuesField(field, term));
+          }
+        }
+        iw.addDocument(doc);
+      }
+      final IndexReader reader = iw.getReader();
+      final IndexSearcher searcher = newSearcher(reader);
+      iw.close();
+
+      for (int i = 0; i < 50; ++i) {
+        // either never, always or sometimes intersect the terms dict and use doc values
+        final int intersectTermRatio = random().nextBoolean() ? 0 : TestUtil.nextInt(random(), 1, 1 << 20);
+        final int docValuesTermRatio = random().nextBoolean() ? 0 : TestUtil.nextInt(random(), 1, 1 << 20);
+        final int numQueryTerms = TestUtil.nextInt(random(), 1, 1 << TestUtil.nextInt(random(), 1, 10));
+        List<BytesRef> queryTerms = new ArrayList<>();
+        for (int j = 0; j < numQueryTerms; ++j) {
+          if (random().nextBoolean()) {
+            queryTerms.add(allTerms.get(random().nextInt(allTerms.size())));
+          } else {
+            final byte[] bytes = new byte[TestUtil.nextInt(random(), 1, 6)];
+            random().nextBytes(bytes);
+            queryTerms.add(new BytesRef(bytes));
+          }
+        }
+        final BooleanQuery.Builder bq = new BooleanQuery.Builder();
+        for (BytesRef t : queryTerms) {
+          bq.add(new TermQuery(new Term(field, t)), Occur.SHOULD);
+        }
+        final Query q1 = new ConstantScoreQuery(bq.build());
+        final Query q2 = new TermInSetQuery(field, queryTerms, random().nextBoolean(), intersectTermRatio, docValuesTermRatio);
+        assertSameMatches(searcher, q1, q2, false);
+      }
+
+      reader.close();
+      dir.close();
+    }
+  }
+
   private void assertSameMatches(IndexSearcher searcher, Query q1, Query q2, boolean scores) throws IOException {
     final int maxDoc = searcher.getIndexReader().maxDoc();
     final TopDocs td1 = searcher.search(q1, maxDoc, scores ? Sort.RELEVANCE : Sort.INDEXORDER);
@@ -148,6 +215,13 @@ public class TermInSetQueryTest extends LuceneTestCase {
     assertFalse(tq1.hashCode() == tq2.hashCode());
   }
 
+  public void testDocValuesEquals() {
+    TermInSetQuery query = new TermInSetQuery("id", Arrays.asList(new BytesRef("a"), new BytesRef("b")), true);
+    assertEquals(query, new TermInSetQuery("id", Arrays.asList(new BytesRef("b"), new BytesRef("a")), true));
+    assertEquals(query.hashCode(), new TermInSetQuery("id", Arrays.asList(new BytesRef("b"), new BytesRef("a")), true).hashCode());
+    assertFalse(query.equals(new TermInSetQuery("id", new BytesRef("a"), new BytesRef("b"))));
+  }
+
   public void testSimpleEquals() {
     // Two terms with the same hash code
     assertEquals("AaAaBB".hashCode(), "BBBBBB".hashCode());
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+public class TestAutomatonCache extends LuceneTestCase {
+
+  private static class Value implements Accountable {
+    final long ramBytesUsed;
+
+    Value(long ramBytesUsed) {
+      this.ramBytesUsed = ramBytesUsed;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return ramBytesUsed;
+    }
+  }
+
+  private static AutomatonCache.Key key(int i) {
+    return new AutomatonCache.Key("test", "pattern" + i, i);
+  }
+
+  public void testHitsAndMisses() {
+    AutomatonCache cache = new AutomatonCache(10, Long.MAX_VALUE);
+    Value v1 = cache.computeIfAbsent(key(1), () -> new Value(10));
+    assertSame(v1, cache.computeIfAbsent(key(1), () -> new Value(10)));
+    assertNotSame(v1, cache.computeIfAbsent(key(2), () -> new Value(10)));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(3, cache.getTotalCount());
+    assertEquals(2, cache.getCacheSize());
+    assertEquals(0, cache.getEvictionCount());
+    assertTrue(cache.ramBytesUsed() > 20);
+
+    cache.clear();
+    assertEquals(0, cache.getCacheSize());
+    assertEquals(0, cache.ramBytesUsed());
+    assertNotSame(v1, cache.computeIfAbsent(key(1), () -> new Value(10)));
+  }
+
+  public void testEvictionBySize() {
+    AutomatonCache cache = new AutomatonCache(3, Long.MAX_VALUE);
+    Value v0 = cache.computeIfAbsent(key(0), () -> new Value(10));
+    cache.computeIfAbsent(key(1), () -> new Value(10));
+    cache.computeIfAbsent(key(2), () -> new Value(10));
+    // key 0 is now the most recently used
+    assertSame(v0, cache.computeIfAbsent(key(0), () -> new Value(10)));
+    cache.computeIfAbsent(key(3), () -> new Value(10));
+    assertEquals(3, cache.getCacheSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertSame(v0, cache.computeIfAbsent(key(0), () -> new Value(10)));
+    long misses = cache.getMissCount();
+    cache.computeIfAbsent(key(1), () -> new Value(10));
+    assertEquals(misses + 1, cache.getMissCount());
+  }
+
+  public void testEvictionByRam() {
+    AutomatonCache cache = new AutomatonCache(100, 10_000);
+    for (int i = 0; i < 50; i++) {
+      cache.computeIfAbsent(key(i), () -> new Value(1000));
+      assertTrue(cache.ramBytesUsed() <= 10_000);
+    }
+    assertTrue(cache.getEvictionCount() > 0);
+    assertTrue(cache.getCacheSize() < 10);
+    // larger than the cache
+    cache.computeIfAbsent(key(100), () -> new Value(20_000));
+    assertEquals(0, cache.getCacheSize());
+    assertEquals(0, cache.ramBytesUsed());
+  }
+
+  public void testExceptionsAreNotCached() {
+    AutomatonCache cache = new AutomatonCache(10, Long.MAX_VALUE);
+    expectThrows(IllegalStateException.class, () -> cache.computeIfAbsent(key(1), () -> {
+      throw new IllegalStateException();
+    }));
+    assertEquals(0, cache.getCacheSize());
+    assertNotNull(cache.computeIfAbsent(key(1), () -> new Value(10)));
+  }
+
+  public void testKeys() {
+    assertEquals(new AutomatonCache.Key("a", "b", 1, 2), new AutomatonCache.Key("a", "b", 1, 2));
+    assertEquals(new AutomatonCache.Key("a", "b", 1, 2).hashCode(), new AutomatonCache.Key("a", "b", 1, 2).hashCode());
+    assertNotEquals(new AutomatonCache.Key("a", "b", 1, 2), new AutomatonCache.Key("b", "b", 1, 2));
+    assertNotEquals(new AutomatonCache.Key("a", "b", 1, 2), new AutomatonCache.Key("a", "c", 1, 2));
+    assertNotEquals(new AutomatonCache.Key("a", "b", 1, 2), new AutomatonCache.Key("a", "b", 1, 3));
+    assertNotEquals(new AutomatonCache.Key("a", "b", 1, 2), new AutomatonCache.Key("a", "b", 1));
+  }
+
+  public void testQueriesShareAutomata() {
+    AutomatonCache previous = AutomatonCache.getDefault();
+    AutomatonCache cache = new AutomatonCache(100, Long.MAX_VALUE);
+    AutomatonCache.setDefault(cache);
+    try {
+      RegexpQuery r1 = new RegexpQuery(new Term("f1", "fo+[a-z]ar"));
+      RegexpQuery r2 = new RegexpQuery(new Term("f2", "fo+[a-z]ar"));
+      assertSame(r1.compiled, r2.compiled);
+      assertSame(r1.getAutomaton(), r2.getAutomaton());
+      assertNotSame(r1.compiled, new RegexpQuery(new Term("f1", "fo+[a-z]ar"), RegExp.NONE).compiled);
+      assertNotSame(r1.compiled, new RegexpQuery(new Term("f1", "fo+[a-z]ar"), RegExp.ALL, 0, name -> null,
+          Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, true).compiled);
+      // named automata are not cached
+      RegexpQuery named1 = new RegexpQuery(new Term("f1", "<a>"), RegExp.ALL, name -> Automata.makeString("a"),
+          Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
+      RegexpQuery named2 = new RegexpQuery(new Term("f1", "<a>"), RegExp.ALL, name -> Automata.makeString("a"),
+          Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
+      assertNotSame(named1.compiled, named2.compiled);
+      QueryUtils.checkEqual(named1, named2);
+
+      WildcardQuery w1 = new WildcardQuery(new Term("f1", "fo*b?r"));
+      WildcardQuery w2 = new WildcardQuery(new Term("f1", "fo*b?r"));
+      assertSame(w1.compiled, w2.compiled);
+      QueryUtils.checkEqual(w1, w2);
+
+      FuzzyQuery f1 = new FuzzyQuery(new Term("f1", "foobar"), 2, 1);
+      FuzzyQuery f2 = new FuzzyQuery(new Term("f2", "foobar"), 2, 1);
+      assertSame(f1.getAutomata(), f2.getAutomata());
+      assertNotSame(f1.getAutomata(), new FuzzyQuery(new Term("f1", "foobar"), 2, 2).getAutomata());
+      assertNotSame(f1.getAutomata(), new FuzzyQuery(new Term("f1", "foobar"), 1, 1).getAutomata());
+
+      long misses = cache.getMissCount();
+      expectThrows(TooComplexToDeterminizeException.class, () -> new RegexpQuery(new Term("f1", "(.*a){2000}")));
+      expectThrows(TooComplexToDeterminizeException.class, () -> new RegexpQuery(new Term("f1", "(.*a){2000}")));
+      assertEquals(misses + 2, cache.getMissCount());
+      assertTrue(cache.getHitCount() > 0);
+    } finally {
+      AutomatonCache.setDefault(previous);
+    }
+  }
+
+  public void testDisabled() {
+    AutomatonCache previous = AutomatonCache.getDefault();
+    AutomatonCache.setDefault(null);
+    try {
+      RegexpQuery r1 = new RegexpQuery(new Term("f1", "fo+[a-z]ar"));
+      RegexpQuery r2 = new RegexpQuery(new Term("f1", "fo+[a-z]ar"));
+      assertNotSame(r1.compiled, r2.compiled);
+      QueryUtils.checkEqual(r1, r2);
+      FuzzyQuery f1 = new FuzzyQuery(new Term("f1", "foobar"), 2, 1);
+      assertNotSame(f1.getAutomata(), f1.getAutomata());
+    } finally {
+      AutomatonCache.setDefault(previous);
+    }
+  }
+
+  public void testConcurrency() throws Exception {
+    final AutomatonCache cache = new AutomatonCache(TestUtil.nextInt(random(), 1, 20), TestUtil.nextInt(random(), 100, 100_000));
+    final int numThreads = TestUtil.nextInt(random(), 2, 5);
+    final int numKeys = TestUtil.nextInt(random(), 1, 50);
+    final AtomicInteger computations = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      final long seed = random().nextLong();
+      threads.add(new Thread(() -> {
+        Random r = new Random(seed);
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        for (int i = 0; i < 1000; i++) {
+          int k = r.nextInt(numKeys);
+          Value v = cache.computeIfAbsent(key(k), () -> {
+            computations.incrementAndGet();
+            return new Value(k);
+          });
+          assertEquals(k, v.ramBytesUsed);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(numThreads * 1000, cache.getTotalCount());
+    assertEquals(computations.get(), cache.getMissCount());
+    assertTrue(cache.getCacheSize() <= numKeys);
+  }
+}
@@ -20,9 +20,11 @@ package org.apache.lucene.search;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -177,6 +179,38 @@ public class TestIndexSearcher extends LuceneTestCase {
     dir.close();
   }
 
+  public void testDocs() throws IOException {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final int numDocs = atLeast(100);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Store.YES));
+      doc.add(new StringField("other", "value", Store.YES));
+      w.addDocument(doc);
+    }
+    final IndexReader reader = w.getReader();
+    w.close();
+    final IndexSearcher searcher = newSearcher(reader);
+    final int[] docIDs = new int[atLeast(20)];
+    for (int i = 0; i < docIDs.length; ++i) {
+      docIDs[i] = random().nextInt(reader.maxDoc());
+    }
+    Document[] docs = searcher.docs(docIDs, null);
+    assertEquals(docIDs.length, docs.length);
+    for (int i = 0; i < docIDs.length; ++i) {
+      assertEquals(searcher.doc(docIDs[i]).get("id"), docs[i].get("id"));
+      assertEquals("value", docs[i].get("other"));
+    }
+    docs = searcher.docs(docIDs, Collections.singleton("id"));
+    for (int i = 0; i < docIDs.length; ++i) {
+      assertEquals(searcher.doc(docIDs[i]).get("id"), docs[i].get("id"));
+      assertNull(docs[i].get("other"));
+    }
+    reader.close();
+    dir.close();
+  }
+
   public void testGetQueryCache() throws IOException {
     IndexSearcher searcher = new IndexSearcher(new MultiReader());
     assertEquals(IndexSearcher.getDefaultQueryCache(), searcher.getQueryCache());
@@ -265,4 +299,35 @@ public class TestIndexSearcher extends LuceneTestCase {
       assertEquals(leaves.size() - 1, numExecutions.get());
     }
   }
+
+  public void testApplyPerSliceRunsRejectedSlicesOnTheCallerThread() throws IOException {
+    IndexSearcher searcher = new IndexSearcher(reader, task -> {
+      throw new RejectedExecutionException();
+    }) {
+      @Override
+      protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+        ArrayList<LeafSlice> slices = new ArrayList<>();
+        for (LeafReaderContext ctx : leaves) {
+          slices.add(new LeafSlice(ctx));
+        }
+        return slices.toArray(new LeafSlice[0]);
+      }
+    };
+    List<Integer> maxDocs = searcher.applyPerSlice(leaves -> {
+      int maxDoc = 0;
+      for (LeafReaderContext ctx : leaves) {
+        maxDoc += ctx.reader().maxDoc();
+      }
+      return maxDoc;
+    });
+    List<LeafReaderContext> leaves = reader.leaves();
+    if (leaves.size() > 1) {
+      assertEquals(leaves.size(), maxDocs.size());
+      for (int i = 0; i < leaves.size(); ++i) {
+        assertEquals(leaves.get(i).reader().maxDoc(), maxDocs.get(i).intValue());
+      }
+    } else {
+      assertEquals(Collections.singletonList(reader.maxDoc()), maxDocs);
+    }
+  }
 }
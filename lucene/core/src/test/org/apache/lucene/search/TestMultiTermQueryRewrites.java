@@ -18,6 +18,11 @@ package org.apache.lucene.search;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
@@ -25,7 +30,10 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FilteredTermsEnum;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
@@ -34,6 +42,8 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.AttributeSource;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.TestUtil;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 
@@ -258,5 +268,106 @@ public class TestMultiTermQueryRewrites extends LuceneTestCase {
     checkNoMaxClauseLimitation(new MultiTermQuery.TopTermsScoringBooleanQueryRewrite(1024));
     checkNoMaxClauseLimitation(new MultiTermQuery.TopTermsBoostOnlyBooleanQueryRewrite(1024));
   }
-  
+
+  private void assertSameRewrite(Query expected, Query actual) throws IOException {
+    assertEquals(expected, actual);
+    if (expected instanceof BooleanQuery) {
+      List<BooleanClause> expectedClauses = ((BooleanQuery) expected).clauses();
+      List<BooleanClause> actualClauses = ((BooleanQuery) actual).clauses();
+      for (int i = 0; i < expectedClauses.size(); i++) {
+        assertSameRewrite(expectedClauses.get(i).getQuery(), actualClauses.get(i).getQuery());
+      }
+    } else if (expected instanceof BoostQuery) {
+      assertSameRewrite(((BoostQuery) expected).getQuery(), ((BoostQuery) actual).getQuery());
+    } else if (expected instanceof ConstantScoreQuery) {
+      assertSameRewrite(((ConstantScoreQuery) expected).getQuery(), ((ConstantScoreQuery) actual).getQuery());
+    } else if (expected instanceof TermQuery) {
+      // the term states are not part of equals
+      assertEquals(((TermQuery) expected).getTermStates().docFreq(), ((TermQuery) actual).getTermStates().docFreq());
+      assertEquals(((TermQuery) expected).getTermStates().totalTermFreq(), ((TermQuery) actual).getTermStates().totalTermFreq());
+    }
+  }
+
+  /** Collecting terms concurrently on the slices of a searcher must give the same query as a serial rewrite */
+  public void testConcurrentRewrite() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir,
+        newIndexWriterConfig(new MockAnalyzer(random())).setMergePolicy(NoMergePolicy.INSTANCE));
+    final int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      final int numTerms = TestUtil.nextInt(random(), 1, 3);
+      for (int j = 0; j < numTerms; j++) {
+        doc.add(newStringField("data", TestUtil.randomSimpleString(random(), 1, 4), Field.Store.NO));
+      }
+      w.addDocument(doc);
+      if (random().nextInt(20) == 0) {
+        w.commit();
+      }
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+
+    ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4),
+        new NamedThreadFactory("TestMultiTermQueryRewrites"));
+    try {
+      IndexSearcher serialSearcher = new IndexSearcher(reader);
+      IndexSearcher concurrentSearcher = new IndexSearcher(reader, executor) {
+        @Override
+        protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+          // slices of one to three leaves
+          List<LeafSlice> slices = new ArrayList<>();
+          for (int i = 0; i < leaves.size(); ) {
+            int end = Math.min(leaves.size(), i + TestUtil.nextInt(random(), 1, 3));
+            slices.add(new LeafSlice(leaves.subList(i, end).toArray(new LeafReaderContext[0])));
+            i = end;
+          }
+          return slices.toArray(new LeafSlice[0]);
+        }
+      };
+      MultiTermQuery.RewriteMethod[] methods = new MultiTermQuery.RewriteMethod[] {
+          MultiTermQuery.SCORING_BOOLEAN_REWRITE,
+          MultiTermQuery.CONSTANT_SCORE_BOOLEAN_REWRITE,
+          new MultiTermQuery.TopTermsScoringBooleanQueryRewrite(TestUtil.nextInt(random(), 1, 50)),
+          new MultiTermQuery.TopTermsBoostOnlyBooleanQueryRewrite(TestUtil.nextInt(random(), 1, 50)),
+          new MultiTermQuery.TopTermsBlendedFreqScoringRewrite(TestUtil.nextInt(random(), 1, 50))
+      };
+      final int iters = atLeast(20);
+      for (int iter = 0; iter < iters; iter++) {
+        final String text = TestUtil.randomSimpleString(random(), 1, 3);
+        final MultiTermQuery mtq;
+        switch (random().nextInt(3)) {
+          case 0:
+            mtq = new PrefixQuery(new Term("data", text.substring(0, 1)));
+            break;
+          case 1:
+            mtq = new WildcardQuery(new Term("data", "*" + text.substring(0, 1) + "*"));
+            break;
+          default:
+            mtq = new FuzzyQuery(new Term("data", text));
+            break;
+        }
+        if (mtq instanceof FuzzyQuery) {
+          // fuzzy boosts may be negative, which only top-terms rewrites support
+          mtq.setRewriteMethod(methods[TestUtil.nextInt(random(), 2, methods.length - 1)]);
+        } else {
+          mtq.setRewriteMethod(methods[random().nextInt(methods.length)]);
+        }
+        Query serial;
+        try {
+          serial = serialSearcher.rewrite(mtq);
+        } catch (BooleanQuery.TooManyClauses e) {
+          expectThrows(BooleanQuery.TooManyClauses.class, () -> concurrentSearcher.rewrite(mtq));
+          continue;
+        }
+        assertSameRewrite(serial, concurrentSearcher.rewrite(mtq));
+        assertSameRewrite(serial, concurrentSearcher.rewrite(new BooleanQuery.Builder().add(mtq, BooleanClause.Occur.MUST).build()));
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    reader.close();
+    dir.close();
+  }
 }
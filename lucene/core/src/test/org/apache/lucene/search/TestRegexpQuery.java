@@ -71,7 +71,11 @@ public class TestRegexpQuery extends LuceneTestCase {
   
   private long regexQueryNrHits(String regex) throws IOException {
     RegexpQuery query = new RegexpQuery(newTerm(regex));
-    return searcher.count(query);
+    long count = searcher.count(query);
+    RegexpQuery nfaQuery = new RegexpQuery(newTerm(regex), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    assertEquals(count, searcher.count(nfaQuery));
+    return count;
   }
   
   private long caseInsensitiveRegexQueryNrHits(String regex) throws IOException {
@@ -145,4 +149,26 @@ public class TestRegexpQuery extends LuceneTestCase {
           new RegexpQuery(new Term("stringvalue", "(.*a){2000}"));
         });
   }
+
+  /** The same regexp compiles in NFA mode, and only the states that the terms reach are determinized */
+  public void testSlowCommonSuffixNFA() throws Exception {
+    RegexpQuery query = new RegexpQuery(newTerm("(.*a){2000}"), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    assertEquals(0, searcher.count(query));
+    query = new RegexpQuery(newTerm("(.*[a-z]){5}"), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    assertEquals(1, searcher.count(query));
+  }
+
+  public void testNFAEquals() {
+    RegexpQuery q1 = new RegexpQuery(newTerm("a.*b"), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    RegexpQuery q2 = new RegexpQuery(newTerm("a.*b"), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    RegexpQuery q3 = new RegexpQuery(newTerm("a.*c"), RegExp.ALL, 0, name -> null,
+        DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    QueryUtils.checkEqual(q1, q2);
+    QueryUtils.checkUnequal(q1, q3);
+    QueryUtils.checkUnequal(q1, new RegexpQuery(newTerm("a.*b")));
+  }
 }
@@ -43,6 +43,7 @@ import org.apache.lucene.util.UnicodeUtil;
 import org.apache.lucene.util.automaton.Automaton;
 import org.apache.lucene.util.automaton.AutomatonTestUtil;
 import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
 import org.apache.lucene.util.automaton.RegExp;
 
 /**
@@ -169,7 +170,10 @@ public class TestRegexpRandom2 extends LuceneTestCase {
    * simple regexpquery implementation.
    */
   protected void assertSame(String regexp) throws IOException {   
-    RegexpQuery smart = new RegexpQuery(new Term(fieldName, regexp), RegExp.NONE);
+    RegexpQuery smart = random().nextBoolean()
+        ? new RegexpQuery(new Term(fieldName, regexp), RegExp.NONE)
+        : new RegexpQuery(new Term(fieldName, regexp), RegExp.NONE, 0, name -> null,
+            Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, true);
     DumbRegexpQuery dumb = new DumbRegexpQuery(new Term(fieldName, regexp), RegExp.NONE);
    
     TopDocs smartDocs = searcher1.search(smart, 25);
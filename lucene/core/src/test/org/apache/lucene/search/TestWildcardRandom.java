@@ -31,6 +31,7 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.TestUtil;
+import org.apache.lucene.util.automaton.Operations;
 
 /**
  * Create an index with terms from 000-999.
@@ -92,7 +93,12 @@ public class TestWildcardRandom extends LuceneTestCase {
     if (VERBOSE) {
       System.out.println("TEST: run wildcard pattern=" + pattern + " filled=" + filledPattern);
     }
-    Query wq = new WildcardQuery(new Term("field", filledPattern));
+    final Query wq;
+    if (random().nextBoolean()) {
+      wq = new WildcardQuery(new Term("field", filledPattern));
+    } else {
+      wq = new WildcardQuery(new Term("field", filledPattern), Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+    }
     TopDocs docs = searcher.search(wq, 25);
     assertEquals("Incorrect hits for pattern: " + pattern, numHits, docs.totalHits.value);
   }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TestConcurrencyUtil extends LuceneTestCase {
+
+  public void testResultsInOrder() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(random().nextInt(4) + 1, new NamedThreadFactory("TestConcurrencyUtil"));
+    try {
+      int numTasks = random().nextInt(20) + 1;
+      List<Callable<Integer>> tasks = new ArrayList<>();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < numTasks; i++) {
+        final int result = i;
+        tasks.add(() -> result);
+        expected.add(i);
+      }
+      assertEquals(expected, ConcurrencyUtil.invokeAll(executor, tasks));
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  public void testRejectedTasksRunOnCallingThread() throws Exception {
+    Thread caller = Thread.currentThread();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      tasks.add(() -> Thread.currentThread() == caller);
+    }
+    assertEquals(Arrays.asList(true, true, true), ConcurrencyUtil.invokeAll(task -> {
+      throw new RejectedExecutionException();
+    }, tasks));
+  }
+
+  public void testQueuedTasksRunOnCallingThread() throws Exception {
+    // an executor that never runs its tasks
+    List<Runnable> queued = new ArrayList<>();
+    List<Callable<String>> tasks = Arrays.asList(() -> "a", () -> "b", () -> "c");
+    assertEquals(Arrays.asList("a", "b", "c"), ConcurrencyUtil.invokeAll(queued::add, tasks));
+    assertEquals(2, queued.size());
+  }
+
+  public void testErrors() throws Exception {
+    List<Callable<Void>> tasks = new ArrayList<>();
+    tasks.add(() -> null);
+    tasks.add(() -> {
+      throw new IOException("first");
+    });
+    tasks.add(() -> {
+      throw new IllegalStateException("second");
+    });
+    IOException e = expectThrows(IOException.class, () -> ConcurrencyUtil.invokeAll(Runnable::run, tasks));
+    assertEquals("first", e.getMessage());
+    assertEquals(1, e.getSuppressed().length);
+    assertEquals("second", e.getSuppressed()[0].getMessage());
+  }
+}
@@ -16,12 +16,17 @@
  */
 package org.apache.lucene.util.automaton;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.TreeSet;
 
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 
 public class TestDaciukMihovAutomatonBuilder extends LuceneTestCase {
 
@@ -36,4 +41,45 @@ public class TestDaciukMihovAutomatonBuilder extends LuceneTestCase {
     DaciukMihovAutomatonBuilder.build(Collections.singleton(new BytesRef(b1k))); // no exception
   }
 
+  private static BytesRefIterator iterator(Iterable<BytesRef> terms) {
+    final Iterator<BytesRef> it = terms.iterator();
+    return () -> it.hasNext() ? it.next() : null;
+  }
+
+  public void testLargeBinaryTerms() throws IOException {
+    byte[] b10k = new byte[10_000];
+    Arrays.fill(b10k, (byte) 0xff);
+    IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+        () -> DaciukMihovAutomatonBuilder.buildBinary(iterator(Collections.singleton(new BytesRef(b10k)))));
+    assertTrue(e.getMessage().startsWith("This builder doesn't allow terms that are larger than 1,000 bytes"));
+
+    byte[] b1k = ArrayUtil.copyOfSubArray(b10k, 0, 1000);
+    DaciukMihovAutomatonBuilder.buildBinary(iterator(Collections.singleton(new BytesRef(b1k)))); // no exception
+  }
+
+  public void testRandomBinaryTerms() throws IOException {
+    int iters = atLeast(20);
+    for (int iter = 0; iter < iters; iter++) {
+      TreeSet<BytesRef> terms = new TreeSet<>();
+      int numTerms = TestUtil.nextInt(random(), 1, 200);
+      for (int i = 0; i < numTerms; i++) {
+        // arbitrary bytes, which need not be valid UTF-8
+        byte[] bytes = new byte[random().nextInt(6)];
+        random().nextBytes(bytes);
+        terms.add(new BytesRef(bytes));
+      }
+      Automaton a = Automata.makeBinaryStringUnion(iterator(terms));
+      assertTrue(a.isDeterministic());
+      assertEquals(MinimizationOperations.minimize(a, Operations.DEFAULT_DETERMINIZE_WORK_LIMIT).getNumStates(), a.getNumStates());
+      ByteRunAutomaton run = new ByteRunAutomaton(a, true, Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
+      for (BytesRef term : terms) {
+        assertTrue(run.run(term.bytes, term.offset, term.length));
+      }
+      for (int i = 0; i < 100; i++) {
+        byte[] bytes = new byte[random().nextInt(6)];
+        random().nextBytes(bytes);
+        assertEquals(terms.contains(new BytesRef(bytes)), run.run(bytes, 0, bytes.length));
+      }
+    }
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.automaton;
+
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+import static org.apache.lucene.util.automaton.Operations.DEFAULT_DETERMINIZE_WORK_LIMIT;
+
+public class TestNFARunAutomaton extends LuceneTestCase {
+
+  private static Automaton randomBinaryNFA() {
+    Automaton a;
+    do {
+      a = AutomatonTestUtil.randomAutomaton(random());
+    } while (Operations.isEmpty(a));
+    return Operations.removeDeadStates(new UTF32ToUTF8().convert(a));
+  }
+
+  /** Runs the same strings against the lazily determinized NFA and against its DFA */
+  public void testRandomRuns() {
+    int iters = atLeast(50);
+    for (int iter = 0; iter < iters; iter++) {
+      Automaton unicode;
+      do {
+        unicode = AutomatonTestUtil.randomAutomaton(random());
+      } while (Operations.isEmpty(unicode));
+      Automaton binary = Operations.removeDeadStates(new UTF32ToUTF8().convert(unicode));
+      ByteRunAutomaton dfa = new ByteRunAutomaton(binary, true, DEFAULT_DETERMINIZE_WORK_LIMIT);
+      NFARunAutomaton nfa = new NFARunAutomaton(binary);
+      AutomatonTestUtil.RandomAcceptedStrings accepted = new AutomatonTestUtil.RandomAcceptedStrings(unicode);
+      for (int i = 0; i < 100; i++) {
+        final String s;
+        if (random().nextBoolean()) {
+          int[] codePoints = accepted.getRandomAcceptedString(random());
+          s = new String(codePoints, 0, codePoints.length);
+        } else {
+          s = TestUtil.randomUnicodeString(random());
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        assertEquals(s, dfa.run(bytes, 0, bytes.length), nfa.run(bytes, 0, bytes.length));
+      }
+      assertTrue(nfa.getSize() <= dfa.getSize() + 1);
+    }
+  }
+
+  /** Determinizing all states of the NFA must give an automaton that accepts the same language */
+  public void testTransitions() {
+    int iters = atLeast(50);
+    for (int iter = 0; iter < iters; iter++) {
+      Automaton binary = randomBinaryNFA();
+      NFARunAutomaton nfa = new NFARunAutomaton(binary);
+      assertEquals(1, nfa.getSize());
+
+      // the number of states grows while we compute transitions
+      for (int state = 0; state < nfa.getSize(); state++) {
+        nfa.getNumTransitions(state);
+      }
+
+      Automaton determinized = new Automaton();
+      for (int state = 0; state < nfa.getSize(); state++) {
+        determinized.createState();
+        determinized.setAccept(state, nfa.isAccept(state));
+      }
+      Transition t = new Transition();
+      for (int state = 0; state < nfa.getSize(); state++) {
+        int count = nfa.initTransition(state, t);
+        assertEquals(count, nfa.getNumTransitions(state));
+        int previousMax = -1;
+        for (int i = 0; i < count; i++) {
+          nfa.getNextTransition(t);
+          assertTrue(t.min > previousMax);
+          assertTrue(t.min <= t.max);
+          previousMax = t.max;
+          for (int label = t.min; label <= t.max; label++) {
+            assertEquals(t.dest, nfa.step(state, label));
+          }
+          Transition t2 = new Transition();
+          nfa.getTransition(state, i, t2);
+          assertEquals(t.min, t2.min);
+          assertEquals(t.max, t2.max);
+          assertEquals(t.dest, t2.dest);
+          determinized.addTransition(state, t.dest, t.min, t.max);
+        }
+      }
+      determinized.finishState();
+      assertTrue(determinized.isDeterministic());
+      assertTrue(Operations.sameLanguage(Operations.determinize(binary, DEFAULT_DETERMINIZE_WORK_LIMIT), determinized));
+    }
+  }
+
+  /** An NFA whose DFA has exponentially many states only determinizes the states that are reached */
+  public void testLazyDeterminization() {
+    Automaton unicode = new RegExp("(a|b)*a(a|b){20}").toNFA(null, DEFAULT_DETERMINIZE_WORK_LIMIT);
+    expectThrows(TooComplexToDeterminizeException.class,
+        () -> Operations.determinize(unicode, DEFAULT_DETERMINIZE_WORK_LIMIT));
+    Automaton binary = Operations.removeDeadStates(new UTF32ToUTF8().convert(unicode));
+    NFARunAutomaton nfa = new NFARunAutomaton(binary);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 30; i++) {
+      sb.append(random().nextBoolean() ? 'a' : 'b');
+    }
+    String s = sb.toString();
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    assertEquals(s.charAt(s.length() - 21) == 'a', nfa.run(bytes, 0, bytes.length));
+    // each step creates at most the states of the transitions of the current state
+    assertTrue(nfa.getSize() <= 2 * s.length() + 1);
+  }
+}
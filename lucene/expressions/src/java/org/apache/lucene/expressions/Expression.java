@@ -88,6 +88,39 @@ public abstract class Expression {
    */
   public abstract double evaluate(DoubleValues[] functionValues);
 
+  /**
+   * Evaluates the expression for a block of documents.
+   * <p>
+   * Expressions compiled by {@link JavascriptCompiler} evaluate the whole block in a
+   * single loop over the arrays. The default implementation calls
+   * {@link #evaluate(DoubleValues[])} for each document.
+   *
+   * @param values Values of each element of {@link #variables}, for each document of the block.
+   * @param results Receives the computed value of the expression for each document of the block.
+   * @param count The number of documents in the block.
+   */
+  public void evaluate(double[][] values, double[] results, int count) {
+    final int[] doc = new int[1];
+    final DoubleValues[] functionValues = new DoubleValues[values.length];
+    for (int i = 0; i < values.length; i++) {
+      final double[] column = values[i];
+      functionValues[i] = new DoubleValues() {
+        @Override
+        public double doubleValue() {
+          return column[doc[0]];
+        }
+
+        @Override
+        public boolean advanceExact(int target) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+    for (doc[0] = 0; doc[0] < count; doc[0]++) {
+      results[doc[0]] = evaluate(functionValues);
+    }
+  }
+
   /**
    * Get a DoubleValuesSource which can compute the value of this expression in the context of the given bindings.
    * @param bindings Bindings to use for external values in this expression
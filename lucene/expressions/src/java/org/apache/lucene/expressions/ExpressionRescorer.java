@@ -18,16 +18,25 @@ package org.apache.lucene.expressions;
 
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.search.DoubleValuesSource;
 import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Rescorer;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortRescorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
 
 /**
  * A {@link Rescorer} that uses an expression to re-score
@@ -35,7 +44,8 @@ import org.apache.lucene.search.SortRescorer;
  * SortRescorer} (if you build the {@link Sort} using {@link
  * Expression#getSortField}), except for the explain method
  * which gives more detail by showing the value of each
- * variable.
+ * variable.  Hits are rescored in blocks of documents
+ * per segment, see {@link Expression#evaluate(double[][], double[], int)}.
  * 
  * @lucene.experimental
  */
@@ -44,13 +54,66 @@ class ExpressionRescorer extends SortRescorer {
 
   private final Expression expression;
   private final Bindings bindings;
+  private final SortField sortField;
 
   /** Uses the provided {@link Expression} to assign second
    *  pass scores. */
   public ExpressionRescorer(Expression expression, Bindings bindings) {
-    super(new Sort(expression.getSortField(bindings, true)));
+    this(expression, bindings, expression.getSortField(bindings, true));
+  }
+
+  private ExpressionRescorer(Expression expression, Bindings bindings, SortField sortField) {
+    super(new Sort(sortField));
     this.expression = expression;
     this.bindings = bindings;
+    this.sortField = sortField;
+  }
+
+  @Override
+  public TopDocs rescore(IndexSearcher searcher, TopDocs firstPassTopDocs, int topN) throws IOException {
+    DoubleValuesSource source = expression.getDoubleValuesSource(bindings).rewrite(searcher);
+    if (source instanceof ExpressionValueSource == false) {
+      return super.rescore(searcher, firstPassTopDocs, topN);
+    }
+    ExpressionValueSource valueSource = (ExpressionValueSource) source;
+
+    // Copy ScoreDoc[] and sort by ascending docID:
+    ScoreDoc[] hits = firstPassTopDocs.scoreDocs.clone();
+    Arrays.sort(hits, Comparator.comparingInt(sd -> sd.doc));
+
+    List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+    FieldDoc[] rescored = new FieldDoc[hits.length];
+    int[] docs = new int[hits.length];
+    double[] scores = new double[hits.length];
+    double[] values = new double[hits.length];
+
+    // Evaluate the hits of each segment at once:
+    int hitUpto = 0;
+    while (hitUpto < hits.length) {
+      LeafReaderContext readerContext = leaves.get(ReaderUtil.subIndex(hits[hitUpto].doc, leaves));
+      int endDoc = readerContext.docBase + readerContext.reader().maxDoc();
+      int count = 0;
+      for (int i = hitUpto; i < hits.length && hits[i].doc < endDoc; i++, count++) {
+        docs[count] = hits[i].doc - readerContext.docBase;
+        scores[count] = hits[i].score;
+      }
+      valueSource.evaluate(readerContext, docs, scores, count, values);
+      for (int i = 0; i < count; i++) {
+        ScoreDoc hit = hits[hitUpto + i];
+        rescored[hitUpto + i] = new FieldDoc(hit.doc, hit.score, new Object[] {values[i]});
+      }
+      hitUpto += count;
+    }
+
+    // Same order as the sort field: by descending value, then by ascending docID
+    Arrays.sort(rescored, (a, b) -> {
+      int cmp = Double.compare((Double) b.fields[0], (Double) a.fields[0]);
+      return cmp != 0 ? cmp : Integer.compare(a.doc, b.doc);
+    });
+    if (topN < rescored.length) {
+      rescored = Arrays.copyOf(rescored, topN);
+    }
+    return new TopFieldDocs(new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), rescored, new SortField[] {sortField});
   }
 
   private static DoubleValues scores(int doc, float score) {
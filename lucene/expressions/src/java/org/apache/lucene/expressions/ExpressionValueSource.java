@@ -80,6 +80,73 @@ class ExpressionValueSource extends DoubleValuesSource {
     return new ExpressionFunctionValues(expression, externalValues);
   }
 
+  /** The number of documents that {@link #evaluate(LeafReaderContext, int[], double[], int, double[])} evaluates at once */
+  static final int BATCH_SIZE = 256;
+
+  /**
+   * Evaluates the expression for the given documents of a segment, which must be sorted in
+   * increasing order. Values of each variable are fetched for a block of documents at a time,
+   * and then the expression is evaluated over the whole block.
+   *
+   * @param docs the documents, relative to the segment
+   * @param scores the score of each document
+   * @param count the number of documents
+   * @param results receives the value of the expression for each document
+   */
+  void evaluate(LeafReaderContext readerContext, int[] docs, double[] scores, int count, double[] results) throws IOException {
+    DoubleValues scoreValues = new DoubleValues() {
+      int index = -1;
+
+      @Override
+      public double doubleValue() {
+        return scores[index];
+      }
+
+      @Override
+      public boolean advanceExact(int doc) {
+        index = Arrays.binarySearch(docs, 0, count, doc);
+        return index >= 0;
+      }
+    };
+
+    Map<String, Integer> firstIndex = new HashMap<>();
+    DoubleValues[] externalValues = new DoubleValues[variables.length];
+    for (int i = 0; i < variables.length; ++i) {
+      // variables with the same name share their values, which may only be iterated once
+      if (firstIndex.putIfAbsent(expression.variables[i], i) == null) {
+        externalValues[i] = variables[i].getValues(readerContext, scoreValues);
+        if (externalValues[i] == null) {
+          throw new RuntimeException("Unrecognized variable (" + expression.variables[i] + ") referenced in expression (" +
+              expression.sourceText + ").");
+        }
+      }
+    }
+
+    final int blockSize = Math.min(count, BATCH_SIZE);
+    final double[][] values = new double[variables.length][];
+    final double[] blockResults = new double[blockSize];
+    for (int i = 0; i < variables.length; ++i) {
+      int first = firstIndex.get(expression.variables[i]);
+      values[i] = first == i ? new double[blockSize] : values[first];
+    }
+
+    for (int start = 0; start < count; start += blockSize) {
+      final int end = Math.min(count, start + blockSize);
+      for (int i = 0; i < variables.length; ++i) {
+        DoubleValues v = externalValues[i];
+        if (v == null) {
+          continue;
+        }
+        final double[] column = values[i];
+        for (int doc = start; doc < end; ++doc) {
+          column[doc - start] = v.advanceExact(docs[doc]) ? v.doubleValue() : 0;
+        }
+      }
+      expression.evaluate(values, blockResults, end - start);
+      System.arraycopy(blockResults, 0, results, start, end - start);
+    }
+  }
+
   static DoubleValues zeroWhenUnpositioned(DoubleValues in) {
     return new DoubleValues() {
 
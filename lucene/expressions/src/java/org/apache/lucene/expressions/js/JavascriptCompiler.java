@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.IntConsumer;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -94,10 +95,12 @@ public final class JavascriptCompiler {
   
   static final Type EXPRESSION_TYPE = Type.getType(Expression.class);
   static final Type FUNCTION_VALUES_TYPE = Type.getType(DoubleValues.class);
+  private static final Type DOUBLE_ARRAY_TYPE = Type.getType(double[].class);
 
   private static final org.objectweb.asm.commons.Method
     EXPRESSION_CTOR = getAsmMethod(void.class, "<init>", String.class, String[].class),
-    EVALUATE_METHOD = getAsmMethod(double.class, "evaluate", DoubleValues[].class);
+    EVALUATE_METHOD = getAsmMethod(double.class, "evaluate", DoubleValues[].class),
+    EVALUATE_BATCH_METHOD = getAsmMethod(void.class, "evaluate", double[][].class, double[].class, int.class);
 
   static final org.objectweb.asm.commons.Method DOUBLE_VAL_METHOD = getAsmMethod(double.class, "doubleValue");
   
@@ -245,7 +248,69 @@ public final class JavascriptCompiler {
     
     final GeneratorAdapter gen = new GeneratorAdapter(Opcodes.ACC_PUBLIC,
         EVALUATE_METHOD, null, null, classWriter);
-    
+    generateExpression(parseTree, gen, externalsMap, index -> {
+      gen.loadArg(0);
+      gen.push(index);
+      gen.arrayLoad(FUNCTION_VALUES_TYPE);
+      gen.invokeVirtual(FUNCTION_VALUES_TYPE, DOUBLE_VAL_METHOD);
+    });
+    gen.returnValue();
+    gen.endMethod();
+
+    // externalsMap is complete now, so the batch method can load the value arrays up-front
+    generateBatchEvaluate(parseTree, classWriter, externalsMap);
+
+    classWriter.visitEnd();
+  }
+
+  /**
+   * Generates the block form of evaluate, which loops over the documents of the block
+   * and reads the variables from primitive arrays rather than {@link DoubleValues}.
+   */
+  private void generateBatchEvaluate(final ParseTree parseTree, final ClassWriter classWriter, final Map<String, Integer> externalsMap) {
+    final GeneratorAdapter gen = new GeneratorAdapter(Opcodes.ACC_PUBLIC,
+        EVALUATE_BATCH_METHOD, null, null, classWriter);
+
+    final int[] columns = new int[externalsMap.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = gen.newLocal(DOUBLE_ARRAY_TYPE);
+      gen.loadArg(0);
+      gen.push(i);
+      gen.arrayLoad(DOUBLE_ARRAY_TYPE);
+      gen.storeLocal(columns[i]);
+    }
+
+    final int doc = gen.newLocal(Type.INT_TYPE);
+    gen.push(0);
+    gen.storeLocal(doc);
+    final Label loop = gen.mark();
+    final Label end = new Label();
+    gen.loadLocal(doc);
+    gen.loadArg(2);
+    gen.ifICmp(GeneratorAdapter.GE, end);
+
+    gen.loadArg(1);
+    gen.loadLocal(doc);
+    generateExpression(parseTree, gen, externalsMap, index -> {
+      gen.loadLocal(columns[index]);
+      gen.loadLocal(doc);
+      gen.arrayLoad(Type.DOUBLE_TYPE);
+    });
+    gen.arrayStore(Type.DOUBLE_TYPE);
+
+    gen.iinc(doc, 1);
+    gen.goTo(loop);
+    gen.mark(end);
+    gen.returnValue();
+    gen.endMethod();
+  }
+
+  /**
+   * Pushes the value of the expression as a double on the stack of the given method,
+   * using {@code variableLoader} to push the value of the variable with the given index.
+   */
+  private void generateExpression(final ParseTree parseTree, final GeneratorAdapter gen,
+                                  final Map<String, Integer> externalsMap, final IntConsumer variableLoader) {
     // to completely hide the ANTLR visitor we use an anonymous impl:
     new JavascriptBaseVisitor<Void>() {
       private final Deque<Type> typeStack = new ArrayDeque<>();
@@ -324,10 +389,7 @@ public final class JavascriptCompiler {
               externalsMap.put(text, index);
             }
   
-            gen.loadArg(0);
-            gen.push(index);
-            gen.arrayLoad(FUNCTION_VALUES_TYPE);
-            gen.invokeVirtual(FUNCTION_VALUES_TYPE, DOUBLE_VAL_METHOD);
+            variableLoader.accept(index);
             gen.cast(Type.DOUBLE_TYPE, typeStack.peek());
           } else {
             throw new ParseException("Invalid expression '" + sourceText + "': Unrecognized function call (" +
@@ -627,11 +689,6 @@ public final class JavascriptCompiler {
         }
       }
     }.visit(parseTree);
-    
-    gen.returnValue();
-    gen.endMethod();
-    
-    classWriter.visitEnd();
   }
 
   static String normalizeQuotes(String text) {
@@ -26,14 +26,19 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Rescorer;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortRescorer;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.similarities.ClassicSimilarity;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 
 public class TestExpressionRescorer extends LuceneTestCase {
   IndexSearcher searcher;
@@ -117,4 +122,47 @@ public class TestExpressionRescorer extends LuceneTestCase {
     assertTrue(expl.contains("= first pass score"));
     assertTrue(expl.contains("body:contents in"));
   }
+
+  public void testSameAsSortRescorer() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter iw = new RandomIndexWriter(random(), dir);
+    int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      if (random().nextInt(10) != 0) {
+        doc.add(new NumericDocValuesField("popularity", random().nextInt(50)));
+      }
+      doc.add(new NumericDocValuesField("boost", random().nextInt(3)));
+      iw.addDocument(doc);
+    }
+    IndexReader reader = iw.getReader();
+    iw.close();
+    IndexSearcher searcher = newSearcher(reader);
+
+    Expression e = JavascriptCompiler.compile("boost * _score + ln(popularity + 1) - popularity / (boost + 1)");
+    SimpleBindings bindings = new SimpleBindings();
+    bindings.add("popularity", DoubleValuesSource.fromIntField("popularity"));
+    bindings.add("boost", DoubleValuesSource.fromIntField("boost"));
+    bindings.add("_score", DoubleValuesSource.SCORES);
+
+    TopDocs firstPass = searcher.search(new MatchAllDocsQuery(), TestUtil.nextInt(random(), 1, numDocs));
+    for (int i = 0; i < firstPass.scoreDocs.length; i++) {
+      firstPass.scoreDocs[i].score = random().nextFloat();
+    }
+    int numHits = firstPass.scoreDocs.length;
+    TopDocs expected = new SortRescorer(new Sort(e.getSortField(bindings, true))).rescore(searcher, firstPass, numHits);
+    int topN = TestUtil.nextInt(random(), 1, numHits);
+    TopDocs actual = e.getRescorer(bindings).rescore(searcher, firstPass, topN);
+
+    assertEquals(expected.totalHits, actual.totalHits);
+    assertEquals(topN, actual.scoreDocs.length);
+    for (int i = 0; i < topN; i++) {
+      assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+      assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, 0f);
+      assertEquals(((FieldDoc) expected.scoreDocs[i]).fields[0], ((FieldDoc) actual.scoreDocs[i]).fields[0]);
+    }
+
+    reader.close();
+    dir.close();
+  }
 }
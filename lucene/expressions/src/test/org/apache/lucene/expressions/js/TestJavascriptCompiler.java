@@ -19,6 +19,7 @@ package org.apache.lucene.expressions.js;
 import java.text.ParseException;
 
 import org.apache.lucene.expressions.Expression;
+import org.apache.lucene.search.DoubleValues;
 import org.apache.lucene.util.LuceneTestCase;
 
 public class TestJavascriptCompiler extends LuceneTestCase {
@@ -195,4 +196,48 @@ public class TestJavascriptCompiler extends LuceneTestCase {
     x = JavascriptCompiler.compile("foo['\\\\'][\"\\\\\"]");
     assertEquals("foo['\\\\']['\\\\']", x.variables[0]);
   }
+
+  public void testBatchEvaluate() throws Exception {
+    String[] sources = new String[] {
+        "42",
+        "a + b * 2 - c / 3",
+        "sqrt(abs(a)) + ln(abs(b) + 1) * max(a, c)",
+        "a > b ? a % 7 : (b && c) + (a << 2)",
+        "a == b || !c ? -a : ~b",
+        "b + b * a + b"
+    };
+    for (String source : sources) {
+      Expression expr = JavascriptCompiler.compile(source);
+      // delegates to the compiled evaluate, to check the default batch implementation too
+      Expression perDocument = new Expression(expr.sourceText, expr.variables) {
+        @Override
+        public double evaluate(DoubleValues[] functionValues) {
+          return expr.evaluate(functionValues);
+        }
+      };
+
+      int count = random().nextInt(100);
+      double[][] values = new double[expr.variables.length][count + random().nextInt(3)];
+      for (double[] column : values) {
+        for (int i = 0; i < column.length; i++) {
+          column[i] = random().nextBoolean() ? random().nextInt(10) : random().nextDouble() * 100 - 50;
+        }
+      }
+
+      double[] results = new double[count];
+      expr.evaluate(values, results, count);
+      double[] defaultResults = new double[count];
+      perDocument.evaluate(values, defaultResults, count);
+      for (int doc = 0; doc < count; doc++) {
+        DoubleValues[] functionValues = new DoubleValues[values.length];
+        for (int i = 0; i < values.length; i++) {
+          double value = values[i][doc];
+          functionValues[i] = DoubleValues.withDefault(DoubleValues.EMPTY, value);
+        }
+        double expected = expr.evaluate(functionValues);
+        assertEquals(source, expected, results[doc], 0d);
+        assertEquals(source, expected, defaultResults[doc], 0d);
+      }
+    }
+  }
 }
@@ -19,6 +19,7 @@ package org.apache.lucene.facet.range;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.lucene.document.DoublePoint;
 import org.apache.lucene.document.FloatDocValuesField;
 import org.apache.lucene.facet.Facets;
 import org.apache.lucene.facet.FacetsCollector;
@@ -58,6 +59,23 @@ public class DoubleRangeFacetCounts extends RangeFacetCounts {
     this(field, null, hits, ranges);
   }
 
+  /**
+   * Create {@code RangeFacetCounts}, using double value from the specified field. If {@code
+   * usePoints} is true, the field must also be indexed as a {@link DoublePoint} with the same
+   * values as its doc values, and segments where many documents match are counted from the points
+   * index, which counts whole cells that fall into a single range without reading doc values.
+   * Segments where few documents match or that have several values per document are still counted
+   * from doc values.
+   *
+   * <p>N.B This assumes that the field was indexed with {@link
+   * org.apache.lucene.document.DoubleDocValuesField}, see {@link
+   * #DoubleRangeFacetCounts(String, FacetsCollector, DoubleRange...)}.
+   */
+  public DoubleRangeFacetCounts(String field, FacetsCollector hits, boolean usePoints, DoubleRange... ranges) throws IOException {
+    super(field, ranges, null);
+    count(field, hits.getMatchingDocs(), usePoints);
+  }
+
   /**
    * Create {@code RangeFacetCounts}, using the provided {@link DoubleValuesSource} if non-null. If
    * {@code valueSource} is null, doc values from the provided {@code field} will be used.
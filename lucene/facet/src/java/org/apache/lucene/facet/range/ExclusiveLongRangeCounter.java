@@ -116,6 +116,16 @@ class ExclusiveLongRangeCounter extends LongRangeCounter {
     }
   }
 
+  @Override
+  protected void processSingleValuedHits(int elementaryIntervalNum, int count) {
+    int rangeNum = rangeNums[elementaryIntervalNum];
+    if (rangeNum != -1) {
+      increment(rangeNum, count);
+    } else {
+      missingCount += count;
+    }
+  }
+
   @Override
   protected void processMultiValuedHit(int elementaryIntervalNum) {
     int rangeNum = rangeNums[elementaryIntervalNum];
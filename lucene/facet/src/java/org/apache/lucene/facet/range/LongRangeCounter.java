@@ -113,6 +113,21 @@ abstract class LongRangeCounter {
     }
   }
 
+  /**
+   * Count {@code count} single valued docs whose values all fall in the given elementary interval,
+   * see {@link #elementaryInterval(long)}.
+   */
+  void addSingleValued(int elementaryIntervalNum, int count) {
+    processSingleValuedHits(elementaryIntervalNum, count);
+  }
+
+  /** Return the number of the elementary interval that contains the given value. */
+  int elementaryInterval(long v) {
+    // the last boundary is Long.MAX_VALUE, so there is always a match
+    int index = Arrays.binarySearch(boundaries(), v);
+    return index < 0 ? -1 - index : index;
+  }
+
   /** Count a multi-valued doc value */
   void addMultiValued(long v) {
 
@@ -172,6 +187,9 @@ abstract class LongRangeCounter {
   /** Process a single-value "hit" against an elementary interval. */
   protected abstract void processSingleValuedHit(int elementaryIntervalNum);
 
+  /** Process {@code count} single-value "hits" against an elementary interval. */
+  protected abstract void processSingleValuedHits(int elementaryIntervalNum, int count);
+
   /** Process a multi-value "hit" against an elementary interval. */
   protected abstract void processMultiValuedHit(int elementaryIntervalNum);
 
@@ -19,6 +19,7 @@ package org.apache.lucene.facet.range;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.facet.Facets;
 import org.apache.lucene.facet.FacetsCollector;
 import org.apache.lucene.facet.FacetsCollector.MatchingDocs;
@@ -27,6 +28,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.LongValues;
 import org.apache.lucene.search.LongValuesSource;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
 
 /**
@@ -48,6 +50,20 @@ public class LongRangeFacetCounts extends RangeFacetCounts {
     this(field, null, hits, ranges);
   }
 
+  /**
+   * Create {@code LongRangeFacetCounts} using long values from the specified field. If {@code
+   * usePoints} is true, the field must also be indexed as a {@link LongPoint} with the same values
+   * as its doc values, and segments where many documents match are counted from the points index,
+   * which counts whole cells that fall into a single range without reading doc values. This makes
+   * counting broad queries, such as {@link MatchAllDocsQuery}, much cheaper. Segments where few
+   * documents match or that have several values per document are still counted from doc values.
+   */
+  public LongRangeFacetCounts(String field, FacetsCollector hits, boolean usePoints, LongRange... ranges)
+      throws IOException {
+    super(field, ranges, null);
+    count(field, hits.getMatchingDocs(), usePoints);
+  }
+
   /**
    * Create {@code LongRangeFacetCounts}, using the provided {@link LongValuesSource} if non-null.
    * If {@code valueSource} is null, doc values from the provided {@code field} will be used.
@@ -152,6 +152,17 @@ class OverlappingLongRangeCounter extends LongRangeCounter {
     hasUnflushedCounts = true;
   }
 
+  @Override
+  protected void processSingleValuedHits(int elementaryIntervalNum, int count) {
+    // Lazy init:
+    if (singleValuedElementaryIntervalCounts == null) {
+      singleValuedElementaryIntervalCounts = new int[boundaries.length];
+    }
+
+    singleValuedElementaryIntervalCounts[elementaryIntervalNum] += count;
+    hasUnflushedCounts = true;
+  }
+
   @Override
   protected void processMultiValuedHit(int elementaryIntervalNum) {
     assert multiValuedDocElementaryIntervalHits != null : "must call startDoc() first";
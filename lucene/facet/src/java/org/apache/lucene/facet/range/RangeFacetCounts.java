@@ -17,6 +17,7 @@
 package org.apache.lucene.facet.range;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -27,7 +28,11 @@ import org.apache.lucene.facet.FacetsCollector;
 import org.apache.lucene.facet.LabelAndValue;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexReaderContext;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.PointValues.IntersectVisitor;
+import org.apache.lucene.index.PointValues.Relation;
 import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.search.ConjunctionDISI;
@@ -37,6 +42,8 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.NumericUtils;
 
 /** Base class for range faceting.
  *
@@ -107,6 +114,35 @@ abstract class RangeFacetCounts extends Facets {
   /** Counts from the provided field. */
   protected void count(String field, List<FacetsCollector.MatchingDocs> matchingDocs)
       throws IOException {
+    count(field, matchingDocs, false);
+  }
+
+  /**
+   * Counts from the provided field. If {@code usePoints} is true, the field must also be indexed
+   * as one-dimensional 8-byte points that hold the same sortable values as the doc values, such as
+   * {@link org.apache.lucene.document.LongPoint} for long ranges or {@link
+   * org.apache.lucene.document.DoublePoint} for double ranges. Segments where at least a quarter
+   * of the documents match and that have a single point per document are then counted from the
+   * points index: cells of the points tree whose values all fall in the same elementary interval of
+   * the ranges are counted as a whole. Other segments are counted from doc values.
+   */
+  protected void count(String field, List<FacetsCollector.MatchingDocs> matchingDocs, boolean usePoints)
+      throws IOException {
+
+    LongRangeCounter counter = LongRangeCounter.create(getLongRanges(), counts);
+
+    if (usePoints && fastMatchQuery == null && ranges.length > 0) {
+      List<FacetsCollector.MatchingDocs> docValuesDocs = new ArrayList<>();
+      for (FacetsCollector.MatchingDocs hits : matchingDocs) {
+        int counted = countFromPoints(field, hits, counter);
+        if (counted == -1) {
+          docValuesDocs.add(hits);
+        } else {
+          totCount += counted;
+        }
+      }
+      matchingDocs = docValuesDocs;
+    }
 
     // load doc values for all segments up front and keep track of whether-or-not we found any that
     // were actually multi-valued. this allows us to optimize the case where all segments contain
@@ -143,8 +179,6 @@ abstract class RangeFacetCounts extends Facets {
       multiValuedDocVals = null;
     }
 
-    LongRangeCounter counter = LongRangeCounter.create(getLongRanges(), counts);
-
     int missingCount = 0;
 
     // if we didn't find any multi-valued cases, we can run a more optimal counting algorithm
@@ -211,6 +245,85 @@ abstract class RangeFacetCounts extends Facets {
     totCount -= missingCount;
   }
 
+  /**
+   * Counts the hits of one segment by intersecting the points of {@code field} with the elementary
+   * intervals of the ranges, instead of reading the doc values of every hit. Cells of the points
+   * tree whose values all fall in the same elementary interval are counted without decoding their
+   * values, and if all documents of the segment match, from the number of points of their leaves
+   * without visiting their documents. This is only cheaper than doc values when many documents
+   * match, so this returns -1 without counting anything for segments where less than a quarter of
+   * the documents match, or that have no single-valued points. Otherwise, this returns the number
+   * of hits that have a value.
+   */
+  private static int countFromPoints(String field, FacetsCollector.MatchingDocs hits, LongRangeCounter counter) throws IOException {
+    final LeafReader reader = hits.context.reader();
+    final int maxDoc = reader.maxDoc();
+    if (hits.totalHits < maxDoc >>> 2) {
+      return -1;
+    }
+    final PointValues points = reader.getPointValues(field);
+    if (points == null
+        || points.getNumIndexDimensions() != 1
+        || points.getBytesPerDimension() != Long.BYTES
+        || points.size() != points.getDocCount()) {
+      return -1;
+    }
+    final Bits acceptDocs;
+    if (hits.totalHits == maxDoc) {
+      // all documents match, and there are no deletions
+      acceptDocs = null;
+    } else {
+      acceptDocs = hits.bits.bits();
+      if (acceptDocs == null) {
+        return -1;
+      }
+    }
+
+    final int[] counted = new int[1];
+    points.intersect(new IntersectVisitor() {
+      // the elementary interval of the last cell that was inside a single interval
+      int cellInterval;
+
+      @Override
+      public Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+        int min = counter.elementaryInterval(NumericUtils.sortableBytesToLong(minPackedValue, 0));
+        int max = counter.elementaryInterval(NumericUtils.sortableBytesToLong(maxPackedValue, 0));
+        if (min == max) {
+          cellInterval = min;
+          return Relation.CELL_INSIDE_QUERY;
+        }
+        return Relation.CELL_CROSSES_QUERY;
+      }
+
+      @Override
+      public boolean visitCount(int count) {
+        if (acceptDocs != null) {
+          return false;
+        }
+        counter.addSingleValued(cellInterval, count);
+        counted[0] += count;
+        return true;
+      }
+
+      @Override
+      public void visit(int docID) {
+        if (acceptDocs == null || acceptDocs.get(docID)) {
+          counter.addSingleValued(cellInterval, 1);
+          counted[0]++;
+        }
+      }
+
+      @Override
+      public void visit(int docID, byte[] packedValue) {
+        if (acceptDocs == null || acceptDocs.get(docID)) {
+          counter.addSingleValued(NumericUtils.sortableBytesToLong(packedValue, 0));
+          counted[0]++;
+        }
+      }
+    });
+    return counted[0];
+  }
+
   @Override
   public FacetResult getTopChildren(int topN, String dim, String... path) {
     if (dim.equals(field) == false) {
@@ -17,8 +17,13 @@
 package org.apache.lucene.facet.taxonomy;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.facet.FacetsCollector.MatchingDocs;
 import org.apache.lucene.facet.FacetsCollector;
@@ -28,9 +33,14 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.ConjunctionDISI;
 import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.ConcurrencyUtil;
+
+import com.carrotsearch.hppc.IntIntScatterMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
 
 /** Computes facets counts, assuming the default encoding
  *  into DocValues was used.
@@ -54,6 +64,40 @@ public class FastTaxonomyFacetCounts extends IntTaxonomyFacets {
     count(fc.getMatchingDocs());
   }
 
+  /** Create {@code FastTaxonomyFacetCounts}, using the
+   *  specified {@code indexFieldName} for ordinals, and
+   *  counting segments concurrently with the given executor,
+   *  typically {@link IndexSearcher#getExecutor()}. Every
+   *  thread that counts segments gets its own counts, which
+   *  are summed once all segments have been counted, so this
+   *  needs one additional int[] of the size of the taxonomy
+   *  per counting thread when counts are dense. Segments are
+   *  counted by the calling thread if the executor is
+   *  {@code null} or rejects them. */
+  public FastTaxonomyFacetCounts(String indexFieldName, TaxonomyReader taxoReader, FacetsConfig config, FacetsCollector fc, Executor executor) throws IOException {
+    super(indexFieldName, taxoReader, config, fc);
+    final List<MatchingDocs> matchingDocs = fc.getMatchingDocs();
+    if (executor == null || matchingDocs.size() <= 1) {
+      count(matchingDocs);
+    } else {
+      final boolean sparse = useHashTable(fc, taxoReader);
+      final Queue<SliceCounts> sliceCounts = new ConcurrentLinkedQueue<>();
+      final List<Callable<Void>> tasks = new ArrayList<>();
+      for (MatchingDocs hits : matchingDocs) {
+        tasks.add(() -> {
+          BinaryDocValues dv = hits.context.reader().getBinaryDocValues(indexFieldName);
+          if (dv != null) { // this reader does not have DocValues for the requested category list
+            DocIdSetIterator it = ConjunctionDISI.intersectIterators(Arrays.asList(
+                hits.bits.iterator(), dv));
+            countSegment(dv, it, null, sliceCounts, sparse);
+          }
+          return null;
+        });
+      }
+      countConcurrently(executor, tasks, sliceCounts);
+    }
+  }
+
   /** Create {@code FastTaxonomyFacetCounts}, using the
    *  specified {@code indexFieldName} for ordinals, and
    *  counting all non-deleted documents in the index.  This is 
@@ -64,6 +108,108 @@ public class FastTaxonomyFacetCounts extends IntTaxonomyFacets {
     countAll(reader);
   }
 
+  /** Create {@code FastTaxonomyFacetCounts}, using the
+   *  specified {@code indexFieldName} for ordinals, and
+   *  counting all non-deleted documents in the index
+   *  concurrently with the given executor. See {@link
+   *  #FastTaxonomyFacetCounts(String, TaxonomyReader, FacetsConfig, FacetsCollector, Executor)}. */
+  public FastTaxonomyFacetCounts(String indexFieldName, IndexReader reader, TaxonomyReader taxoReader, FacetsConfig config, Executor executor) throws IOException {
+    super(indexFieldName, taxoReader, config, null);
+    if (executor == null || reader.leaves().size() <= 1) {
+      countAll(reader);
+    } else {
+      final Queue<SliceCounts> sliceCounts = new ConcurrentLinkedQueue<>();
+      final List<Callable<Void>> tasks = new ArrayList<>();
+      for (LeafReaderContext context : reader.leaves()) {
+        tasks.add(() -> {
+          BinaryDocValues dv = context.reader().getBinaryDocValues(indexFieldName);
+          if (dv != null) { // this reader does not have DocValues for the requested category list
+            countSegment(dv, dv, context.reader().getLiveDocs(), sliceCounts, false);
+          }
+          return null;
+        });
+      }
+      countConcurrently(executor, tasks, sliceCounts);
+    }
+  }
+
+  /** Counts of one thread, which counts one segment at a time. */
+  private static final class SliceCounts {
+    final int[] values;
+    final IntIntScatterMap sparseValues;
+
+    SliceCounts(int size, boolean sparse) {
+      if (sparse) {
+        sparseValues = new IntIntScatterMap();
+        values = null;
+      } else {
+        sparseValues = null;
+        values = new int[size];
+      }
+    }
+  }
+
+  private void countSegment(BinaryDocValues dv, DocIdSetIterator it, Bits liveDocs, Queue<SliceCounts> sliceCounts, boolean sparse) throws IOException {
+    // reuse the counts of a segment that is done, so that there are at most as many counts as threads
+    SliceCounts counts = sliceCounts.poll();
+    if (counts == null) {
+      counts = new SliceCounts(taxoReader.getSize(), sparse);
+    }
+    try {
+      final int[] values = counts.values;
+      final IntIntScatterMap sparseValues = counts.sparseValues;
+      for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+        if (liveDocs != null && liveDocs.get(doc) == false) {
+          continue;
+        }
+        final BytesRef bytesRef = dv.binaryValue();
+        byte[] bytes = bytesRef.bytes;
+        int end = bytesRef.offset + bytesRef.length;
+        int ord = 0;
+        int offset = bytesRef.offset;
+        int prev = 0;
+        while (offset < end) {
+          byte b = bytes[offset++];
+          if (b >= 0) {
+            prev = ord = ((ord << 7) | b) + prev;
+            if (sparseValues != null) {
+              sparseValues.addTo(ord, 1);
+            } else {
+              values[ord]++;
+            }
+            ord = 0;
+          } else {
+            ord = (ord << 7) | (b & 0x7F);
+          }
+        }
+      }
+    } finally {
+      sliceCounts.offer(counts);
+    }
+  }
+
+  private void countConcurrently(Executor executor, List<Callable<Void>> tasks, Queue<SliceCounts> sliceCounts) throws IOException {
+    ConcurrencyUtil.invokeAll(executor, tasks);
+
+    // all tasks are done, so all counts are back in the queue
+    for (SliceCounts counts : sliceCounts) {
+      if (counts.sparseValues != null) {
+        for (IntIntCursor c : counts.sparseValues) {
+          increment(c.key, c.value);
+        }
+      } else {
+        final int[] values = counts.values;
+        for (int ord = 0; ord < values.length; ord++) {
+          if (values[ord] != 0) {
+            increment(ord, values[ord]);
+          }
+        }
+      }
+    }
+
+    rollup();
+  }
+
   private final void count(List<MatchingDocs> matchingDocs) throws IOException {
     for(MatchingDocs hits : matchingDocs) {
       BinaryDocValues dv = hits.context.reader().getBinaryDocValues(indexFieldName);
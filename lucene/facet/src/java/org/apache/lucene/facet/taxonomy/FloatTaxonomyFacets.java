@@ -148,8 +148,7 @@ public abstract class FloatTaxonomyFacets extends TaxonomyFacets {
     LabelAndValue[] labelValues = new LabelAndValue[q.size()];
     for(int i=labelValues.length-1;i>=0;i--) {
       TopOrdAndFloatQueue.OrdAndValue ordAndValue = q.pop();
-      FacetLabel child = taxoReader.getPath(ordAndValue.ord);
-      labelValues[i] = new LabelAndValue(child.components[cp.length], ordAndValue.value);
+      labelValues[i] = new LabelAndValue(taxoReader.getPathComponent(ordAndValue.ord), ordAndValue.value);
     }
 
     return new FacetResult(dim, path, sumValues, labelValues, childCount);
@@ -230,7 +230,21 @@ public abstract class TaxonomyReader implements Closeable {
   
   /** Returns the path name of the category with the given ordinal. */
   public abstract FacetLabel getPath(int ordinal) throws IOException;
-  
+
+  /**
+   * Returns the last component of the path of the category with the given
+   * ordinal, or {@code null} if the ordinal is invalid or is the root. This is
+   * the label of the category among the children of its parent. The default
+   * implementation returns the last component of {@link #getPath(int)}.
+   */
+  public String getPathComponent(int ordinal) throws IOException {
+    FacetLabel path = getPath(ordinal);
+    if (path == null || path.length == 0) {
+      return null;
+    }
+    return path.components[path.length - 1];
+  }
+
   /** Returns the current refCount for this taxonomy reader. */
   public final int getRefCount() {
     return refCount.get();
@@ -76,6 +76,8 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
   private LRUHashMap<Integer, FacetLabel> categoryCache;
 
   private volatile TaxonomyIndexArrays taxoArrays;
+  private volatile TaxonomyIndexLabels taxoLabels;
+  private volatile boolean useOffHeapLabels;
 
   /**
    * Called only from {@link #doOpenIfChanged()}. If the taxonomy has been
@@ -150,6 +152,7 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
   protected void doClose() throws IOException {
     indexReader.close();
     taxoArrays = null;
+    taxoLabels = null;
     // do not clear() the caches, as they may be used by other DTR instances.
     ordinalCache = null;
     categoryCache = null;
@@ -209,6 +212,12 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
       } else {
         newtr = new DirectoryTaxonomyReader(r2, taxoWriter, ordinalCache, categoryCache, taxoArrays);
       }
+      if (useOffHeapLabels) {
+        // build the labels now rather than on the first facet request, only
+        // the labels of new categories are loaded if the taxonomy was not recreated
+        newtr.taxoLabels = new TaxonomyIndexLabels(r2, recreated ? null : taxoLabels);
+        newtr.useOffHeapLabels = true;
+      }
       
       success = true;
       return newtr;
@@ -312,6 +321,10 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
     if (ordinal < 0 || ordinal >= indexReader.maxDoc()) {
       return null;
     }
+
+    if (useOffHeapLabels) {
+      return new FacetLabel(taxoLabels.getPath(ordinal, getParallelTaxonomyArrays().parents()));
+    }
     
     // TODO: can we use an int-based hash impl, such as IntToObjectMap,
     // wrapped as LRU?
@@ -332,6 +345,18 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
     return ret;
   }
 
+  @Override
+  public String getPathComponent(int ordinal) throws IOException {
+    ensureOpen();
+    if (useOffHeapLabels == false) {
+      return super.getPathComponent(ordinal);
+    }
+    if (ordinal < 0 || ordinal >= indexReader.maxDoc()) {
+      return null;
+    }
+    return taxoLabels.getPathComponent(ordinal);
+  }
+
   @Override
   public int getSize() {
     ensureOpen();
@@ -401,6 +426,32 @@ public class DirectoryTaxonomyReader extends TaxonomyReader implements Accountab
     }
   }
 
+  /**
+   * Controls whether {@link #getPath(int)} and {@link #getPathComponent(int)}
+   * read labels from a compact store that is kept in direct (off-heap)
+   * buffers, rather than from the taxonomy index through the category cache.
+   * The store holds the labels of all categories and is built by this method,
+   * so that lookups never miss, which makes it a good fit for large taxonomies
+   * that would otherwise thrash the cache. Readers that are reopened from this
+   * reader also use it, and build their store when they are opened by only
+   * loading the labels of new categories. Defaults to {@code false}.
+   * 
+   * @lucene.experimental
+   */
+  public synchronized void setUseOffHeapLabels(boolean useOffHeapLabels) throws IOException {
+    ensureOpen();
+    if (useOffHeapLabels && taxoLabels == null) {
+      taxoLabels = new TaxonomyIndexLabels(indexReader);
+    }
+    this.useOffHeapLabels = useOffHeapLabels;
+  }
+
+  /** Returns whether labels are read from the off-heap store.
+   * @see #setUseOffHeapLabels(boolean) */
+  public boolean getUseOffHeapLabels() {
+    return useOffHeapLabels;
+  }
+
   /** Returns ordinal -&gt; label mapping, up to the provided
    *  max ordinal or number of ordinals, whichever is
    *  smaller. */
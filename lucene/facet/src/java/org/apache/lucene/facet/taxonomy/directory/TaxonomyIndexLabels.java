@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.facet.taxonomy.directory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+
+/**
+ * Stores the last path component of every category of the taxonomy index in
+ * direct (off-heap) buffers. The full path of a category can be reassembled
+ * from its ancestors, which are given by
+ * {@link TaxonomyIndexArrays#parents()}.
+ * <p>
+ * Ordinals are split in pages of {@code 1 << PAGE_SHIFT} categories. A page
+ * starts with the offsets of its labels, followed by the UTF-8 bytes of the
+ * labels. Full pages never change, so they are shared with the labels of
+ * reopened readers.
+ *
+ * @lucene.experimental
+ */
+class TaxonomyIndexLabels {
+
+  static final int PAGE_SHIFT = 14;
+  static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final ByteBuffer[] pages;
+  private final int size;
+
+  TaxonomyIndexLabels(IndexReader reader) throws IOException {
+    this(reader, null);
+  }
+
+  TaxonomyIndexLabels(IndexReader reader, TaxonomyIndexLabels copyFrom) throws IOException {
+    size = reader.maxDoc();
+    pages = new ByteBuffer[(size + PAGE_MASK) >>> PAGE_SHIFT];
+    int first = 0;
+    if (copyFrom != null) {
+      // only full pages are shared, the last page of copyFrom may miss categories
+      int fullPages = Math.min(copyFrom.size, size) >>> PAGE_SHIFT;
+      System.arraycopy(copyFrom.pages, 0, pages, 0, fullPages);
+      first = fullPages << PAGE_SHIFT;
+    }
+    for (int page = first >>> PAGE_SHIFT; page < pages.length; page++) {
+      pages[page] = buildPage(reader, page << PAGE_SHIFT, Math.min(size, (page + 1) << PAGE_SHIFT));
+    }
+  }
+
+  private static ByteBuffer buildPage(IndexReader reader, int from, int to) throws IOException {
+    final List<LeafReaderContext> leaves = reader.leaves();
+    final int count = to - from;
+    final int[] offsets = new int[count + 1];
+    final BytesRefBuilder bytes = new BytesRefBuilder();
+    final int headerLength = offsets.length * Integer.BYTES;
+    for (int ordinal = from; ordinal < to; ordinal++) {
+      LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(ordinal, leaves));
+      DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor(Consts.FULL);
+      leaf.reader().document(ordinal - leaf.docBase, visitor);
+      String[] path = FacetsConfig.stringToPath(visitor.getDocument().get(Consts.FULL));
+      offsets[ordinal - from] = headerLength + bytes.length();
+      if (path.length > 0) {
+        bytes.append(new BytesRef(path[path.length - 1]));
+      }
+    }
+    offsets[count] = headerLength + bytes.length();
+
+    final ByteBuffer page = ByteBuffer.allocateDirect(headerLength + bytes.length());
+    for (int offset : offsets) {
+      page.putInt(offset);
+    }
+    page.put(bytes.bytes(), 0, bytes.length());
+    page.flip();
+    return page.asReadOnlyBuffer();
+  }
+
+  /** Returns the number of categories. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the last path component of the given ordinal, or {@code null} for
+   * the root category.
+   */
+  public String getPathComponent(int ordinal) {
+    final ByteBuffer page = pages[ordinal >>> PAGE_SHIFT];
+    final int index = ordinal & PAGE_MASK;
+    final int start = page.getInt(index * Integer.BYTES);
+    final int end = page.getInt((index + 1) * Integer.BYTES);
+    if (start == end) {
+      // only the root has an empty label
+      return null;
+    }
+    final byte[] utf8 = new byte[end - start];
+    for (int i = 0; i < utf8.length; i++) {
+      utf8[i] = page.get(start + i);
+    }
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the full path of the given ordinal, which is assembled from the
+   * labels of its ancestors.
+   */
+  public String[] getPath(int ordinal, int[] parents) {
+    int length = 0;
+    for (int ord = ordinal; ord > 0; ord = parents[ord]) {
+      length++;
+    }
+    final String[] components = new String[length];
+    for (int ord = ordinal; ord > 0; ord = parents[ord]) {
+      components[--length] = getPathComponent(ord);
+    }
+    return components;
+  }
+
+  /** Returns the number of off-heap bytes that are used by the labels. */
+  public long offHeapBytesUsed() {
+    long bytes = 0;
+    for (ByteBuffer page : pages) {
+      bytes += page.capacity();
+    }
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(size=" + size + ", pages=" + pages.length + ")";
+  }
+}
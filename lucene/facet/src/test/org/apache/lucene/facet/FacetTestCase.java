@@ -49,7 +49,12 @@ public abstract class FacetTestCase extends LuceneTestCase {
   public Facets getTaxonomyFacetCounts(TaxonomyReader taxoReader, FacetsConfig config, FacetsCollector c, String indexFieldName) throws IOException {
     Facets facets;
     if (random().nextBoolean()) {
-      facets = new FastTaxonomyFacetCounts(indexFieldName, taxoReader, config, c);
+      if (random().nextBoolean()) {
+        facets = new FastTaxonomyFacetCounts(indexFieldName, taxoReader, config, c);
+      } else {
+        // counts segments one after the other, but with per-slice counts
+        facets = new FastTaxonomyFacetCounts(indexFieldName, taxoReader, config, c, Runnable::run);
+      }
     } else {
       OrdinalsReader ordsReader = new DocValuesOrdinalsReader(indexFieldName);
       if (random().nextBoolean()) {
@@ -24,11 +24,13 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.DoubleDocValuesField;
 import org.apache.lucene.document.DoublePoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.facet.DrillDownQuery;
 import org.apache.lucene.facet.DrillSideways;
 import org.apache.lucene.facet.DrillSideways.DrillSidewaysResult;
@@ -47,6 +49,7 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.DoubleValues;
 import org.apache.lucene.search.DoubleValuesSource;
 import org.apache.lucene.search.Explanation;
@@ -58,6 +61,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryVisitor;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.IOUtils;
@@ -1208,6 +1212,70 @@ public class TestRangeFacetCounts extends FacetTestCase {
     IOUtils.close(r, dir);
   }
 
+  public void testCountFromPoints() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    int numDocs = atLeast(2000);
+    boolean multiValued = random().nextInt(5) == 0;
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+      doc.add(new StringField("parity", i % 2 == 0 ? "even" : "odd", Field.Store.NO));
+      doc.add(new StringField("rare", i % 100 == 0 ? "yes" : "no", Field.Store.NO));
+      if (random().nextInt(10) != 0) {
+        int numValues = multiValued ? TestUtil.nextInt(random(), 1, 3) : 1;
+        for (int j = 0; j < numValues; j++) {
+          long v = random().nextInt(1000) - 100;
+          doc.add(new SortedNumericDocValuesField("long", v));
+          doc.add(new LongPoint("long", v));
+          double d = v / 10.0;
+          doc.add(new SortedNumericDocValuesField("double", Double.doubleToRawLongBits(d)));
+          doc.add(new DoublePoint("double", d));
+        }
+      }
+      w.addDocument(doc);
+    }
+    if (random().nextBoolean()) {
+      for (int i = 0; i < 20; i++) {
+        w.deleteDocuments(new Term("id", Integer.toString(random().nextInt(numDocs))));
+      }
+    }
+    IndexReader r = w.getReader();
+    w.close();
+    IndexSearcher s = newSearcher(r, false);
+
+    int iters = atLeast(10);
+    for (int iter = 0; iter < iters; iter++) {
+      int numRanges = TestUtil.nextInt(random(), 1, 20);
+      LongRange[] longRanges = new LongRange[numRanges];
+      DoubleRange[] doubleRanges = new DoubleRange[numRanges];
+      for (int i = 0; i < numRanges; i++) {
+        long min = random().nextInt(1200) - 200;
+        long max = min + random().nextInt(300);
+        // ranges of one or two values must be inclusive, or they would match nothing
+        boolean minInclusive = max - min < 2 || random().nextBoolean();
+        boolean maxInclusive = max - min < 2 || random().nextBoolean();
+        longRanges[i] = new LongRange("r" + i, min, minInclusive, max, maxInclusive);
+        doubleRanges[i] = new DoubleRange("r" + i, min / 10.0, minInclusive, max / 10.0, maxInclusive);
+      }
+
+      for (Query query : new Query[] {new MatchAllDocsQuery(), new TermQuery(new Term("parity", "even")), new TermQuery(new Term("rare", "yes"))}) {
+        FacetsCollector fc = new FacetsCollector();
+        s.search(query, fc);
+        FacetResult expected = new LongRangeFacetCounts("long", fc, longRanges).getTopChildren(10, "long");
+        FacetResult actual = new LongRangeFacetCounts("long", fc, true, longRanges).getTopChildren(10, "long");
+        assertEquals(expected, actual);
+
+        expected = new DoubleRangeFacetCounts("double", fc, doubleRanges).getTopChildren(10, "double");
+        actual = new DoubleRangeFacetCounts("double", fc, true, doubleRanges).getTopChildren(10, "double");
+        assertEquals(expected, actual);
+      }
+    }
+
+    r.close();
+    dir.close();
+  }
+
   // LUCENE-5178
   public void testMissingValues() throws Exception {
     Directory d = newDirectory();
@@ -26,6 +26,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
@@ -56,6 +60,7 @@ import org.apache.lucene.search.similarities.PerFieldSimilarityWrapper;
 import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.TestUtil;
 
 public class TestTaxonomyFacetCounts extends FacetTestCase {
@@ -639,6 +644,75 @@ public class TestTaxonomyFacetCounts extends FacetTestCase {
     IOUtils.close(indexReader, taxoReader, indexDir, taxoDir);
   }
 
+  public void testConcurrentCounts() throws Exception {
+    Directory indexDir = newDirectory();
+    Directory taxoDir = newDirectory();
+
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setMergePolicy(NoMergePolicy.INSTANCE); // keep several segments
+    IndexWriter indexWriter = new IndexWriter(indexDir, iwc);
+    DirectoryTaxonomyWriter taxoWriter = new DirectoryTaxonomyWriter(taxoDir);
+    FacetsConfig config = new FacetsConfig();
+    config.setHierarchical("date", true);
+
+    // enough categories to count rare terms in a hash table
+    int numDocs = atLeast(2000);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(new StringField("content", i % 50 == 0 ? "rare" : "common", Field.Store.NO));
+      doc.add(new FacetField("id", Integer.toString(random().nextInt(2000))));
+      doc.add(new FacetField("date", Integer.toString(2000 + random().nextInt(20)), Integer.toString(1 + random().nextInt(12))));
+      indexWriter.addDocument(config.build(taxoWriter, doc));
+      if (random().nextInt(200) == 0) {
+        indexWriter.commit();
+      }
+    }
+    indexWriter.deleteDocuments(new Term("content", "rare"));
+    indexWriter.commit();
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(new StringField("content", i % 50 == 0 ? "rare" : "common", Field.Store.NO));
+      doc.add(new FacetField("id", Integer.toString(random().nextInt(2000))));
+      doc.add(new FacetField("date", Integer.toString(2000 + random().nextInt(20)), Integer.toString(1 + random().nextInt(12))));
+      indexWriter.addDocument(config.build(taxoWriter, doc));
+      if (random().nextInt(200) == 0) {
+        indexWriter.commit();
+      }
+    }
+    indexWriter.close();
+    taxoWriter.close();
+
+    DirectoryReader indexReader = DirectoryReader.open(indexDir);
+    TaxonomyReader taxoReader = new DirectoryTaxonomyReader(taxoDir);
+    IndexSearcher searcher = newSearcher(indexReader);
+
+    ExecutorService pool = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4), new NamedThreadFactory("TestTaxonomyFacetCounts"));
+    Executor rejecting = r -> {
+      throw new RejectedExecutionException();
+    };
+    try {
+      for (String content : new String[] {"common", "rare"}) {
+        FacetsCollector fc = new FacetsCollector();
+        FacetsCollector.search(searcher, new TermQuery(new Term("content", content)), 10, fc);
+        List<FacetResult> expected = new FastTaxonomyFacetCounts(FacetsConfig.DEFAULT_INDEX_FIELD_NAME, taxoReader, config, fc).getAllDims(10);
+        for (Executor executor : new Executor[] {pool, Runnable::run, rejecting}) {
+          Facets facets = new FastTaxonomyFacetCounts(FacetsConfig.DEFAULT_INDEX_FIELD_NAME, taxoReader, config, fc, executor);
+          assertEquals(expected, facets.getAllDims(10));
+        }
+      }
+
+      List<FacetResult> expected = new FastTaxonomyFacetCounts(FacetsConfig.DEFAULT_INDEX_FIELD_NAME, indexReader, taxoReader, config).getAllDims(10);
+      for (Executor executor : new Executor[] {pool, Runnable::run, rejecting}) {
+        Facets facets = new FastTaxonomyFacetCounts(FacetsConfig.DEFAULT_INDEX_FIELD_NAME, indexReader, taxoReader, config, executor);
+        assertEquals(expected, facets.getAllDims(10));
+      }
+    } finally {
+      TestUtil.shutdownExecutorService(pool);
+    }
+
+    IOUtils.close(indexReader, taxoReader, indexDir, taxoDir);
+  }
+
   public void testRandom() throws Exception {
     String[] tokens = getRandomTokens(10);
     Directory indexDir = newDirectory();
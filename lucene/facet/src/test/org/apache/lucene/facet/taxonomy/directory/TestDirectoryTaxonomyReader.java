@@ -37,6 +37,7 @@ import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.RAMDirectory;
 import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.TestUtil;
 import org.junit.Test;
 
 public class TestDirectoryTaxonomyReader extends FacetTestCase {
@@ -412,6 +413,48 @@ public class TestDirectoryTaxonomyReader extends FacetTestCase {
     }
   }
   
+  @Test
+  public void testOffHeapLabels() throws Exception {
+    Directory dir = newDirectory();
+    DirectoryTaxonomyWriter writer = new DirectoryTaxonomyWriter(dir);
+    Random random = random();
+    // spans several pages of labels
+    int numCategories = TestUtil.nextInt(random, TaxonomyIndexLabels.PAGE_SIZE, 2 * TaxonomyIndexLabels.PAGE_SIZE);
+    for (int i = 0; i < numCategories; i++) {
+      writer.addCategory(new FacetLabel("dim" + random.nextInt(5), TestUtil.randomUnicodeString(random, 10) + "x", Integer.toString(i)));
+    }
+
+    DirectoryTaxonomyReader expected = new DirectoryTaxonomyReader(writer);
+    DirectoryTaxonomyReader r1 = new DirectoryTaxonomyReader(writer);
+    assertFalse(r1.getUseOffHeapLabels());
+    r1.setUseOffHeapLabels(true);
+    assertSameLabels(expected, r1);
+
+    // reopened readers share the labels and load those of new categories
+    for (int i = 0; i < 100; i++) {
+      writer.addCategory(new FacetLabel("new", Integer.toString(i)));
+    }
+    DirectoryTaxonomyReader expected2 = TaxonomyReader.openIfChanged(expected);
+    DirectoryTaxonomyReader r2 = TaxonomyReader.openIfChanged(r1);
+    assertTrue(r2.getUseOffHeapLabels());
+    assertSameLabels(expected2, r2);
+    assertNull(r1.getPathComponent(expected2.getSize() - 1));
+    assertSameLabels(expected, r1);
+
+    IOUtils.close(expected, expected2, r1, r2, writer, dir);
+  }
+
+  private static void assertSameLabels(TaxonomyReader expected, TaxonomyReader actual) throws IOException {
+    assertEquals(expected.getSize(), actual.getSize());
+    assertNull(actual.getPathComponent(0));
+    assertNull(actual.getPathComponent(-1));
+    assertNull(actual.getPathComponent(actual.getSize()));
+    for (int ord = 0; ord < expected.getSize(); ord++) {
+      assertEquals(expected.getPath(ord), actual.getPath(ord));
+      assertEquals(expected.getPathComponent(ord), actual.getPathComponent(ord));
+    }
+  }
+
   @Test
   public void testOpenIfChangedReplaceTaxonomy() throws Exception {
     // test openIfChanged when replaceTaxonomy is called, which is equivalent to recreate
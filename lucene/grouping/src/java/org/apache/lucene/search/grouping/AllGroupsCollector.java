@@ -20,8 +20,10 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.SimpleCollector;
@@ -89,4 +91,34 @@ public class AllGroupsCollector<T> extends SimpleCollector {
   public ScoreMode scoreMode() {
     return ScoreMode.COMPLETE_NO_SCORES; // the result is unaffected by relevancy
   }
-}
\ No newline at end of file
+
+  /**
+   * Create a {@link CollectorManager} that collects the groups of every slice
+   * of the index with its own collector, and returns the union of their groups.
+   *
+   * @param groupSelectorSupplier creates the GroupSelector of every collector,
+   *                              since selectors hold per-search state
+   */
+  public static <T> CollectorManager<AllGroupsCollector<T>, Collection<T>> createManager(
+      Supplier<? extends GroupSelector<T>> groupSelectorSupplier) {
+    return new CollectorManager<AllGroupsCollector<T>, Collection<T>>() {
+
+      @Override
+      public AllGroupsCollector<T> newCollector() {
+        return new AllGroupsCollector<>(groupSelectorSupplier.get());
+      }
+
+      @Override
+      public Collection<T> reduce(Collection<AllGroupsCollector<T>> collectors) {
+        if (collectors.size() == 1) {
+          return collectors.iterator().next().getGroups();
+        }
+        final Set<T> groups = new HashSet<>();
+        for (AllGroupsCollector<T> collector : collectors) {
+          groups.addAll(collector.getGroups());
+        }
+        return groups;
+      }
+    };
+  }
+}
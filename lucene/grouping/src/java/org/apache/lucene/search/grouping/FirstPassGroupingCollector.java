@@ -21,9 +21,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.LeafFieldComparator;
 import org.apache.lucene.search.Scorable;
@@ -356,5 +359,46 @@ public class FirstPassGroupingCollector<T> extends SimpleCollector {
     return groupSelector;
   }
 
+  /**
+   * Create a {@link CollectorManager} that gathers the top groups of every
+   * slice of the index with its own collector, and merges them with
+   * {@link SearchGroup#merge(List, int, int, Sort)}.  The reduced result is
+   * the same as {@link #getTopGroups(int)} of a single collector over the
+   * whole index, including null if no groups were collected.
+   *
+   * @param groupSelectorSupplier creates the GroupSelector of every
+   *    collector, since selectors hold per-search state
+   * @param groupSort The {@link Sort} used to sort the groups
+   * @param topNGroups How many top groups to keep
+   * @param groupOffset The offset in the merged groups
+   */
+  public static <T> CollectorManager<FirstPassGroupingCollector<T>, Collection<SearchGroup<T>>> createManager(
+      Supplier<? extends GroupSelector<T>> groupSelectorSupplier, Sort groupSort, int topNGroups, int groupOffset) {
+    return new CollectorManager<FirstPassGroupingCollector<T>, Collection<SearchGroup<T>>>() {
+
+      @Override
+      public FirstPassGroupingCollector<T> newCollector() {
+        return new FirstPassGroupingCollector<>(groupSelectorSupplier.get(), groupSort, topNGroups);
+      }
+
+      @Override
+      public Collection<SearchGroup<T>> reduce(Collection<FirstPassGroupingCollector<T>> collectors) throws IOException {
+        if (collectors.size() == 1) {
+          return collectors.iterator().next().getTopGroups(groupOffset);
+        }
+        // collectors are in the order of their slices, so that ties are broken by
+        // the earlier slice, as they would be by the earlier doc in a single collector
+        final List<Collection<SearchGroup<T>>> sliceGroups = new ArrayList<>(collectors.size());
+        for (FirstPassGroupingCollector<T> collector : collectors) {
+          final Collection<SearchGroup<T>> groups = collector.getTopGroups(0);
+          if (groups != null) {
+            sliceGroups.add(groups);
+          }
+        }
+        return SearchGroup.merge(sliceGroups, groupOffset, topNGroups - groupOffset, groupSort);
+      }
+    };
+  }
+
 }
 
@@ -19,13 +19,17 @@ package org.apache.lucene.search.grouping;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.lucene.queries.function.ValueSource;
 import org.apache.lucene.search.CachingCollector;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.MultiCollectorManager;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Sort;
@@ -37,12 +41,18 @@ import org.apache.lucene.util.mutable.MutableValue;
 
 /**
  * Convenience class to perform grouping in a non distributed environment.
+ * <p>
+ * When grouping by field or function, or with a {@link GroupSelector} supplier, and the
+ * {@link IndexSearcher} has an executor, both passes are collected concurrently over the
+ * slices of the index and then merged. Caching and {@link #setAllGroupHeads(boolean) all
+ * group heads} require a single collector, so these searches are not concurrent.
  *
  * @lucene.experimental
  */
 public class GroupingSearch {
 
   private final GroupSelector<?> grouper;
+  private final Supplier<? extends GroupSelector<?>> grouperSupplier;
   private final Query groupEndDocs;
 
   private Sort groupSort = Sort.RELEVANCE;
@@ -68,7 +78,7 @@ public class GroupingSearch {
    * @param groupField The name of the field to group by.
    */
   public GroupingSearch(String groupField) {
-    this(new TermGroupSelector(groupField), null);
+    this(() -> new TermGroupSelector(groupField));
   }
 
   /**
@@ -76,7 +86,18 @@ public class GroupingSearch {
    * @param groupSelector a {@link GroupSelector} that defines groups for this GroupingSearch
    */
   public GroupingSearch(GroupSelector<?> groupSelector) {
-    this(groupSelector, null);
+    this(groupSelector, null, null);
+  }
+
+  /**
+   * Constructs a <code>GroupingSearch</code> instance that groups documents using {@link GroupSelector}s
+   * created by the given supplier. Unlike a single {@link GroupSelector}, this allows collecting groups
+   * concurrently when the {@link IndexSearcher} has an executor.
+   *
+   * @param groupSelectorSupplier creates a new {@link GroupSelector} on every call
+   */
+  public GroupingSearch(Supplier<? extends GroupSelector<?>> groupSelectorSupplier) {
+    this(groupSelectorSupplier.get(), groupSelectorSupplier, null);
   }
 
   /**
@@ -87,7 +108,10 @@ public class GroupingSearch {
    * @param valueSourceContext The context of the specified groupFunction
    */
   public GroupingSearch(ValueSource groupFunction, Map<?, ?> valueSourceContext) {
-    this(new ValueSourceGroupSelector(groupFunction, valueSourceContext), null);
+    // value sources may cache per-search state in their context, so concurrent selectors get a copy
+    this(new ValueSourceGroupSelector(groupFunction, valueSourceContext),
+        () -> new ValueSourceGroupSelector(groupFunction,
+            valueSourceContext == null ? null : new HashMap<>(valueSourceContext)), null);
   }
 
   /**
@@ -97,11 +121,12 @@ public class GroupingSearch {
    * @param groupEndDocs The query that marks the last document in all doc blocks
    */
   public GroupingSearch(Query groupEndDocs) {
-    this(null, groupEndDocs);
+    this(null, null, groupEndDocs);
   }
 
-  private GroupingSearch(GroupSelector<?> grouper, Query groupEndDocs) {
+  private GroupingSearch(GroupSelector<?> grouper, Supplier<? extends GroupSelector<?>> grouperSupplier, Query groupEndDocs) {
     this.grouper = grouper;
+    this.grouperSupplier = grouperSupplier;
     this.groupEndDocs = groupEndDocs;
   }
 
@@ -128,6 +153,10 @@ public class GroupingSearch {
 
   @SuppressWarnings({"unchecked", "rawtypes"})
   protected TopGroups groupByFieldOrFunction(IndexSearcher searcher, Query query, int groupOffset, int groupLimit) throws IOException {
+    if (grouperSupplier != null && searcher.getExecutor() != null
+        && maxCacheRAMMB == null && maxDocsToCache == null && allGroupHeads == false) {
+      return groupConcurrently(searcher, query, groupOffset, groupLimit);
+    }
     int topN = groupOffset + groupLimit;
 
     final FirstPassGroupingCollector firstPassCollector = new FirstPassGroupingCollector(grouper, groupSort, topN);
@@ -175,6 +204,39 @@ public class GroupingSearch {
     }
   }
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private <T> TopGroups<T> groupConcurrently(IndexSearcher searcher, Query query, int groupOffset, int groupLimit) throws IOException {
+    int topN = groupOffset + groupLimit;
+    final Supplier<GroupSelector<T>> supplier = (Supplier<GroupSelector<T>>) grouperSupplier;
+
+    final CollectorManager<FirstPassGroupingCollector<T>, Collection<SearchGroup<T>>> firstPassManager
+        = FirstPassGroupingCollector.createManager(supplier, groupSort, topN, groupOffset);
+    final Collection<SearchGroup<T>> topSearchGroups;
+    if (allGroups) {
+      final Object[] results = searcher.search(query, new MultiCollectorManager(firstPassManager, AllGroupsCollector.createManager(supplier)));
+      topSearchGroups = (Collection<SearchGroup<T>>) results[0];
+      matchingGroups = (Collection<T>) results[1];
+    } else {
+      topSearchGroups = searcher.search(query, firstPassManager);
+      matchingGroups = Collections.emptyList();
+    }
+    matchingGroupHeads = new Bits.MatchNoBits(searcher.getIndexReader().maxDoc());
+
+    if (topSearchGroups == null) {
+      return new TopGroups<>(new SortField[0], new SortField[0], 0, 0, new GroupDocs[0], Float.NaN);
+    }
+
+    int topNInsideGroup = groupDocsOffset + groupDocsLimit;
+    final TopGroups<T> topGroups = searcher.search(query, TopGroupsCollector.createManager(
+        supplier, topSearchGroups, groupSort, sortWithinGroup, topNInsideGroup, includeMaxScore, groupDocsOffset));
+
+    if (allGroups) {
+      return new TopGroups<>(topGroups, matchingGroups.size());
+    } else {
+      return topGroups;
+    }
+  }
+
   protected TopGroups<?> groupByDocBlock(IndexSearcher searcher, Query query, int groupOffset, int groupLimit) throws IOException {
     int topN = groupOffset + groupLimit;
     final Query endDocsQuery = searcher.rewrite(this.groupEndDocs);
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Objects;
 import java.util.function.Supplier;
 
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.FilterCollector;
 import org.apache.lucene.search.MultiCollector;
 import org.apache.lucene.search.Scorable;
@@ -183,5 +184,54 @@ public class TopGroupsCollector<T> extends SecondPassGroupingCollector<T> {
         maxScore);
   }
 
+  /**
+   * Create a {@link CollectorManager} that collects the TopDocs of the given
+   * groups in every slice of the index with its own collector, and merges them
+   * with {@link TopGroups#merge}.
+   *
+   * @param groupSelectorSupplier creates the GroupSelector of every collector,
+   *                              since selectors hold per-search state
+   * @param groups            the groups to collect TopDocs for
+   * @param groupSort         the order in which groups are returned
+   * @param withinGroupSort   the order in which documents are sorted in each group
+   * @param maxDocsPerGroup   the maximum number of docs to collect for each group
+   * @param getMaxScores      if true, record the maximum score for each group
+   * @param withinGroupOffset the offset within each group to start returning documents
+   */
+  public static <T> CollectorManager<TopGroupsCollector<T>, TopGroups<T>> createManager(
+      Supplier<? extends GroupSelector<T>> groupSelectorSupplier, Collection<SearchGroup<T>> groups,
+      Sort groupSort, Sort withinGroupSort, int maxDocsPerGroup, boolean getMaxScores, int withinGroupOffset) {
+    return new CollectorManager<TopGroupsCollector<T>, TopGroups<T>>() {
+
+      @Override
+      public TopGroupsCollector<T> newCollector() {
+        return new TopGroupsCollector<>(groupSelectorSupplier.get(), groups, groupSort, withinGroupSort,
+            maxDocsPerGroup, getMaxScores);
+      }
+
+      @Override
+      public TopGroups<T> reduce(Collection<TopGroupsCollector<T>> collectors) {
+        if (collectors.size() == 1) {
+          return collectors.iterator().next().getTopGroups(withinGroupOffset);
+        }
+        @SuppressWarnings({"unchecked","rawtypes"})
+        final TopGroups<T>[] sliceGroups = new TopGroups[collectors.size()];
+        int i = 0;
+        for (TopGroupsCollector<T> collector : collectors) {
+          sliceGroups[i++] = collector.getTopGroups(0);
+        }
+        final TopGroups<T> merged = TopGroups.merge(sliceGroups, groupSort, withinGroupSort, withinGroupOffset,
+            Math.max(0, maxDocsPerGroup - withinGroupOffset), TopGroups.ScoreMergeMode.None);
+        // merging sets the shard index to the slice index, but doc IDs are global
+        for (GroupDocs<T> group : merged.groups) {
+          for (ScoreDoc scoreDoc : group.scoreDocs) {
+            scoreDoc.shardIndex = -1;
+          }
+        }
+        return merged;
+      }
+    };
+  }
+
 
 }
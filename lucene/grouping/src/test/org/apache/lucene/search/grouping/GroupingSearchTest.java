@@ -20,6 +20,7 @@ import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
@@ -29,17 +30,25 @@ import org.apache.lucene.queries.function.ValueSource;
 import org.apache.lucene.queries.function.valuesource.BytesRefFieldSource;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.similarities.BM25Similarity;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.TestUtil;
 import org.apache.lucene.util.mutable.MutableValueStr;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class GroupingSearchTest extends LuceneTestCase {
 
@@ -244,4 +253,94 @@ public class GroupingSearchTest extends LuceneTestCase {
     indexSearcher.getIndexReader().close();
     dir.close();
   }
+
+  public void testConcurrentSearch() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(
+        random(),
+        dir,
+        newIndexWriterConfig(new MockAnalyzer(random())).setMergePolicy(newLogMergePolicy()));
+    String[] words = new String[] { "foo", "bar", "baz" };
+    int numGroups = TestUtil.nextInt(random(), 1, 50);
+    int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      if (random().nextInt(20) != 0) {
+        addGroupField(doc, "group", "group" + random().nextInt(numGroups), true);
+      }
+      StringBuilder text = new StringBuilder();
+      for (int j = TestUtil.nextInt(random(), 1, 5); j > 0; j--) {
+        text.append(words[random().nextInt(words.length)]).append(' ');
+      }
+      doc.add(new TextField("text", text.toString(), Field.Store.NO));
+      doc.add(new NumericDocValuesField("sort", random().nextInt(100)));
+      w.addDocument(doc);
+      if (random().nextInt(100) == 0) {
+        w.commit();
+      }
+    }
+    IndexSearcher sequentialSearcher = new IndexSearcher(w.getReader());
+    w.close();
+
+    ExecutorService executor = new ThreadPoolExecutor(0, TestUtil.nextInt(random(), 2, 4), 1L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new NamedThreadFactory("GroupingSearchTest"));
+    try {
+      IndexSearcher concurrentSearcher = new IndexSearcher(sequentialSearcher.getIndexReader(), executor);
+      int iters = atLeast(10);
+      for (int iter = 0; iter < iters; iter++) {
+        Query query = new TermQuery(new Term("text", words[random().nextInt(words.length)]));
+        Sort groupSort = random().nextBoolean() ? Sort.RELEVANCE : new Sort(new SortField("sort", SortField.Type.LONG));
+        Sort sortWithinGroup = random().nextBoolean() ? Sort.RELEVANCE : new Sort(new SortField("sort", SortField.Type.LONG, true));
+        boolean byFunction = random().nextBoolean();
+        int groupOffset = random().nextInt(5);
+        int groupLimit = TestUtil.nextInt(random(), 1, 10);
+        int groupDocsOffset = random().nextInt(3);
+        int groupDocsLimit = TestUtil.nextInt(random(), 1, 10);
+        boolean allGroups = random().nextBoolean();
+
+        TopGroups<?>[] results = new TopGroups<?>[2];
+        int[] matchingGroupCounts = new int[2];
+        IndexSearcher[] searchers = new IndexSearcher[] { sequentialSearcher, concurrentSearcher };
+        for (int i = 0; i < searchers.length; i++) {
+          GroupingSearch groupingSearch = byFunction
+              ? new GroupingSearch(new BytesRefFieldSource("group"), random().nextBoolean() ? new HashMap<>() : null)
+              : new GroupingSearch("group");
+          groupingSearch.setGroupSort(groupSort);
+          groupingSearch.setSortWithinGroup(sortWithinGroup);
+          groupingSearch.setGroupDocsOffset(groupDocsOffset);
+          groupingSearch.setGroupDocsLimit(groupDocsLimit);
+          groupingSearch.setAllGroups(allGroups);
+          results[i] = groupingSearch.search(searchers[i], query, groupOffset, groupLimit);
+          matchingGroupCounts[i] = groupingSearch.getAllMatchingGroups().size();
+        }
+
+        TopGroups<?> expected = results[0];
+        TopGroups<?> actual = results[1];
+        assertEquals(matchingGroupCounts[0], matchingGroupCounts[1]);
+        assertEquals(expected.totalHitCount, actual.totalHitCount);
+        assertEquals(expected.totalGroupedHitCount, actual.totalGroupedHitCount);
+        assertEquals(expected.totalGroupCount, actual.totalGroupCount);
+        assertEquals(expected.groups.length, actual.groups.length);
+        for (int i = 0; i < expected.groups.length; i++) {
+          GroupDocs<?> expectedGroup = expected.groups[i];
+          GroupDocs<?> actualGroup = actual.groups[i];
+          assertEquals(expectedGroup.groupValue, actualGroup.groupValue);
+          assertArrayEquals(expectedGroup.groupSortValues, actualGroup.groupSortValues);
+          assertEquals(expectedGroup.totalHits, actualGroup.totalHits);
+          assertEquals(expectedGroup.scoreDocs.length, actualGroup.scoreDocs.length);
+          for (int j = 0; j < expectedGroup.scoreDocs.length; j++) {
+            ScoreDoc expectedDoc = expectedGroup.scoreDocs[j];
+            ScoreDoc actualDoc = actualGroup.scoreDocs[j];
+            assertEquals(expectedDoc.doc, actualDoc.doc);
+            assertEquals(expectedDoc.score, actualDoc.score, 0f);
+            assertEquals(expectedDoc.shardIndex, actualDoc.shardIndex);
+          }
+        }
+      }
+    } finally {
+      TestUtil.shutdownExecutorService(executor);
+    }
+    sequentialSearcher.getIndexReader().close();
+    dir.close();
+  }
 }
@@ -32,6 +32,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -62,6 +65,7 @@ import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.spans.SpanQuery;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.ConcurrencyUtil;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InPlaceMergeSorter;
 
@@ -141,6 +145,10 @@ public class UnifiedHighlighter {
 
   private int cacheFieldValCharsThreshold = DEFAULT_CACHE_CHARS_THRESHOLD;
 
+  private int maxAnalysisLength = Integer.MAX_VALUE;
+
+  private Executor executor;
+
   /**
    * Extracts matching terms after rewriting against an empty index
    */
@@ -205,6 +213,17 @@ public class UnifiedHighlighter {
     this.defaultFieldMatcher = predicate;
   }
 
+  public void setMaxAnalysisLength(int maxAnalysisLength) {
+    if (maxAnalysisLength < 0) {
+      throw new IllegalArgumentException("maxAnalysisLength must be >= 0");
+    }
+    this.maxAnalysisLength = maxAnalysisLength;
+  }
+
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
   /**
    * Returns whether {@link MultiTermQuery} derivatives will be highlighted.  By default it's enabled.  MTQ
    * highlighting can be expensive, particularly when using offsets in postings.
@@ -249,6 +268,26 @@ public class UnifiedHighlighter {
     return maxLength;
   }
 
+  /**
+   * The maximum content size to re-analyze for fields that are highlighted with
+   * {@link OffsetSource#ANALYSIS}, which bounds the analysis cost per document.  Content of such fields is truncated
+   * to this size, in addition to {@link #getMaxLength()}.  There is no additional limit by default.
+   */
+  public int getMaxAnalysisLength() {
+    return maxAnalysisLength;
+  }
+
+  /**
+   * The executor used to highlight documents concurrently, or null (the default) to highlight them one after the
+   * other in the calling thread.  Field values are still loaded in doc ID order by the calling thread, in batches
+   * that are bounded by {@link #getCacheFieldValCharsThreshold()}, then the documents of each batch are highlighted
+   * concurrently.  Note that this calls {@link #getFieldHighlighter(String, Query, Set, int)} once per field and per
+   * concurrently highlighted document, and from the executor's threads.
+   */
+  public Executor getExecutor() {
+    return executor;
+  }
+
   /**
    * Returns the {@link BreakIterator} to use for
    * dividing text into passages.  This returns
@@ -569,13 +608,10 @@ public class UnifiedHighlighter {
 
     // Init field highlighters (where most of the highlight logic lives, and on a per field basis)
     Set<Term> queryTerms = extractTerms(query);
-    FieldHighlighter[] fieldHighlighters = new FieldHighlighter[fields.length];
+    FieldHighlighter[] fieldHighlighters = newFieldHighlighters(fields, query, queryTerms, maxPassages);
     int numTermVectors = 0;
     int numPostings = 0;
-    for (int f = 0; f < fields.length; f++) {
-      FieldHighlighter fieldHighlighter = getFieldHighlighter(fields[f], query, queryTerms, maxPassages[f]);
-      fieldHighlighters[f] = fieldHighlighter;
-
+    for (FieldHighlighter fieldHighlighter : fieldHighlighters) {
       switch (fieldHighlighter.getOffsetSource()) {
         case TERM_VECTORS:
           numTermVectors++;
@@ -595,55 +631,89 @@ public class UnifiedHighlighter {
       }
     }
 
-    int cacheCharsThreshold = calculateOptimalCacheCharsThreshold(numTermVectors, numPostings);
+    // Documents are highlighted concurrently with all their fields, so there is no need to load them one at a time
+    final Executor executor = getExecutor();
+    final boolean concurrent = executor != null && docIds.length > 1;
+    int cacheCharsThreshold = concurrent
+        ? getCacheFieldValCharsThreshold()
+        : calculateOptimalCacheCharsThreshold(numTermVectors, numPostings);
 
+    final boolean useTermVecCache = numTermVectors >= 2;
     IndexReader indexReaderWithTermVecCache =
-        (numTermVectors >= 2) ? TermVectorReusingLeafReader.wrap(searcher.getIndexReader()) : null;
+        useTermVecCache ? TermVectorReusingLeafReader.wrap(searcher.getIndexReader()) : null;
 
     // [fieldIdx][docIdInIndex] of highlightDoc result
     Object[][] highlightDocsInByField = new Object[fields.length][docIds.length];
     // Highlight in doc batches determined by loadFieldValues (consumes from docIdIter)
     DocIdSetIterator docIdIter = asDocIdSetIterator(docIds);
-    for (int batchDocIdx = 0; batchDocIdx < docIds.length; ) {
-      // Load the field values of the first batch of document(s) (note: commonly all docs are in this batch)
-      List<CharSequence[]> fieldValsByDoc =
-          loadFieldValues(fields, docIdIter, cacheCharsThreshold);
-      //    the size of the above list is the size of the batch (num of docs in the batch)
-
-      // Highlight in per-field order first, then by doc (better I/O pattern)
-      for (int fieldIdx = 0; fieldIdx < fields.length; fieldIdx++) {
-        Object[] resultByDocIn = highlightDocsInByField[fieldIdx];//parallel to docIdsIn
-        FieldHighlighter fieldHighlighter = fieldHighlighters[fieldIdx];
-        for (int docIdx = batchDocIdx; docIdx - batchDocIdx < fieldValsByDoc.size(); docIdx++) {
-          int docId = docIds[docIdx];//sorted order
-          CharSequence content = fieldValsByDoc.get(docIdx - batchDocIdx)[fieldIdx];
-          if (content == null) {
-            continue;
+    if (concurrent) {
+      // field highlighters and the term vectors cache are stateful, each concurrent task needs its own
+      final ConcurrentLinkedQueue<DocHighlighters> idleHighlighters = new ConcurrentLinkedQueue<>();
+      final List<DocHighlighters> allHighlighters = new ArrayList<>();
+      idleHighlighters.add(new DocHighlighters(fieldHighlighters, indexReaderWithTermVecCache));
+      try {
+        for (int batchDocIdx = 0; batchDocIdx < docIds.length; ) {
+          List<CharSequence[]> fieldValsByDoc =
+              loadFieldValues(fields, docIdIter, cacheCharsThreshold);
+
+          List<Callable<Void>> tasks = new ArrayList<>(fieldValsByDoc.size());
+          for (int i = 0; i < fieldValsByDoc.size(); i++) {
+            final int docIdx = batchDocIdx + i;
+            final CharSequence[] fieldVals = fieldValsByDoc.get(i);
+            tasks.add(() -> {
+              DocHighlighters highlighters = idleHighlighters.poll();
+              if (highlighters == null) {
+                highlighters = new DocHighlighters(newFieldHighlighters(fields, query, queryTerms, maxPassages),
+                    useTermVecCache ? TermVectorReusingLeafReader.wrap(searcher.getIndexReader()) : null);
+                synchronized (allHighlighters) {
+                  allHighlighters.add(highlighters);
+                }
+              }
+              try {
+                for (int fieldIdx = 0; fieldIdx < fields.length; fieldIdx++) {
+                  highlightDocsInByField[fieldIdx][docInIndexes[docIdx]] = highlightFieldForDoc(
+                      highlighters.fieldHighlighters[fieldIdx], highlighters.indexReaderWithTermVecCache,
+                      docIds[docIdx], fieldVals[fieldIdx]);
+                }
+              } finally {
+                idleHighlighters.add(highlighters);
+              }
+              return null;
+            });
           }
-          IndexReader indexReader =
-              (fieldHighlighter.getOffsetSource() == OffsetSource.TERM_VECTORS
-                  && indexReaderWithTermVecCache != null)
-                  ? indexReaderWithTermVecCache
-                  : searcher.getIndexReader();
-          final LeafReader leafReader;
-          if (indexReader instanceof LeafReader) {
-            leafReader = (LeafReader) indexReader;
-          } else {
-            List<LeafReaderContext> leaves = indexReader.leaves();
-            LeafReaderContext leafReaderContext = leaves.get(ReaderUtil.subIndex(docId, leaves));
-            leafReader = leafReaderContext.reader();
-            docId -= leafReaderContext.docBase; // adjust 'doc' to be within this leaf reader
+          ConcurrencyUtil.invokeAll(executor, tasks);
+
+          batchDocIdx += fieldValsByDoc.size();
+        }
+      } finally {
+        for (DocHighlighters highlighters : allHighlighters) {
+          IOUtils.close(highlighters.indexReaderWithTermVecCache); // FYI won't close underlying reader
+        }
+      }
+    } else {
+      for (int batchDocIdx = 0; batchDocIdx < docIds.length; ) {
+        // Load the field values of the first batch of document(s) (note: commonly all docs are in this batch)
+        List<CharSequence[]> fieldValsByDoc =
+            loadFieldValues(fields, docIdIter, cacheCharsThreshold);
+        //    the size of the above list is the size of the batch (num of docs in the batch)
+
+        // Highlight in per-field order first, then by doc (better I/O pattern)
+        for (int fieldIdx = 0; fieldIdx < fields.length; fieldIdx++) {
+          Object[] resultByDocIn = highlightDocsInByField[fieldIdx];//parallel to docIdsIn
+          FieldHighlighter fieldHighlighter = fieldHighlighters[fieldIdx];
+          for (int docIdx = batchDocIdx; docIdx - batchDocIdx < fieldValsByDoc.size(); docIdx++) {
+            int docId = docIds[docIdx];//sorted order
+            CharSequence content = fieldValsByDoc.get(docIdx - batchDocIdx)[fieldIdx];
+            int docInIndex = docInIndexes[docIdx];//original input order
+            assert resultByDocIn[docInIndex] == null;
+            resultByDocIn[docInIndex] =
+                highlightFieldForDoc(fieldHighlighter, indexReaderWithTermVecCache, docId, content);
           }
-          int docInIndex = docInIndexes[docIdx];//original input order
-          assert resultByDocIn[docInIndex] == null;
-          resultByDocIn[docInIndex] =
-              fieldHighlighter
-                  .highlightFieldForDoc(leafReader, docId, content.toString());
+
         }
 
+        batchDocIdx += fieldValsByDoc.size();
       }
-
-      batchDocIdx += fieldValsByDoc.size();
     }
     IOUtils.close(indexReaderWithTermVecCache); // FYI won't close underlying reader
     assert docIdIter.docID() == DocIdSetIterator.NO_MORE_DOCS
@@ -660,6 +730,52 @@ public class UnifiedHighlighter {
     return resultMap;
   }
 
+  private FieldHighlighter[] newFieldHighlighters(String[] fields, Query query, Set<Term> queryTerms,
+                                                  int[] maxPassages) {
+    FieldHighlighter[] fieldHighlighters = new FieldHighlighter[fields.length];
+    for (int f = 0; f < fields.length; f++) {
+      fieldHighlighters[f] = getFieldHighlighter(fields[f], query, queryTerms, maxPassages[f]);
+    }
+    return fieldHighlighters;
+  }
+
+  /** Highlights one field of one document, returns null if the document has no content for this field. */
+  private Object highlightFieldForDoc(FieldHighlighter fieldHighlighter, IndexReader indexReaderWithTermVecCache,
+                                     int docId, CharSequence content) throws IOException {
+    if (content == null) {
+      return null;
+    }
+    if (fieldHighlighter.getOffsetSource() == OffsetSource.ANALYSIS && content.length() > getMaxAnalysisLength()) {
+      content = content.subSequence(0, getMaxAnalysisLength());
+    }
+    IndexReader indexReader =
+        (fieldHighlighter.getOffsetSource() == OffsetSource.TERM_VECTORS
+            && indexReaderWithTermVecCache != null)
+            ? indexReaderWithTermVecCache
+            : searcher.getIndexReader();
+    final LeafReader leafReader;
+    if (indexReader instanceof LeafReader) {
+      leafReader = (LeafReader) indexReader;
+    } else {
+      List<LeafReaderContext> leaves = indexReader.leaves();
+      LeafReaderContext leafReaderContext = leaves.get(ReaderUtil.subIndex(docId, leaves));
+      leafReader = leafReaderContext.reader();
+      docId -= leafReaderContext.docBase; // adjust 'doc' to be within this leaf reader
+    }
+    return fieldHighlighter.highlightFieldForDoc(leafReader, docId, content.toString());
+  }
+
+  /** Field highlighters and term vectors cache that are used by one thread at a time. */
+  private static class DocHighlighters {
+    final FieldHighlighter[] fieldHighlighters;
+    final IndexReader indexReaderWithTermVecCache;
+
+    DocHighlighters(FieldHighlighter[] fieldHighlighters, IndexReader indexReaderWithTermVecCache) {
+      this.fieldHighlighters = fieldHighlighters;
+      this.indexReaderWithTermVecCache = indexReaderWithTermVecCache;
+    }
+  }
+
   /**
    * When cacheCharsThreshold is 0, loadFieldValues() only fetches one document at a time.  We override it to be 0
    * in two circumstances:
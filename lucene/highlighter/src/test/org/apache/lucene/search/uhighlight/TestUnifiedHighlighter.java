@@ -27,6 +27,10 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 
 import com.carrotsearch.randomizedtesting.annotations.ParametersFactory;
@@ -58,6 +62,8 @@ import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.uhighlight.UnifiedHighlighter.HighlightFlag;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.TestUtil;
 import org.junit.After;
 import org.junit.Before;
 
@@ -1460,4 +1466,94 @@ public class TestUnifiedHighlighter extends LuceneTestCase {
 
     ir.close();
   }
+
+  public void testConcurrentHighlighting() throws Exception {
+    RandomIndexWriter iw = new RandomIndexWriter(random(), dir, indexAnalyzer);
+    String[] words = new String[] {"lucene", "search", "engine", "highlighting", "test", "document"};
+    int numDocs = atLeast(30);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      for (String field : new String[] {"body", "title"}) {
+        StringBuilder text = new StringBuilder();
+        int numSentences = TestUtil.nextInt(random(), 1, 5);
+        for (int j = 0; j < numSentences; j++) {
+          int numWords = TestUtil.nextInt(random(), 1, 8);
+          for (int k = 0; k < numWords; k++) {
+            text.append(words[random().nextInt(words.length)]).append(' ');
+          }
+          text.append(". ");
+        }
+        doc.add(new Field(field, text.toString(), fieldType));
+      }
+      iw.addDocument(doc);
+    }
+    IndexReader ir = iw.getReader();
+    iw.close();
+
+    IndexSearcher searcher = newSearcher(ir);
+    Query query = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("body", "lucene")), BooleanClause.Occur.SHOULD)
+        .add(new TermQuery(new Term("title", "highlighting")), BooleanClause.Occur.SHOULD)
+        .build();
+    TopDocs topDocs = searcher.search(query, numDocs);
+    String[] fields = new String[] {"body", "title"};
+    int[] maxPassages = new int[] {2, 1};
+    int cacheCharsThreshold = random().nextInt(1000);
+
+    UnifiedHighlighter sequential = new UnifiedHighlighter(searcher, indexAnalyzer);
+    sequential.setCacheFieldValCharsThreshold(cacheCharsThreshold);
+    Map<String, String[]> expected = sequential.highlightFields(fields, query, topDocs, maxPassages);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4),
+        new NamedThreadFactory("TestUnifiedHighlighter"));
+    try {
+      Executor[] executors = new Executor[] {
+          executorService,
+          Runnable::run,
+          r -> { throw new RejectedExecutionException(); }
+      };
+      for (Executor executor : executors) {
+        UnifiedHighlighter concurrent = new UnifiedHighlighter(searcher, indexAnalyzer);
+        concurrent.setCacheFieldValCharsThreshold(cacheCharsThreshold);
+        concurrent.setExecutor(executor);
+        Map<String, String[]> actual = concurrent.highlightFields(fields, query, topDocs, maxPassages);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String field : fields) {
+          assertArrayEquals(expected.get(field), actual.get(field));
+        }
+      }
+    } finally {
+      TestUtil.shutdownExecutorService(executorService);
+    }
+
+    ir.close();
+  }
+
+  public void testMaxAnalysisLength() throws Exception {
+    RandomIndexWriter iw = new RandomIndexWriter(random(), dir, indexAnalyzer);
+    Document doc = new Document();
+    doc.add(new Field("body", "This is a test. Just a test highlighting from analysis.", fieldType));
+    iw.addDocument(doc);
+    IndexReader ir = iw.getReader();
+    iw.close();
+
+    IndexSearcher searcher = newSearcher(ir);
+    UnifiedHighlighter highlighter = new UnifiedHighlighter(searcher, indexAnalyzer) {
+      @Override
+      protected OffsetSource getOffsetSource(String field) {
+        return OffsetSource.ANALYSIS;
+      }
+    };
+    Query query = new TermQuery(new Term("body", "highlighting"));
+    TopDocs topDocs = searcher.search(query, 10);
+    assertEquals("Just a test <b>highlighting</b> from analysis.",
+        highlighter.highlight("body", query, topDocs, 2)[0]);
+
+    // the match is beyond the analyzed content
+    highlighter.setMaxAnalysisLength(15);
+    assertEquals("This is a test.", highlighter.highlight("body", query, topDocs, 2)[0]);
+    expectThrows(IllegalArgumentException.class, () -> highlighter.setMaxAnalysisLength(-1));
+
+    ir.close();
+  }
 }
@@ -17,12 +17,15 @@
 package org.apache.lucene.search.join;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
 
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Scorable;
 import org.apache.lucene.util.LongBitSet;
@@ -49,6 +52,31 @@ final class GlobalOrdinalsCollector implements Collector {
     return collectedOrds;
   }
 
+  /**
+   * Returns a {@link CollectorManager} that collects the ordinals of every slice into its own
+   * collector, and merges them into the collector of the first slice.
+   */
+  static CollectorManager<GlobalOrdinalsCollector, GlobalOrdinalsCollector> createManager(
+      String field, OrdinalMap ordinalMap, long valueCount) {
+    return new CollectorManager<GlobalOrdinalsCollector, GlobalOrdinalsCollector>() {
+
+      @Override
+      public GlobalOrdinalsCollector newCollector() {
+        return new GlobalOrdinalsCollector(field, ordinalMap, valueCount);
+      }
+
+      @Override
+      public GlobalOrdinalsCollector reduce(Collection<GlobalOrdinalsCollector> collectors) {
+        Iterator<GlobalOrdinalsCollector> it = collectors.iterator();
+        GlobalOrdinalsCollector result = it.next();
+        while (it.hasNext()) {
+          result.collectedOrds.or(it.next().collectedOrds);
+        }
+        return result;
+      }
+    };
+  }
+
   @Override
   public org.apache.lucene.search.ScoreMode scoreMode() {
     return org.apache.lucene.search.ScoreMode.COMPLETE_NO_SCORES;
@@ -18,12 +18,16 @@ package org.apache.lucene.search.join;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Supplier;
 
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Scorable;
 import org.apache.lucene.util.LongBitSet;
@@ -82,6 +86,74 @@ abstract class GlobalOrdinalsWithScoreCollector implements Collector {
 
   protected abstract void doScore(int globalOrd, float existingScore, float newScore);
 
+  /**
+   * Merges the ordinals, scores and occurrences that another collector of the same kind
+   * collected on other segments into this collector. The other collector must not be used
+   * anymore, since blocks that this collector doesn't have yet are taken over.
+   */
+  void merge(GlobalOrdinalsWithScoreCollector other) {
+    collectedOrds.or(other.collectedOrds);
+    if (scores != null) {
+      final float[][] blocks = scores.blocks;
+      final float[][] otherBlocks = other.scores.blocks;
+      for (int block = 0; block < blocks.length; block++) {
+        if (otherBlocks[block] == null) {
+          continue;
+        }
+        if (blocks[block] == null) {
+          blocks[block] = otherBlocks[block];
+          continue;
+        }
+        // unset scores are neutral for all score modes, so whole blocks can be combined
+        final int base = block * arraySize;
+        for (int i = 0; i < arraySize; i++) {
+          doScore(base + i, blocks[block][i], otherBlocks[block][i]);
+        }
+      }
+    }
+    if (occurrences != null) {
+      final int[][] blocks = occurrences.blocks;
+      final int[][] otherBlocks = other.occurrences.blocks;
+      for (int block = 0; block < blocks.length; block++) {
+        if (otherBlocks[block] == null) {
+          continue;
+        }
+        if (blocks[block] == null) {
+          blocks[block] = otherBlocks[block];
+          continue;
+        }
+        for (int i = 0; i < arraySize; i++) {
+          blocks[block][i] += otherBlocks[block][i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a {@link CollectorManager} that collects every slice into its own collector
+   * created by the given supplier, and merges them into the collector of the first slice.
+   */
+  static CollectorManager<GlobalOrdinalsWithScoreCollector, GlobalOrdinalsWithScoreCollector> createManager(
+      Supplier<GlobalOrdinalsWithScoreCollector> supplier) {
+    return new CollectorManager<GlobalOrdinalsWithScoreCollector, GlobalOrdinalsWithScoreCollector>() {
+
+      @Override
+      public GlobalOrdinalsWithScoreCollector newCollector() {
+        return supplier.get();
+      }
+
+      @Override
+      public GlobalOrdinalsWithScoreCollector reduce(Collection<GlobalOrdinalsWithScoreCollector> collectors) {
+        Iterator<GlobalOrdinalsWithScoreCollector> it = collectors.iterator();
+        GlobalOrdinalsWithScoreCollector result = it.next();
+        while (it.hasNext()) {
+          result.merge(it.next());
+        }
+        return result;
+      }
+    };
+  }
+
   protected abstract float unset();
 
   @Override
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.TreeSet;
 import java.util.function.BiConsumer;
 import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
 import org.apache.lucene.document.DoublePoint;
 import org.apache.lucene.document.FloatPoint;
@@ -432,6 +433,9 @@ public final class JoinUtil {
    * Note: min and max filtering and the avg score mode will require this join to keep track of the number of times
    * a document matches per join value. This will increase the per join cost in terms of execution time and memory.
    *
+   * Note: if the searcher has an executor, the "from" documents are collected concurrently over the slices of the
+   * searcher, each slice into its own ordinals and scores, which are merged afterwards.
+   *
    * @param joinField   The {@link SortedDocValues} field containing the join values
    * @param fromQuery   The query containing the actual user query. Also the fromQuery can only match "from" documents.
    * @param toQuery     The query identifying all documents on the "to" side.
@@ -479,34 +483,37 @@ public final class JoinUtil {
 
     final Query rewrittenFromQuery = searcher.rewrite(fromQuery);
     final Query rewrittenToQuery = searcher.rewrite(toQuery);
-    GlobalOrdinalsWithScoreCollector globalOrdinalsWithScoreCollector;
+    // the from side is collected per slice of the searcher, and merged afterwards
+    final OrdinalMap globalOrdinals = ordinalMap;
+    final Supplier<GlobalOrdinalsWithScoreCollector> collectorSupplier;
     switch (scoreMode) {
       case Total:
-        globalOrdinalsWithScoreCollector = new GlobalOrdinalsWithScoreCollector.Sum(joinField, ordinalMap, valueCount, min, max);
+        collectorSupplier = () -> new GlobalOrdinalsWithScoreCollector.Sum(joinField, globalOrdinals, valueCount, min, max);
         break;
       case Min:
-        globalOrdinalsWithScoreCollector = new GlobalOrdinalsWithScoreCollector.Min(joinField, ordinalMap, valueCount, min, max);
+        collectorSupplier = () -> new GlobalOrdinalsWithScoreCollector.Min(joinField, globalOrdinals, valueCount, min, max);
         break;
       case Max:
-        globalOrdinalsWithScoreCollector = new GlobalOrdinalsWithScoreCollector.Max(joinField, ordinalMap, valueCount, min, max);
+        collectorSupplier = () -> new GlobalOrdinalsWithScoreCollector.Max(joinField, globalOrdinals, valueCount, min, max);
         break;
       case Avg:
-        globalOrdinalsWithScoreCollector = new GlobalOrdinalsWithScoreCollector.Avg(joinField, ordinalMap, valueCount, min, max);
+        collectorSupplier = () -> new GlobalOrdinalsWithScoreCollector.Avg(joinField, globalOrdinals, valueCount, min, max);
         break;
       case None:
         if (min <= 1 && max == Integer.MAX_VALUE) {
-          GlobalOrdinalsCollector globalOrdinalsCollector = new GlobalOrdinalsCollector(joinField, ordinalMap, valueCount);
-          searcher.search(rewrittenFromQuery, globalOrdinalsCollector);
+          GlobalOrdinalsCollector globalOrdinalsCollector = searcher.search(rewrittenFromQuery,
+              GlobalOrdinalsCollector.createManager(joinField, ordinalMap, valueCount));
           return new GlobalOrdinalsQuery(globalOrdinalsCollector.getCollectorOrdinals(), joinField, ordinalMap, rewrittenToQuery,
               rewrittenFromQuery, searcher.getTopReaderContext().id());
         } else {
-          globalOrdinalsWithScoreCollector = new GlobalOrdinalsWithScoreCollector.NoScore(joinField, ordinalMap, valueCount, min, max);
+          collectorSupplier = () -> new GlobalOrdinalsWithScoreCollector.NoScore(joinField, globalOrdinals, valueCount, min, max);
           break;
         }
       default:
         throw new IllegalArgumentException(String.format(Locale.ROOT, "Score mode %s isn't supported.", scoreMode));
     }
-    searcher.search(rewrittenFromQuery, globalOrdinalsWithScoreCollector);
+    GlobalOrdinalsWithScoreCollector globalOrdinalsWithScoreCollector = searcher.search(rewrittenFromQuery,
+        GlobalOrdinalsWithScoreCollector.createManager(collectorSupplier));
     return new GlobalOrdinalsWithScoreQuery(globalOrdinalsWithScoreCollector, scoreMode, joinField, ordinalMap, rewrittenToQuery,
         rewrittenFromQuery, min, max, searcher.getTopReaderContext().id());
   }
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search.join;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.packed.PackedInts;
+
+/**
+ * Caches the {@link OrdinalMap} of join fields for
+ * {@link JoinUtil#createJoinQuery(String, org.apache.lucene.search.Query, org.apache.lucene.search.Query,
+ * org.apache.lucene.search.IndexSearcher, ScoreMode, OrdinalMap, int, int)}.
+ * <p>
+ * An ordinal map only depends on the sorted doc values of the segments of a reader, so it is keyed
+ * by the core cache keys of these segments rather than by the reader itself: reopened readers
+ * whose segments did not change, for instance because only deletions were applied, share the
+ * ordinal map of the previous reader. Since global ordinals depend on the terms of all segments,
+ * the ordinal map is built again as soon as a segment was added or merged away.
+ * <p>
+ * Only the ordinal map of the most recent set of segments is kept per field. Readers with
+ * segments that have no core cache helper are not cached.
+ *
+ * @lucene.experimental
+ */
+public final class OrdinalMapCache implements Accountable {
+
+  private static final class Entry {
+    final IndexReader.CacheKey[] coreKeys;
+    final OrdinalMap ordinalMap;
+
+    Entry(IndexReader.CacheKey[] coreKeys, OrdinalMap ordinalMap) {
+      this.coreKeys = coreKeys;
+      this.ordinalMap = ordinalMap;
+    }
+  }
+
+  private final float acceptableOverheadRatio;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Create a new cache that builds ordinal maps with {@link PackedInts#DEFAULT}. */
+  public OrdinalMapCache() {
+    this(PackedInts.DEFAULT);
+  }
+
+  /**
+   * Create a new cache that builds ordinal maps with the given acceptable overhead ratio.
+   * @see OrdinalMap#build(IndexReader.CacheKey, SortedDocValues[], float)
+   */
+  public OrdinalMapCache(float acceptableOverheadRatio) {
+    this.acceptableOverheadRatio = acceptableOverheadRatio;
+  }
+
+  /**
+   * Return the ordinal map of the given {@link SortedDocValues} field over the segments of the
+   * given reader, which is built if the segments of the reader changed since the last call for
+   * this field.
+   */
+  public OrdinalMap getOrdinalMap(IndexReader reader, String field) throws IOException {
+    final List<LeafReaderContext> leaves = reader.leaves();
+    IndexReader.CacheKey[] coreKeys = new IndexReader.CacheKey[leaves.size()];
+    for (int i = 0; i < coreKeys.length; i++) {
+      // sorted doc values can't be updated, so they only change with the core of a segment
+      IndexReader.CacheHelper cacheHelper = leaves.get(i).reader().getCoreCacheHelper();
+      if (cacheHelper == null) {
+        coreKeys = null;
+        break;
+      }
+      coreKeys[i] = cacheHelper.getKey();
+    }
+
+    if (coreKeys != null) {
+      final Entry entry = entries.get(field);
+      // the order of segments matters too, since segments are identified by their ordinal in the map
+      if (entry != null && Arrays.equals(entry.coreKeys, coreKeys)) {
+        hitCount.incrementAndGet();
+        return entry.ordinalMap;
+      }
+    }
+    missCount.incrementAndGet();
+
+    final SortedDocValues[] values = new SortedDocValues[leaves.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = DocValues.getSorted(leaves.get(i).reader(), field);
+    }
+    final IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+    final OrdinalMap ordinalMap = OrdinalMap.build(cacheHelper == null ? null : cacheHelper.getKey(), values, acceptableOverheadRatio);
+    if (coreKeys != null) {
+      entries.put(field, new Entry(coreKeys, ordinalMap));
+    }
+    return ordinalMap;
+  }
+
+  /** Remove all cached ordinal maps. */
+  public void clear() {
+    entries.clear();
+  }
+
+  /** Return the number of calls that returned a cached ordinal map. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Return the number of calls that had to build an ordinal map. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    long bytes = RamUsageEstimator.shallowSizeOf(this);
+    for (Entry entry : entries.values()) {
+      bytes += entry.ordinalMap.ramBytesUsed() + RamUsageEstimator.shallowSizeOf(entry.coreKeys);
+    }
+    return bytes;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    final Map<String, Accountable> resources = new HashMap<>();
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      resources.put(entry.getKey(), entry.getValue().ordinalMap);
+    }
+    return Accountables.namedAccountables("field", resources);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(fields=" + entries.size() + ")";
+  }
+}
@@ -31,6 +31,10 @@ import java.util.Random;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.carrotsearch.randomizedtesting.generators.RandomNumbers;
 import com.carrotsearch.randomizedtesting.generators.RandomPicks;
@@ -75,6 +79,7 @@ import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.TestUtil;
 import org.apache.lucene.util.packed.PackedInts;
 import org.junit.Test;
@@ -648,6 +653,70 @@ public class TestJoinUtil extends LuceneTestCase {
     dir.close();
   }
 
+  public void testConcurrentGlobalOrdinalsJoin() throws Exception {
+    String priceField = "price";
+    Query priceQuery = numericDocValuesScoreQuery(priceField);
+
+    Directory dir = newDirectory();
+    RandomIndexWriter iw = new RandomIndexWriter(
+        random(),
+        dir,
+        newIndexWriterConfig(new MockAnalyzer(random(), MockTokenizer.KEYWORD, false))
+    );
+    int numParents = atLeast(100);
+    for (int p = 0; p < numParents; p++) {
+      String parentId = Integer.toString(p);
+      Document parentDoc = new Document();
+      parentDoc.add(new StringField("type", "to", Field.Store.NO));
+      parentDoc.add(new SortedDocValuesField("join_field", new BytesRef(parentId)));
+      iw.addDocument(parentDoc);
+      int numChildren = random().nextInt(8);
+      for (int c = 0; c < numChildren; c++) {
+        Document childDoc = new Document();
+        childDoc.add(new StringField("type", "from", Field.Store.NO));
+        childDoc.add(new SortedDocValuesField("join_field", new BytesRef(Integer.toString(random().nextInt(numParents)))));
+        childDoc.add(new NumericDocValuesField(priceField, random().nextInt(1000)));
+        iw.addDocument(childDoc);
+      }
+      if (random().nextInt(20) == 0) {
+        iw.commit();
+      }
+    }
+    IndexReader reader = iw.getReader();
+    iw.close();
+
+    ExecutorService executor = new ThreadPoolExecutor(0, RandomNumbers.randomIntBetween(random(), 2, 4), 1L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new NamedThreadFactory("TestJoinUtil"));
+    try {
+      IndexSearcher sequentialSearcher = new IndexSearcher(reader);
+      IndexSearcher concurrentSearcher = new IndexSearcher(reader, executor);
+      OrdinalMap ordinalMap = new OrdinalMapCache().getOrdinalMap(reader, "join_field");
+      Query fromQuery = new BooleanQuery.Builder()
+          .add(new TermQuery(new Term("type", "from")), BooleanClause.Occur.FILTER)
+          .add(priceQuery, BooleanClause.Occur.MUST)
+          .build();
+      Query toQuery = new TermQuery(new Term("type", "to"));
+      for (ScoreMode scoreMode : ScoreMode.values()) {
+        int min = random().nextBoolean() ? 0 : random().nextInt(4);
+        int max = random().nextBoolean() ? Integer.MAX_VALUE : min + random().nextInt(4);
+        Query expectedQuery = JoinUtil.createJoinQuery("join_field", fromQuery, toQuery, sequentialSearcher, scoreMode, ordinalMap, min, max);
+        Query actualQuery = JoinUtil.createJoinQuery("join_field", fromQuery, toQuery, concurrentSearcher, scoreMode, ordinalMap, min, max);
+        TopDocs expected = sequentialSearcher.search(expectedQuery, reader.maxDoc());
+        TopDocs actual = sequentialSearcher.search(actualQuery, reader.maxDoc());
+        assertEquals(expected.totalHits.value, actual.totalHits.value);
+        // prices are small integers, so their sums don't depend on the order of collection
+        for (int i = 0; i < expected.scoreDocs.length; i++) {
+          assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+          assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, 0f);
+        }
+      }
+    } finally {
+      TestUtil.shutdownExecutorService(executor);
+    }
+    reader.close();
+    dir.close();
+  }
+
   public void testRewrite() throws IOException {
     Directory dir = newDirectory();
     RandomIndexWriter w = new RandomIndexWriter(random(), dir);
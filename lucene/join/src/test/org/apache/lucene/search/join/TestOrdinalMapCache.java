@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search.join;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.packed.PackedInts;
+
+public class TestOrdinalMapCache extends LuceneTestCase {
+
+  private static void addDocument(IndexWriter w, String id, String joinValue) throws IOException {
+    Document doc = new Document();
+    doc.add(new StringField("id", id, Field.Store.NO));
+    doc.add(new SortedDocValuesField("join_field", new BytesRef(joinValue)));
+    w.addDocument(doc);
+  }
+
+  private static void assertSameOrdinals(DirectoryReader reader, OrdinalMap ordinalMap) throws IOException {
+    SortedDocValues[] values = new SortedDocValues[reader.leaves().size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = DocValues.getSorted(reader.leaves().get(i).reader(), "join_field");
+    }
+    OrdinalMap expected = OrdinalMap.build(null, values, PackedInts.DEFAULT);
+    assertEquals(expected.getValueCount(), ordinalMap.getValueCount());
+    for (int i = 0; i < values.length; i++) {
+      for (int ord = 0; ord < values[i].getValueCount(); ord++) {
+        assertEquals(expected.getGlobalOrds(i).get(ord), ordinalMap.getGlobalOrds(i).get(ord));
+      }
+    }
+  }
+
+  public void testReopen() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, newIndexWriterConfig(new MockAnalyzer(random())).setMergePolicy(NoMergePolicy.INSTANCE));
+    addDocument(w, "1", "a");
+    addDocument(w, "2", "c");
+    w.commit();
+    addDocument(w, "3", "b");
+    addDocument(w, "4", "c");
+    w.commit();
+
+    OrdinalMapCache cache = new OrdinalMapCache();
+    DirectoryReader r1 = DirectoryReader.open(w);
+    OrdinalMap m1 = cache.getOrdinalMap(r1, "join_field");
+    assertSameOrdinals(r1, m1);
+    assertSame(m1, cache.getOrdinalMap(r1, "join_field"));
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertTrue(cache.ramBytesUsed() > 0);
+
+    // deletions don't change the segments
+    w.deleteDocuments(new Term("id", "1"));
+    DirectoryReader r2 = DirectoryReader.openIfChanged(r1, w);
+    assertNotNull(r2);
+    assertSame(m1, cache.getOrdinalMap(r2, "join_field"));
+    assertEquals(2, cache.getHitCount());
+
+    // a new segment requires a new ordinal map
+    addDocument(w, "5", "ab");
+    DirectoryReader r3 = DirectoryReader.openIfChanged(r2, w);
+    assertNotNull(r3);
+    OrdinalMap m3 = cache.getOrdinalMap(r3, "join_field");
+    assertNotSame(m1, m3);
+    assertSameOrdinals(r3, m3);
+    assertEquals(2, cache.getMissCount());
+
+    // only the latest ordinal map is kept
+    assertNotSame(m1, cache.getOrdinalMap(r1, "join_field"));
+    assertEquals(3, cache.getMissCount());
+
+    cache.clear();
+    cache.getOrdinalMap(r3, "join_field");
+    assertEquals(4, cache.getMissCount());
+
+    r1.close();
+    r2.close();
+    r3.close();
+    w.close();
+    dir.close();
+  }
+}
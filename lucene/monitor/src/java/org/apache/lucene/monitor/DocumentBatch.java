@@ -43,7 +43,20 @@ abstract class DocumentBatch implements Closeable, Supplier<LeafReader> {
    * @return the batch containing the input document
    */
   public static DocumentBatch of(Analyzer analyzer, Document doc) {
-    return new SingletonDocumentBatch(analyzer, doc);
+    return new SingletonDocumentBatch(analyzer, new MemoryIndex(true, true), doc, false);
+  }
+
+  /**
+   * Create a DocumentBatch containing a single InputDocument, indexed into an
+   * existing {@link MemoryIndex}.  The MemoryIndex is reset when the batch is closed,
+   * so that it can be reused for another batch.
+   *
+   * @param memoryIndex an empty MemoryIndex that stores offsets and payloads
+   * @param doc the document to add
+   * @return the batch containing the input document
+   */
+  public static DocumentBatch of(Analyzer analyzer, MemoryIndex memoryIndex, Document doc) {
+    return new SingletonDocumentBatch(analyzer, memoryIndex, doc, true);
   }
 
   /**
@@ -57,7 +70,7 @@ abstract class DocumentBatch implements Closeable, Supplier<LeafReader> {
     if (docs.length == 0) {
       throw new IllegalArgumentException("A DocumentBatch must contain at least one document");
     } else if (docs.length == 1) {
-      return new SingletonDocumentBatch(analyzer, docs[0]);
+      return new SingletonDocumentBatch(analyzer, new MemoryIndex(true, true), docs[0], false);
     } else {
       return new MultiDocumentBatch(analyzer, docs);
     }
@@ -104,10 +117,13 @@ abstract class DocumentBatch implements Closeable, Supplier<LeafReader> {
   // better performing than RAMDirectory for this case
   private static class SingletonDocumentBatch extends DocumentBatch {
 
+    private final MemoryIndex memoryindex;
+    private final boolean reuse;
     private final LeafReader reader;
 
-    private SingletonDocumentBatch(Analyzer analyzer, Document doc) {
-      MemoryIndex memoryindex = new MemoryIndex(true, true);
+    private SingletonDocumentBatch(Analyzer analyzer, MemoryIndex memoryindex, Document doc, boolean reuse) {
+      this.memoryindex = memoryindex;
+      this.reuse = reuse;
       for (IndexableField field : doc) {
         memoryindex.addField(field, analyzer);
       }
@@ -123,6 +139,9 @@ abstract class DocumentBatch implements Closeable, Supplier<LeafReader> {
     @Override
     public void close() throws IOException {
       reader.close();
+      if (reuse) {
+        memoryindex.reset();
+      }
     }
   }
 
@@ -257,7 +257,7 @@ public class Monitor implements Closeable {
       LeafReader reader = batch.get();
       CandidateMatcher<T> matcher = factory.createMatcher(new IndexSearcher(batch.get()));
       StandardQueryCollector<T> collector = new StandardQueryCollector<>(matcher);
-      long buildTime = queryIndex.search(t -> presearcher.buildQuery(reader, t), collector);
+      long buildTime = presearch(reader, collector);
       return matcher.finish(buildTime, collector.queryCount);
     }
   }
@@ -276,6 +276,31 @@ public class Monitor implements Closeable {
     return match(new Document[]{ doc }, factory).singleton();
   }
 
+  /**
+   * Create a {@link StreamingMatcher} that matches single documents against the queryindex
+   * in a pipeline, with candidate queries partitioned amongst dedicated worker threads.
+   *
+   * @param factory      a {@link MatcherFactory} to use to create {@link CandidateMatcher}s for each partition
+   * @param partitions   the number of query partitions, each of which is matched by its own thread
+   * @param depth        the maximum number of documents in the pipeline
+   * @param listener     a {@link QueryTimeListener} to notify of query and stage times, or {@code null}
+   * @param <T>          the type of {@link QueryMatch} to return
+   * @return a StreamingMatcher, which must be closed after use
+   */
+  public <T extends QueryMatch> StreamingMatcher<T> streamingMatcher(MatcherFactory<T> factory, int partitions,
+                                                                     int depth, QueryTimeListener listener) {
+    return new StreamingMatcher<>(this, factory, partitions, depth, listener);
+  }
+
+  Analyzer getAnalyzer() {
+    return analyzer;
+  }
+
+  // Runs the presearcher over a document reader, returning the query build time
+  long presearch(LeafReader reader, QueryIndex.QueryCollector collector) throws IOException {
+    return queryIndex.search(t -> presearcher.buildQuery(reader, t), collector);
+  }
+
   /**
    * Get the MonitorQuery for a given query id
    *
@@ -314,12 +339,12 @@ public class Monitor implements Closeable {
   }
 
   // For each query selected by the presearcher, pass on to a CandidateMatcher
-  private static class StandardQueryCollector<T extends QueryMatch> implements QueryIndex.QueryCollector {
+  static class StandardQueryCollector<T extends QueryMatch> implements QueryIndex.QueryCollector {
 
     final CandidateMatcher<T> matcher;
     int queryCount = 0;
 
-    private StandardQueryCollector(CandidateMatcher<T> matcher) {
+    StandardQueryCollector(CandidateMatcher<T> matcher) {
       this.matcher = matcher;
     }
 
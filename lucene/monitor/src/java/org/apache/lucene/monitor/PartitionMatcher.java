@@ -54,13 +54,14 @@ public class PartitionMatcher<T extends QueryMatch> extends CandidateMatcher<T>
 
   private final CandidateMatcher<T> resolvingMatcher;
 
-  private static class MatchTask {
+  // a query to match, also buffered by StreamingMatcher
+  static class MatchTask {
 
     final String queryId;
     final Query matchQuery;
     final Map<String, String> metadata;
 
-    private MatchTask(String queryId, Query matchQuery, Map<String, String> metadata) {
+    MatchTask(String queryId, Query matchQuery, Map<String, String> metadata) {
       this.queryId = queryId;
       this.matchQuery = matchQuery;
       this.metadata = metadata;
@@ -32,6 +32,18 @@ public interface QueryTimeListener {
    */
   void logQueryTime(String queryId, long timeInNanos);
 
+  /**
+   * How long it took the presearcher of a {@link StreamingMatcher} to select the candidate
+   * queries for a document, including the time to index the document
+   */
+  default void logPresearchTime(int candidateCount, long timeInNanos) { }
+
+  /**
+   * How long it took a partition of a {@link StreamingMatcher} to run its candidate
+   * queries against a document
+   */
+  default void logPartitionTime(int partition, int queryCount, long timeInNanos) { }
+
   /**
    * A wrapping matcher factory to log query times to a QueryTimeListener
    * @param factory   a matcher factory to use for the actual matching
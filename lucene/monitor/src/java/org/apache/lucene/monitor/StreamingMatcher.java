@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.monitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.memory.MemoryIndex;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.ThreadInterruptedException;
+
+/**
+ * Matches a stream of single documents against the queries of a {@link Monitor}.
+ * <p>
+ * Documents go through a pipeline of two stages.  A presearcher thread indexes each
+ * document into a {@link MemoryIndex}, which are pooled and reused between documents,
+ * and selects the candidate queries.  The candidates are then split into partitions by
+ * their query id, and each partition is matched by a dedicated thread, so that the
+ * same queries are always run by the same thread.  The presearcher selects the
+ * candidates of the next documents while the partitions match the previous ones.
+ * <p>
+ * The pipeline holds at most {@code depth} documents; {@link #match(Document)} blocks
+ * until there is room for another document.  Per-query times, as well as the times
+ * of both stages, are reported to an optional {@link QueryTimeListener}.
+ *
+ * @param <T> the type of QueryMatch to return
+ * @see Monitor#streamingMatcher(MatcherFactory, int, int, QueryTimeListener)
+ */
+public class StreamingMatcher<T extends QueryMatch> implements Closeable {
+
+  private final Monitor monitor;
+  private final MatcherFactory<T> matcherFactory;
+  private final QueryTimeListener listener;
+  private final BlockingQueue<MemoryIndex> memoryIndexes;
+  private final ExecutorService presearchExecutor;
+  private final ExecutorService[] partitionExecutors;
+
+  private volatile boolean closed;
+
+  StreamingMatcher(Monitor monitor, MatcherFactory<T> matcherFactory, int partitions, int depth,
+                   QueryTimeListener listener) {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("partitions must be at least 1, got " + partitions);
+    }
+    if (depth < 1) {
+      throw new IllegalArgumentException("depth must be at least 1, got " + depth);
+    }
+    this.monitor = monitor;
+    this.matcherFactory = listener == null ? matcherFactory : QueryTimeListener.timingMatcher(matcherFactory, listener);
+    this.listener = listener;
+    this.memoryIndexes = new ArrayBlockingQueue<>(depth);
+    for (int i = 0; i < depth; i++) {
+      memoryIndexes.add(new MemoryIndex(true, true));
+    }
+    this.presearchExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("monitor-presearch"));
+    this.partitionExecutors = new ExecutorService[partitions];
+    for (int i = 0; i < partitions; i++) {
+      partitionExecutors[i] = Executors.newSingleThreadExecutor(new NamedThreadFactory("monitor-partition-" + i));
+    }
+  }
+
+  /**
+   * Add a document to the pipeline, blocking while the pipeline is full
+   *
+   * @param doc the document to match
+   * @return a future that completes with the matches of the document
+   * @throws ThreadInterruptedException if interrupted while waiting for room in the pipeline
+   */
+  public CompletableFuture<MatchingQueries<T>> match(Document doc) {
+    if (closed) {
+      throw new AlreadyClosedException("this StreamingMatcher is closed");
+    }
+    final MemoryIndex memoryIndex;
+    try {
+      memoryIndex = memoryIndexes.take();
+    } catch (InterruptedException e) {
+      throw new ThreadInterruptedException(e);
+    }
+    CompletableFuture<MatchingQueries<T>> result = new CompletableFuture<>();
+    try {
+      presearchExecutor.execute(() -> presearch(doc, memoryIndex, result));
+    } catch (RejectedExecutionException e) {
+      // closed concurrently, the MemoryIndex has not been used yet
+      memoryIndexes.add(memoryIndex);
+      throw new AlreadyClosedException("this StreamingMatcher is closed", e);
+    }
+    return result;
+  }
+
+  // Like PartitionMatcher, buffers the candidate queries of a document into partitions,
+  // and merges the matches of the partitions when it is finished.  The partitions are
+  // matched asynchronously, see presearch, and it is only finished once they all are.
+  private static class PartitioningMatcher<T extends QueryMatch> extends CandidateMatcher<T> {
+
+    private final CandidateMatcher<T> resolvingMatcher;
+    final List<List<PartitionMatcher.MatchTask>> partitions;
+    final List<CompletableFuture<MultiMatchingQueries<T>>> results = new ArrayList<>();
+
+    PartitioningMatcher(IndexSearcher searcher, CandidateMatcher<T> resolvingMatcher, int partitions) {
+      super(searcher);
+      this.resolvingMatcher = resolvingMatcher;
+      this.partitions = new ArrayList<>(partitions);
+      for (int i = 0; i < partitions; i++) {
+        this.partitions.add(new ArrayList<>());
+      }
+    }
+
+    @Override
+    protected void matchQuery(String queryId, Query matchQuery, Map<String, String> metadata) {
+      int partition = Math.floorMod(queryId.hashCode(), partitions.size());
+      partitions.get(partition).add(new PartitionMatcher.MatchTask(queryId, matchQuery, metadata));
+    }
+
+    @Override
+    public T resolve(T match1, T match2) {
+      return resolvingMatcher.resolve(match1, match2);
+    }
+
+    @Override
+    protected void doFinish() {
+      for (CompletableFuture<MultiMatchingQueries<T>> result : results) {
+        MultiMatchingQueries<T> matches = result.join();
+        for (T match : matches.getMatches(0)) {
+          addMatch(match, 0);
+        }
+        matches.getErrors().forEach(this::reportError);
+      }
+    }
+  }
+
+  private void presearch(Document doc, MemoryIndex memoryIndex, CompletableFuture<MatchingQueries<T>> result) {
+    DocumentBatch batch = null;
+    try {
+      long start = System.nanoTime();
+      batch = DocumentBatch.of(monitor.getAnalyzer(), memoryIndex, doc);
+      LeafReader reader = batch.get();
+      IndexSearcher searcher = new IndexSearcher(reader);
+      PartitioningMatcher<T> matcher = new PartitioningMatcher<>(searcher, matcherFactory.createMatcher(searcher),
+          partitionExecutors.length);
+      Monitor.StandardQueryCollector<T> collector = new Monitor.StandardQueryCollector<>(matcher);
+      long buildTime = monitor.presearch(reader, collector);
+      if (listener != null) {
+        listener.logPresearchTime(collector.queryCount, System.nanoTime() - start);
+      }
+
+      for (int i = 0; i < partitionExecutors.length; i++) {
+        List<PartitionMatcher.MatchTask> tasks = matcher.partitions.get(i);
+        if (tasks.isEmpty() == false) {
+          final int partition = i;
+          matcher.results.add(CompletableFuture.supplyAsync(() -> matchPartition(partition, searcher, tasks), partitionExecutors[i]));
+        }
+      }
+
+      final DocumentBatch matchedBatch = batch;
+      batch = null;
+      CompletableFuture.allOf(matcher.results.toArray(new CompletableFuture<?>[0])).whenComplete((v, e) -> {
+        try {
+          if (e != null) {
+            result.completeExceptionally(e);
+          } else {
+            result.complete(matcher.finish(buildTime, collector.queryCount).singleton());
+          }
+        } catch (Throwable t) {
+          result.completeExceptionally(t);
+        } finally {
+          release(matchedBatch, memoryIndex, result);
+        }
+      });
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+      if (batch != null) {
+        release(batch, memoryIndex, result);
+      } else {
+        memoryIndex.reset();
+        memoryIndexes.add(memoryIndex);
+      }
+    }
+  }
+
+  private MultiMatchingQueries<T> matchPartition(int partition, IndexSearcher searcher, List<PartitionMatcher.MatchTask> tasks) {
+    long start = System.nanoTime();
+    CandidateMatcher<T> matcher = matcherFactory.createMatcher(searcher);
+    for (PartitionMatcher.MatchTask task : tasks) {
+      try {
+        matcher.matchQuery(task.queryId, task.matchQuery, task.metadata);
+      } catch (Exception e) {
+        matcher.reportError(task.queryId, e);
+      }
+    }
+    MultiMatchingQueries<T> matches = matcher.finish(0, tasks.size());
+    if (listener != null) {
+      listener.logPartitionTime(partition, tasks.size(), System.nanoTime() - start);
+    }
+    return matches;
+  }
+
+  // Resets the MemoryIndex of a batch and returns it to the pool
+  private void release(DocumentBatch batch, MemoryIndex memoryIndex, CompletableFuture<MatchingQueries<T>> result) {
+    try {
+      batch.close();
+    } catch (IOException e) {
+      result.completeExceptionally(e);
+      memoryIndex.reset();
+    } finally {
+      memoryIndexes.add(memoryIndex);
+    }
+  }
+
+  /**
+   * Waits for the documents in the pipeline to be matched, and stops the worker threads
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      presearchExecutor.shutdown();
+      presearchExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      for (ExecutorService executor : partitionExecutors) {
+        executor.shutdown();
+      }
+      for (ExecutorService executor : partitionExecutors) {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      }
+    } catch (InterruptedException e) {
+      throw new ThreadInterruptedException(e);
+    }
+  }
+
+}
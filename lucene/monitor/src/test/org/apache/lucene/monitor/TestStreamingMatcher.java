@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.monitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.store.AlreadyClosedException;
+
+public class TestStreamingMatcher extends MonitorTestBase {
+
+  private static Document doc(String text) {
+    Document doc = new Document();
+    doc.add(newTextField(FIELD, text, Field.Store.NO));
+    return doc;
+  }
+
+  public void testMatchesAreTheSameAsMonitorMatches() throws Exception {
+    try (Monitor monitor = newMonitor()) {
+      List<MonitorQuery> queries = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        queries.add(new MonitorQuery(Integer.toString(i), parse("term" + (i % 20) + " OR other" + (i % 7) + "^2")));
+      }
+      monitor.register(queries);
+
+      List<Document> docs = new ArrayList<>();
+      int numDocs = atLeast(50);
+      for (int i = 0; i < numDocs; i++) {
+        docs.add(doc("term" + random().nextInt(25) + " other" + random().nextInt(10) + " term" + random().nextInt(25)));
+      }
+
+      int partitions = random().nextInt(4) + 1;
+      int depth = random().nextInt(4) + 1;
+      List<CompletableFuture<MatchingQueries<ScoringMatch>>> futures = new ArrayList<>();
+      try (StreamingMatcher<ScoringMatch> matcher
+               = monitor.streamingMatcher(ScoringMatch.DEFAULT_MATCHER, partitions, depth, null)) {
+        for (Document doc : docs) {
+          futures.add(matcher.match(doc));
+        }
+      }
+
+      for (int i = 0; i < docs.size(); i++) {
+        MatchingQueries<ScoringMatch> expected = monitor.match(docs.get(i), ScoringMatch.DEFAULT_MATCHER);
+        MatchingQueries<ScoringMatch> actual = futures.get(i).get();
+        assertEquals(expected.getQueriesRun(), actual.getQueriesRun());
+        assertEquals(expected.getMatchCount(), actual.getMatchCount());
+        assertTrue(actual.getErrors().isEmpty());
+        for (ScoringMatch match : expected.getMatches()) {
+          ScoringMatch actualMatch = actual.matches(match.getQueryId());
+          assertNotNull(actualMatch);
+          assertEquals(match.getScore(), actualMatch.getScore(), 0.0001f);
+        }
+      }
+    }
+  }
+
+  public void testListenerAndErrors() throws Exception {
+    try (Monitor monitor = newMonitor()) {
+      monitor.register(mq("1", "test"), mq("2", "+test +doc"),
+          new MonitorQuery("3", new ThrowOnRewriteQuery()));
+
+      AtomicInteger queryTimes = new AtomicInteger();
+      AtomicInteger presearchedCandidates = new AtomicInteger();
+      AtomicInteger partitionedQueries = new AtomicInteger();
+      AtomicLong stageTime = new AtomicLong();
+      QueryTimeListener listener = new QueryTimeListener() {
+        @Override
+        public void logQueryTime(String queryId, long timeInNanos) {
+          queryTimes.incrementAndGet();
+        }
+
+        @Override
+        public void logPresearchTime(int candidateCount, long timeInNanos) {
+          presearchedCandidates.addAndGet(candidateCount);
+          stageTime.addAndGet(timeInNanos);
+        }
+
+        @Override
+        public void logPartitionTime(int partition, int queryCount, long timeInNanos) {
+          partitionedQueries.addAndGet(queryCount);
+        }
+      };
+
+      StreamingMatcher<QueryMatch> matcher = monitor.streamingMatcher(QueryMatch.SIMPLE_MATCHER, 2, 2, listener);
+      MatchingQueries<QueryMatch> matches = matcher.match(doc("test doc")).get();
+      matcher.close();
+
+      assertEquals(3, matches.getQueriesRun());
+      assertEquals(2, matches.getMatchCount());
+      assertEquals(1, matches.getErrors().size());
+      assertTrue(matches.getErrors().containsKey("3"));
+      assertEquals(2, queryTimes.get());
+      assertEquals(3, presearchedCandidates.get());
+      assertEquals(3, partitionedQueries.get());
+      assertTrue(stageTime.get() > 0);
+
+      expectThrows(AlreadyClosedException.class, () -> matcher.match(doc("test")));
+    }
+  }
+
+  public void testConcurrentClose() throws Exception {
+    try (Monitor monitor = newMonitor()) {
+      monitor.register(mq("1", "test"), mq("2", "+test +doc"));
+
+      StreamingMatcher<QueryMatch> matcher = monitor.streamingMatcher(QueryMatch.SIMPLE_MATCHER, 2, 2, null);
+      List<CompletableFuture<MatchingQueries<QueryMatch>>> futures = new ArrayList<>();
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      CountDownLatch started = new CountDownLatch(1);
+      Thread thread = new Thread(() -> {
+        try {
+          while (true) {
+            futures.add(matcher.match(doc("test doc")));
+            started.countDown();
+          }
+        } catch (AlreadyClosedException e) {
+          // expected
+        } catch (Throwable t) {
+          failure.set(t);
+        } finally {
+          started.countDown();
+        }
+      });
+      thread.start();
+      started.await();
+      matcher.close();
+      thread.join();
+
+      assertNull(failure.get());
+      for (CompletableFuture<MatchingQueries<QueryMatch>> future : futures) {
+        assertEquals(2, future.get().getMatchCount());
+      }
+    }
+  }
+
+  public void testInvalidArguments() throws Exception {
+    try (Monitor monitor = newMonitor()) {
+      expectThrows(IllegalArgumentException.class,
+          () -> monitor.streamingMatcher(QueryMatch.SIMPLE_MATCHER, 0, 1, null));
+      expectThrows(IllegalArgumentException.class,
+          () -> monitor.streamingMatcher(QueryMatch.SIMPLE_MATCHER, 1, 0, null));
+    }
+  }
+
+}
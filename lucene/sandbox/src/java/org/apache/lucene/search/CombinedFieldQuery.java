@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,9 +30,14 @@ import java.util.Set;
 import java.util.TreeMap;
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.Impact;
+import org.apache.lucene.index.Impacts;
+import org.apache.lucene.index.ImpactsEnum;
+import org.apache.lucene.index.ImpactsSource;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SlowImpactsEnum;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermState;
 import org.apache.lucene.index.TermStates;
@@ -42,6 +48,7 @@ import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.search.similarities.SimilarityBase;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.PriorityQueue;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.lucene.util.SmallFloat;
 
@@ -72,6 +79,10 @@ import org.apache.lucene.util.SmallFloat;
  * same approach but allows other similarities besides {@link
  * org.apache.lucene.search.similarities.BM25Similarity}.
  *
+ * <p>The impacts of the terms in each field are merged into impacts of the combined field, so that
+ * top-k retrieval can skip blocks of documents that can't be competitive, like with {@link
+ * TermQuery}.
+ *
  * @lucene.experimental
  */
 public final class CombinedFieldQuery extends Query implements Accountable {
@@ -298,6 +309,7 @@ public final class CombinedFieldQuery extends Query implements Accountable {
 
   class CombinedFieldWeight extends Weight {
     private final IndexSearcher searcher;
+    private final ScoreMode scoreMode;
     private final TermStates termStates[];
     private final Similarity.SimScorer simWeight;
 
@@ -306,6 +318,7 @@ public final class CombinedFieldQuery extends Query implements Accountable {
       super(query);
       assert scoreMode.needsScores();
       this.searcher = searcher;
+      this.scoreMode = scoreMode;
       long docFreq = 0;
       long totalTermFreq = 0;
       termStates = new TermStates[fieldTerms.length];
@@ -392,14 +405,22 @@ public final class CombinedFieldQuery extends Query implements Accountable {
     @Override
     public Scorer scorer(LeafReaderContext context) throws IOException {
       List<PostingsEnum> iterators = new ArrayList<>();
+      List<ImpactsEnum> impacts = new ArrayList<>();
       List<FieldAndWeight> fields = new ArrayList<>();
       for (int i = 0; i < fieldTerms.length; i++) {
         TermState state = termStates[i].get(context);
         if (state != null) {
           TermsEnum termsEnum = context.reader().terms(fieldTerms[i].field()).iterator();
           termsEnum.seekExact(fieldTerms[i].bytes(), state);
-          PostingsEnum postingsEnum = termsEnum.postings(null, PostingsEnum.FREQS);
-          iterators.add(postingsEnum);
+          if (scoreMode == ScoreMode.TOP_SCORES) {
+            ImpactsEnum impactsEnum = termsEnum.impacts(PostingsEnum.FREQS);
+            iterators.add(impactsEnum);
+            impacts.add(impactsEnum);
+          } else {
+            PostingsEnum postingsEnum = termsEnum.postings(null, PostingsEnum.FREQS);
+            iterators.add(postingsEnum);
+            impacts.add(new SlowImpactsEnum(postingsEnum));
+          }
           fields.add(fieldAndWeights.get(fieldTerms[i].field()));
         }
       }
@@ -423,7 +444,23 @@ public final class CombinedFieldQuery extends Query implements Accountable {
       // Even though it is called approximation, it is accurate since none of
       // the sub iterators are two-phase iterators.
       DocIdSetIterator iterator = new DisjunctionDISIApproximation(queue);
-      return new CombinedFieldScorer(this, queue, iterator, scoringSimScorer);
+
+      float[] weights = new float[fields.size()];
+      boolean hasNorms = false;
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] = fields.get(i).weight;
+        FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(fields.get(i).field);
+        hasNorms |= fieldInfo != null && fieldInfo.hasNorms();
+      }
+      ImpactsSource impactsSource =
+          mergeImpacts(impacts.toArray(new ImpactsEnum[0]), weights, hasNorms);
+      ImpactsDISI impactsDisi = new ImpactsDISI(iterator, impactsSource, simWeight);
+
+      if (scoreMode == ScoreMode.TOP_SCORES) {
+        iterator = impactsDisi;
+      }
+
+      return new CombinedFieldScorer(this, queue, iterator, impactsDisi, scoringSimScorer);
     }
 
     @Override
@@ -432,6 +469,168 @@ public final class CombinedFieldQuery extends Query implements Accountable {
     }
   }
 
+  /**
+   * Merges the impacts of the terms in each field into impacts of the combined field.
+   *
+   * <p>The length of the combined field is the sum of the weighted lengths of all fields, so a
+   * document whose combined length is {@code L} has, in each field, at most the frequency of the
+   * impacts of that field whose weighted length is at most {@code L}. Impacts are thus merged by
+   * weighted length, like {@link SynonymQuery} merges impacts by norm, summing the weighted
+   * frequencies of the impacts seen so far. Norms are computed the same way as {@link
+   * MultiNormsLeafSimScorer}, or are always 1 if no field has norms.
+   */
+  static ImpactsSource mergeImpacts(
+      ImpactsEnum[] impactsEnums, float[] weights, boolean hasNorms) {
+    assert impactsEnums.length == weights.length;
+    return new ImpactsSource() {
+
+      class SubIterator {
+        final Iterator<Impact> iterator;
+        final float weight;
+        // weighted frequency and length of the current impact
+        long freq;
+        float length;
+        long previousFreq;
+        boolean exhausted;
+
+        SubIterator(Iterator<Impact> iterator, float weight) {
+          this.iterator = iterator;
+          this.weight = weight;
+          next();
+        }
+
+        void next() {
+          previousFreq = freq;
+          if (iterator.hasNext() == false) {
+            exhausted = true;
+          } else {
+            Impact impact = iterator.next();
+            // same float computations as the scorer, so that these are bounds
+            freq = (long) Math.ceil(weight * impact.freq);
+            if (hasNorms) {
+              int norm = Byte.toUnsignedInt((byte) impact.norm);
+              length = weight * MultiNormsLeafSimScorer.LENGTH_TABLE[norm];
+            } else {
+              length = 0f;
+            }
+          }
+        }
+      }
+
+      @Override
+      public Impacts getImpacts() throws IOException {
+        final Impacts[] impacts = new Impacts[impactsEnums.length];
+        // Use the impacts that have the lower next boundary as a lead.
+        // It will decide on the number of levels and the block boundaries.
+        Impacts tmpLead = null;
+        for (int i = 0; i < impactsEnums.length; ++i) {
+          impacts[i] = impactsEnums[i].getImpacts();
+          if (tmpLead == null || impacts[i].getDocIdUpTo(0) < tmpLead.getDocIdUpTo(0)) {
+            tmpLead = impacts[i];
+          }
+        }
+        final Impacts lead = tmpLead;
+        return new Impacts() {
+
+          @Override
+          public int numLevels() {
+            // Delegate to the lead
+            return lead.numLevels();
+          }
+
+          @Override
+          public int getDocIdUpTo(int level) {
+            // Delegate to the lead
+            return lead.getDocIdUpTo(level);
+          }
+
+          /**
+           * Return the minimum level whose impacts are valid up to {@code docIdUpTo}, or {@code -1}
+           * if there is no such level.
+           */
+          private int getLevel(Impacts impacts, int docIdUpTo) {
+            for (int level = 0, numLevels = impacts.numLevels(); level < numLevels; ++level) {
+              if (impacts.getDocIdUpTo(level) >= docIdUpTo) {
+                return level;
+              }
+            }
+            return -1;
+          }
+
+          @Override
+          public List<Impact> getImpacts(int level) {
+            final int docIdUpTo = getDocIdUpTo(level);
+
+            PriorityQueue<SubIterator> pq =
+                new PriorityQueue<SubIterator>(impactsEnums.length) {
+                  @Override
+                  protected boolean lessThan(SubIterator a, SubIterator b) {
+                    if (a.exhausted) {
+                      return false;
+                    }
+                    if (b.exhausted) {
+                      return true;
+                    }
+                    return a.length < b.length;
+                  }
+                };
+            for (int i = 0; i < impactsEnums.length; ++i) {
+              if (impactsEnums[i].docID() <= docIdUpTo) {
+                int impactsLevel = getLevel(impacts[i], docIdUpTo);
+                if (impactsLevel == -1) {
+                  // One instance doesn't have impacts that cover up to docIdUpTo
+                  // Return impacts that trigger the maximum score
+                  return Collections.singletonList(new Impact(Integer.MAX_VALUE, 1L));
+                }
+                pq.add(new SubIterator(impacts[i].getImpacts(impactsLevel).iterator(), weights[i]));
+              }
+            }
+            // otherwise it would mean the docID is > docIdUpTo, which is wrong
+            assert pq.size() > 0;
+
+            List<Impact> mergedImpacts = new ArrayList<>();
+            long sumTf = 0;
+            SubIterator top = pq.top();
+            do {
+              final float length = top.length;
+              do {
+                sumTf += top.freq - top.previousFreq;
+                top.next();
+                top = pq.updateTop();
+              } while (top.exhausted == false && top.length == length);
+
+              final int freqUpperBound = (int) Math.min(Integer.MAX_VALUE, sumTf);
+              final long norm = hasNorms ? SmallFloat.intToByte4(Math.round(length)) : 1L;
+              if (mergedImpacts.isEmpty()) {
+                mergedImpacts.add(new Impact(freqUpperBound, norm));
+              } else {
+                Impact prevImpact = mergedImpacts.get(mergedImpacts.size() - 1);
+                assert Long.compareUnsigned(prevImpact.norm, norm) <= 0;
+                if (prevImpact.norm == norm) {
+                  // different lengths may round to the same norm
+                  prevImpact.freq = Math.max(prevImpact.freq, freqUpperBound);
+                } else if (freqUpperBound > prevImpact.freq) {
+                  mergedImpacts.add(new Impact(freqUpperBound, norm));
+                } // otherwise the previous impact is already more competitive
+              }
+            } while (top.exhausted == false);
+
+            return mergedImpacts;
+          }
+        };
+      }
+
+      @Override
+      public void advanceShallow(int target) throws IOException {
+        for (ImpactsEnum impactsEnum : impactsEnums) {
+          if (impactsEnum.docID() < target) {
+            impactsEnum.advanceShallow(target);
+          }
+        }
+      }
+    };
+  }
+
   private static class WeightedDisiWrapper extends DisiWrapper {
     final float weight;
 
@@ -448,16 +647,19 @@ public final class CombinedFieldQuery extends Query implements Accountable {
   private static class CombinedFieldScorer extends Scorer {
     private final DisiPriorityQueue queue;
     private final DocIdSetIterator iterator;
+    private final ImpactsDISI impactsDisi;
     private final MultiNormsLeafSimScorer simScorer;
 
     CombinedFieldScorer(
         Weight weight,
         DisiPriorityQueue queue,
         DocIdSetIterator iterator,
+        ImpactsDISI impactsDisi,
         MultiNormsLeafSimScorer simScorer) {
       super(weight);
       this.queue = queue;
       this.iterator = iterator;
+      this.impactsDisi = impactsDisi;
       this.simScorer = simScorer;
     }
 
@@ -490,7 +692,17 @@ public final class CombinedFieldQuery extends Query implements Accountable {
 
     @Override
     public float getMaxScore(int upTo) throws IOException {
-      return Float.POSITIVE_INFINITY;
+      return impactsDisi.getMaxScore(upTo);
+    }
+
+    @Override
+    public int advanceShallow(int target) throws IOException {
+      return impactsDisi.advanceShallow(target);
+    }
+
+    @Override
+    public void setMinCompetitiveScore(float minScore) {
+      impactsDisi.setMinCompetitiveScore(minScore);
     }
   }
 }
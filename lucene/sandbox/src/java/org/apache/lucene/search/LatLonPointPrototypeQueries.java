@@ -18,7 +18,10 @@ package org.apache.lucene.search;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
 
 import org.apache.lucene.codecs.lucene86.Lucene86PointsFormat;
 import org.apache.lucene.document.LatLonDocValuesField;
@@ -27,6 +30,7 @@ import org.apache.lucene.geo.GeoUtils;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PointValues;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.SloppyMath;
 import org.apache.lucene.util.bkd.BKDReader;
 
@@ -68,6 +72,25 @@ public class LatLonPointPrototypeQueries {
    */
   // TODO: what about multi-valued documents? what happens?
   public static TopFieldDocs nearest(IndexSearcher searcher, String field, double latitude, double longitude, int n) throws IOException {
+    return nearest(searcher, field, latitude, longitude, n, null);
+  }
+
+  /**
+   * Like {@link #nearest(IndexSearcher, String, double, double, int)}, but only returns documents that match
+   * the given {@code filter}. The filter is evaluated up-front on each segment, and only matching documents
+   * are collected by the BKD walk.
+   * <p>
+   * If the searcher has an {@code Executor}, each of its slices walks the BKD trees of its segments
+   * concurrently, and the slices share the distance of the {@code n}-th closest hit found so far in any of
+   * them, so that they all prune with it.
+   * <p>
+   * When a filter is given, the total hit count of the returned {@link TopFieldDocs} is a lower bound.
+   *
+   * @param filter only consider documents that match this query, or null to consider all documents.
+   * @see #nearest(IndexSearcher, String, double, double, int)
+   */
+  public static TopFieldDocs nearest(IndexSearcher searcher, String field, double latitude, double longitude, int n,
+                                     Query filter) throws IOException {
     GeoUtils.checkLatitude(latitude);
     GeoUtils.checkLongitude(longitude);
     if (n < 1) {
@@ -79,9 +102,12 @@ public class LatLonPointPrototypeQueries {
     if (searcher == null) {
       throw new IllegalArgumentException("searcher must not be null");
     }
-    List<BKDReader> readers = new ArrayList<>();
-    List<Integer> docBases = new ArrayList<>();
-    List<Bits> liveDocs = new ArrayList<>();
+    final Weight filterWeight;
+    if (filter != null) {
+      filterWeight = searcher.createWeight(searcher.rewrite(filter), ScoreMode.COMPLETE_NO_SCORES, 1f);
+    } else {
+      filterWeight = null;
+    }
     int totalHits = 0;
     for(LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
       PointValues points = leaf.reader().getPointValues(field);
@@ -90,16 +116,44 @@ public class LatLonPointPrototypeQueries {
           throw new IllegalArgumentException("can only run on Lucene60PointsReader points implementation, but got " + points);
         }
         totalHits += points.getDocCount();
-        BKDReader reader = (BKDReader) points;
-        if (reader != null) {
-          readers.add(reader);
-          docBases.add(leaf.docBase);
-          liveDocs.add(leaf.reader().getLiveDocs());
-        }
       }
     }
 
-    NearestNeighbor.NearestHit[] hits = NearestNeighbor.nearest(latitude, longitude, readers, liveDocs, docBases, n);
+    final LongAccumulator sharedBound = new LongAccumulator(Math::min, Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+    List<NearestNeighbor.NearestHit[]> sliceHits = searcher.applyPerSlice(leaves -> {
+      List<BKDReader> readers = new ArrayList<>();
+      List<Integer> docBases = new ArrayList<>();
+      List<Bits> liveDocs = new ArrayList<>();
+      for(LeafReaderContext leaf : leaves) {
+        PointValues points = leaf.reader().getPointValues(field);
+        if (points == null) {
+          continue;
+        }
+        Bits acceptDocs = leaf.reader().getLiveDocs();
+        if (filterWeight != null) {
+          acceptDocs = filterDocs(filterWeight, leaf, acceptDocs);
+          if (acceptDocs == null) {
+            continue;
+          }
+        }
+        readers.add((BKDReader) points);
+        docBases.add(leaf.docBase);
+        liveDocs.add(acceptDocs);
+      }
+      return NearestNeighbor.nearest(latitude, longitude, readers, liveDocs, docBases, n, sharedBound);
+    });
+
+    NearestNeighbor.NearestHit[] hits;
+    if (sliceHits.size() == 1) {
+      hits = sliceHits.get(0);
+    } else {
+      List<NearestNeighbor.NearestHit> allHits = new ArrayList<>();
+      for (NearestNeighbor.NearestHit[] slice : sliceHits) {
+        allHits.addAll(Arrays.asList(slice));
+      }
+      allHits.sort(Comparator.<NearestNeighbor.NearestHit>comparingDouble(hit -> hit.distanceSortKey).thenComparingInt(hit -> hit.docID));
+      hits = allHits.subList(0, Math.min(n, allHits.size())).toArray(new NearestNeighbor.NearestHit[0]);
+    }
 
     // Convert to TopFieldDocs:
     ScoreDoc[] scoreDocs = new ScoreDoc[hits.length];
@@ -108,6 +162,26 @@ public class LatLonPointPrototypeQueries {
       double hitDistance = SloppyMath.haversinMeters(hit.distanceSortKey);
       scoreDocs[i] = new FieldDoc(hit.docID, 0.0f, new Object[] {Double.valueOf(hitDistance)});
     }
-    return new TopFieldDocs(new TotalHits(totalHits, TotalHits.Relation.EQUAL_TO), scoreDocs, null);
+    TotalHits hitCount = filter == null ? new TotalHits(totalHits, TotalHits.Relation.EQUAL_TO)
+        : new TotalHits(scoreDocs.length, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+    return new TopFieldDocs(hitCount, scoreDocs, null);
+  }
+
+  /** Returns the live docs of the leaf that match the filter, or null if there are none */
+  private static Bits filterDocs(Weight filterWeight, LeafReaderContext leaf, Bits liveDocs) throws IOException {
+    Scorer scorer = filterWeight.scorer(leaf);
+    if (scorer == null) {
+      return null;
+    }
+    DocIdSetIterator iterator = scorer.iterator();
+    FixedBitSet bits = new FixedBitSet(leaf.reader().maxDoc());
+    boolean empty = true;
+    for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+      if (liveDocs == null || liveDocs.get(doc)) {
+        bits.set(doc);
+        empty = false;
+      }
+    }
+    return empty ? null : bits;
   }
 }
@@ -37,7 +37,7 @@ import org.apache.lucene.util.SmallFloat;
  */
 final class MultiNormsLeafSimScorer {
   /** Cache of decoded norms. */
-  private static final float[] LENGTH_TABLE = new float[256];
+  static final float[] LENGTH_TABLE = new float[256];
 
   static {
     for (int i = 0; i < 256; i++) {
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAccumulator;
 
 import org.apache.lucene.geo.Rectangle;
 import org.apache.lucene.index.PointValues.IntersectVisitor;
@@ -85,8 +86,13 @@ class NearestNeighbor {
     final PriorityQueue<NearestHit> hitQueue;
     final double pointLat;
     final double pointLon;
+    /** Shared with the searches of other slices, or null */
+    final LongAccumulator sharedBound;
     private int setBottomCounter;
 
+    /** Distance sort key beyond which hits can't be competitive; the search bbox is derived from it */
+    private double bound = Double.POSITIVE_INFINITY;
+
     private double minLon = Double.NEGATIVE_INFINITY;
     private double maxLon = Double.POSITIVE_INFINITY;
     private double minLat = Double.NEGATIVE_INFINITY;
@@ -95,11 +101,12 @@ class NearestNeighbor {
     // second set of longitude ranges to check (for cross-dateline case)
     private double minLon2 = Double.POSITIVE_INFINITY;
 
-    public NearestVisitor(PriorityQueue<NearestHit> hitQueue, int topN, double pointLat, double pointLon) {
+    public NearestVisitor(PriorityQueue<NearestHit> hitQueue, int topN, double pointLat, double pointLon, LongAccumulator sharedBound) {
       this.hitQueue = hitQueue;
       this.topN = topN;
       this.pointLat = pointLat;
       this.pointLon = pointLon;
+      this.sharedBound = sharedBound;
     }
 
     @Override
@@ -110,8 +117,27 @@ class NearestNeighbor {
     private void maybeUpdateBBox() {
       if (setBottomCounter < 1024 || (setBottomCounter & 0x3F) == 0x3F) {
         NearestHit hit = hitQueue.peek();
+        if (sharedBound != null) {
+          // distance sort keys are positive, so their bits sort like them:
+          sharedBound.accumulate(Double.doubleToLongBits(hit.distanceSortKey));
+        }
+        updateBBox(hit.distanceSortKey);
+      }
+      setBottomCounter++;
+    }
+
+    /** Picks up the bound that the searches of other slices may have lowered */
+    void refreshSharedBound() {
+      if (sharedBound != null) {
+        updateBBox(Double.longBitsToDouble(sharedBound.get()));
+      }
+    }
+
+    private void updateBBox(double distanceSortKey) {
+      if (distanceSortKey < bound) {
+        bound = distanceSortKey;
         Rectangle box = Rectangle.fromPointDistance(pointLat, pointLon,
-            SloppyMath.haversinMeters(hit.distanceSortKey));
+            SloppyMath.haversinMeters(distanceSortKey));
         //System.out.println("    update bbox to " + box);
         minLat = box.minLat;
         maxLat = box.maxLat;
@@ -128,7 +154,6 @@ class NearestNeighbor {
           minLon2 = Double.POSITIVE_INFINITY;
         }
       }
-      setBottomCounter++;
     }
 
     @Override
@@ -152,6 +177,10 @@ class NearestNeighbor {
 
       // Use the haversin sort key when comparing hits, as it is faster to compute than the true distance.
       double distanceSortKey = SloppyMath.haversinSortKey(pointLat, pointLon, docLatitude, docLongitude);
+      if (distanceSortKey > bound) {
+        // there are at least topN hits that are closer in this slice or another one
+        return;
+      }
 
       //System.out.println("    visit docID=" + docID + " distanceSortKey=" + distanceSortKey + " docLat=" + docLatitude + " docLon=" + docLongitude);
 
@@ -177,6 +206,9 @@ class NearestNeighbor {
         hit.distanceSortKey = distanceSortKey;
         hitQueue.offer(hit);
         //System.out.println("      ** keep1, now bottom=" + hit);
+        if (hitQueue.size() == topN) {
+          maybeUpdateBBox();
+        }
       }
     }
 
@@ -213,7 +245,14 @@ class NearestNeighbor {
   // TODO: can we somehow share more with, or simply directly use, the LatLonPointDistanceComparator?  It's really doing the same thing as
   // our hitQueue...
 
-  public static NearestHit[] nearest(double pointLat, double pointLon, List<BKDReader> readers, List<Bits> liveDocs, List<Integer> docBases, final int n) throws IOException {
+  /**
+   * Returns the {@code n} nearest hits of the given readers, ordered by distance then doc ID. {@code liveDocs}
+   * may also exclude documents that don't match a filter. When the readers are one slice of a concurrent search,
+   * {@code sharedBound} holds the lowest distance sort key, as {@link Double#doubleToLongBits bits}, beyond which
+   * no hit of any slice can be competitive: this search lowers it as it finds hits and prunes with it.
+   */
+  public static NearestHit[] nearest(double pointLat, double pointLon, List<BKDReader> readers, List<Bits> liveDocs, List<Integer> docBases, final int n,
+                                     LongAccumulator sharedBound) throws IOException {
 
     //System.out.println("NEAREST: readers=" + readers + " liveDocs=" + liveDocs + " pointLat=" + pointLat + " pointLon=" + pointLon);
     // Holds closest collected points seen so far:
@@ -235,7 +274,7 @@ class NearestNeighbor {
     // Holds all cells, sorted by closest to the point:
     PriorityQueue<Cell> cellQueue = new PriorityQueue<>();
 
-    NearestVisitor visitor = new NearestVisitor(hitQueue, n, pointLat, pointLon);
+    NearestVisitor visitor = new NearestVisitor(hitQueue, n, pointLat, pointLon, sharedBound);
     List<BKDReader.IntersectState> states = new ArrayList<>();
 
     // Add root cell for each reader into the queue:
@@ -267,6 +306,10 @@ class NearestNeighbor {
       if (cell.index.isLeafNode()) {
         //System.out.println("    leaf");
         // Leaf block: visit all points and possibly collect them:
+        visitor.refreshSharedBound();
+        if (visitor.compare(cell.minPacked, cell.maxPacked) == Relation.CELL_OUTSIDE_QUERY) {
+          continue;
+        }
         visitor.curDocBase = docBases.get(cell.readerIndex);
         visitor.curLiveDocs = liveDocs.get(cell.readerIndex);
         reader.visitLeafBlockValues(cell.index, states.get(cell.readerIndex));
@@ -38,6 +38,7 @@ import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 
 public class TestCombinedFieldQuery extends LuceneTestCase {
   public void testInvalid() {
@@ -398,6 +399,72 @@ public class TestCombinedFieldQuery extends LuceneTestCase {
     dir.close();
   }
 
+  /** Top hits must be the same whether or not non-competitive blocks are skipped with impacts */
+  public void testTopScoresWithImpacts() throws IOException {
+    Directory dir = newDirectory();
+    Similarity similarity = randomCompatibleSimilarity();
+
+    IndexWriterConfig iwc = new IndexWriterConfig();
+    iwc.setSimilarity(similarity);
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+
+    String[] vocabulary = {"foo", "bar", "baz", "qux", "quux"};
+    int numDocs = atLeast(2000);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      for (String field : new String[] {"a", "b", "c"}) {
+        if (random().nextInt(4) == 0) {
+          continue;
+        }
+        StringBuilder text = new StringBuilder();
+        int length =
+            random().nextInt(10) == 0
+                ? TestUtil.nextInt(random(), 20, 100)
+                : random().nextInt(10);
+        for (int j = 0; j < length; j++) {
+          // skewed, so that frequencies vary a lot
+          int word = Math.min(random().nextInt(4), random().nextInt(vocabulary.length));
+          text.append(vocabulary[word]);
+          text.append(' ');
+        }
+        doc.add(new TextField(field, text.toString(), Store.NO));
+      }
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+    IndexSearcher searcher = newSearcher(reader);
+    searcher.setSimilarity(similarity);
+
+    int iters = atLeast(10);
+    for (int iter = 0; iter < iters; iter++) {
+      CombinedFieldQuery.Builder builder = new CombinedFieldQuery.Builder();
+      for (String field : new String[] {"a", "b", "c"}) {
+        if (random().nextBoolean()) {
+          builder.addField(field, random().nextBoolean() ? 1f : 1f + random().nextFloat() * 4);
+        }
+      }
+      builder.addField("a", 1f + random().nextInt(3));
+      int numTerms = TestUtil.nextInt(random(), 1, 2);
+      for (int i = 0; i < numTerms; i++) {
+        builder.addTerm(new BytesRef(RandomPicks.randomFrom(random(), vocabulary)));
+      }
+      CombinedFieldQuery query = builder.build();
+      int numHits = TestUtil.nextInt(random(), 1, 20);
+
+      TopScoreDocCollector completeCollector =
+          TopScoreDocCollector.create(numHits, null, Integer.MAX_VALUE);
+      searcher.search(query, completeCollector);
+      TopScoreDocCollector topScoresCollector = TopScoreDocCollector.create(numHits, null, 1);
+      searcher.search(query, topScoresCollector);
+      CheckHits.checkEqual(
+          query, completeCollector.topDocs().scoreDocs, topScoresCollector.topDocs().scoreDocs);
+    }
+
+    reader.close();
+    dir.close();
+  }
+
   private static Similarity randomCompatibleSimilarity() {
     return RandomPicks.randomFrom(
         random(),
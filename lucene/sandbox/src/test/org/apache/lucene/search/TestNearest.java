@@ -16,8 +16,14 @@
  */
 package org.apache.lucene.search;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -30,11 +36,14 @@ import org.apache.lucene.geo.GeoTestUtil;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.SerialMergeScheduler;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.SloppyMath;
 import org.apache.lucene.util.TestUtil;
  
@@ -243,6 +252,89 @@ public class TestNearest extends LuceneTestCase {
     dir.close();
   }
 
+  /** Filtered search over many segments, with one slice per segment */
+  public void testNearestNeighborWithFilterConcurrent() throws Exception {
+    int numPoints = atLeast(1000);
+    Directory dir = newDirectory();
+    double[] lats = new double[numPoints];
+    double[] lons = new double[numPoints];
+    int[] colors = new int[numPoints];
+
+    IndexWriterConfig iwc = getIndexWriterConfig();
+    iwc.setMergePolicy(newLogMergePolicy());
+    iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 50, 200));
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+    for(int id=0;id<numPoints;id++) {
+      lats[id] = quantizeLat(GeoTestUtil.nextLatitude());
+      lons[id] = quantizeLon(GeoTestUtil.nextLongitude());
+      colors[id] = random().nextInt(5);
+      Document doc = new Document();
+      doc.add(new LatLonPoint("point", lats[id], lons[id]));
+      doc.add(new StringField("color", Integer.toString(colors[id]), Field.Store.NO));
+      doc.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+      w.addDocument(doc);
+    }
+    int numDeleted = random().nextInt(numPoints / 10);
+    boolean[] deleted = new boolean[numPoints];
+    for (int i = 0; i < numDeleted; i++) {
+      int id = random().nextInt(numPoints);
+      w.deleteDocuments(new Term("id", Integer.toString(id)));
+      deleted[id] = true;
+    }
+
+    DirectoryReader r = w.getReader();
+    w.close();
+    ExecutorService executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("TestNearest"));
+    IndexSearcher s = new IndexSearcher(r, executor) {
+      @Override
+      protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+        LeafSlice[] slices = new LeafSlice[leaves.size()];
+        for (int i = 0; i < slices.length; i++) {
+          slices[i] = new LeafSlice(leaves.get(i));
+        }
+        return slices;
+      }
+    };
+
+    int[] idToDoc = new int[numPoints];
+    for (int doc = 0; doc < r.maxDoc(); doc++) {
+      idToDoc[Integer.parseInt(r.document(doc).get("id"))] = doc;
+    }
+
+    int iters = atLeast(50);
+    for(int iter=0;iter<iters;iter++) {
+      double pointLat = GeoTestUtil.nextLatitude();
+      double pointLon = GeoTestUtil.nextLongitude();
+      int color = random().nextInt(5);
+
+      // brute force, on doc IDs since ties are broken by doc ID:
+      List<FieldDoc> expectedHits = new ArrayList<>();
+      for(int id=0;id<numPoints;id++) {
+        if (deleted[id] == false && colors[id] == color) {
+          double distance = SloppyMath.haversinMeters(pointLat, pointLon, lats[id], lons[id]);
+          expectedHits.add(new FieldDoc(idToDoc[id], 0.0f, new Object[] {Double.valueOf(distance)}));
+        }
+      }
+      expectedHits.sort(Comparator.<FieldDoc>comparingDouble(hit -> (Double) hit.fields[0]).thenComparingInt(hit -> hit.doc));
+
+      int topN = TestUtil.nextInt(random(), 1, 50);
+      Query filter = new TermQuery(new Term("color", Integer.toString(color)));
+      ScoreDoc[] hits = LatLonPointPrototypeQueries.nearest(s, "point", pointLat, pointLon, topN, filter).scoreDocs;
+      assertEquals(Math.min(topN, expectedHits.size()), hits.length);
+      for(int i=0;i<hits.length;i++) {
+        FieldDoc expected = expectedHits.get(i);
+        FieldDoc actual = (FieldDoc) hits[i];
+        assertEquals(expected.doc, actual.doc);
+        assertEquals(((Double) expected.fields[0]).doubleValue(), ((Double) actual.fields[0]).doubleValue(), 0.0);
+      }
+    }
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    IOUtils.close(r, dir);
+  }
+
   private IndexWriterConfig getIndexWriterConfig() {
     IndexWriterConfig iwc = newIndexWriterConfig();
     iwc.setCodec(TestUtil.getDefaultCodec());
@@ -0,0 +1,416 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search.suggest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import org.apache.lucene.search.spell.Dictionary;
+import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * A {@link Lookup} that applies changes to a large base lookup without
+ * rebuilding it.
+ * <p>
+ * Entries that are added or updated with {@link #update(InputIterator)} go to a
+ * small delta lookup, which is rebuilt on every update. Lookups query both the
+ * base and the delta and merge their results: delta entries replace base
+ * entries with the same key, and results are returned by descending value.
+ * {@link #compact(Dictionary)} rebuilds the base from the full dictionary,
+ * which must include the updated entries, and drops the delta entries that were
+ * added before the compaction started. Compactions may run in the background
+ * while lookups and updates continue, see {@link #compact(Dictionary, Executor)}.
+ * Entries can't be removed through the delta, this requires a compaction.
+ * <p>
+ * Base and delta lookups are created by a factory, and must be of the same
+ * kind and configuration so that their values are comparable. For instance,
+ * {@link org.apache.lucene.search.suggest.fst.FSTCompletionLookup} returns
+ * weight buckets that depend on the dictionary it was built from, so merged
+ * results are only approximately ordered. The base is typically loaded
+ * off-heap with {@link #loadOffHeap(IndexInput)}; compactions build the new
+ * base with {@link #buildBase(Dictionary)}, which may be overridden to store
+ * and reload it off-heap too.
+ *
+ * @lucene.experimental
+ */
+public class IncrementalLookup extends Lookup {
+
+  /** An updated entry, in the order of updates. */
+  private static final class Entry {
+    final BytesRef key;
+    final long weight;
+    final BytesRef payload;
+    final Set<BytesRef> contexts;
+    final long generation;
+
+    Entry(BytesRef key, long weight, BytesRef payload, Set<BytesRef> contexts, long generation) {
+      this.key = key;
+      this.weight = weight;
+      this.payload = payload;
+      this.contexts = contexts;
+      this.generation = generation;
+    }
+  }
+
+  /** Immutable view of the lookups, swapped on every change. */
+  private static final class State {
+    final Lookup base;
+    final Lookup delta; // null if there are no updates
+    final Map<String, Entry> deltaEntries;
+
+    State(Lookup base, Lookup delta, Map<String, Entry> deltaEntries) {
+      this.base = base;
+      this.delta = delta;
+      this.deltaEntries = deltaEntries;
+    }
+  }
+
+  private final Supplier<? extends Lookup> factory;
+  private final Object compactLock = new Object();
+  private volatile State state;
+  private long generation;
+  private boolean hasPayloads;
+  private boolean hasContexts;
+
+  /**
+   * Create a new lookup on top of the given base lookup.
+   * @param factory creates empty lookups, the same kind as the base
+   * @param base the lookup with the bulk of the entries, which may be empty
+   */
+  public IncrementalLookup(Supplier<? extends Lookup> factory, Lookup base) {
+    this.factory = factory;
+    this.state = new State(base, null, Collections.emptyMap());
+  }
+
+  /** Create a new lookup whose empty base is created by the given factory. */
+  public IncrementalLookup(Supplier<? extends Lookup> factory) {
+    this(factory, factory.get());
+  }
+
+  /** Return the base lookup. */
+  public Lookup getBase() {
+    return state.base;
+  }
+
+  /** Return the number of updated entries that were not compacted yet. */
+  public int getDeltaCount() {
+    return state.deltaEntries.size();
+  }
+
+  /**
+   * Add or replace the given entries. The delta lookup is rebuilt, so this
+   * should be called with batches of entries rather than every single one.
+   */
+  public synchronized void update(InputIterator entries) throws IOException {
+    final Map<String, Entry> deltaEntries = new LinkedHashMap<>(state.deltaEntries);
+    final long gen = generation++;
+    hasPayloads |= entries.hasPayloads();
+    hasContexts |= entries.hasContexts();
+    for (BytesRef key = entries.next(); key != null; key = entries.next()) {
+      final BytesRef payload = entries.hasPayloads() ? entries.payload() : null;
+      final Set<BytesRef> contexts = entries.hasContexts() ? entries.contexts() : null;
+      final Entry entry = new Entry(BytesRef.deepCopyOf(key), entries.weight(),
+          payload == null ? null : BytesRef.deepCopyOf(payload), copyOf(contexts), gen);
+      // re-insert so that the map stays in the order of updates
+      deltaEntries.remove(key.utf8ToString());
+      deltaEntries.put(key.utf8ToString(), entry);
+    }
+    state = new State(state.base, buildDelta(deltaEntries.values()), deltaEntries);
+  }
+
+  private static Set<BytesRef> copyOf(Set<BytesRef> contexts) {
+    if (contexts == null) {
+      return null;
+    }
+    final Set<BytesRef> copy = new HashSet<>();
+    for (BytesRef context : contexts) {
+      copy.add(BytesRef.deepCopyOf(context));
+    }
+    return copy;
+  }
+
+  private Lookup buildDelta(Collection<Entry> entries) throws IOException {
+    if (entries.isEmpty()) {
+      return null;
+    }
+    final Lookup delta = factory.get();
+    delta.build(new EntryIterator(entries, hasPayloads, hasContexts));
+    return delta;
+  }
+
+  /**
+   * Rebuild the base lookup from the given dictionary, which must contain the
+   * entries that were updated so far. Updates that happen while the base is
+   * built are kept in the delta. Lookups and updates are not blocked, but
+   * compactions run one at a time.
+   */
+  public void compact(Dictionary dictionary) throws IOException {
+    synchronized (compactLock) {
+      final long compactedGeneration;
+      synchronized (this) {
+        compactedGeneration = generation++;
+      }
+      final Lookup base = buildBase(dictionary);
+      synchronized (this) {
+        final Map<String, Entry> deltaEntries = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : state.deltaEntries.entrySet()) {
+          if (entry.getValue().generation > compactedGeneration) {
+            deltaEntries.put(entry.getKey(), entry.getValue());
+          }
+        }
+        state = new State(base, buildDelta(deltaEntries.values()), deltaEntries);
+      }
+    }
+  }
+
+  /**
+   * Run {@link #compact(Dictionary)} on the given executor.
+   * @return a future that completes when the new base is in use
+   */
+  public Future<Void> compact(Dictionary dictionary, Executor executor) {
+    final FutureTask<Void> task = new FutureTask<>(() -> {
+      compact(dictionary);
+      return null;
+    });
+    executor.execute(task);
+    return task;
+  }
+
+  /**
+   * Build a new base lookup from the given dictionary. The default
+   * implementation builds a lookup of the factory on the heap.
+   */
+  protected Lookup buildBase(Dictionary dictionary) throws IOException {
+    final Lookup base = factory.get();
+    base.build(dictionary);
+    return base;
+  }
+
+  @Override
+  public long getCount() throws IOException {
+    // may count updated entries twice
+    final State state = this.state;
+    return state.base.getCount() + state.deltaEntries.size();
+  }
+
+  /** Replace all entries, including updates that were not compacted yet. */
+  @Override
+  public synchronized void build(InputIterator inputIterator) throws IOException {
+    // the delta is dropped, so later updates must not inherit its payloads or contexts
+    hasPayloads = false;
+    hasContexts = false;
+    final Lookup base = factory.get();
+    base.build(inputIterator);
+    state = new State(base, null, Collections.emptyMap());
+  }
+
+  @Override
+  public List<LookupResult> lookup(CharSequence key, Set<BytesRef> contexts, boolean onlyMorePopular, int num) throws IOException {
+    final State state = this.state;
+    if (state.delta == null) {
+      return state.base.lookup(key, contexts, onlyMorePopular, num);
+    }
+    // all matching delta entries, since any of them may replace a top base entry
+    final List<LookupResult> deltaResults = state.delta.lookup(key, contexts, onlyMorePopular, state.deltaEntries.size());
+    final List<LookupResult> baseResults = state.base.lookup(key, contexts, onlyMorePopular, num + deltaResults.size());
+    final List<LookupResult> results = new ArrayList<>(deltaResults);
+    for (LookupResult result : baseResults) {
+      if (state.deltaEntries.containsKey(result.key.toString()) == false) {
+        results.add(result);
+      }
+    }
+    // stable, so that delta results come first on ties
+    results.sort((a, b) -> Long.compare(b.value, a.value));
+    return results.size() > num ? new ArrayList<>(results.subList(0, num)) : results;
+  }
+
+  @Override
+  public synchronized boolean store(DataOutput output) throws IOException {
+    final State state = this.state;
+    if (state.base.store(output) == false) {
+      return false;
+    }
+    output.writeByte((byte) ((hasPayloads ? 1 : 0) | (hasContexts ? 2 : 0)));
+    output.writeVInt(state.deltaEntries.size());
+    for (Entry entry : state.deltaEntries.values()) {
+      writeBytes(output, entry.key);
+      output.writeZLong(entry.weight);
+      if (hasPayloads) {
+        writeBytes(output, entry.payload == null ? new BytesRef() : entry.payload);
+      }
+      if (hasContexts) {
+        final Set<BytesRef> contexts = entry.contexts == null ? Collections.emptySet() : entry.contexts;
+        output.writeVInt(contexts.size());
+        for (BytesRef context : contexts) {
+          writeBytes(output, context);
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean load(DataInput input) throws IOException {
+    final Lookup base = factory.get();
+    return base.load(input) && loadDelta(base, input);
+  }
+
+  @Override
+  public boolean loadOffHeap(IndexInput input) throws IOException {
+    final Lookup base = factory.get();
+    return base.loadOffHeap(input) && loadDelta(base, input);
+  }
+
+  private synchronized boolean loadDelta(Lookup base, DataInput input) throws IOException {
+    final int flags = input.readByte();
+    hasPayloads = (flags & 1) != 0;
+    hasContexts = (flags & 2) != 0;
+    final long gen = generation++;
+    final int count = input.readVInt();
+    final Map<String, Entry> deltaEntries = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      final BytesRef key = readBytes(input);
+      final long weight = input.readZLong();
+      final BytesRef payload = hasPayloads ? readBytes(input) : null;
+      Set<BytesRef> contexts = null;
+      if (hasContexts) {
+        contexts = new HashSet<>();
+        for (int j = input.readVInt(); j > 0; j--) {
+          contexts.add(readBytes(input));
+        }
+      }
+      deltaEntries.put(key.utf8ToString(), new Entry(key, weight, payload, contexts, gen));
+    }
+    state = new State(base, buildDelta(deltaEntries.values()), deltaEntries);
+    return true;
+  }
+
+  private static void writeBytes(DataOutput output, BytesRef bytes) throws IOException {
+    output.writeVInt(bytes.length);
+    output.writeBytes(bytes.bytes, bytes.offset, bytes.length);
+  }
+
+  private static BytesRef readBytes(DataInput input) throws IOException {
+    final BytesRef bytes = new BytesRef(input.readVInt());
+    bytes.length = bytes.bytes.length;
+    input.readBytes(bytes.bytes, 0, bytes.length);
+    return bytes;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    final State state = this.state;
+    long bytes = RamUsageEstimator.shallowSizeOf(this) + state.base.ramBytesUsed();
+    if (state.delta != null) {
+      bytes += state.delta.ramBytesUsed();
+    }
+    for (Entry entry : state.deltaEntries.values()) {
+      bytes += RamUsageEstimator.sizeOf(entry.key.bytes);
+      if (entry.payload != null) {
+        bytes += RamUsageEstimator.sizeOf(entry.payload.bytes);
+      }
+    }
+    return bytes;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    final State state = this.state;
+    final List<Accountable> resources = new ArrayList<>();
+    resources.add(Accountables.namedAccountable("base", state.base));
+    if (state.delta != null) {
+      resources.add(Accountables.namedAccountable("delta", state.delta));
+    }
+    return Collections.unmodifiableList(resources);
+  }
+
+  @Override
+  public String toString() {
+    final State state = this.state;
+    return getClass().getSimpleName() + "(base=" + state.base + ", deltaCount=" + state.deltaEntries.size() + ")";
+  }
+
+  /** Iterates over updated entries to build the delta lookup. */
+  private static final class EntryIterator implements InputIterator {
+    private final Iterator<Entry> entries;
+    private final boolean hasPayloads;
+    private final boolean hasContexts;
+    private Entry current;
+
+    EntryIterator(Collection<Entry> entries, boolean hasPayloads, boolean hasContexts) {
+      this.entries = entries.iterator();
+      this.hasPayloads = hasPayloads;
+      this.hasContexts = hasContexts;
+    }
+
+    @Override
+    public BytesRef next() {
+      if (entries.hasNext() == false) {
+        current = null;
+        return null;
+      }
+      current = entries.next();
+      return current.key;
+    }
+
+    @Override
+    public long weight() {
+      return current.weight;
+    }
+
+    @Override
+    public BytesRef payload() {
+      if (hasPayloads == false) {
+        return null;
+      }
+      return current.payload == null ? new BytesRef() : current.payload;
+    }
+
+    @Override
+    public boolean hasPayloads() {
+      return hasPayloads;
+    }
+
+    @Override
+    public Set<BytesRef> contexts() {
+      return current.contexts;
+    }
+
+    @Override
+    public boolean hasContexts() {
+      return hasContexts;
+    }
+  }
+}
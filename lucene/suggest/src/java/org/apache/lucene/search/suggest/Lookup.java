@@ -27,12 +27,16 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.spell.Dictionary;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.InputStreamDataInput;
 import org.apache.lucene.store.OutputStreamDataOutput;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.PriorityQueue;
+import org.apache.lucene.util.fst.FST;
+import org.apache.lucene.util.fst.OffHeapFSTStore;
+import org.apache.lucene.util.fst.Outputs;
 
 /**
  * Simple Lookup interface for {@link CharSequence} suggestions.
@@ -283,4 +287,33 @@ public abstract class Lookup implements Accountable {
    * @throws IOException when fatal IO error occurs.
    */
   public abstract boolean load(DataInput input) throws IOException;
+
+  /**
+   * Discard current lookup data and load it from a copy that was saved with
+   * {@link #store(DataOutput)}, keeping large data structures off-heap where
+   * supported. Lookups that are backed by FSTs read them directly from the
+   * input, for instance a file of a memory-mapped directory, rather than
+   * copying them to the heap. The input must then stay open as long as this
+   * lookup is in use, and be closed by the caller afterwards. The default
+   * implementation calls {@link #load(DataInput)}.
+   * Optional operation.
+   * @param input the {@link IndexInput} to load the lookup data.
+   * @return true if completed successfully, false if unsuccessful or not supported.
+   * @throws IOException when fatal IO error occurs.
+   * @lucene.experimental
+   */
+  public boolean loadOffHeap(IndexInput input) throws IOException {
+    return load(input);
+  }
+
+  /**
+   * Reads an FST that was saved with {@link FST#save(DataOutput, DataOutput)}
+   * through an {@link OffHeapFSTStore}, and moves the input past the FST.
+   */
+  protected static <T> FST<T> readOffHeapFST(IndexInput input, Outputs<T> outputs) throws IOException {
+    final OffHeapFSTStore fstStore = new OffHeapFSTStore();
+    final FST<T> fst = new FST<>(input, input, outputs, fstStore);
+    input.seek(input.getFilePointer() + fstStore.size());
+    return fst;
+  }
 }
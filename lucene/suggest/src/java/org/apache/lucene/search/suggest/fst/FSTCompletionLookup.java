@@ -34,6 +34,7 @@ import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.Accountables;
@@ -312,6 +313,15 @@ public class FSTCompletionLookup extends Lookup implements Accountable {
     return true;
   }
 
+  @Override
+  public synchronized boolean loadOffHeap(IndexInput input) throws IOException {
+    count = input.readVLong();
+    this.higherWeightsCompletion = new FSTCompletion(readOffHeapFST(input, NoOutputs.getSingleton()));
+    this.normalCompletion = new FSTCompletion(
+        higherWeightsCompletion.getFST(), false, exactMatchFirst);
+    return true;
+  }
+
   @Override
   public long ramBytesUsed() {
     long mem = RamUsageEstimator.shallowSizeOf(this) + RamUsageEstimator.shallowSizeOf(normalCompletion) + RamUsageEstimator.shallowSizeOf(higherWeightsCompletion);
@@ -32,6 +32,7 @@ import org.apache.lucene.store.ByteArrayDataOutput;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.Accountables;
 import org.apache.lucene.util.ArrayUtil;
@@ -152,6 +153,13 @@ public class WFSTCompletionLookup extends Lookup implements Accountable {
     return true;
   }
 
+  @Override
+  public boolean loadOffHeap(IndexInput input) throws IOException {
+    count = input.readVLong();
+    this.fst = readOffHeapFST(input, PositiveIntOutputs.getSingleton());
+    return true;
+  }
+
   @Override
   public List<LookupResult> lookup(CharSequence key, Set<BytesRef> contexts, boolean onlyMorePopular, int num) {
     if (contexts != null) {
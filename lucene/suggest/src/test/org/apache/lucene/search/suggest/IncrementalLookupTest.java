@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.search.spell.Dictionary;
+import org.apache.lucene.search.suggest.Lookup.LookupResult;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingSuggester;
+import org.apache.lucene.search.suggest.fst.WFSTCompletionLookup;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
+import org.apache.lucene.util.TestUtil;
+
+public class IncrementalLookupTest extends LuceneTestCase {
+
+  private static List<String> keys(List<LookupResult> results) {
+    List<String> keys = new ArrayList<>();
+    for (LookupResult result : results) {
+      keys.add(result.key.toString() + "/" + result.value);
+    }
+    return keys;
+  }
+
+  private static Input[] inputs(Map<String, Long> entries) {
+    List<Input> inputs = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : entries.entrySet()) {
+      inputs.add(new Input(entry.getKey(), entry.getValue()));
+    }
+    return inputs.toArray(new Input[0]);
+  }
+
+  private static Dictionary dictionary(Map<String, Long> entries) {
+    Input[] inputs = inputs(entries);
+    return () -> new InputArrayIterator(inputs);
+  }
+
+  public void testUpdateAndCompact() throws Exception {
+    Directory tempDir = newDirectory();
+    Supplier<Lookup> factory = () -> new WFSTCompletionLookup(tempDir, "suggest", false);
+
+    Map<String, Long> entries = new HashMap<>();
+    entries.put("foo", 10L);
+    entries.put("foobar", 20L);
+    entries.put("fooqux", 5L);
+    entries.put("bar", 7L);
+    IncrementalLookup lookup = new IncrementalLookup(factory);
+    lookup.build(new InputArrayIterator(inputs(entries)));
+    assertEquals(0, lookup.getDeltaCount());
+    assertEquals(Arrays.asList("foobar/20", "foo/10"), keys(lookup.lookup("foo", false, 2)));
+
+    // a new entry and an updated entry
+    lookup.update(new InputArrayIterator(new Input[] {
+        new Input("foobaz", 15), new Input("foobar", 1)}));
+    entries.put("foobaz", 15L);
+    entries.put("foobar", 1L);
+    assertEquals(2, lookup.getDeltaCount());
+    assertEquals(Arrays.asList("foobaz/15", "foo/10", "fooqux/5"), keys(lookup.lookup("foo", false, 3)));
+    assertEquals(Arrays.asList("foobaz/15", "foo/10", "fooqux/5", "foobar/1"), keys(lookup.lookup("foo", false, 10)));
+    assertEquals(Arrays.asList("bar/7"), keys(lookup.lookup("ba", false, 10)));
+
+    // updates that happen after the compaction are kept
+    lookup.compact(dictionary(entries));
+    assertEquals(0, lookup.getDeltaCount());
+    assertEquals(Arrays.asList("foobaz/15", "foo/10", "fooqux/5", "foobar/1"), keys(lookup.lookup("foo", false, 10)));
+
+    lookup.update(new InputArrayIterator(new Input[] {new Input("foo", 30)}));
+    entries.put("foo", 30L);
+    ExecutorService executor = Executors.newSingleThreadExecutor(new NamedThreadFactory("IncrementalLookupTest"));
+    try {
+      lookup.compact(dictionary(entries), executor).get();
+    } finally {
+      TestUtil.shutdownExecutorService(executor);
+    }
+    assertEquals(0, lookup.getDeltaCount());
+    assertEquals(Arrays.asList("foo/30", "foobaz/15"), keys(lookup.lookup("foo", false, 2)));
+    tempDir.close();
+  }
+
+  public void testBuildResetsPayloads() throws Exception {
+    Directory tempDir = newDirectory();
+    MockAnalyzer analyzer = new MockAnalyzer(random());
+    Supplier<Lookup> factory = () -> new AnalyzingSuggester(tempDir, "suggest", analyzer);
+
+    IncrementalLookup lookup = new IncrementalLookup(factory);
+    lookup.build(new InputArrayIterator(new Input[] {new Input("one", 1)}));
+    lookup.update(new InputArrayIterator(new Input[] {new Input("oneness", 3, new BytesRef("payload"))}));
+    assertEquals(new BytesRef("payload"), lookup.lookup("onen", false, 1).get(0).payload);
+
+    // a rebuild drops the entries with payloads, so later updates must not get an empty one
+    lookup.build(new InputArrayIterator(new Input[] {new Input("one", 1)}));
+    lookup.update(new InputArrayIterator(new Input[] {new Input("onerous", 2)}));
+    List<LookupResult> results = lookup.lookup("oner", false, 1);
+    assertEquals(1, results.size());
+    assertNull(results.get(0).payload);
+    analyzer.close();
+    tempDir.close();
+  }
+
+  public void testStoreLoad() throws Exception {
+    Directory tempDir = newDirectory();
+    Supplier<Lookup> factory = () -> new WFSTCompletionLookup(tempDir, "suggest", false);
+
+    IncrementalLookup lookup = new IncrementalLookup(factory);
+    lookup.build(new InputArrayIterator(new Input[] {
+        new Input("one", 1), new Input("oneness", 3), new Input("onerous", 2)}));
+    lookup.update(new InputArrayIterator(new Input[] {
+        new Input("onesimus", 4), new Input("one", 5)}));
+    List<String> expected = keys(lookup.lookup("one", false, 10));
+    assertEquals(Arrays.asList("one/5", "onesimus/4", "oneness/3", "onerous/2"), expected);
+
+    try (IndexOutput output = tempDir.createOutput("lookup.dat", IOContext.DEFAULT)) {
+      assertTrue(lookup.store(output));
+    }
+
+    IncrementalLookup loaded = new IncrementalLookup(factory);
+    try (IndexInput input = tempDir.openInput("lookup.dat", IOContext.DEFAULT)) {
+      assertTrue(loaded.load(input.clone()));
+      assertEquals(2, loaded.getDeltaCount());
+      assertEquals(expected, keys(loaded.lookup("one", false, 10)));
+
+      IncrementalLookup offHeap = new IncrementalLookup(factory);
+      assertTrue(offHeap.loadOffHeap(input));
+      assertEquals(2, offHeap.getDeltaCount());
+      assertEquals(expected, keys(offHeap.lookup("one", false, 10)));
+    }
+    tempDir.close();
+  }
+}
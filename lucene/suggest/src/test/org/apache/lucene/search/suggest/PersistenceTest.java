@@ -20,12 +20,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Supplier;
 
+import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.search.suggest.Lookup.LookupResult;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingSuggester;
 import org.apache.lucene.search.suggest.fst.FSTCompletionLookup;
+import org.apache.lucene.search.suggest.fst.WFSTCompletionLookup;
 import org.apache.lucene.search.suggest.jaspell.JaspellLookup;
 import org.apache.lucene.search.suggest.tst.TSTLookup;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.TestUtil;
 
@@ -59,6 +66,57 @@ public class PersistenceTest extends LuceneTestCase {
     runTest(FSTCompletionLookup.class, false);
   }
 
+  public void testFSTOffHeap() throws Exception {
+    Directory tempDir = getDirectory();
+    runOffHeapTest(tempDir, () -> new FSTCompletionLookup(tempDir, "suggest"));
+    tempDir.close();
+  }
+
+  public void testWFSTOffHeap() throws Exception {
+    Directory tempDir = getDirectory();
+    runOffHeapTest(tempDir, () -> new WFSTCompletionLookup(tempDir, "suggest"));
+    tempDir.close();
+  }
+
+  public void testAnalyzingOffHeap() throws Exception {
+    Directory tempDir = getDirectory();
+    MockAnalyzer analyzer = new MockAnalyzer(random());
+    runOffHeapTest(tempDir, () -> new AnalyzingSuggester(tempDir, "suggest", analyzer));
+    analyzer.close();
+    tempDir.close();
+  }
+
+  private void runOffHeapTest(Directory dir, Supplier<Lookup> factory) throws Exception {
+    Input[] keys = new Input[this.keys.length];
+    for (int i = 0; i < keys.length; i++)
+      keys[i] = new Input(this.keys[i], i);
+    Lookup lookup = factory.get();
+    lookup.build(new InputArrayIterator(keys));
+
+    // Store the suggester followed by some other data.
+    try (IndexOutput output = dir.createOutput("lookup.dat", IOContext.DEFAULT)) {
+      assertTrue(lookup.store(output));
+      output.writeInt(42);
+    }
+
+    // Load it off-heap and compare with the heap version.
+    Lookup offHeap = factory.get();
+    try (IndexInput input = dir.openInput("lookup.dat", IOContext.DEFAULT)) {
+      assertTrue(offHeap.loadOffHeap(input));
+      assertEquals(42, input.readInt());
+      assertEquals(lookup.getCount(), offHeap.getCount());
+      for (String prefix : new String[] {"o", "on", "t", "th", "fo", "x"}) {
+        List<LookupResult> expected = lookup.lookup(prefix, false, 5);
+        List<LookupResult> actual = offHeap.lookup(prefix, false, 5);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(expected.get(i).key.toString(), actual.get(i).key.toString());
+          assertEquals(expected.get(i).value, actual.get(i).value);
+        }
+      }
+    }
+  }
+
   private Directory getDirectory() {     
     return newDirectory();
   }
@@ -1197,6 +1197,18 @@ public class AssertingLeafReader extends FilterLeafReader {
       docBudget = count;
     }
 
+    @Override
+    public boolean visitCount(int count) throws IOException {
+      // Like visit(int), only for cells that are inside the query shape:
+      assert lastCompareResult == Relation.CELL_INSIDE_QUERY;
+      if (in.visitCount(count)) {
+        docBudget -= count;
+        assert docBudget >= 0 : "counted more points than the last call to grow() reserved";
+        return true;
+      }
+      return false;
+    }
+
     @Override
     public Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
       for(int dim=0;dim<numIndexDims;dim++) {
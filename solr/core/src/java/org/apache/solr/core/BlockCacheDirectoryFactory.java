@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.LockFactory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.metrics.SolrMetricProducer;
+import org.apache.solr.metrics.SolrMetricsContext;
+import org.apache.solr.store.blockcache.BlockCache;
+import org.apache.solr.store.blockcache.BlockDirectory;
+import org.apache.solr.store.blockcache.BlockDirectoryCache;
+import org.apache.solr.store.blockcache.Cache;
+import org.apache.solr.store.blockcache.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for {@link NIOFSDirectory} instances whose reads go through an off-heap {@link BlockCache}
+ * that is shared by all cores and sized independently of the OS page cache.
+ * <p>
+ * Blocks of the files listed in {@code pinnedFileTypes} (by default the terms index, doc values and
+ * norms) are kept in a separate pinned cache of {@code pinnedSlabCount} slabs, so other traffic
+ * cannot evict them. All other blocks go to a general cache of {@code slabCount} slabs, which only
+ * admits a block on its second access when {@code doorkeeper} is enabled. Merges and read-once
+ * reads bypass the cache unless {@code cacheMerges} or {@code cacheReadOnce} are set.
+ * <p>
+ * Hit, miss, eviction and admission metrics are reported under {@code blockCache} and
+ * {@code pinnedBlockCache} in the {@code CACHE} category.
+ * <p>
+ * Both caches are global to the JVM and are allocated by the first factory that needs them, so
+ * {@code slabCount}, {@code pinnedSlabCount}, {@code blocksPerBank} and {@code directMemoryAllocation}
+ * of factories initialized later have no effect on their size; a warning is logged when they differ.
+ *
+ * @lucene.experimental
+ */
+public class BlockCacheDirectoryFactory extends StandardDirectoryFactory implements SolrMetricProducer {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String SLAB_COUNT = "slabCount";
+  public static final String PINNED_SLAB_COUNT = "pinnedSlabCount";
+  public static final String BLOCKS_PER_BANK = "blocksPerBank";
+  public static final String DIRECT_MEMORY_ALLOCATION = "directMemoryAllocation";
+  public static final String FILE_TYPES = "fileTypes";
+  public static final String PINNED_FILE_TYPES = "pinnedFileTypes";
+  public static final String DOORKEEPER = "doorkeeper";
+  public static final String CACHE_MERGES = "cacheMerges";
+  public static final String CACHE_READONCE = "cacheReadOnce";
+
+  public static final String DEFAULT_PINNED_FILE_TYPES = "tip,tmd,dvd,dvm,nvd,nvm";
+
+  private static BlockCache globalBlockCache;
+  private static BlockCache globalPinnedBlockCache;
+  // the settings the global caches were allocated with, guarded by the class lock
+  private static String globalBlockCacheConfig;
+  private static String globalPinnedBlockCacheConfig;
+
+  final static class MetricsHolder {
+    // Won't load until MetricsHolder is referenced
+    public static final Metrics metrics = new Metrics("blockCache",
+        "Provides metrics for the BlockCacheDirectoryFactory BlockCache.");
+    public static final Metrics pinnedMetrics = new Metrics("pinnedBlockCache",
+        "Provides metrics for the BlockCacheDirectoryFactory pinned BlockCache.");
+  }
+
+  private int slabCount;
+  private int pinnedSlabCount;
+  private int blocksPerBank;
+  private boolean directAllocation;
+  private Set<String> fileTypes;
+  private Set<String> pinnedFileTypes;
+  private boolean doorkeeper;
+  private boolean cacheMerges;
+  private boolean cacheReadOnce;
+
+  @Override
+  @SuppressWarnings({"rawtypes"})
+  public void init(NamedList args) {
+    super.init(args);
+    SolrParams params = args.toSolrParams();
+    slabCount = params.getInt(SLAB_COUNT, 1);
+    if (slabCount <= 0) {
+      throw new IllegalArgumentException(SLAB_COUNT + " must be greater than 0");
+    }
+    pinnedSlabCount = params.getInt(PINNED_SLAB_COUNT, 0);
+    if (pinnedSlabCount < 0) {
+      throw new IllegalArgumentException(PINNED_SLAB_COUNT + " must not be negative");
+    }
+    blocksPerBank = params.getInt(BLOCKS_PER_BANK, 16384);
+    if (blocksPerBank <= 0) {
+      throw new IllegalArgumentException(BLOCKS_PER_BANK + " must be greater than 0");
+    }
+    directAllocation = params.getBool(DIRECT_MEMORY_ALLOCATION, true);
+    fileTypes = parseFileTypes(params.get(FILE_TYPES));
+    pinnedFileTypes = pinnedSlabCount == 0 ? null : parseFileTypes(params.get(PINNED_FILE_TYPES, DEFAULT_PINNED_FILE_TYPES));
+    doorkeeper = params.getBool(DOORKEEPER, true);
+    cacheMerges = params.getBool(CACHE_MERGES, false);
+    cacheReadOnce = params.getBool(CACHE_READONCE, false);
+  }
+
+  private static Set<String> parseFileTypes(String value) {
+    if (value == null || value.trim().isEmpty()) {
+      return null;
+    }
+    Set<String> types = new HashSet<>();
+    for (String type : value.split(",")) {
+      type = type.trim();
+      if (type.isEmpty() == false) {
+        types.add(type.startsWith(".") ? type : "." + type);
+      }
+    }
+    return types;
+  }
+
+  @Override
+  protected Directory create(String path, LockFactory lockFactory, DirContext dirContext) throws IOException {
+    Directory dir = new NIOFSDirectory(new File(path).toPath(), lockFactory);
+    if (dirContext == DirContext.META_DATA) {
+      return dir;
+    }
+    int blockSize = BlockDirectory.BLOCK_SIZE;
+    int cacheBlocks = slabCount * blocksPerBank;
+    Cache cache = new BlockDirectoryCache(getBlockCache(false, blockSize), path, MetricsHolder.metrics, true,
+        doorkeeper ? cacheBlocks : 0);
+    Cache pinnedCache = BlockDirectory.NO_CACHE;
+    if (pinnedSlabCount > 0) {
+      pinnedCache = new BlockDirectoryCache(getBlockCache(true, blockSize), path, MetricsHolder.pinnedMetrics, true);
+    }
+    return new BlockDirectory(path, dir, cache, fileTypes, true, false, cacheMerges, cacheReadOnce,
+        pinnedCache, pinnedFileTypes);
+  }
+
+  private BlockCache getBlockCache(boolean pinned, int blockSize) {
+    synchronized (BlockCacheDirectoryFactory.class) {
+      if (pinned) {
+        String config = cacheConfig(pinnedSlabCount);
+        if (globalPinnedBlockCache == null) {
+          log.info("Creating new global pinned BlockCache");
+          globalPinnedBlockCache = createBlockCache(MetricsHolder.pinnedMetrics, pinnedSlabCount, blockSize);
+          globalPinnedBlockCacheConfig = config;
+        } else if (config.equals(globalPinnedBlockCacheConfig) == false) {
+          log.warn("The global pinned BlockCache was already allocated with [{}], ignoring [{}]",
+              globalPinnedBlockCacheConfig, config);
+        }
+        return globalPinnedBlockCache;
+      } else {
+        String config = cacheConfig(slabCount);
+        if (globalBlockCache == null) {
+          log.info("Creating new global BlockCache");
+          globalBlockCache = createBlockCache(MetricsHolder.metrics, slabCount, blockSize);
+          globalBlockCacheConfig = config;
+        } else if (config.equals(globalBlockCacheConfig) == false) {
+          log.warn("The global BlockCache was already allocated with [{}], ignoring [{}]",
+              globalBlockCacheConfig, config);
+        }
+        return globalBlockCache;
+      }
+    }
+  }
+
+  private String cacheConfig(int bankCount) {
+    return "slabs=" + bankCount + ", " + BLOCKS_PER_BANK + "=" + blocksPerBank + ", "
+        + DIRECT_MEMORY_ALLOCATION + "=" + directAllocation;
+  }
+
+  private BlockCache createBlockCache(Metrics metrics, int bankCount, int blockSize) {
+    int slabSize = blocksPerBank * blockSize;
+    long totalMemory = (long) bankCount * (long) slabSize;
+    if (log.isInfoEnabled()) {
+      log.info("Block cache with direct memory allocation set to [{}] will allocate [{}] slabs of [{}] bytes",
+          directAllocation, bankCount, slabSize);
+    }
+    try {
+      return new BlockCache(metrics, directAllocation, totalMemory, slabSize, blockSize);
+    } catch (OutOfMemoryError e) {
+      throw new RuntimeException(
+          "The max direct memory is likely too low.  Either increase it (by adding -XX:MaxDirectMemorySize=<size>g to your containers startup args)"
+              + " or disable direct allocation using " + DIRECT_MEMORY_ALLOCATION + "=false in solrconfig.xml. If you are putting the block cache on the heap,"
+              + " your java heap size might not be large enough."
+              + " Failed allocating ~" + totalMemory / 1000000.0 + " MB.",
+          e);
+    }
+  }
+
+  @Override
+  public void initializeMetrics(SolrMetricsContext parentContext, String scope) {
+    MetricsHolder.metrics.initializeMetrics(parentContext, scope);
+    if (pinnedSlabCount > 0) {
+      MetricsHolder.pinnedMetrics.initializeMetrics(parentContext, scope);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    try {
+      SolrMetricProducer.super.close();
+      MetricsHolder.metrics.close();
+      MetricsHolder.pinnedMetrics.close();
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public boolean isAbsolute(String path) {
+    return new File(path).isAbsolute();
+  }
+}
@@ -82,6 +82,7 @@ public class HighlightComponent extends SearchComponent implements PluginInfoIni
   public static final String COMPONENT_NAME = "highlight";
 
   private PluginInfo info = PluginInfo.EMPTY_INFO;
+  private volatile UnifiedSolrHighlighter unifiedHighlighter;
 
   @Deprecated // DWS: in 7.0 lets restructure the abstractions/relationships
   private SolrHighlighter solrConfigHighlighter;
@@ -193,7 +194,19 @@ public class HighlightComponent extends SearchComponent implements PluginInfoIni
         if (solrConfigHighlighter instanceof UnifiedSolrHighlighter) {
           return solrConfigHighlighter;
         }
-        return new UnifiedSolrHighlighter(); // TODO cache one?
+        // cached, since it owns the executor that highlights documents concurrently
+        UnifiedSolrHighlighter unifiedHighlighter = this.unifiedHighlighter;
+        if (unifiedHighlighter == null) {
+          synchronized (this) {
+            unifiedHighlighter = this.unifiedHighlighter;
+            if (unifiedHighlighter == null) {
+              unifiedHighlighter = new UnifiedSolrHighlighter();
+              unifiedHighlighter.init(PluginInfo.EMPTY_INFO);
+              this.unifiedHighlighter = unifiedHighlighter;
+            }
+          }
+        }
+        return unifiedHighlighter;
       case POSTINGS:
         if (solrConfigHighlighter instanceof PostingsSolrHighlighter) {
           return solrConfigHighlighter;
@@ -22,7 +22,13 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import org.apache.lucene.index.FieldInfo;
@@ -39,9 +45,13 @@ import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.params.HighlightParams;
 import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.ExecutorUtil;
 import org.apache.solr.common.util.NamedList;
 import org.apache.solr.common.util.SimpleOrderedMap;
+import org.apache.solr.common.util.SolrNamedThreadFactory;
+import org.apache.solr.core.CloseHook;
 import org.apache.solr.core.PluginInfo;
+import org.apache.solr.core.SolrCore;
 import org.apache.solr.request.SolrQueryRequest;
 import org.apache.solr.schema.IndexSchema;
 import org.apache.solr.schema.SchemaField;
@@ -81,6 +91,7 @@ import org.apache.solr.util.plugin.PluginInfoInitialized;
  * &lt;int name="hl.cacheFieldValCharsThreshold"&gt;524288&lt;/int&gt;
  * &lt;str name="hl.offsetSource"&gt;&lt;/str&gt;
  * &lt;bool name="hl.weightMatches"&gt;true&lt;/bool&gt;
+ * &lt;int name="hl.threads"&gt;1&lt;/int&gt;
  * &lt;/lst&gt;
  * &lt;/requestHandler&gt;
  * </pre>
@@ -111,6 +122,8 @@ import org.apache.solr.util.plugin.PluginInfoInitialized;
  * <li>hl.cacheFieldValCharsThreshold (int) controls how many characters from a field are cached. default is 524288 (1MB in 2 byte chars)
  * <li>hl.offsetSource (string) specifies which offset source to use, prefers postings, but will use what's available if not specified
  * <li>hl.weightMatches (bool) enables Lucene Weight Matches mode</li>
+ * <li>hl.threads (int) specifies how many threads highlight the documents of a request concurrently, at most
+ * the maxThreads init arg of the highlighter. default is 1</li>
  * </ul>
  *
  * @lucene.experimental
@@ -120,8 +133,18 @@ public class UnifiedSolrHighlighter extends SolrHighlighter implements PluginInf
   protected static final String SNIPPET_SEPARATOR = "\u0000";
   private static final String[] ZERO_LEN_STR_ARRAY = new String[0];
 
+  /** Init arg for the maximum value of {@link HighlightParams#THREADS} */
+  public static final String MAX_THREADS = "maxThreads";
+
+  private int maxThreads = Runtime.getRuntime().availableProcessors();
+  // shared by all requests, created on the first request that highlights concurrently
+  private volatile ExecutorService executor;
+
   @Override
   public void init(PluginInfo info) {
+    if (info.initArgs != null) {
+      maxThreads = SolrParams.toSolrParams(info.initArgs).getInt(MAX_THREADS, maxThreads);
+    }
   }
 
   @Override
@@ -146,10 +169,83 @@ public class UnifiedSolrHighlighter extends SolrHighlighter implements PluginInf
     }
 
     UnifiedHighlighter highlighter = getHighlighter(req);
+    // the requesting thread highlights too, so we only need threads - 1 more
+    int threads = Math.min(Math.min(params.getInt(HighlightParams.THREADS, 1), maxThreads), docIDs.length);
+    if (threads > 1) {
+      highlighter.setExecutor(new BoundedExecutor(getExecutor(req.getCore()), threads - 1));
+    }
     Map<String, String[]> snippets = highlighter.highlightFields(fieldNames, query, docIDs, maxPassages);
     return encodeSnippets(keys, fieldNames, snippets);
   }
 
+  private ExecutorService getExecutor(SolrCore core) {
+    ExecutorService executor = this.executor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = this.executor;
+        if (executor == null) {
+          executor = ExecutorUtil.newMDCAwareFixedThreadPool(maxThreads - 1, new SolrNamedThreadFactory("unifiedHighlighter"));
+          final ExecutorService toClose = executor;
+          core.addCloseHook(new CloseHook() {
+            @Override
+            public void preClose(SolrCore core) {
+            }
+
+            @Override
+            public void postClose(SolrCore core) {
+              ExecutorUtil.shutdownAndAwaitTermination(toClose);
+            }
+          });
+          this.executor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Runs the tasks of one request with at most a given number of threads of the shared executor. Tasks that
+   * are still queued when the request needs them are run by the requesting thread.
+   */
+  private static class BoundedExecutor implements Executor {
+    private final Executor executor;
+    private final int maxWorkers;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+
+    BoundedExecutor(Executor executor, int maxWorkers) {
+      this.executor = executor;
+      this.maxWorkers = maxWorkers;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      queue.add(command);
+      int numWorkers = workers.get();
+      while (numWorkers < maxWorkers) {
+        if (workers.compareAndSet(numWorkers, numWorkers + 1)) {
+          try {
+            executor.execute(this::runQueued);
+          } catch (RejectedExecutionException e) {
+            workers.decrementAndGet();
+          }
+          return;
+        }
+        numWorkers = workers.get();
+      }
+    }
+
+    private void runQueued() {
+      try {
+        for (Runnable task = queue.poll(); task != null; task = queue.poll()) {
+          task.run();
+        }
+      } finally {
+        workers.decrementAndGet();
+      }
+    }
+  }
+
   /**
    * Creates an instance of the Lucene {@link UnifiedHighlighter}. Provided for subclass extension so that
    * a subclass can return a subclass of {@link SolrExtendedUnifiedHighlighter}.
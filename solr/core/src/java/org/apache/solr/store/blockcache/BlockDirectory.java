@@ -90,6 +90,8 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
   private final String dirName;
   private final Cache cache;
   private final Set<String> blockCacheFileTypes;
+  private final Cache pinnedCache;
+  private final Set<String> pinnedFileTypes;
   private final boolean blockCacheReadEnabled;
   private final boolean blockCacheWriteEnabled;
 
@@ -105,6 +107,22 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
   public BlockDirectory(String dirName, Directory directory, Cache cache,
       Set<String> blockCacheFileTypes, boolean blockCacheReadEnabled,
       boolean blockCacheWriteEnabled, boolean cacheMerges, boolean cacheReadOnce) throws IOException {
+    this(dirName, directory, cache, blockCacheFileTypes, blockCacheReadEnabled, blockCacheWriteEnabled,
+        cacheMerges, cacheReadOnce, NO_CACHE, null);
+  }
+
+  /**
+   * Creates a block directory that keeps the blocks of some files in a separate, pinned cache.
+   * Blocks of other files never compete with pinned blocks for space, so hot files such as the
+   * terms index or doc values stay cached regardless of the rest of the traffic.
+   *
+   * @param pinnedCache the cache for files ending with one of {@code pinnedFileTypes}
+   * @param pinnedFileTypes file extensions that go to {@code pinnedCache}, or null for none
+   */
+  public BlockDirectory(String dirName, Directory directory, Cache cache,
+      Set<String> blockCacheFileTypes, boolean blockCacheReadEnabled,
+      boolean blockCacheWriteEnabled, boolean cacheMerges, boolean cacheReadOnce,
+      Cache pinnedCache, Set<String> pinnedFileTypes) throws IOException {
     super(directory);
     this.cacheMerges = cacheMerges;
     this.cacheReadOnce = cacheReadOnce;
@@ -116,6 +134,12 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
     } else {
       this.blockCacheFileTypes = blockCacheFileTypes;
     }
+    this.pinnedCache = pinnedCache;
+    if (pinnedFileTypes == null || pinnedFileTypes.isEmpty()) {
+      this.pinnedFileTypes = null;
+    } else {
+      this.pinnedFileTypes = pinnedFileTypes;
+    }
     this.blockCacheReadEnabled = blockCacheReadEnabled;
     if (!blockCacheReadEnabled) {
       log.info("Block cache on read is disabled");
@@ -131,19 +155,32 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
     final IndexInput source = super.openInput(name, context);
     if (useReadCache(name, context)) {
       return new CachedIndexInput(source, blockSize, name,
-          getFileCacheName(name), cache, bufferSize);
+          getFileCacheName(name), getCache(name), bufferSize);
     }
     return source;
   }
   
   private boolean isCachableFile(String name) {
-    for (String ext : blockCacheFileTypes) {
+    return endsWithAny(name, blockCacheFileTypes);
+  }
+
+  private boolean isPinnedFile(String name) {
+    return pinnedFileTypes != null && endsWithAny(name, pinnedFileTypes);
+  }
+
+  private static boolean endsWithAny(String name, Set<String> fileTypes) {
+    for (String ext : fileTypes) {
       if (name.endsWith(ext)) {
         return true;
       }
     }
     return false;
   }
+
+  /** Returns the cache that holds the blocks of the given file. */
+  private Cache getCache(String name) {
+    return isPinnedFile(name) ? pinnedCache : cache;
+  }
   
   @Override
   public IndexInput openInput(final String name, IOContext context)
@@ -249,7 +286,7 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
       String[] files = listAll();
       
       for (String file : files) {
-        cache.delete(getFileCacheName(file));
+        getCache(file).delete(getFileCacheName(file));
       }
       
     } catch (FileNotFoundException e) {
@@ -257,6 +294,7 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
     } finally {
       super.close();
       cache.releaseResources();
+      pinnedCache.releaseResources();
     }
   }
   
@@ -291,6 +329,15 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
   public Cache getCache() {
     return cache;
   }
+
+  /**
+   * Expert: mostly for tests
+   * 
+   * @lucene.experimental
+   */
+  public Cache getPinnedCache() {
+    return pinnedCache;
+  }
   
   /**
    * Determine whether read caching should be used for a particular
@@ -300,7 +347,7 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
     if (!blockCacheReadEnabled) {
       return false;
     }
-    if (blockCacheFileTypes != null && !isCachableFile(name)) {
+    if (blockCacheFileTypes != null && !isCachableFile(name) && !isPinnedFile(name)) {
       return false;
     }
     switch (context.context) {
@@ -331,7 +378,7 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
       // the cache does support renaming (renameCacheFile), but thats a scary optimization.
       return false;
     }
-    if (blockCacheFileTypes != null && !isCachableFile(name)) {
+    if (blockCacheFileTypes != null && !isCachableFile(name) && !isPinnedFile(name)) {
       return false;
     }
     switch (context.context) {
@@ -350,13 +397,13 @@ public class BlockDirectory extends FilterDirectory implements ShutdownAwareDire
       throws IOException {
     final IndexOutput dest = super.createOutput(name, context);
     if (useWriteCache(name, context)) {
-      return new CachedIndexOutput(this, dest, blockSize, name, cache, blockSize);
+      return new CachedIndexOutput(this, dest, blockSize, name, getCache(name), blockSize);
     }
     return dest;
   }
 
   public void deleteFile(String name) throws IOException {
-    cache.delete(getFileCacheName(name));
+    getCache(name).delete(getFileCacheName(name));
     super.deleteFile(name);
   }
     
@@ -20,13 +20,22 @@ import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import org.apache.lucene.util.hppc.BitMixer;
 import org.apache.solr.store.blockcache.BlockCache.OnRelease;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 
 
 /**
+ * A {@link Cache} that stores the blocks of one directory in a (possibly shared) {@link BlockCache}.
+ * <p>
+ * Optionally, blocks can be required to pass a <i>doorkeeper</i> before they are admitted: the first
+ * time a block is offered it is only remembered in a small bit set, and only a block that is offered
+ * again before the bit set is reset gets stored. This keeps one-pass scans (large exports, full index
+ * reads) from pushing frequently used blocks out of the cache.
+ *
  * @lucene.experimental
  */
 public class BlockDirectoryCache implements Cache {
@@ -36,15 +45,41 @@ public class BlockDirectoryCache implements Cache {
   private Set<BlockCacheKey> keysToRelease;
   private final String path;
   private final Metrics metrics;
+  private final AtomicLongArray doorkeeper;
+  private final AtomicInteger doorkeeperAdds = new AtomicInteger();
+  private final int doorkeeperMask;
+  private final int doorkeeperMaxAdds;
   
   public BlockDirectoryCache(BlockCache blockCache, String path, Metrics metrics) {
     this(blockCache, path, metrics, false);
   }
   
   public BlockDirectoryCache(BlockCache blockCache, String path, Metrics metrics, boolean releaseBlocks) {
+    this(blockCache, path, metrics, releaseBlocks, 0);
+  }
+
+  /**
+   * @param doorkeeperSize number of bits of the doorkeeper, rounded up to a power of two, or 0 to admit
+   *                       every block on first access
+   */
+  public BlockDirectoryCache(BlockCache blockCache, String path, Metrics metrics, boolean releaseBlocks, int doorkeeperSize) {
     this.blockCache = blockCache;
     this.path = path;
     this.metrics = metrics;
+    if (doorkeeperSize < 0) {
+      throw new IllegalArgumentException("doorkeeperSize must be >= 0, got " + doorkeeperSize);
+    }
+    if (doorkeeperSize > 0) {
+      int bits = Math.max(64, Integer.highestOneBit(Math.min(doorkeeperSize, 1 << 30) - 1) << 1);
+      doorkeeper = new AtomicLongArray(bits >>> 6);
+      doorkeeperMask = bits - 1;
+      // reset once half of the bits are in use to keep the false positive rate low
+      doorkeeperMaxAdds = bits >>> 1;
+    } else {
+      doorkeeper = null;
+      doorkeeperMask = 0;
+      doorkeeperMaxAdds = 0;
+    }
         
     names = Caffeine.newBuilder().maximumSize(50000).build();
     
@@ -82,6 +117,10 @@ public class BlockDirectoryCache implements Cache {
       file = counter.incrementAndGet();
       names.put(name, file);
     }
+    if (doorkeeper != null && !admit(file, blockId)) {
+      metrics.blockCacheAdmissionReject.incrementAndGet();
+      return;
+    }
     BlockCacheKey blockCacheKey = new BlockCacheKey();
     blockCacheKey.setPath(path);
     blockCacheKey.setBlock(blockId);
@@ -91,6 +130,26 @@ public class BlockDirectoryCache implements Cache {
     }
   }
   
+  /**
+   * Returns true if the block was already seen by the doorkeeper, otherwise records it and returns false.
+   */
+  private boolean admit(int file, long blockId) {
+    int bit = (int) BitMixer.mix64(blockId * 31 + file) & doorkeeperMask;
+    long mask = 1L << bit;
+    long word = doorkeeper.getAndAccumulate(bit >>> 6, mask, (a, b) -> a | b);
+    if ((word & mask) != 0) {
+      return true;
+    }
+    if (doorkeeperAdds.incrementAndGet() >= doorkeeperMaxAdds) {
+      // races with concurrent adds are harmless, at worst a block needs one more access to be admitted
+      doorkeeperAdds.set(0);
+      for (int i = 0; i < doorkeeper.length(); i++) {
+        doorkeeper.set(i, 0L);
+      }
+    }
+    return false;
+  }
+
   @Override
   public boolean fetch(String name, long blockId, int blockOffset, byte[] b,
       int off, int lengthToReadInBlock) {
@@ -39,12 +39,14 @@ public class Metrics extends SolrCacheBase implements SolrInfoBean, SolrMetricPr
   public AtomicLong blockCacheMiss = new AtomicLong(0);
   public AtomicLong blockCacheEviction = new AtomicLong(0);
   public AtomicLong blockCacheStoreFail = new AtomicLong(0);
+  public AtomicLong blockCacheAdmissionReject = new AtomicLong(0);
 
   // since the last call
   private AtomicLong blockCacheHit_last = new AtomicLong(0);
   private AtomicLong blockCacheMiss_last = new AtomicLong(0);
   private AtomicLong blockCacheEviction_last = new AtomicLong(0);
   public AtomicLong blockCacheStoreFail_last = new AtomicLong(0);
+  private AtomicLong blockCacheAdmissionReject_last = new AtomicLong(0);
 
 
   // These are used by the BufferStore (just a generic cache of byte[]).
@@ -56,6 +58,21 @@ public class Metrics extends SolrCacheBase implements SolrInfoBean, SolrMetricPr
   private Set<String> metricNames = ConcurrentHashMap.newKeySet();
   private SolrMetricsContext solrMetricsContext;
   private long previous = System.nanoTime();
+  private final String name;
+  private final String description;
+
+  public Metrics() {
+    this("hdfsBlockCache", "Provides metrics for the HdfsDirectoryFactory BlockCache.");
+  }
+
+  /**
+   * @param name the name this bean is registered under
+   * @param description a description of the cache this bean reports on
+   */
+  public Metrics(String name, String description) {
+    this.name = name;
+    this.description = description;
+  }
 
   @Override
   public void initializeMetrics(SolrMetricsContext parentContext, String scope) {
@@ -81,19 +98,26 @@ public class Metrics extends SolrCacheBase implements SolrInfoBean, SolrMetricPr
       long storeFail_delta = storeFail_total - blockCacheStoreFail_last.get();
       blockCacheStoreFail_last.set(storeFail_total);
 
+      long admissionReject_total = blockCacheAdmissionReject.get();
+      long admissionReject_delta = admissionReject_total - blockCacheAdmissionReject_last.get();
+      blockCacheAdmissionReject_last.set(admissionReject_total);
+
       long lookups_delta = hits_delta + miss_delta;
       long lookups_total = hits_total + miss_total;
 
       map.put("size", blockCacheSize.get());
       map.put("lookups", lookups_total);
       map.put("hits", hits_total);
+      map.put("misses", miss_total);
       map.put("evictions", evict_total);
       map.put("storeFails", storeFail_total);
+      map.put("admissionRejects", admissionReject_total);
       map.put("hitratio_current", calcHitRatio(lookups_delta, hits_delta));  // hit ratio since the last call
       map.put("lookups_persec", getPerSecond(lookups_delta, seconds)); // lookups per second since the last call
       map.put("hits_persec", getPerSecond(hits_delta, seconds));       // hits per second since the last call
       map.put("evictions_persec", getPerSecond(evict_delta, seconds));  // evictions per second since the last call
       map.put("storeFails_persec", getPerSecond(storeFail_delta, seconds));  // evictions per second since the last call
+      map.put("admissionRejects_persec", getPerSecond(admissionReject_delta, seconds)); // admission rejects per second since the last call
       map.put("time_delta", seconds);  // seconds since last call
 
       // TODO: these aren't really related to the BlockCache
@@ -114,12 +138,12 @@ public class Metrics extends SolrCacheBase implements SolrInfoBean, SolrMetricPr
 
   @Override
   public String getName() {
-    return "hdfsBlockCache";
+    return name;
   }
 
   @Override
   public String getDescription() {
-    return "Provides metrics for the HdfsDirectoryFactory BlockCache.";
+    return description;
   }
 
   @Override
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.core;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.util.TestUtil;
+import org.apache.solr.SolrTestCaseJ4;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.core.DirectoryFactory.DirContext;
+import org.apache.solr.metrics.MetricsMap;
+import org.apache.solr.metrics.SolrMetricManager;
+import org.apache.solr.store.blockcache.BlockDirectory;
+import org.apache.solr.store.blockcache.Cache;
+
+/**
+ * Test-case for BlockCacheDirectoryFactory
+ */
+public class BlockCacheDirectoryFactoryTest extends SolrTestCaseJ4 {
+
+  private static final int NUM_BLOCKS = 3;
+
+  public void testPinnedAndAdmittedBlocks() throws IOException {
+    NamedList<Object> args = new NamedList<>();
+    args.add(BlockCacheDirectoryFactory.SLAB_COUNT, 1);
+    args.add(BlockCacheDirectoryFactory.PINNED_SLAB_COUNT, 1);
+    args.add(BlockCacheDirectoryFactory.BLOCKS_PER_BANK, 64);
+    args.add(BlockCacheDirectoryFactory.DIRECT_MEMORY_ALLOCATION, false);
+    BlockCacheDirectoryFactory factory = new BlockCacheDirectoryFactory();
+    factory.init(args);
+
+    String path = createTempDir().toAbsolutePath().toString();
+    Directory dir = factory.get(path, DirContext.DEFAULT, DirectoryFactory.LOCK_TYPE_SINGLE);
+    assertTrue(dir instanceof BlockDirectory);
+    BlockDirectory blockDir = (BlockDirectory) dir;
+    Cache cache = blockDir.getCache();
+    Cache pinnedCache = blockDir.getPinnedCache();
+    assertNotSame(cache, pinnedCache);
+
+    writeFile(dir, "_0.tip");
+    writeFile(dir, "_0.doc");
+
+    // pinned files are admitted on first access
+    long pinnedSize = pinnedCache.size();
+    long size = cache.size();
+    readFile(dir, "_0.tip");
+    assertEquals(pinnedSize + NUM_BLOCKS, pinnedCache.size());
+    assertEquals(size, cache.size());
+
+    // other files need to pass the doorkeeper first
+    readFile(dir, "_0.doc");
+    assertEquals(size, cache.size());
+    readFile(dir, "_0.doc");
+    assertEquals(size + NUM_BLOCKS, cache.size());
+    assertEquals(pinnedSize + NUM_BLOCKS, pinnedCache.size());
+
+    factory.release(dir);
+    factory.close();
+  }
+
+  public void testMetrics() throws IOException {
+    NamedList<Object> args = new NamedList<>();
+    args.add(BlockCacheDirectoryFactory.SLAB_COUNT, 1);
+    args.add(BlockCacheDirectoryFactory.PINNED_SLAB_COUNT, 1);
+    args.add(BlockCacheDirectoryFactory.BLOCKS_PER_BANK, 64);
+    args.add(BlockCacheDirectoryFactory.DIRECT_MEMORY_ALLOCATION, false);
+    BlockCacheDirectoryFactory factory = new BlockCacheDirectoryFactory();
+    factory.init(args);
+    SolrMetricManager metricManager = new SolrMetricManager();
+    String registry = TestUtil.randomSimpleString(random(), 2, 10);
+    String scope = TestUtil.randomSimpleString(random(), 2, 10);
+    factory.initializeMetrics(metricManager, registry, "foo", scope);
+    MetricsMap metrics = getMetricsMap(metricManager, registry, scope, "blockCache");
+    MetricsMap pinnedMetrics = getMetricsMap(metricManager, registry, scope, "pinnedBlockCache");
+
+    Directory dir = factory.get(createTempDir().toAbsolutePath().toString(), DirContext.DEFAULT,
+        DirectoryFactory.LOCK_TYPE_SINGLE);
+    writeFile(dir, "_0.tip");
+    writeFile(dir, "_0.doc");
+
+    // the caches are global, so only look at how the counters change
+    Map<String,Object> stats = metrics.getValue();
+    Map<String,Object> pinnedStats = pinnedMetrics.getValue();
+
+    // first read of a pinned file stores its blocks
+    readFile(dir, "_0.tip");
+    Map<String,Object> newPinnedStats = pinnedMetrics.getValue();
+    assertDelta(pinnedStats, newPinnedStats, "hits", 0);
+    assertDelta(pinnedStats, newPinnedStats, "admissionRejects", 0);
+    assertDelta(pinnedStats, newPinnedStats, "size", NUM_BLOCKS);
+    pinnedStats = newPinnedStats;
+
+    // and the second one hits
+    readFile(dir, "_0.tip");
+    newPinnedStats = pinnedMetrics.getValue();
+    assertDelta(pinnedStats, newPinnedStats, "hits", NUM_BLOCKS);
+    assertDelta(pinnedStats, newPinnedStats, "misses", 0);
+
+    // first read of another file is rejected by the doorkeeper
+    readFile(dir, "_0.doc");
+    Map<String,Object> newStats = metrics.getValue();
+    assertDelta(stats, newStats, "hits", 0);
+    assertDelta(stats, newStats, "admissionRejects", NUM_BLOCKS);
+    assertDelta(stats, newStats, "size", 0);
+    stats = newStats;
+
+    // the second read misses again, but is admitted
+    readFile(dir, "_0.doc");
+    newStats = metrics.getValue();
+    assertDelta(stats, newStats, "hits", 0);
+    assertDelta(stats, newStats, "misses", NUM_BLOCKS);
+    assertDelta(stats, newStats, "admissionRejects", 0);
+    assertDelta(stats, newStats, "size", NUM_BLOCKS);
+    stats = newStats;
+
+    // and the third one hits
+    readFile(dir, "_0.doc");
+    newStats = metrics.getValue();
+    assertDelta(stats, newStats, "hits", NUM_BLOCKS);
+    assertDelta(stats, newStats, "misses", 0);
+
+    factory.release(dir);
+    factory.close();
+  }
+
+  public void testMetaDataIsNotCached() throws IOException {
+    BlockCacheDirectoryFactory factory = new BlockCacheDirectoryFactory();
+    factory.init(new NamedList<>());
+    Directory dir = factory.get(createTempDir().toAbsolutePath().toString(), DirContext.META_DATA,
+        DirectoryFactory.LOCK_TYPE_SINGLE);
+    assertTrue(dir instanceof NIOFSDirectory);
+    factory.release(dir);
+    factory.close();
+  }
+
+  public void testInvalidArgs() {
+    NamedList<Object> args = new NamedList<>();
+    args.add(BlockCacheDirectoryFactory.SLAB_COUNT, 0);
+    expectThrows(IllegalArgumentException.class, () -> new BlockCacheDirectoryFactory().init(args));
+  }
+
+  private static MetricsMap getMetricsMap(SolrMetricManager metricManager, String registry, String scope, String name) {
+    return (MetricsMap) ((SolrMetricManager.GaugeWrapper) metricManager.registry(registry).getMetrics()
+        .get("CACHE." + scope + "." + name)).getGauge();
+  }
+
+  private static void assertDelta(Map<String,Object> before, Map<String,Object> after, String key, long delta) {
+    assertEquals(key, ((Number) before.get(key)).longValue() + delta, ((Number) after.get(key)).longValue());
+  }
+
+  private void writeFile(Directory dir, String name) throws IOException {
+    try (IndexOutput out = dir.createOutput(name, IOContext.DEFAULT)) {
+      for (int i = 0; i < NUM_BLOCKS * BlockDirectory.BLOCK_SIZE; i++) {
+        out.writeByte((byte) i);
+      }
+    }
+  }
+
+  private void readFile(Directory dir, String name) throws IOException {
+    try (IndexInput in = dir.openInput(name, IOContext.DEFAULT)) {
+      for (int i = 0; i < NUM_BLOCKS * BlockDirectory.BLOCK_SIZE; i++) {
+        assertEquals((byte) i, in.readByte());
+      }
+    }
+  }
+}
@@ -92,6 +92,25 @@ public class TestUnifiedSolrHighlighter extends SolrTestCaseJ4 {
         "//lst[@name='highlighting']/lst[@name='101']/arr/str[2]='<em>Document</em> snippet two.'");
   }
 
+  public void testThreads() {
+    assertQ("concurrent highlighting test",
+        req("q", "text:document", "sort", "id asc", "hl", "true", "hl.fl", "text,text3", "hl.threads", "4"),
+        "count(//lst[@name='highlighting']/*)=2",
+        "//lst[@name='highlighting']/lst[@name='101']/arr[@name='text']/str='<em>document</em> one'",
+        "//lst[@name='highlighting']/lst[@name='102']/arr[@name='text']/str='second <em>document</em>'",
+        "//lst[@name='highlighting']/lst[@name='101']/arr[@name='text3']/str='crappy <em>document</em>'",
+        "//lst[@name='highlighting']/lst[@name='102']/arr[@name='text3']/str='crappier <em>document</em>'");
+  }
+
+  public void testThreadsAboveMax() {
+    // more threads than allowed are capped, the result is the same
+    assertQ("concurrent highlighting test",
+        req("q", "text:document", "sort", "id asc", "hl", "true", "hl.fl", "text,text3", "hl.threads", "100000"),
+        "count(//lst[@name='highlighting']/*)=2",
+        "//lst[@name='highlighting']/lst[@name='101']/arr[@name='text']/str='<em>document</em> one'",
+        "//lst[@name='highlighting']/lst[@name='102']/arr[@name='text3']/str='crappier <em>document</em>'");
+  }
+
   public void testStrictPhrasesEnabledByDefault() {
     clearIndex();
     assertU(adoc("text", "Strict phrases should be enabled for phrases",